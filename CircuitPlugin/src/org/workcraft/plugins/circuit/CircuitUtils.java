@@ -12,8 +12,11 @@ import org.workcraft.dom.math.MathNode;
 import org.workcraft.dom.visual.VisualComponent;
 import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.One;
+import org.workcraft.formula.Zero;
 import org.workcraft.formula.jj.BooleanFormulaParser;
 import org.workcraft.formula.jj.ParseException;
+import org.workcraft.formula.utils.BooleanUtils;
 import org.workcraft.plugins.circuit.Contact.IOType;
 import org.workcraft.plugins.stg.SignalTransition.Type;
 import org.workcraft.util.Func;
@@ -273,6 +276,22 @@ public class CircuitUtils {
         return result;
     }
 
+    /**
+     * Returns the function with the removed contact replaced by zero. A function that becomes constant is
+     * replaced by the constant, even if the simplification of the formula cannot tell it.
+     */
+    public static BooleanFormula removeContactFromFunction(BooleanFormula function, Contact contact) {
+        BooleanFormula result = BooleanUtils.cleverReplace(function, contact, Zero.instance());
+        if ((result != null) && (result != Zero.instance()) && (result != One.instance())) {
+            if (!BooleanUtils.isSatisfiable(result)) {
+                result = Zero.instance();
+            } else if (BooleanUtils.isTautology(result)) {
+                result = One.instance();
+            }
+        }
+        return result;
+    }
+
     public static BooleanFormula parseContactFuncton(final Circuit circuit,
             final FunctionComponent component, String function) throws ParseException {
         if (function == null) {
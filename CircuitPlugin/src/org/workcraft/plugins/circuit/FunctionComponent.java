@@ -6,8 +6,7 @@ import java.util.Collection;
 import org.workcraft.annotations.VisualClass;
 import org.workcraft.dom.Node;
 import org.workcraft.formula.BooleanFormula;
-import org.workcraft.formula.One;
-import org.workcraft.formula.Zero;
+import org.workcraft.formula.BooleanOperations;
 import org.workcraft.formula.utils.BooleanUtils;
 import org.workcraft.observation.HierarchyEvent;
 import org.workcraft.observation.HierarchySupervisor;
@@ -36,9 +35,9 @@ public class FunctionComponent extends CircuitComponent {
 
         private void removeContactfromFunctions(final Contact contact) {
             for (FunctionContact fc: new ArrayList<FunctionContact>(getFunctionContacts())) {
-                BooleanFormula setFunction = BooleanUtils.cleverReplace(fc.getSetFunction(), contact, Zero.instance());
+                BooleanFormula setFunction = CircuitUtils.removeContactFromFunction(fc.getSetFunction(), contact);
                 fc.setSetFunction(setFunction);
-                BooleanFormula resetFunction = BooleanUtils.cleverReplace(fc.getResetFunction(), contact, Zero.instance());
+                BooleanFormula resetFunction = CircuitUtils.removeContactFromFunction(fc.getResetFunction(), contact);
                 fc.setResetFunction(resetFunction);
             }
         }
@@ -76,9 +75,7 @@ public class FunctionComponent extends CircuitComponent {
         if ((inputContact != null) && (outputContact != null)) {
             BooleanFormula setFunction = outputContact.getSetFunction();
             if ((setFunction != null) && (outputContact.getResetFunction() == null)) {
-                BooleanFormula zeroReplace = BooleanUtils.cleverReplace(setFunction, inputContact, Zero.instance());
-                BooleanFormula oneReplace = BooleanUtils.cleverReplace(setFunction, inputContact, One.instance());
-                result = (zeroReplace == Zero.instance()) && (oneReplace == One.instance());
+                result = BooleanUtils.isEquivalent(setFunction, inputContact);
             }
         }
         return result;
@@ -96,9 +93,7 @@ public class FunctionComponent extends CircuitComponent {
         if ((inputContact != null) && (outputContact != null)) {
             BooleanFormula setFunction = outputContact.getSetFunction();
             if ((setFunction != null) && (outputContact.getResetFunction() == null)) {
-                BooleanFormula zeroReplace = BooleanUtils.cleverReplace(setFunction, inputContact, Zero.instance());
-                BooleanFormula oneReplace = BooleanUtils.cleverReplace(setFunction, inputContact, One.instance());
-                result = (zeroReplace == One.instance()) && (oneReplace == Zero.instance());
+                result = BooleanUtils.isEquivalent(setFunction, BooleanOperations.not(inputContact));
             }
         }
         return result;
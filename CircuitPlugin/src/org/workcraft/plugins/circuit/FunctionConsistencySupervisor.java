@@ -4,8 +4,6 @@ import java.util.ArrayList;
 
 import org.workcraft.dom.Node;
 import org.workcraft.formula.BooleanFormula;
-import org.workcraft.formula.Zero;
-import org.workcraft.formula.utils.BooleanUtils;
 import org.workcraft.observation.HierarchyEvent;
 import org.workcraft.observation.HierarchySupervisor;
 import org.workcraft.observation.NodesDeletingEvent;
@@ -34,13 +32,13 @@ public class FunctionConsistencySupervisor extends HierarchySupervisor {
                 Hierarchy.getChildrenOfType(getRoot(), FunctionContact.class));
 
         for (final FunctionContact functionContact: functionContacts) {
-            final BooleanFormula setFunction = BooleanUtils.cleverReplace(
-                    functionContact.getSetFunction(), contact, Zero.instance());
+            final BooleanFormula setFunction = CircuitUtils.removeContactFromFunction(
+                    functionContact.getSetFunction(), contact);
 
             functionContact.setSetFunction(setFunction);
 
-            final BooleanFormula resetFunction = BooleanUtils.cleverReplace(
-                    functionContact.getResetFunction(), contact, Zero.instance());
+            final BooleanFormula resetFunction = CircuitUtils.removeContactFromFunction(
+                    functionContact.getResetFunction(), contact);
 
             functionContact.setResetFunction(resetFunction);
         }
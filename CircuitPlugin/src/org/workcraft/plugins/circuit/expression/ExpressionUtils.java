@@ -84,6 +84,30 @@ public class ExpressionUtils {
         return result;
     }
 
+    // Deep copy of an expression, so its literals can be renamed without affecting the original
+    public static Expression copy(Expression expression) {
+        if (expression instanceof Literal) {
+            return new Literal(((Literal) expression).name);
+        } else if (expression instanceof Negation) {
+            return new Negation(copy(((Negation) expression).expression));
+        } else if (expression instanceof Factor) {
+            return new Factor(copy(((Factor) expression).expression));
+        } else if (expression instanceof Term) {
+            return new Term(copy(((Term) expression).expressions));
+        } else if (expression instanceof Formula) {
+            return new Formula(copy(((Formula) expression).expressions));
+        }
+        return expression;
+    }
+
+    private static List<Expression> copy(List<Expression> expressions) {
+        List<Expression> result = new LinkedList<>();
+        for (Expression expression: expressions) {
+            result.add(copy(expression));
+        }
+        return result;
+    }
+
     private static boolean isResetTerm(String term, String literal) {
         return term.startsWith(literal + FACTOR_DELIMITER)
               || term.endsWith(FACTOR_DELIMITER + literal)
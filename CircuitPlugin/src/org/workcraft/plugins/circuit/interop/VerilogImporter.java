@@ -1,15 +1,16 @@
 package org.workcraft.plugins.circuit.interop;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -81,6 +82,36 @@ public class VerilogImporter implements Importer {
     private static final String PRIMITIVE_GATE_INPUT_PREFIX = "i";
     private static final String PRIMITIVE_GATE_OUTPUT_NAME = "o";
 
+    private static final int EXPRESSION_CACHE_SIZE = 10000;
+
+    private static class CachedLibrary {
+        public final long lastModified;
+        public final long length;
+        public final Library library;
+
+        CachedLibrary(long lastModified, long length, Library library) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.library = library;
+        }
+    }
+
+    // Parsed gate libraries shared by all imports, keyed by canonical path and reparsed when the file changes.
+    private static final HashMap<String, CachedLibrary> libraryCache = new HashMap<>();
+
+    // Recently parsed expressions in access order; the eldest are dropped beyond EXPRESSION_CACHE_SIZE.
+    private static final LinkedHashMap<String, Expression> expressionCache = new LinkedHashMap<String, Expression>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+            return size() > EXPRESSION_CACHE_SIZE;
+        }
+    };
+
+    // Parser reinitialised for every expression instead of allocating new input buffers each time.
+    private static ExpressionParser expressionParser = null;
+
     private final boolean sequentialAssign;
 
     private class Wire {
@@ -359,8 +390,26 @@ public class VerilogImporter implements Importer {
     }
 
     private Expression convertStringToExpression(String formula) {
-        InputStream expressionStream = new ByteArrayInputStream(formula.getBytes());
-        ExpressionParser expressionParser = new ExpressionParser(expressionStream);
+        // The callers rename literals of the returned expression, hence a copy of the cached one.
+        synchronized (expressionCache) {
+            Expression expression = expressionCache.get(formula);
+            if (expression == null) {
+                expression = parseExpression(formula);
+                if (expression != null) {
+                    expressionCache.put(formula, expression);
+                }
+            }
+            return ExpressionUtils.copy(expression);
+        }
+    }
+
+    private static Expression parseExpression(String formula) {
+        StringReader expressionReader = new StringReader(formula);
+        if (expressionParser == null) {
+            expressionParser = new ExpressionParser(expressionReader);
+        } else {
+            expressionParser.ReInit(expressionReader);
+        }
         if (CommonDebugSettings.getParserTracing()) {
             expressionParser.enable_tracing();
         } else {
@@ -384,25 +433,57 @@ public class VerilogImporter implements Importer {
             File libraryFile = new File(libraryFileName);
             final Framework framework = Framework.getInstance();
             if (framework.checkFileMessageLog(libraryFile, "Gate library access error")) {
-                try {
-                    InputStream genlibInputStream = new FileInputStream(libraryFileName);
-                    GenlibParser genlibParser = new GenlibParser(genlibInputStream);
-                    if (CommonDebugSettings.getParserTracing()) {
-                        genlibParser.enable_tracing();
-                    } else {
-                        genlibParser.disable_tracing();
-                    }
-                    library = genlibParser.parseGenlib();
+                Library cachedLibrary = getCachedGenlib(libraryFile);
+                if (cachedLibrary != null) {
+                    library = cachedLibrary;
                     LogUtils.logInfoLine("Mapping the imported Verilog into the gate library '" + libraryFileName + "'.");
-                } catch (FileNotFoundException e) {
-                } catch (org.workcraft.plugins.circuit.jj.genlib.ParseException e) {
-                    LogUtils.logWarningLine("Could not parse the gate library '" + libraryFileName + "'.");
                 }
             }
         }
         return library;
     }
 
+    private static Library getCachedGenlib(File libraryFile) {
+        String key;
+        try {
+            key = libraryFile.getCanonicalPath();
+        } catch (IOException e) {
+            key = libraryFile.getAbsolutePath();
+        }
+        long lastModified = libraryFile.lastModified();
+        long length = libraryFile.length();
+        synchronized (libraryCache) {
+            CachedLibrary cachedLibrary = libraryCache.get(key);
+            if ((cachedLibrary == null) || (cachedLibrary.lastModified != lastModified) || (cachedLibrary.length != length)) {
+                Library library = parseGenlib(libraryFile);
+                if (library == null) {
+                    libraryCache.remove(key);
+                    return null;
+                }
+                cachedLibrary = new CachedLibrary(lastModified, length, library);
+                libraryCache.put(key, cachedLibrary);
+            }
+            return cachedLibrary.library;
+        }
+    }
+
+    private static Library parseGenlib(File libraryFile) {
+        Library library = null;
+        try (InputStream genlibInputStream = new FileInputStream(libraryFile)) {
+            GenlibParser genlibParser = new GenlibParser(genlibInputStream);
+            if (CommonDebugSettings.getParserTracing()) {
+                genlibParser.enable_tracing();
+            } else {
+                genlibParser.disable_tracing();
+            }
+            library = genlibParser.parseGenlib();
+        } catch (IOException e) {
+        } catch (org.workcraft.plugins.circuit.jj.genlib.ParseException e) {
+            LogUtils.logWarningLine("Could not parse the gate library '" + libraryFile.getPath() + "'.");
+        }
+        return library;
+    }
+
     private HashMap<String, Wire> createPorts(Circuit circuit, Module module) {
         HashMap<String, Wire> wires = new HashMap<>();
         for (Port verilogPort: module.ports) {
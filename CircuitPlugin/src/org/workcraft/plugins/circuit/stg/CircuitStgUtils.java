@@ -31,17 +31,18 @@ import org.workcraft.util.FileUtils;
 public class CircuitStgUtils {
 
     public static CircuitToStgConverter createCircuitToStgConverter(VisualCircuit circuit) {
-        CircuitToStgConverter converter = new CircuitToStgConverter(circuit);
         File envWorkFile = circuit.getEnvironmentFile();
         if ((envWorkFile != null) && envWorkFile.exists()) {
-            Stg devStg = (Stg) converter.getStg().getMathModel();
+            // The device STG is only exported for composition, so it does not need a layout.
+            CircuitToStgConverter devConverter = new CircuitToStgConverter(circuit, false);
+            Stg devStg = (Stg) devConverter.getStg().getMathModel();
             String title = circuit.getTitle();
             Stg systemStg = createSystemStg(devStg, envWorkFile, title);
             if (systemStg != null) {
-                converter = new CircuitToStgConverter(circuit, new VisualStg(systemStg));
+                return new CircuitToStgConverter(circuit, new VisualStg(systemStg));
             }
         }
-        return converter;
+        return new CircuitToStgConverter(circuit);
     }
 
     private static Stg createSystemStg(Stg devStg, File envWorkFile, String title) {
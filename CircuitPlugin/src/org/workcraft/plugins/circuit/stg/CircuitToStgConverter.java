@@ -3,12 +3,11 @@ package org.workcraft.plugins.circuit.stg;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.TreeMap;
 
 import org.workcraft.dom.Connection;
 import org.workcraft.dom.Container;
@@ -73,6 +72,15 @@ public class CircuitToStgConverter {
     private final TwoWayMap<VisualContact, SignalStg> driverToStgMap;
 
     public CircuitToStgConverter(VisualCircuit circuit) {
+        this(circuit, true);
+    }
+
+    /**
+     * Converts the circuit into an STG. If the layout is not requested, the STG places and transitions are
+     * neither positioned nor grouped, which saves time and memory when the STG is only needed for export
+     * or simulation. The math model of the resulting STG is the same in both cases.
+     */
+    public CircuitToStgConverter(VisualCircuit circuit, boolean layout) {
         this.circuit = circuit;
         this.stg = new VisualStg(new Stg());
         convertPages();
@@ -84,8 +92,10 @@ public class CircuitToStgConverter {
             // Remove dead transitions
             simplifyDriverStgs(drivers);
         }
-        positionDriverStgs(drivers);
-        groupDriverStgs(drivers);
+        if (layout) {
+            positionDriverStgs(drivers);
+            groupDriverStgs(drivers);
+        }
         cleanupPages();
     }
 
@@ -281,21 +291,19 @@ public class CircuitToStgConverter {
         VisualPlace succPlace = direction == Direction.PLUS ? driverStg.one : driverStg.zero;
         Collection<VisualSignalTransition> transitions = direction == Direction.PLUS ? driverStg.riseList : driverStg.fallList;
 
-        TreeSet<DnfClause> clauses = new TreeSet<>(
-                new Comparator<DnfClause>() {
-                    @Override
-                    public int compare(DnfClause arg0, DnfClause arg1) {
-                        String st1 = FormulaToString.toString(arg0);
-                        String st2 = FormulaToString.toString(arg1);
-                        return st1.compareTo(st2);
-                    }
-                });
-
-        clauses.addAll(dnf.getClauses());
+        // Clauses are ordered by their labels, each label is printed only once.
+        TreeMap<String, DnfClause> clauses = new TreeMap<>();
+        for (DnfClause clause : dnf.getClauses()) {
+            String label = FormulaToString.toString(clause);
+            if (!clauses.containsKey(label)) {
+                clauses.put(label, clause);
+            }
+        }
 
         String signalName = CircuitUtils.getSignalName(circuit, signal);
         SignalTransition.Type signalType = CircuitUtils.getSignalType(circuit, signal);
-        for (DnfClause clause : clauses) {
+        for (Map.Entry<String, DnfClause> entry : clauses.entrySet()) {
+            DnfClause clause = entry.getValue();
             // In self-looped signals the read-arcs will clash with producing/consuming arcs:
             // 1) a read-arc from a preset place is redundant (is superseded by a consuming arc);
             // 2) a read-arc from a postset place makes the transition dead.
@@ -323,7 +331,7 @@ public class CircuitToStgConverter {
 
             if (!isDeadTransition) {
                 VisualSignalTransition transition = stg.createVisualSignalTransition(signalName, signalType, direction);
-                transition.setLabel(FormulaToString.toString(clause));
+                transition.setLabel(entry.getKey());
                 transitions.add(transition);
                 // Create read-arcs.
                 for (VisualPlace place : placesToRead) {
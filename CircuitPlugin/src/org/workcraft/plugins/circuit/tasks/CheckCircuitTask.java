@@ -63,7 +63,7 @@ public class CheckCircuitTask extends MpsatChainTask {
             File envFile = visualCircuit.getEnvironmentFile();
 
             // Load device STG
-            CircuitToStgConverter converter = new CircuitToStgConverter(visualCircuit);
+            CircuitToStgConverter converter = new CircuitToStgConverter(visualCircuit, false);
             Stg devStg = (Stg) converter.getStg().getMathModel();
 
             // Load environment STG
@@ -51,7 +51,7 @@ public class CustomCheckCircuitTask extends MpsatChainTask {
             File envFile = visualCircuit.getEnvironmentFile();
 
             // Load device STG
-            CircuitToStgConverter converter = new CircuitToStgConverter(visualCircuit);
+            CircuitToStgConverter converter = new CircuitToStgConverter(visualCircuit, false);
             Stg devStg = (Stg) converter.getStg().getMathModel();
 
             // Load environment STG
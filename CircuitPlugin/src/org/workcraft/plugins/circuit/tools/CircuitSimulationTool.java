@@ -46,10 +46,12 @@ import org.workcraft.util.Pair;
 public class CircuitSimulationTool extends StgSimulationTool {
     private CircuitToStgConverter converter;
 
+    // The circuit is simulated on its STG, as the steps, traces and tables of StgSimulationTool are all
+    // expressed in STG transitions. The STG is converted without layout, as it is never shown.
     @Override
     public void generateUnderlyingModel(VisualModel model) {
         VisualCircuit circuit = (VisualCircuit) model;
-        converter = new CircuitToStgConverter(circuit);
+        converter = new CircuitToStgConverter(circuit, false);
         setUnderlyingModel(converter.getStg());
     }
 
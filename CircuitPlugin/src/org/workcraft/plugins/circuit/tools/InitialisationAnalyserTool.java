@@ -4,8 +4,10 @@ import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
@@ -20,9 +22,7 @@ import org.workcraft.dom.visual.VisualNode;
 import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.formula.BooleanFormula;
 import org.workcraft.formula.BooleanVariable;
-import org.workcraft.formula.One;
-import org.workcraft.formula.Zero;
-import org.workcraft.formula.utils.BooleanUtils;
+import org.workcraft.formula.CompiledFormula;
 import org.workcraft.gui.events.GraphEditorMouseEvent;
 import org.workcraft.gui.graph.tools.AbstractGraphEditorTool;
 import org.workcraft.gui.graph.tools.Decoration;
@@ -42,6 +42,7 @@ public class InitialisationAnalyserTool extends AbstractGraphEditorTool {
     private HashSet<Node> initHighSet;
     private HashSet<Node> initLowSet;
     private HashSet<Node> initErrorSet;
+    private HashMap<BooleanFormula, CompiledFormula> compiledFunctions;
 
     @Override
     public String getLabel() {
@@ -88,12 +89,14 @@ public class InitialisationAnalyserTool extends AbstractGraphEditorTool {
         initHighSet = null;
         initLowSet = null;
         initErrorSet = null;
+        compiledFunctions = null;
     }
 
     private void updateState(Circuit circuit) {
         initHighSet = new HashSet<>();
         initLowSet = new HashSet<>();
         initErrorSet = new HashSet<>();
+        compiledFunctions = new HashMap<>();
         Queue<Connection> queue = new LinkedList<>();
         for (FunctionContact contact: circuit.getFunctionContacts()) {
             if (contact.isDriver() && contact.getForcedInit()) {
@@ -116,8 +119,7 @@ public class InitialisationAnalyserTool extends AbstractGraphEditorTool {
                 if (nodeInitLevelSet.add(toNode)) {
                     Node parent = toNode.getParent();
                     if (parent instanceof FunctionComponent) {
-                        LinkedList<BooleanVariable> variables = new LinkedList<>();
-                        LinkedList<BooleanFormula> values = new LinkedList<>();
+                        HashMap<BooleanVariable, Boolean> assignment = new HashMap<>();
                         LinkedList<FunctionContact> outputPins = new LinkedList<>();
                         for (FunctionContact contact: Hierarchy.getChildrenOfType(parent, FunctionContact.class)) {
                             if (contact.isOutput()) {
@@ -125,12 +127,11 @@ public class InitialisationAnalyserTool extends AbstractGraphEditorTool {
                             }
                             HashSet<Node> contactInitLevelSet = chooseNodeLevelSet(contact, initHighSet, initLowSet);
                             if (contactInitLevelSet != null) {
-                                variables.add(contact);
-                                values.add(contactInitLevelSet == initHighSet ? One.instance() : Zero.instance());
+                                assignment.put(contact, contactInitLevelSet == initHighSet);
                             }
                         }
                         for (FunctionContact outputPin: outputPins) {
-                            Set<Node> outputInitLevelSet = chooseFunctionLevelSet(outputPin, variables, values, initHighSet, initLowSet);
+                            Set<Node> outputInitLevelSet = chooseFunctionLevelSet(outputPin, assignment, initHighSet, initLowSet);
                             if ((outputInitLevelSet != null) && outputInitLevelSet.add(outputPin)) {
                                 if ((outputInitLevelSet == initHighSet) != outputPin.getInitToOne()) {
                                     initErrorSet.add(outputPin);
@@ -158,24 +159,40 @@ public class InitialisationAnalyserTool extends AbstractGraphEditorTool {
         return null;
     }
 
-    private HashSet<Node> chooseFunctionLevelSet(FunctionContact contact, LinkedList<BooleanVariable> variables,
-            LinkedList<BooleanFormula> values, HashSet<Node> highSet, HashSet<Node> lowSet) {
-        BooleanFormula setFunction = BooleanUtils.cleverReplace(contact.getSetFunction(), variables, values);
-        BooleanFormula resetFunction = BooleanUtils.cleverReplace(contact.getResetFunction(), variables, values);
-        if (isEvaluatedHigh(setFunction, resetFunction)) {
+    private HashSet<Node> chooseFunctionLevelSet(FunctionContact contact, Map<BooleanVariable, Boolean> assignment,
+            HashSet<Node> highSet, HashSet<Node> lowSet) {
+        CompiledFormula setFunction = getCompiledFunction(contact.getSetFunction());
+        CompiledFormula resetFunction = getCompiledFunction(contact.getResetFunction());
+        if (isEvaluatedHigh(setFunction, resetFunction, assignment)) {
             return highSet;
-        } else if (isEvaluatedLow(setFunction, resetFunction)) {
+        } else if (isEvaluatedLow(setFunction, resetFunction, assignment)) {
             return lowSet;
         }
         return null;
     }
 
-    private boolean isEvaluatedHigh(BooleanFormula setFunction, BooleanFormula resetFunction) {
-        return One.instance().equals(setFunction) && ((resetFunction == null) || Zero.instance().equals(resetFunction));
+    private CompiledFormula getCompiledFunction(BooleanFormula function) {
+        if (function == null) {
+            return null;
+        }
+        CompiledFormula result = compiledFunctions.get(function);
+        if (result == null) {
+            result = new CompiledFormula(function);
+            compiledFunctions.put(function, result);
+        }
+        return result;
+    }
+
+    private boolean isEvaluatedHigh(CompiledFormula setFunction, CompiledFormula resetFunction,
+            Map<BooleanVariable, Boolean> assignment) {
+        return (setFunction != null) && setFunction.isTautology(assignment)
+                && ((resetFunction == null) || !resetFunction.isSatisfiable(assignment));
     }
 
-    private boolean isEvaluatedLow(BooleanFormula setFunction, BooleanFormula resetFunction) {
-        return Zero.instance().equals(setFunction) && ((resetFunction == null) || One.instance().equals(resetFunction));
+    private boolean isEvaluatedLow(CompiledFormula setFunction, CompiledFormula resetFunction,
+            Map<BooleanVariable, Boolean> assignment) {
+        return ((setFunction == null) || !setFunction.isSatisfiable(assignment))
+                && ((resetFunction == null) || resetFunction.isTautology(assignment));
     }
 
     @Override
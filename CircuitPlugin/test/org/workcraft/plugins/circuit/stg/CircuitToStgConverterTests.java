@@ -0,0 +1,74 @@
+package org.workcraft.plugins.circuit.stg;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.workcraft.Framework;
+import org.workcraft.dom.Node;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.circuit.VisualCircuit;
+import org.workcraft.plugins.petri.Place;
+import org.workcraft.plugins.petri.Transition;
+import org.workcraft.plugins.stg.Stg;
+import org.workcraft.workspace.WorkspaceEntry;
+import org.workcraft.workspace.WorkspaceUtils;
+
+public class CircuitToStgConverterTests {
+
+    private static final String[] TEST_CIRCUIT_WORKS = {
+        "org/workcraft/plugins/circuit/buffer-tm.circuit.work",
+        "org/workcraft/plugins/circuit/celement-tm.circuit.work",
+        "org/workcraft/plugins/circuit/vme-tm.circuit.work",
+    };
+
+    @BeforeClass
+    public static void initPlugins() {
+        final Framework framework = Framework.getInstance();
+        framework.initPlugins(false);
+    }
+
+    @Test
+    public void testConversionWithoutLayout() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        for (String testCircuitWork: TEST_CIRCUIT_WORKS) {
+            URL url = classLoader.getResource(testCircuitWork);
+            WorkspaceEntry we = framework.loadWork(url.getFile());
+            VisualCircuit circuit = WorkspaceUtils.getAs(we, VisualCircuit.class);
+            Stg layoutStg = (Stg) new CircuitToStgConverter(circuit, true).getStg().getMathModel();
+            Stg plainStg = (Stg) new CircuitToStgConverter(circuit, false).getStg().getMathModel();
+            Assert.assertEquals(getMarking(layoutStg), getMarking(plainStg));
+            Assert.assertEquals(getArcs(layoutStg), getArcs(plainStg));
+            framework.closeWork(we);
+        }
+    }
+
+    private Map<String, Integer> getMarking(Stg stg) {
+        Map<String, Integer> result = new HashMap<>();
+        for (Place place: stg.getPlaces()) {
+            result.put(stg.getNodeReference(place), place.getTokens());
+        }
+        return result;
+    }
+
+    private Set<String> getArcs(Stg stg) {
+        Set<String> result = new HashSet<>();
+        for (Transition transition: stg.getTransitions()) {
+            String ref = stg.getNodeReference(transition);
+            for (Node node: stg.getPreset(transition)) {
+                result.add(stg.getNodeReference(node) + " -> " + ref);
+            }
+            for (Node node: stg.getPostset(transition)) {
+                result.add(ref + " -> " + stg.getNodeReference(node));
+            }
+        }
+        return result;
+    }
+
+}
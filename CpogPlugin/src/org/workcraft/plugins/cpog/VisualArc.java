@@ -18,11 +18,11 @@ import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.formula.BooleanFormula;
 import org.workcraft.formula.BooleanOperations;
 import org.workcraft.formula.One;
-import org.workcraft.formula.Zero;
 import org.workcraft.formula.utils.FormulaRenderingResult;
 import org.workcraft.formula.utils.FormulaToGraphics;
 import org.workcraft.gui.Coloriser;
 import org.workcraft.plugins.cpog.formula.PrettifyBooleanReplacer;
+import org.workcraft.plugins.cpog.formula.SatisfiabilityCache;
 import org.workcraft.serialisation.xml.NoAutoSerialisation;
 import org.workcraft.util.Geometry;
 
@@ -31,6 +31,7 @@ public class VisualArc extends VisualConnection {
     public static final String PROPERTY_CONDITION = "condition";
     private static Font labelFont;
     private Rectangle2D labelBB = null;
+    private final SatisfiabilityCache satisfiability = new SatisfiabilityCache();
 
     Arc mathConnection;
 
@@ -70,7 +71,7 @@ public class VisualArc extends VisualConnection {
     public Stroke getStroke() {
         BooleanFormula value = evaluate();
 
-        if (value == Zero.instance()) {
+        if (!satisfiability.isSatisfiable(value)) {
             return new BasicStroke((float) super.getLineWidth(), BasicStroke.CAP_BUTT,
                 BasicStroke.JOIN_MITER, 1.0f, new float[] {0.18f, 0.18f}, 0.00f);
         }
@@ -23,7 +23,6 @@ import org.workcraft.dom.visual.Stylable;
 import org.workcraft.dom.visual.VisualComponent;
 import org.workcraft.formula.BooleanFormula;
 import org.workcraft.formula.One;
-import org.workcraft.formula.Zero;
 import org.workcraft.gui.Coloriser;
 import org.workcraft.gui.graph.tools.Decoration;
 import org.workcraft.gui.propertyeditor.PropertyDeclaration;
@@ -31,6 +30,7 @@ import org.workcraft.observation.PropertyChangedEvent;
 import org.workcraft.plugins.cpog.formula.CpogFormulaVariable;
 import org.workcraft.plugins.cpog.formula.CpogVisitor;
 import org.workcraft.plugins.cpog.formula.PrettifyBooleanReplacer;
+import org.workcraft.plugins.cpog.formula.SatisfiabilityCache;
 
 @Hotkey(KeyEvent.VK_V)
 @DisplayName("Vertex")
@@ -59,6 +59,7 @@ public class VisualVertex extends VisualComponent implements CpogFormulaVariable
     public static Font conditionFont;
     private RenderedFormula conditionRenderedFormula = new RenderedFormula("", One.instance(), conditionFont, getLabelPositioning(), getLabelOffset());
     private RenderType renderType = RenderType.CIRCLE;
+    private final SatisfiabilityCache satisfiability = new SatisfiabilityCache();
 
     static {
         try {
@@ -124,7 +125,7 @@ public class VisualVertex extends VisualComponent implements CpogFormulaVariable
         g.setColor(Coloriser.colorise(getFillColor(), background));
         g.fill(shape);
         g.setColor(Coloriser.colorise(getForegroundColor(), colorisation));
-        if (value == Zero.instance()) {
+        if (!satisfiability.isSatisfiable(value)) {
             g.setStroke(new BasicStroke((float) strokeWidth, BasicStroke.CAP_BUTT,
                     BasicStroke.JOIN_MITER, 1.0f, new float[] {0.18f, 0.18f}, 0.00f));
         } else {
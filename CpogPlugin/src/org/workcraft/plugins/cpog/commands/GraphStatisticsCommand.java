@@ -3,6 +3,7 @@ package org.workcraft.plugins.cpog.commands;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
 import org.workcraft.dom.Container;
 import org.workcraft.dom.Node;
@@ -14,6 +15,8 @@ import org.workcraft.plugins.cpog.VisualArc;
 import org.workcraft.plugins.cpog.VisualCpog;
 import org.workcraft.plugins.cpog.VisualScenario;
 import org.workcraft.plugins.cpog.VisualVertex;
+import org.workcraft.plugins.cpog.tools.CpogParsingTool;
+import org.workcraft.util.graph.BitsetGraph;
 import org.workcraft.workspace.WorkspaceEntry;
 import org.workcraft.workspace.WorkspaceUtils;
 
@@ -69,8 +72,16 @@ public class GraphStatisticsCommand implements Command {
         int allVertices = 0, simpleVertices = 0;
         int allArcs = 0, simpleArcs = 0;
         int allVariables = 0;
+        int transitiveArcs = 0, cyclicScenarios = 0;
         for (Container scenario: scenarios) {
             allVertices += cpog.getVertices(scenario).size();
+            List<VisualVertex> vertices = new ArrayList<>(cpog.getVertices(scenario));
+            BitsetGraph graph = CpogParsingTool.convertToGraph(vertices, cpog);
+            transitiveArcs += graph.getTransitiveArcs().getArcCount();
+            graph.closeTransitively();
+            if (graph.hasSelfLoops()) {
+                cyclicScenarios++;
+            }
             for (VisualVertex v : cpog.getVertices(scenario)) {
                 if (v.getCondition() == One.instance() || v.getCondition() == Zero.instance()) {
                     simpleVertices++;
@@ -93,6 +104,8 @@ public class GraphStatisticsCommand implements Command {
 
         System.out.println("Number of vertices: " + allVertices + " (" + simpleVertices + " unconditional)");
         System.out.println("Number of arcs: " + allArcs + " (" + simpleArcs + " unconditional)");
+        System.out.println("Number of transitive arcs: " + transitiveArcs);
+        System.out.println("Number of cyclic graphs: " + cyclicScenarios);
         System.out.println("Number of variables: " + allVariables);
         System.out.println("Number of conditions: " + conditions.size());
         for (String condition : conditions) {
@@ -0,0 +1,31 @@
+package org.workcraft.plugins.cpog.formula;
+
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.One;
+import org.workcraft.formula.Zero;
+import org.workcraft.formula.utils.BooleanUtils;
+
+/**
+ * Satisfiability of the last evaluated condition of a vertex or an arc, so that it is not checked on a BDD at
+ * every repaint. The conditions are evaluated by PrettifyBooleanReplacer with a memoising worker, hence the
+ * evaluated formula is the same object until the condition or the variable states change.
+ */
+public class SatisfiabilityCache {
+    private BooleanFormula value = null;
+    private boolean satisfiable = true;
+
+    public boolean isSatisfiable(BooleanFormula value) {
+        if (value == Zero.instance()) {
+            return false;
+        }
+        if (value == One.instance()) {
+            return true;
+        }
+        if (value != this.value) {
+            satisfiable = BooleanUtils.isSatisfiable(value);
+            this.value = value;
+        }
+        return satisfiable;
+    }
+
+}
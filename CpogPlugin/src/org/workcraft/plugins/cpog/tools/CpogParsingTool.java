@@ -8,6 +8,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
@@ -36,6 +37,7 @@ import org.workcraft.plugins.cpog.VisualScenarioPage;
 import org.workcraft.plugins.cpog.VisualVariable;
 import org.workcraft.plugins.cpog.VisualVertex;
 import org.workcraft.util.Func;
+import org.workcraft.util.graph.BitsetGraph;
 import org.workcraft.workspace.WorkspaceEntry;
 import org.workcraft.workspace.WorkspaceUtils;
 
@@ -599,80 +601,48 @@ public class CpogParsingTool {
 
     }
 
-    public boolean[][] convertToArrayForm(Collection<VisualVertex> vertices, VisualCpog visualCpog) {
-
-        boolean[][] c = new boolean[vertices.size()][vertices.size()];
-
-        int i = 0, j = 0;
-        for (VisualVertex n1 : vertices) {
-            j = 0;
-            for (VisualVertex n2 : vertices) {
-                if (visualCpog.hasConnection(n1, n2)) {
-                    c[i][j] = true;
-                } else {
-                    c[i][j] = false;
-                }
-                j++;
-            }
-            i++;
-        }
-
-        return c;
-    }
-
-    public void computeTransitiveClosure(boolean[][] c) {
-
-        for (int j = 0; j < c.length; j++) {
-            for (int i = 0; i < c.length; i++) {
-                for (int k = 0; k < c.length; k++) {
-                    if (c[i][j] && c[j][k]) {
-                        c[i][k] = true;
-                    }
-                }
-            }
+    /**
+     * Returns the graph of the arcs between the given vertices, which are numbered in the iteration order.
+     */
+    public static BitsetGraph convertToGraph(List<VisualVertex> vertices, VisualCpog visualCpog) {
+        HashMap<Node, Integer> indices = new HashMap<>();
+        for (VisualVertex vertex : vertices) {
+            indices.put(vertex, indices.size());
         }
-
-    }
-
-    public boolean[][] findTransitives(boolean[][] c) {
-        boolean[][] t = new boolean[c.length][c.length];
-        for (int i = 0; i < c.length; i++) {
-            for (int j = 0; j < c.length; j++) {
-                for (int k = 0; k < c.length; k++) {
-                    if (c[i][j] && c[j][k]) {
-                        t[i][k] = true;
-                    }
+        BitsetGraph graph = new BitsetGraph(vertices.size());
+        int i = 0;
+        for (VisualVertex vertex : vertices) {
+            for (Node succ : visualCpog.getPostset(vertex)) {
+                Integer j = indices.get(succ);
+                if (j != null) {
+                    graph.addArc(i, j);
                 }
             }
+            i++;
         }
-        return t;
+        return graph;
     }
 
-    public void convertFromArrayForm(boolean[][] t, Collection<VisualVertex> vertices, VisualCpog visualCpog) {
-
-        int i = 0, j = 0;
-        for (VisualVertex n1 : vertices) {
-            j = 0;
-            for (VisualVertex n2 : vertices) {
-                if ((t[i][j]) && (visualCpog.hasConnection(n1, n2))) {
-                    if (visualCpog.hasConnection(n1, n2)) {
-                        visualCpog.remove(visualCpog.getConnection(n1, n2));
+    public static void removeArcs(BitsetGraph arcs, List<VisualVertex> vertices, VisualCpog visualCpog) {
+        for (int i = 0; i < vertices.size(); i++) {
+            for (int j = 0; j < vertices.size(); j++) {
+                if (arcs.hasArc(i, j)) {
+                    Connection connection = visualCpog.getConnection(vertices.get(i), vertices.get(j));
+                    if (connection != null) {
+                        visualCpog.remove(connection);
                     }
                 }
-                j++;
             }
-            i++;
         }
     }
 
-    public boolean hasSelfLoops(boolean[][]c) {
-
-        for (int i = 0; i < c.length; i++) {
-            if (c[i][i]) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Removes the arcs between the given vertices that are implied by other paths between them.
+     */
+    public static void removeTransitives(Collection<VisualVertex> vertices, VisualCpog visualCpog) {
+        List<VisualVertex> vertexList = new ArrayList<>(vertices);
+        BitsetGraph graph = convertToGraph(vertexList, visualCpog);
+        removeArcs(graph.getTransitiveArcs(), vertexList, visualCpog);
     }
 
     public String replaceReferences(String text) {
@@ -932,14 +902,4 @@ public class CpogParsingTool {
         }
     }
 
-    public boolean[][] copyArray(boolean[][] c) {
-        boolean[][] t = new boolean[c.length][c.length];
-        for (int i = 0; i < c.length; i++) {
-            for (int j = 0; j < c.length; j++) {
-                t[i][j] = c[i][j];
-            }
-        }
-        return t;
-    }
-
 }
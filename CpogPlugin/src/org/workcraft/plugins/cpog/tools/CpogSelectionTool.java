@@ -407,12 +407,7 @@ public class CpogSelectionTool extends SelectionTool {
                 LinkedHashSet<Node> roots = getRootNodes(visualCpog, vertexMap.values());
 
                 if (!(insertTransitives.getState()) && (!blockTransitiveRemoval)) {
-                    boolean[][] c = parsingTool.convertToArrayForm(vertexMap.values(), visualCpog);
-                    parsingTool.computeTransitiveClosure(c);
-                    if (!parsingTool.hasSelfLoops(c)) {
-                        boolean[][] t = parsingTool.findTransitives(c);
-                        parsingTool.convertFromArrayForm(t, vertexMap.values(), visualCpog);
-                    }
+                    CpogParsingTool.removeTransitives(vertexMap.values(), visualCpog);
                 }
 
                 ArrayList<Node> prevSelection = new ArrayList<>();
@@ -0,0 +1,169 @@
+package org.workcraft.plugins.dfs.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.PriorityQueue;
+
+import org.workcraft.dom.Node;
+import org.workcraft.plugins.dfs.BinaryRegister;
+import org.workcraft.plugins.dfs.VisualBinaryRegister;
+import org.workcraft.plugins.dfs.VisualDelayComponent;
+import org.workcraft.plugins.dfs.VisualDfs;
+import org.workcraft.plugins.dfs.VisualRegister;
+import org.workcraft.plugins.dfs.tools.Cycle;
+import org.workcraft.tasks.ProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.tasks.Result.Outcome;
+import org.workcraft.tasks.Task;
+import org.workcraft.util.Hierarchy;
+import org.workcraft.util.graph.cycle.SimpleCycleSearch;
+
+/**
+ * Search of the cycles of a DFS that limit its throughput. The cycles are enumerated on the successor lists
+ * of the delay components, and only the given number of cycles with the lowest throughput is kept, sorted
+ * by throughput. A cycle whose throughput cannot be lower than that of the kept cycles is counted without
+ * being built: its token count is exact and its nominal delay bounds the effective delay from above. When
+ * the task is cancelled the cycles found so far are returned.
+ */
+public class CycleAnalysisTask implements Task<ArrayList<Cycle>> {
+
+    private static final int EMPTY_REGISTER = 0;
+    private static final int MARKED_REGISTER = 1;
+    private static final int NOT_REGISTER = -1;
+
+    private final VisualDfs dfs;
+    private final int limit;
+    private volatile boolean cancelled = false;
+    private volatile long cycleCount = 0;
+
+    public CycleAnalysisTask(VisualDfs dfs, int limit) {
+        this.dfs = dfs;
+        this.limit = limit;
+    }
+
+    public VisualDfs getDfs() {
+        return dfs;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of all the cycles found, including those that were not kept.
+     */
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public Result<? extends ArrayList<Cycle>> run(final ProgressMonitor<? super ArrayList<Cycle>> monitor) {
+        Collection<VisualDelayComponent> allComponents = Hierarchy.getDescendantsOfType(
+                dfs.getRoot(), VisualDelayComponent.class);
+
+        final int size = allComponents.size();
+        final VisualDelayComponent[] components = allComponents.toArray(new VisualDelayComponent[size]);
+        final HashMap<Node, Integer> ids = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            ids.put(components[i], i);
+        }
+        final int[][] successors = new int[size][];
+        final double[] delays = new double[size];
+        final int[] registers = new int[size];
+        int[] buffer = new int[size];
+        for (int i = 0; i < size; i++) {
+            int count = 0;
+            for (Node succ: dfs.getPostset(components[i])) {
+                Integer id = ids.get(succ);
+                if (id != null) {
+                    buffer[count++] = id;
+                }
+            }
+            successors[i] = new int[count];
+            System.arraycopy(buffer, 0, successors[i], 0, count);
+            delays[i] = components[i].getReferencedDelayComponent().getDelay();
+            registers[i] = getRegisterState(components[i]);
+        }
+
+        // The kept cycle with the highest throughput is at the head, to be replaced by a more critical one.
+        final PriorityQueue<Cycle> criticalCycles = new PriorityQueue<>(Math.max(1, limit), Collections.reverseOrder());
+        SimpleCycleSearch.Visitor visitor = new SimpleCycleSearch.Visitor() {
+            @Override
+            public boolean visit(int[] cycle, int length) {
+                cycleCount++;
+                if (limit <= 0) {
+                    return !isCancelled(monitor);
+                }
+                if (criticalCycles.size() >= limit) {
+                    double bound = getThroughputBound(cycle, length, delays, registers);
+                    if (bound >= criticalCycles.peek().throughput) {
+                        return !isCancelled(monitor);
+                    }
+                }
+                LinkedHashSet<VisualDelayComponent> cycleComponents = new LinkedHashSet<>();
+                for (int i = 0; i < length; i++) {
+                    cycleComponents.add(components[cycle[i]]);
+                }
+                criticalCycles.add(new Cycle(dfs, cycleComponents));
+                if (criticalCycles.size() > limit) {
+                    criticalCycles.poll();
+                }
+                return !isCancelled(monitor);
+            }
+
+            @Override
+            public boolean progress(int count) {
+                monitor.progressUpdate((double) count / size);
+                return !isCancelled(monitor);
+            }
+        };
+        boolean complete = new SimpleCycleSearch(successors).search(visitor);
+
+        ArrayList<Cycle> result = new ArrayList<>(criticalCycles);
+        Collections.sort(result);
+        return new Result<>(complete ? Outcome.FINISHED : Outcome.CANCELLED, result);
+    }
+
+    private boolean isCancelled(ProgressMonitor<?> monitor) {
+        return cancelled || monitor.isCancelRequested();
+    }
+
+    private int getRegisterState(VisualDelayComponent component) {
+        if (component instanceof VisualRegister) {
+            boolean marked = ((VisualRegister) component).getReferencedRegister().isMarked();
+            return marked ? MARKED_REGISTER : EMPTY_REGISTER;
+        }
+        if (component instanceof VisualBinaryRegister) {
+            BinaryRegister ref = ((VisualBinaryRegister) component).getReferencedBinaryRegister();
+            return (ref.isTrueMarked() || ref.isFalseMarked()) ? MARKED_REGISTER : EMPTY_REGISTER;
+        }
+        return NOT_REGISTER;
+    }
+
+    // Lower bound of the cycle throughput: tokens are counted as in Cycle and the effective delay of a
+    // component never exceeds its nominal delay, as it is scaled by probabilities.
+    private double getThroughputBound(int[] cycle, int length, double[] delays, int[] registers) {
+        int tokenCount = 0;
+        boolean spreadTokenDetected = false;
+        double delay = 0.0;
+        for (int i = 0; i < length; i++) {
+            int v = cycle[i];
+            delay += delays[v];
+            if (registers[v] == EMPTY_REGISTER) {
+                spreadTokenDetected = false;
+            } else if ((registers[v] == MARKED_REGISTER) && !spreadTokenDetected) {
+                tokenCount++;
+                spreadTokenDetected = true;
+            }
+        }
+        return (delay == 0.0) ? Double.MAX_VALUE : tokenCount / delay;
+    }
+
+}
@@ -30,15 +30,33 @@ public class Cycle implements Comparable<Cycle> {
     public final double minDelay;
     public final double maxDelay;
     private final String toString;
+    private final boolean hasPushPreset;
 
     public Cycle(VisualDfs dfs, LinkedHashSet<VisualDelayComponent> components) {
         this.dfs = dfs;
         this.components = components;
         this.tokenCount = getTokenCount();
-        this.totalDelay = getTotalDelay();
-        this.throughput = getThroughput();
-        this.minDelay = getMinDelay();
-        this.maxDelay = getMaxDelay();
+        this.hasPushPreset = findPushPreset();
+        // Effective delays are relatively expensive, so they are calculated only once for each component.
+        double total = 0.0;
+        double min = 0.0;
+        double max = 0.0;
+        boolean first = true;
+        for (VisualDelayComponent component: components) {
+            double delay = getEffectiveDelay(component);
+            total += delay;
+            if (first || delay < min) {
+                min = delay;
+            }
+            if (first || delay > max) {
+                max = delay;
+            }
+            first = false;
+        }
+        this.totalDelay = total;
+        this.throughput = (total == 0.0) ? Double.MAX_VALUE : tokenCount / total;
+        this.minDelay = min;
+        this.maxDelay = max;
         this.toString = getStringRepresentation();
     }
 
@@ -68,14 +86,6 @@ public class Cycle implements Comparable<Cycle> {
         return result;
     }
 
-    private double getTotalDelay() {
-        double result = 0.0;
-        for (VisualDelayComponent component: components) {
-            result += getEffectiveDelay(component);
-        }
-        return result;
-    }
-
     public Set<VisualPushRegister> getPushPreset(Node node) {
         HashSet<VisualPushRegister> result = new HashSet<>();
         HashSet<Node> visited = new HashSet<>();
@@ -97,7 +107,21 @@ public class Cycle implements Comparable<Cycle> {
         return result;
     }
 
+    // Push registers are found only in the preset of the cycle components, if at all.
+    private boolean findPushPreset() {
+        for (VisualDelayComponent component: components) {
+            if (!dfs.getPreset(component, VisualPushRegister.class).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public double getEffectiveDelay(VisualDelayComponent component) {
+        double delay = ((MathDelayNode) component.getReferencedComponent()).getDelay();
+        if (!hasPushPreset) {
+            return delay;
+        }
         HashSet<VisualControlRegister> controls = new HashSet<>();
         for (VisualPushRegister push: getPushPreset(component)) {
             controls.addAll(dfs.getPreset(push, VisualControlRegister.class));
@@ -106,54 +130,12 @@ public class Cycle implements Comparable<Cycle> {
         for (VisualControlRegister control: controls) {
             probability *= control.getReferencedControlRegister().getProbability();
         }
-        double delay = ((MathDelayNode) component.getReferencedComponent()).getDelay();
         return delay * probability;
     }
 
-    private double getMinDelay() {
-        double result = 0.0;
-        boolean first = true;
-        for (VisualDelayComponent component: components) {
-            double delay = getEffectiveDelay(component);
-            if (first || delay < result) {
-                result = delay;
-                first = false;
-            }
-        }
-        return result;
-    }
-
-    private double getMaxDelay() {
-        double result = 0.0;
-        boolean first = true;
-        for (VisualDelayComponent component: components) {
-            double delay = getEffectiveDelay(component);
-            if (first || delay > result) {
-                result = delay;
-                first = false;
-            }
-        }
-        return result;
-    }
-
-    private Double getThroughput() {
-        double delay = getTotalDelay();
-        if (delay == 0.0) {
-            return Double.MAX_VALUE;
-        }
-        return getTokenCount() / delay;
-    }
-
     @Override
     public int compareTo(Cycle other) {
-        double thisThroughput = this.getThroughput();
-        double otherThroughput = other.getThroughput();
-        if (thisThroughput > otherThroughput) {
-            return 1;
-        } else if (thisThroughput < otherThroughput) {
-            return -1;
-        }
-        return 0;
+        return Double.compare(throughput, other.throughput);
     }
 
     @Override
@@ -162,16 +144,16 @@ public class Cycle implements Comparable<Cycle> {
     }
 
     public String getStringRepresentation() {
-        String result = "";
+        StringBuilder result = new StringBuilder();
         if (components != null && dfs != null) {
             for (VisualDelayComponent component: components) {
                 if (result.length() > 0) {
-                    result += Character.toString(RIGHT_ARROW_SYMBOL);
+                    result.append(RIGHT_ARROW_SYMBOL);
                 }
-                result += dfs.getMathModel().getNodeReference(component.getReferencedComponent());
+                result.append(dfs.getMathModel().getNodeReference(component.getReferencedComponent()));
             }
         }
-        return result;
+        return result.toString();
     }
 
 }
@@ -13,10 +13,6 @@ import java.awt.event.MouseListener;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.List;
 
 import javax.swing.Icon;
 import javax.swing.JLabel;
@@ -25,21 +21,25 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumnModel;
 
+import org.workcraft.Framework;
 import org.workcraft.dom.Node;
-import org.workcraft.dom.visual.VisualComponent;
 import org.workcraft.gui.graph.tools.AbstractGraphEditorTool;
 import org.workcraft.gui.graph.tools.Decoration;
 import org.workcraft.gui.graph.tools.Decorator;
 import org.workcraft.gui.graph.tools.GraphEditor;
 import org.workcraft.plugins.dfs.VisualDelayComponent;
 import org.workcraft.plugins.dfs.VisualDfs;
+import org.workcraft.plugins.dfs.tasks.CycleAnalysisTask;
+import org.workcraft.tasks.DummyProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.tasks.Result.Outcome;
 import org.workcraft.util.GUI;
 import org.workcraft.util.Hierarchy;
 import org.workcraft.util.IntDocument;
-import org.workcraft.util.graph.cycle.ElementaryCyclesSearch;
 
 public class CycleAnalyserTool extends AbstractGraphEditorTool {
     // Infinity symbol in UTF-8 encoding (avoid inserting UTF symbols directly in the source code).
@@ -56,6 +56,8 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
     private double maxDelay;
     protected Cycle selectedCycle = null;
     private int cycleCount = 10;
+    private CycleAnalysisTask analysisTask = null;
+    private long foundCycleCount = 0;
 
     protected JPanel interfacePanel;
     protected JPanel controlPanel;
@@ -126,7 +128,7 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
                 if (arg0.getKeyCode() == KeyEvent.VK_ENTER) {
                     try {
                         cycleCount = Integer.parseInt(cycleCountText.getText());
-                        resetSelectedCycle(editor);
+                        updateCycleCount(editor);
                     } catch (NumberFormatException e) {
                         cycleCountText.setText(String.valueOf(cycleCount));
                     }
@@ -151,7 +153,7 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
             @Override
             public void focusLost(FocusEvent arg0) {
                 cycleCount = Integer.parseInt(cycleCountText.getText());
-                resetSelectedCycle(editor);
+                updateCycleCount(editor);
             }
         });
 
@@ -174,10 +176,9 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
         dfs = (VisualDfs) editor.getModel();
         cycleTable.clearSelection();
         selectedCycle = null;
-        cycles = findCycles();
-        if ((cycles != null) && (cycleCountLabel != null)) {
-            cycleCountLabel.setText("Cycle count (out of " + cycles.size() + "):");
-        }
+        cycles = null;
+        updateDelayRange();
+        startAnalysis(editor);
         super.activated(editor);
     }
 
@@ -191,6 +192,10 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
 
     @Override
     public void deactivated(final GraphEditor editor) {
+        if (analysisTask != null) {
+            analysisTask.cancel();
+            analysisTask = null;
+        }
         cycles = null;
         selectedCycle = null;
         dfs = null;
@@ -260,9 +265,7 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
         };
     }
 
-    private ArrayList<Cycle> findCycles() {
-        ArrayList<Cycle> result = new ArrayList<>();
-        // Update global min and max delay values
+    private void updateDelayRange() {
         Collection<VisualDelayComponent> allComponents = Hierarchy.getDescendantsOfType(dfs.getRoot(), VisualDelayComponent.class);
         boolean first = true;
         for (VisualDelayComponent c: allComponents) {
@@ -275,38 +278,61 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
             }
             first = false;
         }
-        // Prepare temporary node array and adjacency matrix
-        int size = allComponents.size();
-        VisualComponent[] tmpComponents = allComponents.toArray(new VisualComponent[size]);
-        boolean[][] adjMatrix = new boolean[size][size];
-        for (int i = 0; i < size; i++) {
-            HashSet<Node> preset = new HashSet<>(dfs.getPreset(tmpComponents[i]));
-            HashSet<Node> postset = new HashSet<>(dfs.getPostset(tmpComponents[i]));
-            for (int j = i + 1; j < size; j++) {
-                adjMatrix[i][j] = postset.contains(tmpComponents[j]);
-                adjMatrix[j][i] = preset.contains(tmpComponents[j]);
-            }
+    }
+
+    // Cycles are searched in the background, keeping only as many of the most critical ones as shown.
+    private void startAnalysis(final GraphEditor editor) {
+        if (analysisTask != null) {
+            analysisTask.cancel();
         }
-        // Calculate simple cycles and process the results
-        ElementaryCyclesSearch ecs = new ElementaryCyclesSearch(adjMatrix, tmpComponents);
-        List tmpCycles = ecs.getElementaryCycles();
-        for (int i = 0; i < tmpCycles.size(); i++) {
-            List tmpCycle = (List) tmpCycles.get(i);
-            String toString = "";
-            LinkedHashSet<VisualDelayComponent> components = new LinkedHashSet<>();
-            for (int j = 0; j < tmpCycle.size(); j++) {
-                VisualDelayComponent component = (VisualDelayComponent) tmpCycle.get(j);
-                if (toString.length() > 0) {
-                    toString += Character.toString((char) 0x2192); // arrow symbol
-                }
-                toString += dfs.getMathModel().getNodeReference(component.getReferencedComponent());
-                components.add(component);
+        final CycleAnalysisTask task = new CycleAnalysisTask(dfs, cycleCount);
+        analysisTask = task;
+        if (cycleCountLabel != null) {
+            cycleCountLabel.setText("Cycle count (searching...):");
+        }
+        final Framework framework = Framework.getInstance();
+        framework.getTaskManager().queue(task, "Cycle analysis", new DummyProgressMonitor<ArrayList<Cycle>>() {
+            @Override
+            public void finished(final Result<? extends ArrayList<Cycle>> result, String description) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (analysisTask == task) {
+                            analysisTask = null;
+                            finishAnalysis(editor, task, result);
+                        }
+                    }
+                });
             }
-            Cycle cycle = new Cycle(dfs, components);
-            result.add(cycle);
+        });
+    }
+
+    private void finishAnalysis(GraphEditor editor, CycleAnalysisTask task, Result<? extends ArrayList<Cycle>> result) {
+        cycles = result.getReturnValue();
+        foundCycleCount = task.getCycleCount();
+        if (cycleCountLabel != null) {
+            if (cycles == null) {
+                cycleCountLabel.setText("Cycle count:");
+            } else if (result.getOutcome() == Outcome.CANCELLED) {
+                cycleCountLabel.setText("Cycle count (out of at least " + foundCycleCount + "):");
+            } else {
+                cycleCountLabel.setText("Cycle count (out of " + foundCycleCount + "):");
+            }
+        }
+        resetSelectedCycle(editor);
+    }
+
+    private void updateCycleCount(final GraphEditor editor) {
+        if ((analysisTask != null) && (analysisTask.getLimit() < cycleCount)) {
+            startAnalysis(editor);
+        } else if ((cycles != null) && (cycles.size() < cycleCount) && (cycles.size() < foundCycleCount)) {
+            // More cycles are requested than were kept by the last search.
+            cycles = null;
+            resetSelectedCycle(editor);
+            startAnalysis(editor);
+        } else {
+            resetSelectedCycle(editor);
         }
-        Collections.sort(result);
-        return result;
     }
 
     private void resetSelectedCycle(final GraphEditor editor) {
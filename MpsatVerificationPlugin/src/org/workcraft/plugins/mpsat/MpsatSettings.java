@@ -22,6 +22,7 @@ public class MpsatSettings implements Settings {
     private static final String keyPrintStderr = prefix + ".printStderr";
     private static final String keyDebugReach = prefix + ".debugReach";
     private static final String keyDebugCores = prefix + ".debugCores";
+    private static final String keyParallelChecks = prefix + ".parallelChecks";
 
     private static final String defaultCommand = DesktopApi.getOs().isWindows() ? "tools\\UnfoldingTools\\mpsat.exe" : "tools/UnfoldingTools/mpsat";
     private static final SolutionMode defaultSolutionMode = SolutionMode.MINIMUM_COST;
@@ -31,6 +32,7 @@ public class MpsatSettings implements Settings {
     private static final Boolean defaultPrintStderr = true;
     private static final Boolean defaultDebugReach = false;
     private static final Boolean defaultDebugCores = false;
+    private static final int defaultParallelChecks = 4;
 
     private static String command = defaultCommand;
     private static SolutionMode solutionMode = defaultSolutionMode;
@@ -40,6 +42,7 @@ public class MpsatSettings implements Settings {
     private static Boolean printStderr = defaultPrintStderr;
     private static Boolean debugReach = defaultDebugReach;
     private static Boolean debugCores = defaultDebugCores;
+    private static int parallelChecks = defaultParallelChecks;
 
     public MpsatSettings() {
         properties.add(new PropertyDeclaration<MpsatSettings, String>(
@@ -121,6 +124,16 @@ public class MpsatSettings implements Settings {
                 return getDebugCores();
             }
         });
+
+        properties.add(new PropertyDeclaration<MpsatSettings, Integer>(
+                this, "Maximum number of parallel checks (1 to run sequentially)", Integer.class, true, false, false) {
+            protected void setter(MpsatSettings object, Integer value) {
+                setParallelChecks(value);
+            }
+            protected Integer getter(MpsatSettings object) {
+                return getParallelChecks();
+            }
+        });
     }
 
     @Override
@@ -138,6 +151,7 @@ public class MpsatSettings implements Settings {
         setPrintStderr(config.getBoolean(keyPrintStderr, defaultPrintStderr));
         setDebugReach(config.getBoolean(keyDebugReach, defaultDebugReach));
         setDebugCores(config.getBoolean(keyDebugCores, defaultDebugCores));
+        setParallelChecks(config.getInt(keyParallelChecks, defaultParallelChecks));
     }
 
     @Override
@@ -150,6 +164,7 @@ public class MpsatSettings implements Settings {
         config.setBoolean(keyPrintStderr, getPrintStderr());
         config.setBoolean(keyDebugReach, getDebugReach());
         config.setBoolean(keyDebugCores, getDebugCores());
+        config.setInt(keyParallelChecks, getParallelChecks());
     }
 
     @Override
@@ -230,4 +245,15 @@ public class MpsatSettings implements Settings {
         debugCores = value;
     }
 
+    public static int getParallelChecks() {
+        return parallelChecks;
+    }
+
+    public static void setParallelChecks(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        parallelChecks = value;
+    }
+
 }
@@ -3,10 +3,19 @@ package org.workcraft.plugins.mpsat.tasks;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.workcraft.Framework;
 import org.workcraft.interop.Exporter;
 import org.workcraft.plugins.mpsat.MpsatParameters;
+import org.workcraft.plugins.mpsat.MpsatSettings;
 import org.workcraft.plugins.petri.PetriNetModel;
 import org.workcraft.plugins.punf.PunfSettings;
 import org.workcraft.plugins.punf.tasks.PunfTask;
@@ -79,20 +88,21 @@ public class MpsatCombinedChainTask implements Task<MpsatCombinedChainResult> {
             monitor.progressUpdate(0.66);
 
             // Run MPSat on the generated unfolding
-            ArrayList<Result<? extends ExternalProcessResult>> mpsatResultList = new ArrayList<>(settingsList.size());
-            for (MpsatParameters settings: settingsList) {
-                MpsatTask mpsatTask = new MpsatTask(settings.getMpsatArguments(directory),
-                        unfoldingFile, directory, tryPnml, netFile);
-                Result<? extends ExternalProcessResult> mpsatResult = framework.getTaskManager().execute(
-                        mpsatTask, "Running verification [MPSat]", subtaskMonitor);
-                mpsatResultList.add(mpsatResult);
-                if (mpsatResult.getOutcome() != Outcome.FINISHED) {
-                    if (mpsatResult.getOutcome() == Outcome.CANCELLED) {
-                        return new Result<MpsatCombinedChainResult>(Outcome.CANCELLED);
-                    }
-                    return new Result<MpsatCombinedChainResult>(Outcome.FAILED,
-                            new MpsatCombinedChainResult(exportResult, null, punfResult, mpsatResultList, settingsList));
+            List<Result<? extends ExternalProcessResult>> mpsatResultList;
+            int threadCount = Math.min(MpsatSettings.getParallelChecks(), settingsList.size());
+            // Advanced mode asks for MPSat parameters interactively, so the checks cannot overlap.
+            if ((threadCount > 1) && !MpsatSettings.getAdvancedMode()) {
+                mpsatResultList = runParallel(monitor, directory, unfoldingFile, netFile, tryPnml, threadCount);
+            } else {
+                mpsatResultList = runSequential(monitor, directory, unfoldingFile, netFile, tryPnml);
+            }
+            Outcome mpsatOutcome = getOutcome(mpsatResultList);
+            if (mpsatOutcome != Outcome.FINISHED) {
+                if (mpsatOutcome == Outcome.CANCELLED) {
+                    return new Result<MpsatCombinedChainResult>(Outcome.CANCELLED);
                 }
+                return new Result<MpsatCombinedChainResult>(Outcome.FAILED,
+                        new MpsatCombinedChainResult(exportResult, null, punfResult, mpsatResultList, settingsList));
             }
             monitor.progressUpdate(1.0);
 
@@ -105,6 +115,100 @@ public class MpsatCombinedChainTask implements Task<MpsatCombinedChainResult> {
         }
     }
 
+    private List<Result<? extends ExternalProcessResult>> runSequential(ProgressMonitor<?> monitor,
+            File directory, File unfoldingFile, File netFile, boolean tryPnml) {
+
+        Framework framework = Framework.getInstance();
+        SubtaskMonitor<Object> subtaskMonitor = new SubtaskMonitor<>(monitor);
+        List<Result<? extends ExternalProcessResult>> result = new ArrayList<>(settingsList.size());
+        for (MpsatParameters settings: settingsList) {
+            MpsatTask mpsatTask = new MpsatTask(settings.getMpsatArguments(directory),
+                    unfoldingFile, directory, tryPnml, netFile);
+            Result<? extends ExternalProcessResult> mpsatResult = framework.getTaskManager().execute(
+                    mpsatTask, "Running verification [MPSat]", subtaskMonitor);
+            result.add(mpsatResult);
+            if (mpsatResult.getOutcome() != Outcome.FINISHED) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the checks over a pool of worker threads. Each MPSat instance gets its own working directory,
+     * as the name of its output file is fixed. When one of the checks fails or is cancelled, the remaining
+     * checks are cancelled too. The results are returned in the order of the settings list.
+     */
+    private List<Result<? extends ExternalProcessResult>> runParallel(final ProgressMonitor<?> monitor,
+            File directory, final File unfoldingFile, final File netFile, final boolean tryPnml, int threadCount)
+            throws InterruptedException, ExecutionException {
+
+        final Framework framework = Framework.getInstance();
+        final AtomicBoolean abort = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CompletionService<Result<? extends ExternalProcessResult>> completionService =
+                new ExecutorCompletionService<>(executor);
+
+        List<Future<Result<? extends ExternalProcessResult>>> futures = new ArrayList<>(settingsList.size());
+        try {
+            int index = 0;
+            for (MpsatParameters settings: settingsList) {
+                File mpsatDirectory = new File(directory, "mpsat-" + index++);
+                mpsatDirectory.mkdir();
+                final MpsatTask mpsatTask = new MpsatTask(settings.getMpsatArguments(mpsatDirectory),
+                        unfoldingFile, mpsatDirectory, tryPnml, netFile);
+
+                final SubtaskMonitor<Object> subtaskMonitor = new SubtaskMonitor<Object>(monitor) {
+                    @Override
+                    public boolean isCancelRequested() {
+                        return abort.get() || super.isCancelRequested();
+                    }
+                };
+
+                futures.add(completionService.submit(new Callable<Result<? extends ExternalProcessResult>>() {
+                    @Override
+                    public Result<? extends ExternalProcessResult> call() {
+                        if (subtaskMonitor.isCancelRequested()) {
+                            return Result.cancelled();
+                        }
+                        return framework.getTaskManager().execute(
+                                mpsatTask, "Running verification [MPSat]", subtaskMonitor);
+                    }
+                }));
+            }
+
+            for (int count = 1; count <= futures.size(); count++) {
+                Result<? extends ExternalProcessResult> mpsatResult = completionService.take().get();
+                if (mpsatResult.getOutcome() != Outcome.FINISHED) {
+                    abort.set(true);
+                }
+                monitor.progressUpdate(0.66 + 0.34 * count / futures.size());
+            }
+        } finally {
+            abort.set(true);
+            executor.shutdown();
+        }
+
+        List<Result<? extends ExternalProcessResult>> result = new ArrayList<>(futures.size());
+        for (Future<Result<? extends ExternalProcessResult>> future: futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    private static Outcome getOutcome(List<Result<? extends ExternalProcessResult>> mpsatResultList) {
+        Outcome result = Outcome.FINISHED;
+        for (Result<? extends ExternalProcessResult> mpsatResult: mpsatResultList) {
+            if (mpsatResult.getOutcome() == Outcome.FAILED) {
+                return Outcome.FAILED;
+            }
+            if (mpsatResult.getOutcome() == Outcome.CANCELLED) {
+                result = Outcome.CANCELLED;
+            }
+        }
+        return result;
+    }
+
     public List<MpsatParameters> getSettingsList() {
         return settingsList;
     }
@@ -0,0 +1,409 @@
+package org.workcraft.plugins.petri;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.workcraft.dom.Connection;
+import org.workcraft.observation.HierarchyEvent;
+import org.workcraft.observation.PropertyChangedEvent;
+import org.workcraft.observation.StateEvent;
+import org.workcraft.observation.StateSupervisor;
+
+/**
+ * Compiled view of a Petri net for fast token game. Places and transitions are numbered
+ * in the order of the model collections, arc weights are kept in flat arrays, and the marking
+ * is an array of token counts. The set of enabled transitions is maintained incrementally:
+ * a change of marking only re-evaluates the transitions consuming from the changed places.
+ *
+ * The marking of the compiled net is independent from the model, unless the net is attached
+ * to the model, in which case token changes of the model places are tracked and any structural
+ * change of the model makes the compiled net stale.
+ */
+public class IndexedPetriNet {
+    private final PetriNetModel net;
+    private final Place[] places;
+    private final Transition[] transitions;
+    private final Map<Place, Integer> placeIds = new HashMap<>();
+    private final Map<Transition, Integer> transitionIds = new HashMap<>();
+
+    // Arcs of transition t are at [preStart[t], preStart[t + 1]) of prePlaces/preWeights, same for post-arcs.
+    private final int[] preStart;
+    private final int[] prePlaces;
+    private final int[] preWeights;
+    private final int[] postStart;
+    private final int[] postPlaces;
+    private final int[] postWeights;
+    // Consumers of place p are at [consumerStart[p], consumerStart[p + 1]) of consumerTransitions/consumerWeights.
+    private final int[] consumerStart;
+    private final int[] consumerTransitions;
+    private final int[] consumerWeights;
+    // Producers of place p are at [producerStart[p], producerStart[p + 1]) of producerTransitions.
+    private final int[] producerStart;
+    private final int[] producerTransitions;
+
+    private final int[] marking;
+    // Number of pre-places of each transition that do not have enough tokens.
+    private final int[] deficits;
+    private final BitSet enabled;
+
+    private StateSupervisor supervisor = null;
+    private boolean stale = false;
+
+    public IndexedPetriNet(PetriNetModel net) {
+        this.net = net;
+        places = net.getPlaces().toArray(new Place[0]);
+        transitions = net.getTransitions().toArray(new Transition[0]);
+        for (int p = 0; p < places.length; p++) {
+            placeIds.put(places[p], p);
+        }
+        for (int t = 0; t < transitions.length; t++) {
+            transitionIds.put(transitions[t], t);
+        }
+
+        // Parallel connections between the same place and transition add up to the arc weight.
+        List<Map<Integer, Integer>> preArcs = new ArrayList<>(transitions.length);
+        List<Map<Integer, Integer>> postArcs = new ArrayList<>(transitions.length);
+        for (int t = 0; t < transitions.length; t++) {
+            preArcs.add(new HashMap<Integer, Integer>());
+            postArcs.add(new HashMap<Integer, Integer>());
+        }
+        int[] consumerCounts = new int[places.length];
+        int[] producerCounts = new int[places.length];
+        for (Connection connection: net.getConnections()) {
+            Integer p = placeIds.get(connection.getFirst());
+            Integer t = transitionIds.get(connection.getSecond());
+            if ((p != null) && (t != null)) {
+                if (addArc(preArcs.get(t), p)) {
+                    consumerCounts[p]++;
+                }
+                continue;
+            }
+            t = transitionIds.get(connection.getFirst());
+            p = placeIds.get(connection.getSecond());
+            if ((p != null) && (t != null)) {
+                if (addArc(postArcs.get(t), p)) {
+                    producerCounts[p]++;
+                }
+            }
+        }
+
+        preStart = new int[transitions.length + 1];
+        postStart = new int[transitions.length + 1];
+        for (int t = 0; t < transitions.length; t++) {
+            preStart[t + 1] = preStart[t] + preArcs.get(t).size();
+            postStart[t + 1] = postStart[t] + postArcs.get(t).size();
+        }
+        prePlaces = new int[preStart[transitions.length]];
+        preWeights = new int[prePlaces.length];
+        postPlaces = new int[postStart[transitions.length]];
+        postWeights = new int[postPlaces.length];
+        consumerStart = new int[places.length + 1];
+        for (int p = 0; p < places.length; p++) {
+            consumerStart[p + 1] = consumerStart[p] + consumerCounts[p];
+        }
+        consumerTransitions = new int[consumerStart[places.length]];
+        consumerWeights = new int[consumerTransitions.length];
+        int[] consumerFill = Arrays.copyOf(consumerStart, places.length);
+        producerStart = new int[places.length + 1];
+        for (int p = 0; p < places.length; p++) {
+            producerStart[p + 1] = producerStart[p] + producerCounts[p];
+        }
+        producerTransitions = new int[producerStart[places.length]];
+        int[] producerFill = Arrays.copyOf(producerStart, places.length);
+        for (int t = 0; t < transitions.length; t++) {
+            int i = preStart[t];
+            for (Map.Entry<Integer, Integer> arc: preArcs.get(t).entrySet()) {
+                int p = arc.getKey();
+                prePlaces[i] = p;
+                preWeights[i] = arc.getValue();
+                consumerTransitions[consumerFill[p]] = t;
+                consumerWeights[consumerFill[p]] = arc.getValue();
+                consumerFill[p]++;
+                i++;
+            }
+            i = postStart[t];
+            for (Map.Entry<Integer, Integer> arc: postArcs.get(t).entrySet()) {
+                int p = arc.getKey();
+                postPlaces[i] = p;
+                postWeights[i] = arc.getValue();
+                producerTransitions[producerFill[p]++] = t;
+                i++;
+            }
+        }
+
+        marking = new int[places.length];
+        deficits = new int[transitions.length];
+        enabled = new BitSet(transitions.length);
+        readMarking();
+    }
+
+    private static boolean addArc(Map<Integer, Integer> arcs, int p) {
+        Integer weight = arcs.get(p);
+        arcs.put(p, (weight == null) ? 1 : weight + 1);
+        return weight == null;
+    }
+
+    public PetriNetModel getNet() {
+        return net;
+    }
+
+    public int getPlaceCount() {
+        return places.length;
+    }
+
+    public int getTransitionCount() {
+        return transitions.length;
+    }
+
+    public Place getPlace(int p) {
+        return places[p];
+    }
+
+    public Transition getTransition(int t) {
+        return transitions[t];
+    }
+
+    /**
+     * Returns the id of the place, or -1 if the place was not in the net when it was compiled.
+     */
+    public int getPlaceId(Place place) {
+        Integer result = placeIds.get(place);
+        return (result == null) ? -1 : result;
+    }
+
+    /**
+     * Returns the id of the transition, or -1 if the transition was not in the net when it was compiled.
+     */
+    public int getTransitionId(Transition transition) {
+        Integer result = transitionIds.get(transition);
+        return (result == null) ? -1 : result;
+    }
+
+    public int getPresetSize(int t) {
+        return preStart[t + 1] - preStart[t];
+    }
+
+    public int getPresetPlace(int t, int index) {
+        return prePlaces[preStart[t] + index];
+    }
+
+    public int getPresetWeight(int t, int index) {
+        return preWeights[preStart[t] + index];
+    }
+
+    public int getPostsetSize(int t) {
+        return postStart[t + 1] - postStart[t];
+    }
+
+    public int getPostsetPlace(int t, int index) {
+        return postPlaces[postStart[t] + index];
+    }
+
+    public int getPostsetWeight(int t, int index) {
+        return postWeights[postStart[t] + index];
+    }
+
+    public int getConsumerCount(int p) {
+        return consumerStart[p + 1] - consumerStart[p];
+    }
+
+    public int getConsumer(int p, int index) {
+        return consumerTransitions[consumerStart[p] + index];
+    }
+
+    public int getProducerCount(int p) {
+        return producerStart[p + 1] - producerStart[p];
+    }
+
+    public int getProducer(int p, int index) {
+        return producerTransitions[producerStart[p] + index];
+    }
+
+    public int getTokens(int p) {
+        return marking[p];
+    }
+
+    public void setTokens(int p, int value) {
+        int oldValue = marking[p];
+        if (oldValue != value) {
+            marking[p] = value;
+            for (int i = consumerStart[p]; i < consumerStart[p + 1]; i++) {
+                int weight = consumerWeights[i];
+                boolean wasSatisfied = oldValue >= weight;
+                boolean isSatisfied = value >= weight;
+                if (wasSatisfied != isSatisfied) {
+                    int t = consumerTransitions[i];
+                    deficits[t] += isSatisfied ? -1 : 1;
+                    enabled.set(t, deficits[t] == 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the current marking into the given array, which must be at least as long as the number of places.
+     */
+    public void getMarking(int[] result) {
+        System.arraycopy(marking, 0, result, 0, marking.length);
+    }
+
+    public void setMarking(int[] value) {
+        for (int p = 0; p < marking.length; p++) {
+            setTokens(p, value[p]);
+        }
+    }
+
+    public final void readMarking() {
+        for (int p = 0; p < places.length; p++) {
+            marking[p] = places[p].getTokens();
+        }
+        for (int t = 0; t < transitions.length; t++) {
+            int deficit = 0;
+            for (int i = preStart[t]; i < preStart[t + 1]; i++) {
+                if (marking[prePlaces[i]] < preWeights[i]) {
+                    deficit++;
+                }
+            }
+            deficits[t] = deficit;
+            enabled.set(t, deficit == 0);
+        }
+    }
+
+    public void writeMarking() {
+        for (int p = 0; p < places.length; p++) {
+            places[p].setTokens(marking[p]);
+        }
+    }
+
+    public boolean isEnabled(int t) {
+        return enabled.get(t);
+    }
+
+    public int getEnabledCount() {
+        return enabled.cardinality();
+    }
+
+    /**
+     * Returns the first enabled transition with the id greater than or equal to the given one, or -1 if there is none.
+     */
+    public int nextEnabled(int fromIndex) {
+        return enabled.nextSetBit(fromIndex);
+    }
+
+    public List<Transition> getEnabledTransitions() {
+        List<Transition> result = new ArrayList<>(enabled.cardinality());
+        for (int t = enabled.nextSetBit(0); t >= 0; t = enabled.nextSetBit(t + 1)) {
+            result.add(transitions[t]);
+        }
+        return result;
+    }
+
+    public void fire(int t) {
+        // First consume tokens and then produce tokens.
+        for (int i = preStart[t]; i < preStart[t + 1]; i++) {
+            int p = prePlaces[i];
+            setTokens(p, marking[p] - preWeights[i]);
+        }
+        for (int i = postStart[t]; i < postStart[t + 1]; i++) {
+            int p = postPlaces[i];
+            setTokens(p, marking[p] + postWeights[i]);
+        }
+    }
+
+    public boolean isUnfireEnabled(int t) {
+        for (int i = postStart[t]; i < postStart[t + 1]; i++) {
+            if (marking[postPlaces[i]] < postWeights[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void unfire(int t) {
+        for (int i = postStart[t]; i < postStart[t + 1]; i++) {
+            int p = postPlaces[i];
+            setTokens(p, marking[p] - postWeights[i]);
+        }
+        for (int i = preStart[t]; i < preStart[t + 1]; i++) {
+            int p = prePlaces[i];
+            setTokens(p, marking[p] + preWeights[i]);
+        }
+    }
+
+    /**
+     * Checks if the transition is enabled at the given marking, without changing the marking of the compiled net.
+     */
+    public boolean isEnabled(int t, int[] marking) {
+        for (int i = preStart[t]; i < preStart[t + 1]; i++) {
+            if (marking[prePlaces[i]] < preWeights[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fires the transition at the given marking, which is modified in place.
+     */
+    public void fire(int t, int[] marking) {
+        fire(t, marking, 0);
+    }
+
+    /**
+     * Fires the transition at the marking that starts at the offset of the array.
+     */
+    public void fire(int t, int[] markings, int offset) {
+        for (int i = preStart[t]; i < preStart[t + 1]; i++) {
+            markings[offset + prePlaces[i]] -= preWeights[i];
+        }
+        for (int i = postStart[t]; i < postStart[t + 1]; i++) {
+            markings[offset + postPlaces[i]] += postWeights[i];
+        }
+    }
+
+    /**
+     * Starts tracking the token changes of the model places. Structural changes of the model make the compiled net stale.
+     */
+    public void attach() {
+        if (supervisor == null) {
+            supervisor = new StateSupervisor() {
+                @Override
+                public void handleHierarchyEvent(HierarchyEvent e) {
+                    stale = true;
+                }
+
+                @Override
+                public void handleEvent(StateEvent e) {
+                    if (e instanceof PropertyChangedEvent) {
+                        PropertyChangedEvent pce = (PropertyChangedEvent) e;
+                        if ((pce.getSender() instanceof Place) && Place.PROPERTY_TOKENS.equals(pce.getPropertyName())) {
+                            int p = getPlaceId((Place) pce.getSender());
+                            if (p >= 0) {
+                                setTokens(p, places[p].getTokens());
+                            }
+                        }
+                    }
+                }
+            };
+            supervisor.attach(net.getRoot());
+            stale = false;
+            readMarking();
+        }
+    }
+
+    public void detach() {
+        if (supervisor != null) {
+            supervisor.detach();
+            supervisor = null;
+        }
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+}
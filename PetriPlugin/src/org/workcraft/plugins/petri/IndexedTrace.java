@@ -0,0 +1,115 @@
+package org.workcraft.plugins.petri;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.workcraft.dom.Node;
+
+/**
+ * Trace bound to the transitions of an indexed Petri net. Each distinct reference of the trace is
+ * resolved only once, so the trace can be replayed on the compiled net without looking up the nodes
+ * at every step. References that do not denote a transition of the net are kept as -1.
+ */
+public class IndexedTrace {
+    private final IndexedPetriNet net;
+    private final int[] transitions;
+
+    public IndexedTrace(IndexedPetriNet net, List<String> refs) {
+        this.net = net;
+        transitions = new int[refs.size()];
+        PetriNetModel model = net.getNet();
+        Map<String, Integer> ids = new HashMap<>();
+        int i = 0;
+        for (String ref: refs) {
+            Integer t = ids.get(ref);
+            if (t == null) {
+                t = -1;
+                Node node = (ref == null) ? null : model.getNodeByReference(ref);
+                if (node instanceof Transition) {
+                    t = net.getTransitionId((Transition) node);
+                }
+                ids.put(ref, t);
+            }
+            transitions[i++] = t;
+        }
+    }
+
+    public IndexedPetriNet getNet() {
+        return net;
+    }
+
+    public int size() {
+        return transitions.length;
+    }
+
+    public int get(int index) {
+        return transitions[index];
+    }
+
+    /**
+     * Fires the transitions of the trace in order on the compiled net, stopping at the first one that is
+     * not enabled. Returns the number of fired transitions.
+     */
+    public int fire() {
+        return fire(null);
+    }
+
+    /**
+     * Same as {@link #fire()}, but if the peaks array is not null it raises each entry to the largest
+     * number of tokens the place gets during the replay.
+     */
+    public int fire(int[] peaks) {
+        int count = 0;
+        for (int t: transitions) {
+            if ((t < 0) || !net.isEnabled(t)) {
+                break;
+            }
+            net.fire(t);
+            if (peaks != null) {
+                for (int i = 0; i < net.getPostsetSize(t); i++) {
+                    updatePeak(peaks, net.getPostsetPlace(t, i));
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Unfires the transitions of the trace in order on the compiled net, stopping at the first one that
+     * cannot be unfired. Returns the number of unfired transitions.
+     */
+    public int unfire() {
+        return unfire(null);
+    }
+
+    /**
+     * Same as {@link #unfire()}, but if the peaks array is not null it raises each entry to the largest
+     * number of tokens the place gets during the replay.
+     */
+    public int unfire(int[] peaks) {
+        int count = 0;
+        for (int t: transitions) {
+            if ((t < 0) || !net.isUnfireEnabled(t)) {
+                break;
+            }
+            net.unfire(t);
+            if (peaks != null) {
+                for (int i = 0; i < net.getPresetSize(t); i++) {
+                    updatePeak(peaks, net.getPresetPlace(t, i));
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private void updatePeak(int[] peaks, int p) {
+        int tokens = net.getTokens(p);
+        if (tokens > peaks[p]) {
+            peaks[p] = tokens;
+        }
+    }
+
+}
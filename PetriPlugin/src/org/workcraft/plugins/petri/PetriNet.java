@@ -1,8 +1,6 @@
 package org.workcraft.plugins.petri;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.workcraft.annotations.VisualClass;
 import org.workcraft.dom.Connection;
@@ -89,40 +87,35 @@ public class PetriNet extends AbstractMathModel implements PetriNetModel {
     }
 
     public static final boolean isUnfireEnabled(PetriNetModel net, Transition t) {
-        // gather number of connections for each post-place
-        Map<Place, Integer> map = new HashMap<>();
-        for (Connection c: net.getConnections(t)) {
-            if (c.getFirst() == t) {
-                if (map.containsKey(c.getSecond())) {
-                    map.put((Place) c.getSecond(), map.get(c.getSecond()) + 1);
-                } else {
-                    map.put((Place) c.getSecond(), 1);
-                }
-            }
-        }
-        for (Node n : net.getPostset(t)) {
-            if (((Place) n).getTokens() < map.get((Place) n)) {
-                return false;
-            }
-        }
-        return true;
+        // every post-place must hold at least as many tokens as there are arcs to it
+        return hasEnoughTokens(net.getConnections(t), t, false);
     }
 
     public static final boolean isEnabled(PetriNetModel net, Transition t) {
-        // gather number of connections for each pre-place
-        Map<Place, Integer> map = new HashMap<>();
-        for (Connection c: net.getConnections(t)) {
-            if (c.getSecond() == t) {
-                if (map.containsKey(c.getFirst())) {
-                    map.put((Place) c.getFirst(), map.get(c.getFirst()) + 1);
-                } else {
-                    map.put((Place) c.getFirst(), 1);
-                }
+        // every pre-place must hold at least as many tokens as there are arcs from it
+        return hasEnoughTokens(net.getConnections(t), t, true);
+    }
+
+    // Parallel arcs are only counted for a place with fewer tokens than the transition has connections,
+    // as otherwise it holds enough tokens for any number of them.
+    private static boolean hasEnoughTokens(Collection<Connection> connections, Transition t, boolean preset) {
+        int connectionCount = connections.size();
+        for (Connection c: connections) {
+            Node node = preset ? c.getFirst() : c.getSecond();
+            if ((node == t) || !(node instanceof Place)) {
+                continue;
             }
-        }
-        for (Node n : net.getPreset(t)) {
-            if (((Place) n).getTokens() < map.get((Place) n)) {
-                return false;
+            int tokens = ((Place) node).getTokens();
+            if (tokens < connectionCount) {
+                int weight = 0;
+                for (Connection d: connections) {
+                    if ((preset ? d.getFirst() : d.getSecond()) == node) {
+                        weight++;
+                    }
+                }
+                if (tokens < weight) {
+                    return false;
+                }
             }
         }
         return true;
@@ -143,13 +136,14 @@ public class PetriNet extends AbstractMathModel implements PetriNetModel {
         // (the transition must be "unfireble")
 
         // first consume tokens and then produce tokens (to avoid extra capacity)
-        for (Connection c : net.getConnections(t)) {
+        Collection<Connection> connections = net.getConnections(t);
+        for (Connection c : connections) {
             if (t == c.getFirst()) {
                 Place to = (Place) c.getSecond();
                 to.setTokens(to.getTokens() - 1);
             }
         }
-        for (Connection c : net.getConnections(t)) {
+        for (Connection c : connections) {
             if (t == c.getSecond()) {
                 Place from = (Place) c.getFirst();
                 from.setTokens(from.getTokens() + 1);
@@ -160,13 +154,14 @@ public class PetriNet extends AbstractMathModel implements PetriNetModel {
     public static final void fire(PetriNetModel net, Transition t) {
         if (net.isEnabled(t)) {
             // first consume tokens and then produce tokens (to avoid extra capacity)
-            for (Connection c : net.getConnections(t)) {
+            Collection<Connection> connections = net.getConnections(t);
+            for (Connection c : connections) {
                 if (t == c.getSecond()) {
                     Place from = (Place) c.getFirst();
                     from.setTokens(from.getTokens() - 1);
                 }
             }
-            for (Connection c : net.getConnections(t)) {
+            for (Connection c : connections) {
                 if (t == c.getFirst()) {
                     Place to = (Place) c.getSecond();
                     to.setTokens(to.getTokens() + 1);
@@ -7,6 +7,7 @@ import org.workcraft.PluginManager;
 import org.workcraft.Version;
 import org.workcraft.dom.ModelDescriptor;
 import org.workcraft.gui.graph.commands.Command;
+import org.workcraft.gui.propertyeditor.Settings;
 import org.workcraft.plugins.petri.commands.CollapseProxyTransformationCommand;
 import org.workcraft.plugins.petri.commands.ContractTransitionTransformationCommand;
 import org.workcraft.plugins.petri.commands.DirectedArcToReadArcTransformationCommand;
@@ -15,7 +16,9 @@ import org.workcraft.plugins.petri.commands.MergePlaceTransformationCommand;
 import org.workcraft.plugins.petri.commands.MergeTransitionTransformationCommand;
 import org.workcraft.plugins.petri.commands.ProxyDirectedArcPlaceTransformationCommand;
 import org.workcraft.plugins.petri.commands.ProxyReadArcPlaceTransformationCommand;
+import org.workcraft.plugins.petri.commands.ReachabilityVerificationCommand;
 import org.workcraft.plugins.petri.commands.ReadArcToDualArcTransformationCommand;
+import org.workcraft.plugins.petri.reachability.ReachabilitySettings;
 import org.workcraft.plugins.petri.serialization.ReadArcDeserialiser;
 import org.workcraft.plugins.petri.serialization.ReadArcSerialiser;
 import org.workcraft.serialisation.xml.XMLDeserialiser;
@@ -38,6 +41,7 @@ public class PetriNetModule implements Module {
         final Framework framework = Framework.getInstance();
         final PluginManager pm = framework.getPluginManager();
         pm.registerClass(ModelDescriptor.class, PetriNetDescriptor.class);
+        pm.registerClass(Settings.class, ReachabilitySettings.class);
 
         pm.registerClass(XMLSerialiser.class, ReadArcSerialiser.class);
         pm.registerClass(XMLDeserialiser.class, ReadArcDeserialiser.class);
@@ -51,6 +55,7 @@ public class PetriNetModule implements Module {
         pm.registerClass(Command.class, ProxyReadArcPlaceTransformationCommand.class);
         pm.registerClass(Command.class, MergePlaceTransformationCommand.class);
         pm.registerClass(Command.class, MergeTransitionTransformationCommand.class);
+        pm.registerClass(Command.class, ReachabilityVerificationCommand.class);
     }
 
     private void initCompatibilityManager() {
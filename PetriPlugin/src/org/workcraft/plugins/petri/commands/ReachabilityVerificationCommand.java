@@ -0,0 +1,48 @@
+package org.workcraft.plugins.petri.commands;
+
+import org.workcraft.Framework;
+import org.workcraft.gui.graph.commands.AbstractVerificationCommand;
+import org.workcraft.plugins.petri.PetriNetModel;
+import org.workcraft.plugins.petri.reachability.ReachabilityExplorer;
+import org.workcraft.plugins.petri.reachability.ReachabilityResultHandler;
+import org.workcraft.tasks.TaskManager;
+import org.workcraft.workspace.WorkspaceEntry;
+import org.workcraft.workspace.WorkspaceUtils;
+
+public class ReachabilityVerificationCommand extends AbstractVerificationCommand {
+
+    @Override
+    public String getDisplayName() {
+        return "Deadlock freeness and boundedness [built-in]";
+    }
+
+    @Override
+    public boolean isApplicableTo(WorkspaceEntry we) {
+        return WorkspaceUtils.isApplicable(we, PetriNetModel.class);
+    }
+
+    @Override
+    public int getPriority() {
+        return 4;
+    }
+
+    @Override
+    public Position getPosition() {
+        return null;
+    }
+
+    @Override
+    public void run(WorkspaceEntry we) {
+        final PetriNetModel net = WorkspaceUtils.getAs(we, PetriNetModel.class);
+        final ReachabilityExplorer explorer = new ReachabilityExplorer(net);
+        String description = "Reachability analysis";
+        String title = we.getTitle();
+        if (!title.isEmpty()) {
+            description += "(" + title + ")";
+        }
+        final Framework framework = Framework.getInstance();
+        final TaskManager taskManager = framework.getTaskManager();
+        taskManager.queue(explorer, description, new ReachabilityResultHandler(we));
+    }
+
+}
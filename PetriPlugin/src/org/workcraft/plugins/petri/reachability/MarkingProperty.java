@@ -0,0 +1,22 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.BitSet;
+
+/**
+ * Safety property checked at every explored marking. Implementations are called from
+ * several exploration threads at once, so they must not modify shared state.
+ */
+public interface MarkingProperty {
+
+    /**
+     * Returns a description of the violation at the marking, or null if the property holds.
+     */
+    String check(int[] marking);
+
+    /**
+     * Returns the transitions whose firing may change the result of the check. These transitions
+     * are never postponed by the partial-order reduction.
+     */
+    BitSet getVisibleTransitions();
+
+}
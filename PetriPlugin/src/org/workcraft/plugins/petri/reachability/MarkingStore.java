@@ -0,0 +1,271 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.Arrays;
+
+/**
+ * Set of reachable markings numbered in the order of insertion. Token counts are bit-packed
+ * into int words with the same power-of-two width for all places; the width starts at one bit
+ * (safe nets) and is doubled, repacking the stored markings, when a larger count is inserted.
+ * Markings are hashed into an open-addressing table of state ids. For each state the parent state
+ * and the transition it was reached by are kept, so a shortest witness trace can be rebuilt.
+ *
+ * Reading the stored markings is safe from several threads as long as no marking is inserted.
+ */
+public class MarkingStore {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int placeCount;
+    private int bits = 1;
+    private int placesPerWord = 32;
+    private int wordsPerMarking;
+
+    private int size = 0;
+    private int[] words;
+    private int[] hashes;
+    private int[] parents;
+    private int[] transitions;
+    private int[] table;
+    private int[] packed;
+
+    public MarkingStore(int placeCount) {
+        this.placeCount = placeCount;
+        wordsPerMarking = getWordCount(placeCount, placesPerWord);
+        words = new int[INITIAL_CAPACITY * wordsPerMarking];
+        hashes = new int[INITIAL_CAPACITY];
+        parents = new int[INITIAL_CAPACITY];
+        transitions = new int[INITIAL_CAPACITY];
+        table = new int[2 * INITIAL_CAPACITY];
+        Arrays.fill(table, EMPTY);
+        packed = new int[wordsPerMarking];
+    }
+
+    private static int getWordCount(int placeCount, int placesPerWord) {
+        return Math.max(1, (placeCount + placesPerWord - 1) / placesPerWord);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPlaceCount() {
+        return placeCount;
+    }
+
+    /**
+     * Returns the number of bits currently used for the token count of a place.
+     */
+    public int getBitsPerPlace() {
+        return bits;
+    }
+
+    public long getMemoryUsage() {
+        return 4L * (words.length + hashes.length + parents.length + transitions.length + table.length);
+    }
+
+    public int getParent(int id) {
+        return parents[id];
+    }
+
+    public int getTransition(int id) {
+        return transitions[id];
+    }
+
+    /**
+     * Returns the length of the shortest known firing sequence from the first state to the given one.
+     */
+    public int getDepth(int id) {
+        int result = 0;
+        for (int s = parents[id]; s >= 0; s = parents[s]) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the transitions leading from the first state to the given one.
+     */
+    public int[] getTrace(int id) {
+        int[] result = new int[getDepth(id)];
+        int s = id;
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = transitions[s];
+            s = parents[s];
+        }
+        return result;
+    }
+
+    public void getMarking(int id, int[] marking) {
+        getMarking(id, marking, 0);
+    }
+
+    /**
+     * Unpacks the marking of the state into the array starting at the offset.
+     */
+    public void getMarking(int id, int[] marking, int offset) {
+        int base = id * wordsPerMarking;
+        long mask = (1L << bits) - 1;
+        int p = 0;
+        for (int w = 0; w < wordsPerMarking; w++) {
+            long word = words[base + w] & 0xFFFFFFFFL;
+            for (int i = 0; (i < placesPerWord) && (p < placeCount); i++) {
+                marking[offset + p] = (int) (word & mask);
+                word >>>= bits;
+                p++;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the state with the marking starting at the offset of the array, or -1 if the marking
+     * is not stored.
+     */
+    public int find(int[] marking, int offset) {
+        for (int p = 0; p < placeCount; p++) {
+            if ((bits < 32) && ((marking[offset + p] >>> bits) != 0)) {
+                return -1;
+            }
+        }
+        pack(marking, offset, packed);
+        int slot = findSlot(getHash(marking, offset, placeCount), packed);
+        return (table[slot] == EMPTY) ? -1 : table[slot];
+    }
+
+    public int add(int[] marking, int parent, int transition) {
+        return add(marking, 0, parent, transition);
+    }
+
+    /**
+     * Adds the marking starting at the offset of the array. Returns the id of the new state,
+     * or (-id - 1) if the marking is already stored, in which case the state is not changed.
+     */
+    public int add(int[] marking, int offset, int parent, int transition) {
+        int maxTokens = 0;
+        for (int p = 0; p < placeCount; p++) {
+            maxTokens = Math.max(maxTokens, marking[offset + p]);
+        }
+        while ((bits < 32) && (maxTokens >>> bits) != 0) {
+            repack(2 * bits);
+        }
+        pack(marking, offset, packed);
+        int hash = getHash(marking, offset, placeCount);
+        int slot = findSlot(hash, packed);
+        if (table[slot] != EMPTY) {
+            return -table[slot] - 1;
+        }
+        if (size == hashes.length) {
+            grow();
+        }
+        int id = size++;
+        System.arraycopy(packed, 0, words, id * wordsPerMarking, wordsPerMarking);
+        hashes[id] = hash;
+        parents[id] = parent;
+        transitions[id] = transition;
+        table[slot] = id;
+        if (2 * size > table.length) {
+            rehash(2 * table.length);
+        }
+        return id;
+    }
+
+    private int findSlot(int hash, int[] packedMarking) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int id = table[slot];
+            if ((id == EMPTY) || ((hashes[id] == hash) && isEqual(id, packedMarking))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean isEqual(int id, int[] packedMarking) {
+        int base = id * wordsPerMarking;
+        for (int w = 0; w < wordsPerMarking; w++) {
+            if (words[base + w] != packedMarking[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void pack(int[] marking, int offset, int[] result) {
+        int p = 0;
+        for (int w = 0; w < wordsPerMarking; w++) {
+            long word = 0;
+            for (int i = 0; (i < placesPerWord) && (p < placeCount); i++) {
+                word |= (marking[offset + p] & 0xFFFFFFFFL) << (i * bits);
+                p++;
+            }
+            result[w] = (int) word;
+        }
+    }
+
+    private void repack(int newBits) {
+        int[] marking = new int[placeCount];
+        int[] oldWords = words;
+        int oldWordsPerMarking = wordsPerMarking;
+        int oldBits = bits;
+        int oldPlacesPerWord = placesPerWord;
+
+        bits = newBits;
+        placesPerWord = 32 / newBits;
+        wordsPerMarking = getWordCount(placeCount, placesPerWord);
+        words = new int[hashes.length * wordsPerMarking];
+        packed = new int[wordsPerMarking];
+        long mask = (1L << oldBits) - 1;
+        for (int id = 0; id < size; id++) {
+            int base = id * oldWordsPerMarking;
+            int p = 0;
+            for (int w = 0; w < oldWordsPerMarking; w++) {
+                long word = oldWords[base + w] & 0xFFFFFFFFL;
+                for (int i = 0; (i < oldPlacesPerWord) && (p < placeCount); i++) {
+                    marking[p] = (int) (word & mask);
+                    word >>>= oldBits;
+                    p++;
+                }
+            }
+            pack(marking, 0, packed);
+            System.arraycopy(packed, 0, words, id * wordsPerMarking, wordsPerMarking);
+        }
+    }
+
+    private void grow() {
+        int capacity = 2 * hashes.length;
+        words = Arrays.copyOf(words, capacity * wordsPerMarking);
+        hashes = Arrays.copyOf(hashes, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        transitions = Arrays.copyOf(transitions, capacity);
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    /**
+     * Hash of the unpacked token counts, so it does not depend on the packing width.
+     */
+    private static int getHash(int[] marking, int offset, int count) {
+        int h = 0x9E3779B9;
+        for (int p = 0; p < count; p++) {
+            h = (h ^ marking[offset + p]) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
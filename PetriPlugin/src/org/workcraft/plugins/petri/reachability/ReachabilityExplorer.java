@@ -0,0 +1,392 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.workcraft.Trace;
+import org.workcraft.plugins.petri.IndexedPetriNet;
+import org.workcraft.plugins.petri.PetriNetModel;
+import org.workcraft.tasks.ProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.tasks.Task;
+
+/**
+ * In-process breadth-first exploration of the reachability graph of a Petri net.
+ *
+ * The markings are kept in a {@link MarkingStore}, whose state ids double as the BFS queue.
+ * The queue is processed in batches: the successors of a batch are computed by a pool of threads,
+ * each taking the next unprocessed chunk of states, and then merged into the store in the order
+ * of chunks by the calling thread. The store is therefore only written by one thread, and the
+ * numbering of states, the counts and the witness traces do not depend on the number of threads.
+ *
+ * Unboundedness is detected by the Karp-Miller criterion: a marking that strictly covers
+ * a marking on its own path proves that the covering firing sequence can be repeated forever.
+ * The check is only done when some place gets more tokens than ever before, so it is cheap
+ * for bounded nets. Exploration stops at the state limit, in which case the result is incomplete.
+ *
+ * Optionally, only the enabled transitions of a stubborn set are fired at each state, which preserves
+ * deadlocks. If a {@link MarkingProperty} is checked, the BFS cycle proviso is also applied at the merge:
+ * a reduced state whose successors are all expanded already gets fully expanded, so that the reduced
+ * graph preserves the reachability of markings violating the property.
+ */
+public class ReachabilityExplorer implements Task<ReachabilityResult> {
+    private static final int CHUNK_SIZE = 256;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final PetriNetModel net;
+    private final IndexedPetriNet indexedNet;
+    private int threadCount = ReachabilitySettings.getThreadCount();
+    private int stateLimit = ReachabilitySettings.getStateLimit();
+    private boolean reduction = ReachabilitySettings.getUseReduction();
+    private MarkingProperty property = null;
+
+    public ReachabilityExplorer(PetriNetModel net) {
+        this.net = net;
+        this.indexedNet = new IndexedPetriNet(net);
+    }
+
+    public IndexedPetriNet getIndexedNet() {
+        return indexedNet;
+    }
+
+    public void setThreadCount(int value) {
+        threadCount = Math.max(1, value);
+    }
+
+    public void setStateLimit(int value) {
+        stateLimit = Math.max(1, value);
+    }
+
+    /**
+     * Enables the stubborn set reduction, which preserves deadlocks and violations of the property,
+     * but not the state count and boundedness.
+     */
+    public void setReduction(boolean value) {
+        reduction = value;
+    }
+
+    public void setProperty(MarkingProperty value) {
+        property = value;
+    }
+
+    @Override
+    public Result<? extends ReachabilityResult> run(ProgressMonitor<? super ReachabilityResult> monitor) {
+        ExecutorService executor = (threadCount > 1) ? Executors.newFixedThreadPool(threadCount) : null;
+        try {
+            ReachabilityResult result = new Search().explore(executor, monitor);
+            if (result == null) {
+                return Result.cancelled();
+            }
+            return Result.finished(result);
+        } catch (InterruptedException | ExecutionException e) {
+            return Result.exception(e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * State of one exploration, which is only modified by the merging thread.
+     */
+    private final class Search {
+        private final int placeCount = indexedNet.getPlaceCount();
+        private final MarkingStore store = new MarkingStore(placeCount);
+        private final int[] maxTokens = new int[placeCount];
+        private final int[] ancestor = new int[placeCount];
+        private long arcCount = 0;
+        private int deadlockCount = 0;
+        private int deadlockState = -1;
+        private int violationState = -1;
+        private String violationMessage = null;
+        private int unboundedState = -1;
+        private int unboundedPlace = -1;
+        private boolean limitReached = false;
+
+        private ReachabilityResult explore(ExecutorService executor, ProgressMonitor<? super ReachabilityResult> monitor)
+                throws InterruptedException, ExecutionException {
+
+            int[] marking = new int[placeCount];
+            indexedNet.getMarking(marking);
+            store.add(marking, -1, -1);
+            System.arraycopy(marking, 0, maxTokens, 0, placeCount);
+            int head = 0;
+            while ((head < store.size()) && !isStopped()) {
+                if ((monitor != null) && monitor.isCancelRequested()) {
+                    return null;
+                }
+                int batchSize = CHUNK_SIZE * CHUNKS_PER_THREAD * threadCount;
+                int batchEnd = Math.min(store.size(), head + batchSize);
+                for (Successors successors: expand(head, batchEnd, executor)) {
+                    merge(successors, batchEnd);
+                    if (isStopped()) {
+                        break;
+                    }
+                }
+                head = batchEnd;
+                if (monitor != null) {
+                    monitor.progressUpdate((double) store.size() / stateLimit);
+                }
+            }
+            return getResult();
+        }
+
+        private boolean isStopped() {
+            return limitReached || (unboundedState >= 0);
+        }
+
+        private void merge(Successors successors, int batchEnd) {
+            deadlockCount += successors.deadlockCount;
+            if ((deadlockState < 0) && (successors.deadlockCount > 0)) {
+                deadlockState = successors.firstDeadlock;
+            }
+            if ((violationState < 0) && (successors.violationState >= 0)) {
+                violationState = successors.violationState;
+                violationMessage = successors.violationMessage;
+            }
+            BitSet fired = new BitSet(indexedNet.getTransitionCount());
+            int i = 0;
+            while ((i < successors.count) && !isStopped()) {
+                int source = successors.sources[i];
+                boolean open = false;
+                fired.clear();
+                for (; (i < successors.count) && (successors.sources[i] == source) && !isStopped(); i++) {
+                    fired.set(successors.transitions[i]);
+                    if (add(successors.markings, i * placeCount, source, successors.transitions[i], batchEnd)) {
+                        open = true;
+                    }
+                }
+                // Cycle proviso: a reduced state whose successors are all expanded already is expanded fully,
+                // so that no visible transition is postponed forever along a cycle. Deadlocks do not need it.
+                if (!open && (property != null) && successors.isReduced(source)) {
+                    expandFully(source, fired, batchEnd);
+                }
+            }
+        }
+
+        private void expandFully(int source, BitSet fired, int batchEnd) {
+            int[] marking = new int[placeCount];
+            int[] successor = new int[placeCount];
+            store.getMarking(source, marking);
+            for (int t = 0; (t < indexedNet.getTransitionCount()) && !isStopped(); t++) {
+                if (!fired.get(t) && indexedNet.isEnabled(t, marking)) {
+                    System.arraycopy(marking, 0, successor, 0, placeCount);
+                    indexedNet.fire(t, successor);
+                    add(successor, 0, source, t, batchEnd);
+                }
+            }
+        }
+
+        /**
+         * Adds the successor to the store. Returns true if its state is not expanded yet.
+         */
+        private boolean add(int[] markings, int offset, int source, int t, int batchEnd) {
+            if ((store.size() >= stateLimit) && (store.find(markings, offset) < 0)) {
+                // Only a state beyond the limit makes the state space incomplete.
+                limitReached = true;
+                return false;
+            }
+            int id = store.add(markings, offset, source, t);
+            arcCount++;
+            if (id < 0) {
+                return -id - 1 >= batchEnd;
+            }
+            boolean newMax = false;
+            for (int p = 0; p < placeCount; p++) {
+                int tokens = markings[offset + p];
+                if (tokens > maxTokens[p]) {
+                    maxTokens[p] = tokens;
+                    newMax = true;
+                }
+            }
+            if (newMax) {
+                unboundedPlace = findPumpedPlace(store, id, markings, offset, ancestor);
+                if (unboundedPlace >= 0) {
+                    unboundedState = id;
+                }
+            }
+            return true;
+        }
+
+        private ReachabilityResult getResult() {
+            int maxTokenCount = 0;
+            for (int p = 0; p < placeCount; p++) {
+                maxTokenCount = Math.max(maxTokenCount, maxTokens[p]);
+            }
+            ReachabilityResult result = new ReachabilityResult(store.size(), arcCount, !isStopped(), reduction);
+            if (deadlockState >= 0) {
+                result.setDeadlock(deadlockCount, getTrace(store, deadlockState));
+            }
+            if (violationState >= 0) {
+                result.setViolation(violationMessage, getTrace(store, violationState));
+            }
+            if (unboundedState >= 0) {
+                String placeRef = net.getNodeReference(indexedNet.getPlace(unboundedPlace));
+                result.setUnbounded(placeRef, getTrace(store, unboundedState));
+            }
+            result.setMaxTokens(maxTokenCount);
+            return result;
+        }
+
+        private List<Successors> expand(int from, int to, ExecutorService executor)
+                throws InterruptedException, ExecutionException {
+
+            List<Successors> result = new ArrayList<>();
+            if ((executor == null) || (to - from <= CHUNK_SIZE)) {
+                result.add(expandChunk(from, to));
+            } else {
+                List<Callable<Successors>> chunks = new ArrayList<>();
+                for (int chunkStart = from; chunkStart < to; chunkStart += CHUNK_SIZE) {
+                    final int chunkFrom = chunkStart;
+                    final int chunkTo = Math.min(to, chunkStart + CHUNK_SIZE);
+                    chunks.add(new Callable<Successors>() {
+                        @Override
+                        public Successors call() {
+                            return expandChunk(chunkFrom, chunkTo);
+                        }
+                    });
+                }
+                for (Future<Successors> future: executor.invokeAll(chunks)) {
+                    result.add(future.get());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Computes the successors of the states from the chunk. Only reads the store, so chunks are expanded in parallel.
+         */
+        private Successors expandChunk(int from, int to) {
+            int transitionCount = indexedNet.getTransitionCount();
+            Successors result = new Successors(placeCount, from);
+            StubbornSetReduction stubbornSets = null;
+            if (reduction) {
+                BitSet visible = (property == null) ? null : property.getVisibleTransitions();
+                stubbornSets = new StubbornSetReduction(indexedNet, visible);
+            }
+            BitSet enabled = new BitSet(transitionCount);
+            BitSet selected = new BitSet(transitionCount);
+            int[] marking = new int[placeCount];
+            for (int id = from; id < to; id++) {
+                store.getMarking(id, marking);
+                if ((property != null) && (result.violationState < 0)) {
+                    String message = property.check(marking);
+                    if (message != null) {
+                        result.violationState = id;
+                        result.violationMessage = message;
+                    }
+                }
+                enabled.clear();
+                for (int t = 0; t < transitionCount; t++) {
+                    if (indexedNet.isEnabled(t, marking)) {
+                        enabled.set(t);
+                    }
+                }
+                if (enabled.isEmpty()) {
+                    if (result.deadlockCount == 0) {
+                        result.firstDeadlock = id;
+                    }
+                    result.deadlockCount++;
+                    continue;
+                }
+                BitSet fired = enabled;
+                if ((stubbornSets != null) && stubbornSets.select(marking, enabled, selected)) {
+                    result.setReduced(id);
+                    fired = selected;
+                }
+                for (int t = fired.nextSetBit(0); t >= 0; t = fired.nextSetBit(t + 1)) {
+                    int offset = result.append(id, t);
+                    System.arraycopy(marking, 0, result.markings, offset, placeCount);
+                    indexedNet.fire(t, result.markings, offset);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Looks for a marking on the path to the state that is strictly covered by the state marking.
+     * Returns a place with more tokens than in the covered marking, or -1 if there is no such marking.
+     */
+    private static int findPumpedPlace(MarkingStore store, int id, int[] markings, int offset, int[] ancestor) {
+        int placeCount = store.getPlaceCount();
+        for (int s = store.getParent(id); s >= 0; s = store.getParent(s)) {
+            store.getMarking(s, ancestor);
+            int pumpedPlace = -1;
+            boolean covered = true;
+            for (int p = 0; p < placeCount; p++) {
+                int tokens = markings[offset + p];
+                if (tokens < ancestor[p]) {
+                    covered = false;
+                    break;
+                }
+                if ((tokens > ancestor[p]) && (pumpedPlace < 0)) {
+                    pumpedPlace = p;
+                }
+            }
+            if (covered && (pumpedPlace >= 0)) {
+                return pumpedPlace;
+            }
+        }
+        return -1;
+    }
+
+    private Trace getTrace(MarkingStore store, int id) {
+        Trace result = new Trace();
+        for (int t: store.getTrace(id)) {
+            result.add(net.getNodeReference(indexedNet.getTransition(t)));
+        }
+        return result;
+    }
+
+    /**
+     * Successor markings of a chunk of states, stored one after another in a flat array.
+     */
+    private static final class Successors {
+        private final int placeCount;
+        private final int from;
+        private final BitSet reduced = new BitSet();
+        private int count = 0;
+        private int[] sources = new int[16];
+        private int[] transitions = new int[16];
+        private int[] markings;
+        private int deadlockCount = 0;
+        private int firstDeadlock = -1;
+        private int violationState = -1;
+        private String violationMessage = null;
+
+        Successors(int placeCount, int from) {
+            this.placeCount = placeCount;
+            this.from = from;
+            markings = new int[16 * placeCount];
+        }
+
+        int append(int source, int transition) {
+            if (count == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * count);
+                transitions = Arrays.copyOf(transitions, 2 * count);
+                markings = Arrays.copyOf(markings, 2 * count * placeCount);
+            }
+            sources[count] = source;
+            transitions[count] = transition;
+            return placeCount * count++;
+        }
+
+        void setReduced(int id) {
+            reduced.set(id - from);
+        }
+
+        boolean isReduced(int id) {
+            return reduced.get(id - from);
+        }
+    }
+
+}
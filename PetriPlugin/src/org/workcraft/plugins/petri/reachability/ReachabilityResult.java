@@ -0,0 +1,121 @@
+package org.workcraft.plugins.petri.reachability;
+
+import org.workcraft.Trace;
+
+public class ReachabilityResult {
+    private final int stateCount;
+    private final long arcCount;
+    private final boolean complete;
+    private final boolean reduced;
+    private int deadlockCount = 0;
+    private Trace deadlockTrace = null;
+    private String violationMessage = null;
+    private Trace violationTrace = null;
+    private String unboundedPlace = null;
+    private Trace unboundedTrace = null;
+    private int maxTokens = 0;
+
+    public ReachabilityResult(int stateCount, long arcCount, boolean complete, boolean reduced) {
+        this.stateCount = stateCount;
+        this.arcCount = arcCount;
+        this.complete = complete;
+        this.reduced = reduced;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public long getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * Returns true if all reachable markings were explored, i.e. the net is bounded and the state limit was not hit.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns true if the partial-order reduction was used, so the counts and the bound only refer to the reduced graph.
+     */
+    public boolean isReduced() {
+        return reduced;
+    }
+
+    public void setDeadlock(int count, Trace trace) {
+        deadlockCount = count;
+        deadlockTrace = trace;
+    }
+
+    public int getDeadlockCount() {
+        return deadlockCount;
+    }
+
+    public boolean hasDeadlock() {
+        return deadlockCount > 0;
+    }
+
+    /**
+     * Returns a shortest trace to a deadlock, or null if no deadlock was found.
+     */
+    public Trace getDeadlockTrace() {
+        return deadlockTrace;
+    }
+
+    public void setViolation(String message, Trace trace) {
+        violationMessage = message;
+        violationTrace = trace;
+    }
+
+    public boolean hasViolation() {
+        return violationMessage != null;
+    }
+
+    public String getViolationMessage() {
+        return violationMessage;
+    }
+
+    /**
+     * Returns a trace to a marking violating the checked property, or null if no violation was found.
+     */
+    public Trace getViolationTrace() {
+        return violationTrace;
+    }
+
+    public void setUnbounded(String place, Trace trace) {
+        unboundedPlace = place;
+        unboundedTrace = trace;
+    }
+
+    public boolean isUnbounded() {
+        return unboundedPlace != null;
+    }
+
+    /**
+     * Returns the place whose tokens can be pumped, or null if unboundedness was not detected.
+     */
+    public String getUnboundedPlace() {
+        return unboundedPlace;
+    }
+
+    /**
+     * Returns a trace to a marking that strictly covers one of the markings visited on the way to it.
+     */
+    public Trace getUnboundedTrace() {
+        return unboundedTrace;
+    }
+
+    public void setMaxTokens(int value) {
+        maxTokens = value;
+    }
+
+    /**
+     * Returns the maximum number of tokens in a place over the explored markings.
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.List;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+import org.workcraft.Framework;
+import org.workcraft.Trace;
+import org.workcraft.gui.MainWindow;
+import org.workcraft.gui.ToolboxPanel;
+import org.workcraft.gui.graph.GraphEditorPanel;
+import org.workcraft.gui.graph.tools.SimulationTool;
+import org.workcraft.tasks.DummyProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.util.LogUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+public class ReachabilityResultHandler extends DummyProgressMonitor<ReachabilityResult> {
+    private static final String TITLE = "Verification results";
+    private final WorkspaceEntry we;
+    private final String propertyName;
+
+    public ReachabilityResultHandler(WorkspaceEntry we) {
+        this(we, null);
+    }
+
+    /**
+     * Creates a handler reporting violations of the named property instead of deadlocks.
+     */
+    public ReachabilityResultHandler(WorkspaceEntry we, String propertyName) {
+        this.we = we;
+        this.propertyName = propertyName;
+    }
+
+    @Override
+    public void finished(final Result<? extends ReachabilityResult> result, String description) {
+        switch (result.getOutcome()) {
+        case FINISHED:
+            final ReachabilityResult returnValue = result.getReturnValue();
+            LogUtils.logInfoLine("Reachability graph: " + returnValue.getStateCount() + " states, "
+                    + returnValue.getArcCount() + " arcs.");
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    handleSuccess(returnValue);
+                }
+            });
+            break;
+        case FAILED:
+            String message = "Error: reachability analysis failed.";
+            if (result.getCause() != null) {
+                message += "\n\n" + result.getCause().toString();
+            }
+            LogUtils.logErrorLine(message);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void handleSuccess(ReachabilityResult result) {
+        String message;
+        Trace trace = null;
+        int messageType = JOptionPane.INFORMATION_MESSAGE;
+        if ((propertyName != null) && result.hasViolation()) {
+            message = propertyName + " is violated: " + result.getViolationMessage()
+                    + "\nThe violation is reached after the following trace:\n" + result.getViolationTrace();
+            trace = result.getViolationTrace();
+            messageType = JOptionPane.WARNING_MESSAGE;
+        } else if (result.isUnbounded()) {
+            message = "The system is unbounded: tokens of place '" + result.getUnboundedPlace()
+                    + "' can be pumped after the following trace:\n" + result.getUnboundedTrace();
+            trace = result.getUnboundedTrace();
+            messageType = JOptionPane.WARNING_MESSAGE;
+        } else if (propertyName != null) {
+            if (result.isComplete()) {
+                message = propertyName + " holds.";
+            } else {
+                message = "No violation of " + propertyName.toLowerCase() + " was found in the first "
+                        + result.getStateCount() + " states, but the state limit was reached.";
+                messageType = JOptionPane.WARNING_MESSAGE;
+            }
+        } else if (result.hasDeadlock()) {
+            message = "The system has a deadlock after the following trace:\n" + result.getDeadlockTrace();
+            trace = result.getDeadlockTrace();
+            messageType = JOptionPane.WARNING_MESSAGE;
+        } else if (result.isComplete() && result.isReduced()) {
+            message = "The system is deadlock-free.";
+        } else if (result.isComplete()) {
+            message = "The system is deadlock-free and " + result.getMaxTokens() + "-bounded.";
+        } else {
+            message = "No deadlock was found in the first " + result.getStateCount()
+                    + " states, but the state limit was reached.";
+            messageType = JOptionPane.WARNING_MESSAGE;
+        }
+        message += "\n\nStates: " + result.getStateCount() + ", arcs: " + result.getArcCount()
+                + (result.isReduced() ? " (reduced by stubborn sets)." : ".");
+
+        final Framework framework = Framework.getInstance();
+        final MainWindow mainWindow = framework.getMainWindow();
+        if (mainWindow == null) {
+            LogUtils.logInfoLine(message);
+        } else if ((trace == null) || trace.isEmpty()) {
+            JOptionPane.showMessageDialog(mainWindow, message, TITLE, messageType);
+        } else {
+            String[] options = {"Play trace", "Close"};
+            int answer = JOptionPane.showOptionDialog(mainWindow, message, TITLE, JOptionPane.YES_NO_OPTION,
+                    messageType, null, options, options[0]);
+            if (answer == JOptionPane.YES_OPTION) {
+                playTrace(mainWindow, trace);
+            }
+        }
+    }
+
+    private void playTrace(MainWindow mainWindow, Trace trace) {
+        GraphEditorPanel currentEditor = mainWindow.getCurrentEditor();
+        if ((currentEditor == null) || (currentEditor.getWorkspaceEntry() != we)) {
+            final List<GraphEditorPanel> editors = mainWindow.getEditors(we);
+            if (editors.size() > 0) {
+                currentEditor = editors.get(0);
+                mainWindow.requestFocus(currentEditor);
+            } else {
+                currentEditor = mainWindow.createEditorWindow(we);
+            }
+        }
+        final ToolboxPanel toolbox = currentEditor.getToolBox();
+        final SimulationTool tool = toolbox.getToolInstance(SimulationTool.class);
+        toolbox.selectTool(tool);
+        tool.setTrace(trace, null, currentEditor);
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.workcraft.Config;
+import org.workcraft.gui.propertyeditor.PropertyDeclaration;
+import org.workcraft.gui.propertyeditor.PropertyDescriptor;
+import org.workcraft.gui.propertyeditor.Settings;
+
+public class ReachabilitySettings implements Settings {
+
+    private static final LinkedList<PropertyDescriptor> properties = new LinkedList<>();
+    private static final String prefix = "Tools.reachability";
+
+    private static final String keyThreadCount = prefix + ".threadCount";
+    private static final String keyStateLimit = prefix + ".stateLimit";
+    private static final String keyUseReduction = prefix + ".useReduction";
+
+    private static final int defaultThreadCount = 4;
+    private static final int defaultStateLimit = 1000000;
+    private static final Boolean defaultUseReduction = false;
+
+    private static int threadCount = defaultThreadCount;
+    private static int stateLimit = defaultStateLimit;
+    private static Boolean useReduction = defaultUseReduction;
+
+    public ReachabilitySettings() {
+        properties.add(new PropertyDeclaration<ReachabilitySettings, Integer>(
+                this, "Number of exploration threads", Integer.class, true, false, false) {
+            protected void setter(ReachabilitySettings object, Integer value) {
+                setThreadCount(value);
+            }
+            protected Integer getter(ReachabilitySettings object) {
+                return getThreadCount();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<ReachabilitySettings, Integer>(
+                this, "Maximum number of explored states", Integer.class, true, false, false) {
+            protected void setter(ReachabilitySettings object, Integer value) {
+                setStateLimit(value);
+            }
+            protected Integer getter(ReachabilitySettings object) {
+                return getStateLimit();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<ReachabilitySettings, Boolean>(
+                this, "Use partial-order reduction (no state count and bound)", Boolean.class, true, false, false) {
+            protected void setter(ReachabilitySettings object, Boolean value) {
+                setUseReduction(value);
+            }
+            protected Boolean getter(ReachabilitySettings object) {
+                return getUseReduction();
+            }
+        });
+    }
+
+    @Override
+    public List<PropertyDescriptor> getDescriptors() {
+        return properties;
+    }
+
+    @Override
+    public void load(Config config) {
+        setThreadCount(config.getInt(keyThreadCount, defaultThreadCount));
+        setStateLimit(config.getInt(keyStateLimit, defaultStateLimit));
+        setUseReduction(config.getBoolean(keyUseReduction, defaultUseReduction));
+    }
+
+    @Override
+    public void save(Config config) {
+        config.setInt(keyThreadCount, getThreadCount());
+        config.setInt(keyStateLimit, getStateLimit());
+        config.setBoolean(keyUseReduction, getUseReduction());
+    }
+
+    @Override
+    public String getSection() {
+        return "Models";
+    }
+
+    @Override
+    public String getName() {
+        return "Reachability explorer";
+    }
+
+    public static int getThreadCount() {
+        return threadCount;
+    }
+
+    public static void setThreadCount(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        threadCount = value;
+    }
+
+    public static int getStateLimit() {
+        return stateLimit;
+    }
+
+    public static void setStateLimit(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        stateLimit = value;
+    }
+
+    public static Boolean getUseReduction() {
+        return useReduction;
+    }
+
+    public static void setUseReduction(Boolean value) {
+        useReduction = value;
+    }
+
+}
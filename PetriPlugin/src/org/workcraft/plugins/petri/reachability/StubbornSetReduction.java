@@ -0,0 +1,106 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.BitSet;
+
+import org.workcraft.plugins.petri.IndexedPetriNet;
+
+/**
+ * Stubborn sets of a place/transition net, which preserve all reachable deadlocks.
+ * The closure adds the competitors for the pre-places of an enabled transition, and the producers
+ * of one insufficiently marked pre-place (the one with fewest producers) of a disabled transition.
+ * Every enabled transition is tried as the seed and the set with fewest enabled transitions wins.
+ *
+ * If the set contains an enabled visible transition then all enabled transitions are returned, which
+ * together with the cycle proviso of the explorer also preserves the reachability of visible markings.
+ *
+ * An instance keeps scratch arrays and must only be used by one thread.
+ */
+public class StubbornSetReduction {
+    private final IndexedPetriNet indexedNet;
+    private final BitSet visible;
+    private final int[] stack;
+    private final BitSet stubborn;
+    private final BitSet best;
+
+    public StubbornSetReduction(IndexedPetriNet indexedNet, BitSet visible) {
+        this.indexedNet = indexedNet;
+        this.visible = (visible == null) ? new BitSet() : visible;
+        int transitionCount = indexedNet.getTransitionCount();
+        stack = new int[transitionCount];
+        stubborn = new BitSet(transitionCount);
+        best = new BitSet(transitionCount);
+    }
+
+    /**
+     * Stores into the result the enabled transitions of a stubborn set at the marking.
+     * Returns false if no reduction is possible, in which case the result contains all enabled transitions.
+     */
+    public boolean select(int[] marking, BitSet enabled, BitSet result) {
+        result.clear();
+        int enabledCount = enabled.cardinality();
+        int bestCount = enabledCount;
+        for (int seed = enabled.nextSetBit(0); (seed >= 0) && (bestCount > 1); seed = enabled.nextSetBit(seed + 1)) {
+            int count = close(seed, marking, enabled, bestCount);
+            if (count < bestCount) {
+                bestCount = count;
+                best.clear();
+                best.or(stubborn);
+                best.and(enabled);
+            }
+        }
+        if (bestCount < enabledCount) {
+            result.or(best);
+            return true;
+        }
+        result.or(enabled);
+        return false;
+    }
+
+    /**
+     * Builds the stubborn set of the seed and returns the number of its enabled transitions,
+     * giving up as soon as the number reaches the limit or a visible transition is enabled.
+     */
+    private int close(int seed, int[] marking, BitSet enabled, int limit) {
+        stubborn.clear();
+        stubborn.set(seed);
+        int top = 0;
+        stack[top++] = seed;
+        int count = 0;
+        while (top > 0) {
+            int t = stack[--top];
+            if (enabled.get(t)) {
+                if (visible.get(t) || (++count >= limit)) {
+                    return limit;
+                }
+                for (int i = 0; i < indexedNet.getPresetSize(t); i++) {
+                    int p = indexedNet.getPresetPlace(t, i);
+                    for (int j = 0; j < indexedNet.getConsumerCount(p); j++) {
+                        top = push(indexedNet.getConsumer(p, j), top);
+                    }
+                }
+            } else {
+                int scapegoat = -1;
+                for (int i = 0; i < indexedNet.getPresetSize(t); i++) {
+                    int p = indexedNet.getPresetPlace(t, i);
+                    if ((marking[p] < indexedNet.getPresetWeight(t, i)) && ((scapegoat < 0)
+                            || (indexedNet.getProducerCount(p) < indexedNet.getProducerCount(scapegoat)))) {
+                        scapegoat = p;
+                    }
+                }
+                for (int j = 0; j < indexedNet.getProducerCount(scapegoat); j++) {
+                    top = push(indexedNet.getProducer(scapegoat, j), top);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int push(int t, int top) {
+        if (!stubborn.get(t)) {
+            stubborn.set(t);
+            stack[top++] = t;
+        }
+        return top;
+    }
+
+}
@@ -2,19 +2,25 @@ package org.workcraft.plugins.petri.tools;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.workcraft.dom.Connection;
 import org.workcraft.dom.Node;
 import org.workcraft.dom.math.MathModel;
+import org.workcraft.dom.visual.VisualModel;
 import org.workcraft.dom.visual.VisualNode;
 import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.gui.Coloriser;
 import org.workcraft.gui.ExceptionDialog;
 import org.workcraft.gui.graph.tools.GraphEditor;
 import org.workcraft.gui.graph.tools.SimulationTool;
+import org.workcraft.plugins.petri.IndexedPetriNet;
+import org.workcraft.plugins.petri.IndexedTrace;
 import org.workcraft.plugins.petri.PetriNetModel;
 import org.workcraft.plugins.petri.Place;
 import org.workcraft.plugins.petri.Transition;
@@ -26,6 +32,7 @@ import org.workcraft.util.ColorGenerator;
 import org.workcraft.util.LogUtils;
 
 public class PetriSimulationTool extends SimulationTool {
+    private IndexedPetriNet indexedPetri = null;
 
     public PetriSimulationTool() {
         this(false);
@@ -39,6 +46,39 @@ public class PetriSimulationTool extends SimulationTool {
         return (PetriNetModel) getUnderlyingModel().getMathModel();
     }
 
+    /**
+     * Returns the compiled underlying net that tracks the token changes of the model places.
+     * The compiled net is rebuilt if the underlying model is replaced or modified structurally.
+     */
+    public IndexedPetriNet getIndexedPetri() {
+        PetriNetModel petri = getUnderlyingPetri();
+        if ((indexedPetri == null) || (indexedPetri.getNet() != petri) || indexedPetri.isStale()) {
+            releaseIndexedPetri();
+            indexedPetri = new IndexedPetriNet(petri);
+            indexedPetri.attach();
+        }
+        return indexedPetri;
+    }
+
+    private void releaseIndexedPetri() {
+        if (indexedPetri != null) {
+            indexedPetri.detach();
+            indexedPetri = null;
+        }
+    }
+
+    @Override
+    public void setUnderlyingModel(VisualModel model) {
+        releaseIndexedPetri();
+        super.setUnderlyingModel(model);
+    }
+
+    @Override
+    public void deactivated(final GraphEditor editor) {
+        super.deactivated(editor);
+        releaseIndexedPetri();
+    }
+
     @Override
     public boolean isConnectionExcited(VisualConnection connection) {
         VisualNode first = connection.getFirst();
@@ -100,20 +140,20 @@ public class PetriSimulationTool extends SimulationTool {
         boolean result = false;
         if (node instanceof Transition) {
             Transition transition = (Transition) node;
-            result = getUnderlyingPetri().isEnabled(transition);
+            IndexedPetriNet petri = getIndexedPetri();
+            int t = petri.getTransitionId(transition);
+            if (t >= 0) {
+                result = petri.isEnabled(t);
+            } else {
+                result = getUnderlyingPetri().isEnabled(transition);
+            }
         }
         return result;
     }
 
     @Override
     public ArrayList<Node> getEnabledNodes() {
-        ArrayList<Node> result = new ArrayList<>();
-        for (Transition transition: getUnderlyingPetri().getTransitions()) {
-            if (isEnabledNode(transition)) {
-                result.add(transition);
-            }
-        }
-        return result;
+        return new ArrayList<Node>(getIndexedPetri().getEnabledTransitions());
     }
 
     @Override
@@ -170,6 +210,69 @@ public class PetriSimulationTool extends SimulationTool {
         return result;
     }
 
+    /**
+     * Replays several steps on the compiled net and writes the resulting marking into the model once.
+     * As with single steps, the capacity of a place is raised to the largest number of tokens it gets
+     * during the replay. Token colours are propagated once at the end, by each fired transition in the
+     * order of its last firing.
+     */
+    @Override
+    public int fire(List<String> refs) {
+        if (refs.size() < 2) {
+            return super.fire(refs);
+        }
+        IndexedPetriNet petri = getIndexedPetri();
+        IndexedTrace trace = new IndexedTrace(petri, refs);
+        int[] peaks = getCapacities(petri);
+        int result = trace.fire(peaks);
+        writeIndexedMarking(petri, peaks, true);
+        LinkedHashSet<Transition> transitions = new LinkedHashSet<>();
+        for (int i = result - 1; i >= 0; i--) {
+            transitions.add(petri.getTransition(trace.get(i)));
+        }
+        List<Transition> fired = new ArrayList<>(transitions);
+        Collections.reverse(fired);
+        for (Transition transition: fired) {
+            coloriseTokens(transition);
+        }
+        return result;
+    }
+
+    @Override
+    public int unfire(List<String> refs) {
+        if (refs.size() < 2) {
+            return super.unfire(refs);
+        }
+        IndexedPetriNet petri = getIndexedPetri();
+        int[] peaks = getCapacities(petri);
+        int result = new IndexedTrace(petri, refs).unfire(peaks);
+        writeIndexedMarking(petri, peaks, false);
+        return result;
+    }
+
+    private int[] getCapacities(IndexedPetriNet petri) {
+        int[] result = new int[petri.getPlaceCount()];
+        for (int p = 0; p < result.length; p++) {
+            result[p] = petri.getPlace(p).getCapacity();
+        }
+        return result;
+    }
+
+    private void writeIndexedMarking(IndexedPetriNet petri, int[] capacities, boolean warn) {
+        PetriNetModel model = petri.getNet();
+        for (int p = 0; p < petri.getPlaceCount(); p++) {
+            Place place = petri.getPlace(p);
+            if (capacities[p] > place.getCapacity()) {
+                place.setCapacity(capacities[p]);
+                if (warn) {
+                    String placeRef = model.getNodeReference(place);
+                    LogUtils.logWarningLine("Capacity of place '" + placeRef + "' is incresed to " + capacities[p] + ".");
+                }
+            }
+        }
+        petri.writeMarking();
+    }
+
     @Override
     public String getHintText(final GraphEditor editor) {
         return "Click on a highlighted transition to fire it.";
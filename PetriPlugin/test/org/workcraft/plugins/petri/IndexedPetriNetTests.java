@@ -0,0 +1,142 @@
+package org.workcraft.plugins.petri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.workcraft.exceptions.InvalidConnectionException;
+
+public class IndexedPetriNetTests {
+
+    @Test
+    public void testWeightedCycle() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p1 = petriNet.createPlace("p1", null);
+        Place p2 = petriNet.createPlace("p2", null);
+        Transition t1 = petriNet.createTransition("t1", null);
+        Transition t2 = petriNet.createTransition("t2", null);
+        // Two parallel arcs make the weight of p1->t1 equal to 2.
+        petriNet.connect(p1, t1);
+        petriNet.connect(p1, t1);
+        petriNet.connect(t1, p2);
+        petriNet.connect(p2, t2);
+        petriNet.connect(t2, p1);
+        p1.setTokens(2);
+        assertTrue(petriNet.isEnabled(t1));
+        p1.setTokens(1);
+
+        IndexedPetriNet indexedNet = new IndexedPetriNet(petriNet);
+        int i1 = indexedNet.getTransitionId(t1);
+        int i2 = indexedNet.getTransitionId(t2);
+        assertEquals(0, indexedNet.getEnabledCount());
+        assertFalse(petriNet.isEnabled(t1));
+
+        indexedNet.setTokens(indexedNet.getPlaceId(p1), 2);
+        assertTrue(indexedNet.isEnabled(i1));
+        assertEquals(1, p1.getTokens());
+
+        indexedNet.fire(i1);
+        assertEquals(0, indexedNet.getTokens(indexedNet.getPlaceId(p1)));
+        assertEquals(1, indexedNet.getTokens(indexedNet.getPlaceId(p2)));
+        assertFalse(indexedNet.isEnabled(i1));
+        assertTrue(indexedNet.isEnabled(i2));
+        assertTrue(indexedNet.isUnfireEnabled(i1));
+
+        indexedNet.unfire(i1);
+        assertTrue(indexedNet.isEnabled(i1));
+        assertFalse(indexedNet.isEnabled(i2));
+
+        int[] marking = new int[indexedNet.getPlaceCount()];
+        indexedNet.getMarking(marking);
+        indexedNet.fire(i1, marking);
+        assertTrue(indexedNet.isEnabled(i2, marking));
+        assertTrue(indexedNet.isEnabled(i1));
+    }
+
+    @Test
+    public void testAttachedNet() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p = petriNet.createPlace("p", null);
+        Transition t = petriNet.createTransition("t", null);
+        petriNet.connect(p, t);
+
+        IndexedPetriNet indexedNet = new IndexedPetriNet(petriNet);
+        indexedNet.attach();
+        assertFalse(indexedNet.isEnabled(indexedNet.getTransitionId(t)));
+
+        p.setTokens(1);
+        assertTrue(indexedNet.isEnabled(indexedNet.getTransitionId(t)));
+        assertEquals(petriNet.isEnabled(t), indexedNet.isEnabled(indexedNet.getTransitionId(t)));
+
+        petriNet.fire(t);
+        assertEquals(0, indexedNet.getEnabledCount());
+        assertFalse(indexedNet.isStale());
+
+        petriNet.createPlace("q", null);
+        assertTrue(indexedNet.isStale());
+
+        indexedNet.detach();
+        p.setTokens(1);
+        assertEquals(0, indexedNet.getEnabledCount());
+    }
+
+    @Test
+    public void testTraceReplay() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p1 = petriNet.createPlace("p1", null);
+        Place p2 = petriNet.createPlace("p2", null);
+        Transition t1 = petriNet.createTransition("t1", null);
+        Transition t2 = petriNet.createTransition("t2", null);
+        petriNet.connect(p1, t1);
+        petriNet.connect(t1, p2);
+        petriNet.connect(p2, t2);
+        petriNet.connect(t2, p1);
+        p1.setTokens(1);
+
+        IndexedPetriNet indexedNet = new IndexedPetriNet(petriNet);
+        IndexedTrace trace = new IndexedTrace(indexedNet, Arrays.asList("t1", "t2", "t1", "p1", "t2"));
+        assertEquals(5, trace.size());
+        assertEquals(indexedNet.getTransitionId(t1), trace.get(2));
+        assertEquals(-1, trace.get(3));
+        // The replay stops at the reference that is not a transition.
+        assertEquals(3, trace.fire());
+        assertEquals(0, indexedNet.getTokens(indexedNet.getPlaceId(p1)));
+        assertEquals(1, indexedNet.getTokens(indexedNet.getPlaceId(p2)));
+
+        IndexedTrace backTrace = new IndexedTrace(indexedNet, Arrays.asList("t1", "t2", "t2"));
+        // The second t2 cannot be unfired as p1 is empty by then.
+        assertEquals(2, backTrace.unfire());
+        assertEquals(0, indexedNet.getTokens(indexedNet.getPlaceId(p1)));
+        assertEquals(1, indexedNet.getTokens(indexedNet.getPlaceId(p2)));
+        assertEquals(1, p1.getTokens());
+    }
+
+    @Test
+    public void testTracePeaks() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p1 = petriNet.createPlace("p1", null);
+        Place p2 = petriNet.createPlace("p2", null);
+        Transition t1 = petriNet.createTransition("t1", null);
+        Transition t2 = petriNet.createTransition("t2", null);
+        petriNet.connect(t1, p1);
+        petriNet.connect(p1, t2);
+        petriNet.connect(t2, p2);
+
+        IndexedPetriNet indexedNet = new IndexedPetriNet(petriNet);
+        int[] peaks = new int[indexedNet.getPlaceCount()];
+        // p1 holds two tokens in the middle of the trace and none at its end.
+        assertEquals(4, new IndexedTrace(indexedNet, Arrays.asList("t1", "t1", "t2", "t2")).fire(peaks));
+        assertEquals(2, peaks[indexedNet.getPlaceId(p1)]);
+        assertEquals(2, peaks[indexedNet.getPlaceId(p2)]);
+        assertEquals(0, indexedNet.getTokens(indexedNet.getPlaceId(p1)));
+
+        peaks = new int[indexedNet.getPlaceCount()];
+        assertEquals(2, new IndexedTrace(indexedNet, Arrays.asList("t2", "t2")).unfire(peaks));
+        assertEquals(2, peaks[indexedNet.getPlaceId(p1)]);
+        assertEquals(0, peaks[indexedNet.getPlaceId(p2)]);
+    }
+
+}
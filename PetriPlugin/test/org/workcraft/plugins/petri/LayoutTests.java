@@ -0,0 +1,116 @@
+package org.workcraft.plugins.petri;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.dom.visual.VisualComponent;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.layout.ForceLayoutCommand;
+import org.workcraft.plugins.layout.ForceLayoutSettings;
+import org.workcraft.plugins.layout.LayeredLayoutCommand;
+
+public class LayoutTests {
+
+    private static final int SIZE = 20;
+
+    private final List<VisualComponent> nodes = new ArrayList<>();
+
+    // A ring of places and transitions with a side branch from every transition.
+    private VisualPetriNet createNet() throws InvalidConnectionException {
+        VisualPetriNet net = new VisualPetriNet(new PetriNet());
+        nodes.clear();
+        for (int i = 0; i < SIZE; i++) {
+            nodes.add(net.createPlace("p" + i, null));
+            nodes.add(net.createTransition("t" + i, null));
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            net.connect(nodes.get(i), nodes.get((i + 1) % nodes.size()));
+        }
+        for (int i = 0; i < SIZE; i++) {
+            VisualPlace place = net.createPlace("q" + i, null);
+            net.connect(nodes.get(2 * i + 1), place);
+        }
+        return net;
+    }
+
+    private void assertDistinctPositions(VisualPetriNet net) {
+        HashSet<Point2D> positions = new HashSet<>();
+        for (VisualComponent component: net.getVisualPlaces()) {
+            Assert.assertTrue(positions.add(component.getRootSpacePosition()));
+        }
+        for (VisualComponent component: net.getVisualTransitions()) {
+            Assert.assertTrue(positions.add(component.getRootSpacePosition()));
+        }
+    }
+
+    @Test
+    public void testLayeredLayout() throws InvalidConnectionException {
+        VisualPetriNet net = createNet();
+        new LayeredLayoutCommand().layout(net);
+        assertDistinctPositions(net);
+        // All the ring arcs but the one closing the cycle go down.
+        int upwardArcs = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            double y1 = nodes.get(i).getRootSpaceY();
+            double y2 = nodes.get((i + 1) % nodes.size()).getRootSpaceY();
+            if (y2 <= y1) {
+                upwardArcs++;
+            }
+        }
+        Assert.assertEquals(1, upwardArcs);
+    }
+
+    @Test
+    public void testForceLayout() throws InvalidConnectionException {
+        boolean incremental = ForceLayoutSettings.getIncremental();
+        try {
+            VisualPetriNet net = createNet();
+            ForceLayoutSettings.setIncremental(false);
+            new ForceLayoutCommand().layout(net);
+            assertDistinctPositions(net);
+            // Connected nodes end up closer than the diameter of the ring.
+            double k = ForceLayoutSettings.getSpringLength();
+            for (int i = 0; i < nodes.size(); i++) {
+                Point2D p1 = nodes.get(i).getRootSpacePosition();
+                Point2D p2 = nodes.get((i + 1) % nodes.size()).getRootSpacePosition();
+                Assert.assertTrue(p1.distance(p2) < 4.0 * k);
+            }
+            // Refining a finished layout keeps the nodes close to their positions.
+            List<Point2D> positions = new ArrayList<>();
+            for (VisualComponent node: nodes) {
+                positions.add(node.getRootSpacePosition());
+            }
+            ForceLayoutSettings.setIncremental(true);
+            new ForceLayoutCommand().layout(net);
+            for (int i = 0; i < nodes.size(); i++) {
+                Assert.assertTrue(positions.get(i).distance(nodes.get(i).getRootSpacePosition()) < 2.0 * k);
+            }
+        } finally {
+            ForceLayoutSettings.setIncremental(incremental);
+        }
+    }
+
+    @Test
+    public void testCancelledForceLayout() throws InvalidConnectionException {
+        VisualPetriNet net = createNet();
+        List<Point2D> positions = new ArrayList<>();
+        for (VisualComponent node: nodes) {
+            positions.add(node.getRootSpacePosition());
+        }
+        Thread.currentThread().interrupt();
+        try {
+            new ForceLayoutCommand().layout(net);
+        } finally {
+            // The interrupt flag is kept for the caller.
+            Assert.assertTrue(Thread.interrupted());
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            Assert.assertEquals(positions.get(i), nodes.get(i).getRootSpacePosition());
+        }
+    }
+
+}
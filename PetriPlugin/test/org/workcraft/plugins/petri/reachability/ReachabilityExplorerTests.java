@@ -0,0 +1,153 @@
+package org.workcraft.plugins.petri.reachability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.petri.PetriNet;
+import org.workcraft.plugins.petri.Place;
+import org.workcraft.plugins.petri.Transition;
+import org.workcraft.tasks.Result;
+import org.workcraft.tasks.Result.Outcome;
+
+public class ReachabilityExplorerTests {
+
+    private static ReachabilityResult explore(PetriNet petriNet, int threadCount) {
+        return explore(petriNet, threadCount, false);
+    }
+
+    private static ReachabilityResult explore(PetriNet petriNet, int threadCount, boolean reduction) {
+        return explore(petriNet, threadCount, reduction, 1000000);
+    }
+
+    private static ReachabilityResult explore(PetriNet petriNet, int threadCount, boolean reduction, int stateLimit) {
+        ReachabilityExplorer explorer = new ReachabilityExplorer(petriNet);
+        explorer.setThreadCount(threadCount);
+        explorer.setStateLimit(stateLimit);
+        explorer.setReduction(reduction);
+        Result<? extends ReachabilityResult> result = explorer.run(null);
+        assertEquals(Outcome.FINISHED, result.getOutcome());
+        return result.getReturnValue();
+    }
+
+    @Test
+    public void testConcurrentCycles() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        int cycleCount = 10;
+        for (int i = 0; i < cycleCount; i++) {
+            Place p = petriNet.createPlace("p" + i, null);
+            Place q = petriNet.createPlace("q" + i, null);
+            Transition t = petriNet.createTransition("t" + i, null);
+            Transition u = petriNet.createTransition("u" + i, null);
+            petriNet.connect(p, t);
+            petriNet.connect(t, q);
+            petriNet.connect(q, u);
+            petriNet.connect(u, p);
+            p.setTokens(1);
+        }
+        ReachabilityResult sequentialResult = explore(petriNet, 1);
+        assertTrue(sequentialResult.isComplete());
+        assertFalse(sequentialResult.hasDeadlock());
+        assertFalse(sequentialResult.isUnbounded());
+        assertEquals(1 << cycleCount, sequentialResult.getStateCount());
+        assertEquals(cycleCount << cycleCount, sequentialResult.getArcCount());
+        assertEquals(1, sequentialResult.getMaxTokens());
+
+        ReachabilityResult parallelResult = explore(petriNet, 4);
+        assertEquals(sequentialResult.getStateCount(), parallelResult.getStateCount());
+        assertEquals(sequentialResult.getArcCount(), parallelResult.getArcCount());
+
+        // Deadlock freeness only needs one of the independent cycles to be explored.
+        ReachabilityResult reducedResult = explore(petriNet, 4, true);
+        assertTrue(reducedResult.isComplete());
+        assertFalse(reducedResult.hasDeadlock());
+        assertEquals(2, reducedResult.getStateCount());
+    }
+
+    @Test
+    public void testReducedDeadlock() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        // A one-shot branch concurrent with a loop that may choose to stop.
+        Place p = petriNet.createPlace("p", null);
+        Place q = petriNet.createPlace("q", null);
+        Place r = petriNet.createPlace("r", null);
+        Transition a = petriNet.createTransition("a", null);
+        Transition b = petriNet.createTransition("b", null);
+        Transition c = petriNet.createTransition("c", null);
+        petriNet.connect(p, a);
+        petriNet.connect(a, r);
+        petriNet.connect(q, b);
+        petriNet.connect(b, q);
+        petriNet.connect(q, c);
+        p.setTokens(1);
+        q.setTokens(1);
+
+        ReachabilityResult fullResult = explore(petriNet, 1, false);
+        assertEquals(4, fullResult.getStateCount());
+        assertTrue(fullResult.hasDeadlock());
+
+        ReachabilityResult reducedResult = explore(petriNet, 1, true);
+        assertEquals(3, reducedResult.getStateCount());
+        assertEquals(Arrays.asList("a", "c"), reducedResult.getDeadlockTrace());
+    }
+
+    @Test
+    public void testDeadlock() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p = petriNet.createPlace("p", null);
+        Place q = petriNet.createPlace("q", null);
+        Transition t = petriNet.createTransition("t", null);
+        petriNet.connect(p, t);
+        petriNet.connect(t, q);
+        p.setTokens(5);
+
+        ReachabilityResult result = explore(petriNet, 1);
+        assertTrue(result.isComplete());
+        assertEquals(6, result.getStateCount());
+        assertEquals(5, result.getMaxTokens());
+        assertEquals(1, result.getDeadlockCount());
+        assertEquals(Arrays.asList("t", "t", "t", "t", "t"), result.getDeadlockTrace());
+    }
+
+    @Test
+    public void testStateLimit() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p = petriNet.createPlace("p", null);
+        Place q = petriNet.createPlace("q", null);
+        Transition t = petriNet.createTransition("t", null);
+        petriNet.connect(p, t);
+        petriNet.connect(t, q);
+        p.setTokens(5);
+
+        ReachabilityResult exactResult = explore(petriNet, 1, false, 6);
+        assertTrue(exactResult.isComplete());
+        assertEquals(6, exactResult.getStateCount());
+
+        ReachabilityResult truncatedResult = explore(petriNet, 1, false, 5);
+        assertFalse(truncatedResult.isComplete());
+        assertEquals(5, truncatedResult.getStateCount());
+    }
+
+    @Test
+    public void testUnbounded() throws InvalidConnectionException {
+        PetriNet petriNet = new PetriNet();
+        Place p = petriNet.createPlace("p", null);
+        Place q = petriNet.createPlace("q", null);
+        Transition t = petriNet.createTransition("t", null);
+        petriNet.connect(p, t);
+        petriNet.connect(t, p);
+        petriNet.connect(t, q);
+        p.setTokens(1);
+
+        ReachabilityResult result = explore(petriNet, 2);
+        assertFalse(result.isComplete());
+        assertTrue(result.isUnbounded());
+        assertEquals("q", result.getUnboundedPlace());
+        assertEquals(Arrays.asList("t"), result.getUnboundedTrace());
+    }
+
+}
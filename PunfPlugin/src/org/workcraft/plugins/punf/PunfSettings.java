@@ -18,18 +18,21 @@ public class PunfSettings implements Settings {
     private static final String keyPrintStdout = prefix + ".printStdout";
     private static final String keyPrintStderr = prefix + ".printStderr";
     private static final String keyUsePnmlUnfolding = prefix + ".usePnmlUnfolding";
+    private static final String keyCacheSize = prefix + ".cacheSize";
 
     private static final String defaultCommand = DesktopApi.getOs().isWindows() ? "tools\\UnfoldingTools\\punf.exe" : "tools/UnfoldingTools/punf";
     private static final String defaultArgs = "-r";
     private static final Boolean defaultPrintStdout = true;
     private static final Boolean defaultPrintStderr = true;
     private static final Boolean defaultUsePnmlUnfolding = true;
+    private static final int defaultCacheSize = 256;
 
     private static String command = defaultCommand;
     private static String args = defaultArgs;
     private static Boolean printStdout = defaultPrintStdout;
     private static Boolean printStderr = defaultPrintStderr;
     private static Boolean usePnmlUnfolding = defaultUsePnmlUnfolding;
+    private static int cacheSize = defaultCacheSize;
 
     public PunfSettings() {
         properties.add(new PropertyDeclaration<PunfSettings, String>(
@@ -81,6 +84,16 @@ public class PunfSettings implements Settings {
                 return getUsePnmlUnfolding();
             }
         });
+
+        properties.add(new PropertyDeclaration<PunfSettings, Integer>(
+                this, "Unfolding cache size (MB, 0 to disable)", Integer.class, true, false, false) {
+            protected void setter(PunfSettings object, Integer value) {
+                setCacheSize(value);
+            }
+            protected Integer getter(PunfSettings object) {
+                return getCacheSize();
+            }
+        });
     }
 
     @Override
@@ -95,6 +108,7 @@ public class PunfSettings implements Settings {
         setUsePnmlUnfolding(config.getBoolean(keyUsePnmlUnfolding, defaultUsePnmlUnfolding));
         setPrintStdout(config.getBoolean(keyPrintStdout, defaultPrintStdout));
         setPrintStderr(config.getBoolean(keyPrintStderr, defaultPrintStderr));
+        setCacheSize(config.getInt(keyCacheSize, defaultCacheSize));
     }
 
     @Override
@@ -104,6 +118,7 @@ public class PunfSettings implements Settings {
         config.setBoolean(keyPrintStdout, getPrintStdout());
         config.setBoolean(keyPrintStderr, getPrintStderr());
         config.setBoolean(keyUsePnmlUnfolding, getUsePnmlUnfolding());
+        config.setInt(keyCacheSize, getCacheSize());
     }
 
     @Override
@@ -156,6 +171,17 @@ public class PunfSettings implements Settings {
         usePnmlUnfolding = value;
     }
 
+    public static int getCacheSize() {
+        return cacheSize;
+    }
+
+    public static void setCacheSize(int value) {
+        if (value < 0) {
+            value = 0;
+        }
+        cacheSize = value;
+    }
+
     public static String getUnfoldingExtension(boolean tryPnml) {
         return tryPnml && getUsePnmlUnfolding() ? ".pnml" : ".mci";
     }
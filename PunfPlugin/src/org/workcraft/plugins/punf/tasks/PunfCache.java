@@ -0,0 +1,145 @@
+package org.workcraft.plugins.punf.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.workcraft.Framework;
+import org.workcraft.util.FileUtils;
+
+/**
+ * Persistent cache of unfolding prefixes. Entries are addressed by a hash of the input net
+ * and of the Punf command line, so an unchanged net is never unfolded twice. The least recently
+ * used entries are evicted when the cache grows over the size limit of Punf settings.
+ */
+public final class PunfCache {
+    private static final String CACHE_DIRECTORY_NAME = "punf-cache";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static int hitCount = 0;
+    private static int missCount = 0;
+
+    private PunfCache() {
+    }
+
+    public static File getDirectory() {
+        return new File(Framework.SETTINGS_DIRECTORY_PATH, CACHE_DIRECTORY_NAME);
+    }
+
+    public static String getKey(File inputFile, List<String> command) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(FileUtils.readAllBytes(inputFile));
+            for (String arg: command) {
+                digest.update((byte) 0);
+                digest.update(arg.getBytes(StandardCharsets.UTF_8));
+            }
+            // Rebuilt tools may produce different unfoldings.
+            File toolFile = new File(command.get(0));
+            digest.update(Long.toString(toolFile.lastModified()).getBytes(StandardCharsets.UTF_8));
+            return toHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies the cached unfolding for the given key into the output file. Returns false if there is no such entry.
+     */
+    public static synchronized boolean fetch(String key, String extension, File outputFile) {
+        File entryFile = new File(getDirectory(), key + extension);
+        boolean result = false;
+        if (entryFile.isFile()) {
+            try {
+                FileUtils.copyFile(entryFile, outputFile);
+                entryFile.setLastModified(System.currentTimeMillis());
+                result = true;
+            } catch (IOException e) {
+                entryFile.delete();
+            }
+        }
+        if (result) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return result;
+    }
+
+    public static synchronized void store(String key, String extension, File unfoldingFile, long sizeLimit) {
+        File directory = getDirectory();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        File entryFile = new File(directory, key + extension);
+        File tmpFile = new File(directory, key + extension + ".tmp");
+        try {
+            FileUtils.copyFile(unfoldingFile, tmpFile);
+            if (entryFile.exists()) {
+                entryFile.delete();
+            }
+            if (!tmpFile.renameTo(entryFile)) {
+                tmpFile.delete();
+            }
+        } catch (IOException e) {
+            tmpFile.delete();
+        }
+        trim(sizeLimit);
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits into the size limit.
+     */
+    public static synchronized void trim(long sizeLimit) {
+        File[] entryFiles = getDirectory().listFiles();
+        if (entryFiles == null) {
+            return;
+        }
+        long size = 0;
+        for (File entryFile: entryFiles) {
+            size += entryFile.length();
+        }
+        Arrays.sort(entryFiles, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+        for (File entryFile: entryFiles) {
+            if (size <= sizeLimit) {
+                break;
+            }
+            long length = entryFile.length();
+            if (entryFile.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    public static synchronized void clear() {
+        trim(0);
+    }
+
+    public static synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public static synchronized int getMissCount() {
+        return missCount;
+    }
+
+    private static String toHexString(byte[] bytes) {
+        char[] chars = new char[2 * bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+}
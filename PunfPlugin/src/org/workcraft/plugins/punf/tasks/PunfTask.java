@@ -1,5 +1,7 @@
 package org.workcraft.plugins.punf.tasks;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.workcraft.plugins.punf.PunfSettings;
@@ -9,6 +11,7 @@ import org.workcraft.tasks.ProgressMonitor;
 import org.workcraft.tasks.Result;
 import org.workcraft.tasks.Result.Outcome;
 import org.workcraft.tasks.Task;
+import org.workcraft.util.LogUtils;
 import org.workcraft.util.ToolUtils;
 
 public class PunfTask implements Task<ExternalProcessResult> {
@@ -43,6 +46,23 @@ public class PunfTask implements Task<ExternalProcessResult> {
             }
         }
 
+        // Unfolding of the same net with the same tool and arguments can be reused
+        String cacheKey = null;
+        String cacheExtension = getExtension(outputPath);
+        File outputFile = new File(outputPath);
+        if (PunfSettings.getCacheSize() > 0) {
+            try {
+                cacheKey = PunfCache.getKey(new File(inputPath), command);
+            } catch (IOException e) {
+                LogUtils.logWarningLine("Could not compute the unfolding cache key: " + e.getMessage());
+            }
+        }
+        if ((cacheKey != null) && PunfCache.fetch(cacheKey, cacheExtension, outputFile)) {
+            LogUtils.logInfoLine("Reusing cached unfolding " + cacheKey + cacheExtension
+                    + " (hits: " + PunfCache.getHitCount() + ", misses: " + PunfCache.getMissCount() + ")");
+            return Result.finished(new ExternalProcessResult(0, new byte[0], new byte[0]));
+        }
+
         // Built-in arguments
         command.add("-m=" + outputPath);
         command.add(inputPath);
@@ -58,10 +78,19 @@ public class PunfTask implements Task<ExternalProcessResult> {
 
         ExternalProcessResult retVal = res.getReturnValue();
         if (retVal.getReturnCode() < 2) {
+            if ((cacheKey != null) && (retVal.getReturnCode() == 0) && outputFile.exists()) {
+                PunfCache.store(cacheKey, cacheExtension, outputFile, PunfSettings.getCacheSize() * 1024L * 1024L);
+            }
             return Result.finished(retVal);
         } else {
             return Result.failed(retVal);
         }
     }
 
+    private static String getExtension(String path) {
+        String name = new File(path).getName();
+        int index = name.lastIndexOf('.');
+        return (index < 0) ? "" : name.substring(index);
+    }
+
 }
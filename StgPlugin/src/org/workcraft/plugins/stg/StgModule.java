@@ -18,6 +18,7 @@ import org.workcraft.plugins.stg.commands.InsertDummyTransformationCommand;
 import org.workcraft.plugins.stg.commands.MergeTransitionTransformationCommand;
 import org.workcraft.plugins.stg.commands.MirrorSignalTransformationCommand;
 import org.workcraft.plugins.stg.commands.MirrorTransitionTransformationCommand;
+import org.workcraft.plugins.stg.commands.OutputPersistencyVerificationCommand;
 import org.workcraft.plugins.stg.commands.PetriToStgConversionCommand;
 import org.workcraft.plugins.stg.commands.SignalToDummyTransitionTransformationCommand;
 import org.workcraft.plugins.stg.commands.StgToPetriConversionCommand;
@@ -72,6 +73,7 @@ public class StgModule implements Module {
         pm.registerClass(Command.class, MergeTransitionTransformationCommand.class);
         pm.registerClass(Command.class, InsertDummyTransformationCommand.class);
         pm.registerClass(Command.class, TranslateConceptConversionCommand.class);
+        pm.registerClass(Command.class, OutputPersistencyVerificationCommand.class);
     }
 
     private void initCompatibilityManager() {
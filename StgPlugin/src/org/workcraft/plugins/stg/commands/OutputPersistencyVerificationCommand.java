@@ -0,0 +1,51 @@
+package org.workcraft.plugins.stg.commands;
+
+import org.workcraft.Framework;
+import org.workcraft.gui.graph.commands.AbstractVerificationCommand;
+import org.workcraft.plugins.petri.reachability.ReachabilityExplorer;
+import org.workcraft.plugins.petri.reachability.ReachabilityResultHandler;
+import org.workcraft.plugins.stg.StgModel;
+import org.workcraft.plugins.stg.reachability.OutputPersistencyProperty;
+import org.workcraft.tasks.TaskManager;
+import org.workcraft.workspace.WorkspaceEntry;
+import org.workcraft.workspace.WorkspaceUtils;
+
+public class OutputPersistencyVerificationCommand extends AbstractVerificationCommand {
+
+    @Override
+    public String getDisplayName() {
+        return "Output persistency [built-in]";
+    }
+
+    @Override
+    public boolean isApplicableTo(WorkspaceEntry we) {
+        return WorkspaceUtils.isApplicable(we, StgModel.class);
+    }
+
+    @Override
+    public int getPriority() {
+        return 3;
+    }
+
+    @Override
+    public Position getPosition() {
+        return null;
+    }
+
+    @Override
+    public void run(WorkspaceEntry we) {
+        final StgModel stg = WorkspaceUtils.getAs(we, StgModel.class);
+        final ReachabilityExplorer explorer = new ReachabilityExplorer(stg);
+        explorer.setReduction(true);
+        explorer.setProperty(new OutputPersistencyProperty(explorer.getIndexedNet()));
+        String description = "Output persistency analysis";
+        String title = we.getTitle();
+        if (!title.isEmpty()) {
+            description += "(" + title + ")";
+        }
+        final Framework framework = Framework.getInstance();
+        final TaskManager taskManager = framework.getTaskManager();
+        taskManager.queue(explorer, description, new ReachabilityResultHandler(we, "Output persistency"));
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.workcraft.plugins.stg.reachability;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.workcraft.plugins.petri.IndexedPetriNet;
+import org.workcraft.plugins.petri.PetriNetModel;
+import org.workcraft.plugins.petri.Transition;
+import org.workcraft.plugins.petri.reachability.MarkingProperty;
+import org.workcraft.plugins.stg.SignalTransition;
+import org.workcraft.plugins.stg.SignalTransition.Type;
+
+/**
+ * Output persistency of an STG: an enabled output or internal signal must not be disabled by
+ * a transition of another signal or by a dummy. Only the transitions sharing a pre-place with an output
+ * or internal signal transition can disable it, so only their places are observed by the reduction.
+ */
+public class OutputPersistencyProperty implements MarkingProperty {
+    private final IndexedPetriNet indexedNet;
+    private final int[] checkedTransitions;
+    // Competitors and transitions with the same signal and direction, for each checked transition.
+    private final int[][] competitors;
+    private final int[][] sameLabels;
+    private final BitSet visible = new BitSet();
+
+    public OutputPersistencyProperty(IndexedPetriNet indexedNet) {
+        this.indexedNet = indexedNet;
+        int transitionCount = indexedNet.getTransitionCount();
+        List<Integer> checked = new ArrayList<>();
+        List<int[]> checkedCompetitors = new ArrayList<>();
+        List<int[]> checkedSameLabels = new ArrayList<>();
+        for (int t = 0; t < transitionCount; t++) {
+            SignalTransition signalTransition = getSignalTransition(t);
+            if ((signalTransition == null) || (signalTransition.getSignalType() == Type.INPUT)) {
+                continue;
+            }
+            String signal = signalTransition.getSignalName();
+            BitSet tCompetitors = new BitSet(transitionCount);
+            for (int i = 0; i < indexedNet.getPresetSize(t); i++) {
+                int p = indexedNet.getPresetPlace(t, i);
+                for (int j = 0; j < indexedNet.getConsumerCount(p); j++) {
+                    int u = indexedNet.getConsumer(p, j);
+                    SignalTransition other = getSignalTransition(u);
+                    if ((other == null) || !signal.equals(other.getSignalName())) {
+                        tCompetitors.set(u);
+                    }
+                }
+            }
+            if (tCompetitors.isEmpty()) {
+                continue;
+            }
+            BitSet tSameLabels = new BitSet(transitionCount);
+            for (int u = 0; u < transitionCount; u++) {
+                SignalTransition other = getSignalTransition(u);
+                if ((other != null) && signal.equals(other.getSignalName())
+                        && (other.getDirection() == signalTransition.getDirection())) {
+                    tSameLabels.set(u);
+                }
+            }
+            checked.add(t);
+            checkedCompetitors.add(toArray(tCompetitors));
+            checkedSameLabels.add(toArray(tSameLabels));
+            BitSet observed = new BitSet(transitionCount);
+            observed.or(tCompetitors);
+            observed.or(tSameLabels);
+            for (int u = observed.nextSetBit(0); u >= 0; u = observed.nextSetBit(u + 1)) {
+                for (int i = 0; i < indexedNet.getPresetSize(u); i++) {
+                    setVisible(indexedNet.getPresetPlace(u, i));
+                }
+            }
+        }
+        checkedTransitions = new int[checked.size()];
+        for (int i = 0; i < checkedTransitions.length; i++) {
+            checkedTransitions[i] = checked.get(i);
+        }
+        competitors = checkedCompetitors.toArray(new int[0][]);
+        sameLabels = checkedSameLabels.toArray(new int[0][]);
+    }
+
+    private SignalTransition getSignalTransition(int t) {
+        Transition transition = indexedNet.getTransition(t);
+        return (transition instanceof SignalTransition) ? (SignalTransition) transition : null;
+    }
+
+    private void setVisible(int p) {
+        for (int j = 0; j < indexedNet.getConsumerCount(p); j++) {
+            visible.set(indexedNet.getConsumer(p, j));
+        }
+        for (int j = 0; j < indexedNet.getProducerCount(p); j++) {
+            visible.set(indexedNet.getProducer(p, j));
+        }
+    }
+
+    private static int[] toArray(BitSet bits) {
+        int[] result = new int[bits.cardinality()];
+        int i = 0;
+        for (int t = bits.nextSetBit(0); t >= 0; t = bits.nextSetBit(t + 1)) {
+            result[i++] = t;
+        }
+        return result;
+    }
+
+    @Override
+    public String check(int[] marking) {
+        for (int i = 0; i < checkedTransitions.length; i++) {
+            int t = checkedTransitions[i];
+            if (!indexedNet.isEnabled(t, marking)) {
+                continue;
+            }
+            for (int u: competitors[i]) {
+                if (!indexedNet.isEnabled(u, marking)) {
+                    continue;
+                }
+                int[] successor = marking.clone();
+                indexedNet.fire(u, successor);
+                if (!isAnyEnabled(sameLabels[i], successor)) {
+                    PetriNetModel net = indexedNet.getNet();
+                    SignalTransition signalTransition = getSignalTransition(t);
+                    return "signal '" + signalTransition.getSignalName() + "' is disabled by transition '"
+                            + net.getNodeReference(indexedNet.getTransition(u)) + "'.";
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isAnyEnabled(int[] transitions, int[] marking) {
+        for (int t: transitions) {
+            if (indexedNet.isEnabled(t, marking)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BitSet getVisibleTransitions() {
+        return visible;
+    }
+
+}
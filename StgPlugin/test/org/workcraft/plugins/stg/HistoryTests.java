@@ -0,0 +1,106 @@
+package org.workcraft.plugins.stg;
+
+import java.awt.geom.Point2D;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.workcraft.Framework;
+import org.workcraft.dom.visual.VisualComponent;
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.util.Hierarchy;
+import org.workcraft.workspace.WorkspaceEntry;
+
+public class HistoryTests {
+
+    private static final String TEST_STG_WORK = "org/workcraft/plugins/stg/commands/vme.stg.work";
+
+    @BeforeClass
+    public static void initPlugins() {
+        final Framework framework = Framework.getInstance();
+        framework.initPlugins(false);
+    }
+
+    private static List<Point2D> getPositions(WorkspaceEntry we) {
+        List<Point2D> result = new ArrayList<>();
+        VisualModel model = we.getModelEntry().getVisualModel();
+        for (VisualComponent component: Hierarchy.getDescendantsOfType(model.getRoot(), VisualComponent.class)) {
+            result.add(component.getRootSpacePosition());
+        }
+        return result;
+    }
+
+    private static void moveComponents(WorkspaceEntry we, double dx, double dy) {
+        VisualModel model = we.getModelEntry().getVisualModel();
+        for (VisualComponent component: Hierarchy.getDescendantsOfType(model.getRoot(), VisualComponent.class)) {
+            Point2D pos = component.getPosition();
+            component.setPosition(new Point2D.Double(pos.getX() + dx, pos.getY() + dy));
+        }
+    }
+
+    private static int getComponentCount(WorkspaceEntry we) {
+        VisualModel model = we.getModelEntry().getVisualModel();
+        return Hierarchy.getDescendantsOfType(model.getRoot(), VisualComponent.class).size();
+    }
+
+    @Test
+    public void testMixedHistory() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL url = classLoader.getResource(TEST_STG_WORK);
+        WorkspaceEntry we = framework.loadWork(url.getFile());
+
+        List<Point2D> positions0 = getPositions(we);
+        int count0 = getComponentCount(we);
+
+        we.saveMemento();
+        moveComponents(we, 1.0, 0.0);
+        List<Point2D> positions1 = getPositions(we);
+
+        we.captureMemento();
+        moveComponents(we, 0.0, 2.0);
+        we.saveMemento();
+        List<Point2D> positions2 = getPositions(we);
+
+        // Irreversible modification that is restored from checkpoint and deltas
+        we.saveMemento();
+        VisualModel model = we.getModelEntry().getVisualModel();
+        model.selectAll();
+        model.deleteSelection();
+        Assert.assertEquals(0, getComponentCount(we));
+
+        we.undo();
+        Assert.assertEquals(count0, getComponentCount(we));
+        Assert.assertEquals(positions2, getPositions(we));
+
+        we.undo();
+        Assert.assertEquals(positions1, getPositions(we));
+
+        we.undo();
+        Assert.assertEquals(positions0, getPositions(we));
+
+        we.redo();
+        Assert.assertEquals(positions1, getPositions(we));
+
+        we.redo();
+        Assert.assertEquals(positions2, getPositions(we));
+
+        we.redo();
+        Assert.assertEquals(0, getComponentCount(we));
+
+        we.undo();
+        Assert.assertEquals(positions2, getPositions(we));
+
+        we.captureMemento();
+        moveComponents(we, 5.0, 5.0);
+        we.cancelMemento();
+        Assert.assertEquals(positions2, getPositions(we));
+
+        framework.closeWork(we);
+    }
+
+}
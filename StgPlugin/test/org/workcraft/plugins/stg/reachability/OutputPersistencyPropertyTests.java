@@ -0,0 +1,93 @@
+package org.workcraft.plugins.stg.reachability;
+
+import java.net.URL;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.petri.reachability.ReachabilityExplorer;
+import org.workcraft.plugins.petri.reachability.ReachabilityResult;
+import org.workcraft.plugins.stg.SignalTransition;
+import org.workcraft.plugins.stg.SignalTransition.Direction;
+import org.workcraft.plugins.stg.SignalTransition.Type;
+import org.workcraft.plugins.stg.Stg;
+import org.workcraft.plugins.stg.StgModel;
+import org.workcraft.plugins.stg.StgPlace;
+import org.workcraft.workspace.WorkspaceEntry;
+import org.workcraft.workspace.WorkspaceUtils;
+
+public class OutputPersistencyPropertyTests {
+
+    private static final String[] TEST_STG_WORKS = {
+        "org/workcraft/plugins/stg/commands/celement.stg.work",
+        "org/workcraft/plugins/stg/commands/buck.stg.work",
+        "org/workcraft/plugins/stg/commands/vme.stg.work",
+    };
+
+    @BeforeClass
+    public static void initPlugins() {
+        final Framework framework = Framework.getInstance();
+        framework.initPlugins(false);
+    }
+
+    private static ReachabilityResult explore(StgModel stg, boolean reduction) {
+        ReachabilityExplorer explorer = new ReachabilityExplorer(stg);
+        explorer.setThreadCount(2);
+        explorer.setReduction(reduction);
+        explorer.setProperty(new OutputPersistencyProperty(explorer.getIndexedNet()));
+        return explorer.run(null).getReturnValue();
+    }
+
+    @Test
+    public void testPersistentWorks() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        for (String testStgWork: TEST_STG_WORKS) {
+            URL url = classLoader.getResource(testStgWork);
+            WorkspaceEntry we = framework.loadWork(url.getFile());
+            Stg stg = WorkspaceUtils.getAs(we, Stg.class);
+
+            ReachabilityResult fullResult = explore(stg, false);
+            ReachabilityResult reducedResult = explore(stg, true);
+            Assert.assertTrue(fullResult.isComplete());
+            Assert.assertTrue(reducedResult.isComplete());
+            Assert.assertFalse(fullResult.hasViolation());
+            Assert.assertFalse(reducedResult.hasViolation());
+            Assert.assertEquals(fullResult.hasDeadlock(), reducedResult.hasDeadlock());
+            Assert.assertTrue(reducedResult.getStateCount() < fullResult.getStateCount());
+            framework.closeWork(we);
+        }
+    }
+
+    @Test
+    public void testDisabledOutput() throws InvalidConnectionException {
+        // Output x+ competes with input a+, while the unrelated input b+ is concurrent to both.
+        Stg stg = new Stg();
+        StgPlace p = stg.createPlace("p", null);
+        StgPlace q = stg.createPlace("q", null);
+        SignalTransition x = createSignalTransition(stg, "x", Type.OUTPUT);
+        SignalTransition a = createSignalTransition(stg, "a", Type.INPUT);
+        SignalTransition b = createSignalTransition(stg, "b", Type.INPUT);
+        stg.connect(p, x);
+        stg.connect(p, a);
+        stg.connect(q, b);
+        p.setTokens(1);
+        q.setTokens(1);
+
+        ReachabilityResult result = explore(stg, true);
+        Assert.assertTrue(result.hasViolation());
+        Assert.assertTrue(result.getViolationMessage().contains("'x'"));
+        Assert.assertTrue(result.getViolationTrace().isEmpty());
+    }
+
+    private static SignalTransition createSignalTransition(Stg stg, String signal, Type type) {
+        SignalTransition transition = stg.createSignalTransition(signal + "+", null);
+        transition.setSignalType(type);
+        transition.setDirection(Direction.PLUS);
+        return transition;
+    }
+
+}
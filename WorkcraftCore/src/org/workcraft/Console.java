@@ -50,11 +50,16 @@ public class Console {
         //LogUtils.logMessageLine("Initialising framework...");
         final Framework framework = Framework.getInstance();
         boolean startGUI = true;
+        boolean timing = false;
         for (String arg: args) {
             if (arg.equals(Info.OPTION_NOGUI)) {
                 startGUI = false;
                 arglist.remove(arg);
             }
+            if (arg.equals(Info.OPTION_TIMING)) {
+                timing = true;
+                arglist.remove(arg);
+            }
             if (arg.startsWith(Info.OPTION_DIR)) {
                 String path = arg.substring(Info.OPTION_DIR.length());
                 framework.setWorkingDirectory(path);
@@ -67,15 +72,27 @@ public class Console {
         System.out.println();
 
         BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        long startTime = System.nanoTime();
         // NOTE: JavaScript needs to be initilised before GUI
         framework.initJavaScript();
+        long javaScriptTime = System.nanoTime();
         // NOTE: Plugins need to be loaded before GUI (because of assigning PropertyProviders)
+        framework.getPluginManager().setTiming(timing);
         framework.initPlugins(true);
+        long pluginsTime = System.nanoTime();
         // NOTE: Config needs to be loaded before GUI
         framework.loadConfig();
+        long configTime = System.nanoTime();
         if (startGUI) {
             framework.startGUI();
         }
+        long guiTime = System.nanoTime();
+        if (timing) {
+            LogUtils.logMessageLine("Startup time: JavaScript " + (javaScriptTime - startTime) / 1000000 + " ms"
+                    + ", plugins " + (pluginsTime - javaScriptTime) / 1000000 + " ms"
+                    + ", config " + (configTime - pluginsTime) / 1000000 + " ms"
+                    + ", GUI " + (guiTime - configTime) / 1000000 + " ms.");
+        }
 
         //LogUtils.logMessageLine("Running startup scripts...");
         try {
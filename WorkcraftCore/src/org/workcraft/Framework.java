@@ -58,7 +58,7 @@ import org.workcraft.interop.Exporter;
 import org.workcraft.interop.Importer;
 import org.workcraft.plugins.PluginInfo;
 import org.workcraft.plugins.layout.DotLayoutCommand;
-import org.workcraft.plugins.layout.RandomLayoutCommand;
+import org.workcraft.plugins.layout.LayeredLayoutCommand;
 import org.workcraft.plugins.serialisation.XMLModelDeserialiser;
 import org.workcraft.plugins.serialisation.XMLModelSerialiser;
 import org.workcraft.plugins.shared.CommonEditorSettings;
@@ -552,9 +552,8 @@ public final class Framework {
 
     public void runCommand(WorkspaceEntry we, String className) {
         if (className != null) {
-            for (Command command: Commands.getApplicableCommands(we)) {
-                String commandClassName = command.getClass().getSimpleName();
-                if (className.equals(commandClassName)) {
+            for (Command command: Commands.getCommands(className)) {
+                if (command.isApplicableTo(we)) {
                     Commands.run(we, command);
                     break;
                 }
@@ -568,15 +567,12 @@ public final class Framework {
         } else {
             boolean found = false;
             boolean scriptable = false;
-            for (Command command: Commands.getCommands()) {
-                String commandClassName = command.getClass().getSimpleName();
-                if (className.equals(commandClassName)) {
-                    found = true;
-                    if (command instanceof ScriptableCommand) {
-                        scriptable = true;
-                        if (command.isApplicableTo(we)) {
-                            return Commands.execute(we, (ScriptableCommand) command);
-                        }
+            for (Command command: Commands.getCommands(className)) {
+                found = true;
+                if (command instanceof ScriptableCommand) {
+                    scriptable = true;
+                    if (command.isApplicableTo(we)) {
+                        return Commands.execute(we, (ScriptableCommand) command);
                     }
                 }
             }
@@ -640,7 +636,7 @@ public final class Framework {
             try {
                 layoutCommand.layout(visualModel);
             } catch (LayoutException e) {
-                layoutCommand = new RandomLayoutCommand();
+                layoutCommand = new LayeredLayoutCommand();
                 layoutCommand.layout(visualModel);
             }
         }
@@ -23,12 +23,14 @@ public class Info {
     public static final String OPTION_DIR = "-dir:";
     public static final String OPTION_EXEC = "-exec:";
     public static final String OPTION_NOGUI = "-nogui";
+    public static final String OPTION_TIMING = "-timing";
     public static final String OPTION_VERSION = "-version";
     public static final String OPTION_HELP = "-help";
     private static final String help = "Usage:  java --classpath <CORE_AND_PLUGINS> org.workcraft.Console [OPTIONS]\n" +
             "    " + OPTION_DIR + "<PATH>\t - pass working directory\n" +
             "    " + OPTION_EXEC + "<SCRIPT> - JavaScript to execute on startup\n" +
             "    " + OPTION_NOGUI + "\t - run in console mode\n" +
+            "    " + OPTION_TIMING + "\t - report the startup time of each module\n" +
             "    " + OPTION_VERSION + "\t - report the version information and exit\n" +
             "    " + OPTION_HELP + "\t - display this help message and exit\n";
 
@@ -1,8 +1,12 @@
 package org.workcraft;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -14,6 +18,83 @@ import org.workcraft.exceptions.PluginInstantiationException;
 
 public class PluginFinder {
 
+    // Plugin classes of a class path entry, listed at build time so the entry does not have to be scanned.
+    public static final String INDEX_PATH = "META-INF/services/" + Module.class.getName();
+
+    // Plugin classes listed in the index of a class path entry, or null if the entry has no index.
+    public static List<Class<?>> searchIndex(File starting) throws PluginInstantiationException {
+        List<String> classNames;
+        try {
+            classNames = readIndex(starting);
+        } catch (IOException e) {
+            throw new PluginInstantiationException(e);
+        }
+        if (classNames == null) {
+            return null;
+        }
+        List<Class<?>> result = new ArrayList<Class<?>>();
+        for (String className : classNames) {
+            try {
+                Class<?> cls = Class.forName(className);
+                if (!Modifier.isAbstract(cls.getModifiers()) && Plugin.class.isAssignableFrom(cls)) {
+                    try {
+                        cls.getConstructor();
+                        result.add(cls);
+                        System.out.println("plugin " + cls.getName());
+                    } catch (NoSuchMethodException ex) {
+                        System.out.println("plugin " + cls.getName() + " does not have a default constructor. skipping.");
+                    }
+                } else {
+                    System.out.println("indexed class " + className + " is not a plugin. skipping.");
+                }
+            } catch (LinkageError | ClassNotFoundException e) {
+                System.out.println("bad class: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readIndex(File starting) throws IOException {
+        JarFile jf = null;
+        InputStream is = null;
+        if (starting.isDirectory()) {
+            File indexFile = new File(starting, INDEX_PATH);
+            if (!indexFile.isFile()) {
+                return null;
+            }
+            is = new FileInputStream(indexFile);
+        } else if (starting.isFile() && starting.getPath().endsWith(".jar")) {
+            jf = new JarFile(starting);
+            JarEntry entry = jf.getJarEntry(INDEX_PATH);
+            if (entry == null) {
+                jf.close();
+                return null;
+            }
+            is = jf.getInputStream(entry);
+        } else {
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int commentIndex = line.indexOf('#');
+                if (commentIndex >= 0) {
+                    line = line.substring(0, commentIndex);
+                }
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    result.add(line);
+                }
+            }
+        } finally {
+            if (jf != null) {
+                jf.close();
+            }
+        }
+        return result;
+    }
+
     public static List<Class<?>> search(File starting) throws PluginInstantiationException {
         List<Class<?>> result = new ArrayList<Class<?>>();
 
@@ -6,6 +6,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -27,15 +28,21 @@ public class PluginManager implements PluginProvider {
     public static final String VERSION_STAMP = "d971444cbd86148695f3427118632aca";
 
     private final ListMap<Class<?>, PluginInfo<?>> plugins = new ListMap<>();
+    private boolean timing = false;
 
     public static class PluginInstanceHolder<T> implements PluginInfo<T> {
         private final Initialiser<? extends T> initialiser;
+        private final String className;
+        private volatile T instance;
 
         public PluginInstanceHolder(Initialiser<? extends T> initialiser) {
-            this.initialiser = initialiser;
+            this(initialiser, null);
         }
 
-        T instance;
+        public PluginInstanceHolder(Initialiser<? extends T> initialiser, String className) {
+            this.initialiser = initialiser;
+            this.className = className;
+        }
 
         @Override
         public T newInstance() {
@@ -44,10 +51,22 @@ public class PluginManager implements PluginProvider {
 
         @Override
         public T getSingleton() {
-            if (instance == null) {
-                instance = newInstance();
+            T result = instance;
+            if (result == null) {
+                synchronized (this) {
+                    result = instance;
+                    if (result == null) {
+                        result = newInstance();
+                        instance = result;
+                    }
+                }
             }
-            return instance;
+            return result;
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
         }
     }
 
@@ -91,7 +110,7 @@ public class PluginManager implements PluginProvider {
             LegacyPluginInfo info = new LegacyPluginInfo(pluginElement);
             for (String interfaceName : info.getInterfaces()) {
                 try {
-                    plugins.put(Class.forName(interfaceName), new PluginInstanceHolder<Object>(info));
+                    plugins.put(Class.forName(interfaceName), new PluginInstanceHolder<Object>(info, info.getClassName()));
                 } catch (ClassNotFoundException e) {
                     String className = info.getClassName();
                     LogUtils.logWarningLine("Class '" + className + "' implements unknown interface '"
@@ -104,9 +123,13 @@ public class PluginManager implements PluginProvider {
 
     public void loadManifest(File file) throws IOException, FormatException, PluginInstantiationException {
         boolean needsReconfigure = false;
+        long start = System.nanoTime();
         if (!tryLoadManifest(file)) {
             needsReconfigure = true;
         } else {
+            if (timing) {
+                LogUtils.logMessageLine("  Reading plugin manifest (" + (System.nanoTime() - start) / 1000000 + " ms)");
+            }
             if (!initModules()) {
                 LogUtils.logWarningLine("Problems initialising modules, plugins will be reconfigured.");
                 needsReconfigure = true;
@@ -120,14 +143,27 @@ public class PluginManager implements PluginProvider {
         }
     }
 
+    public void setTiming(boolean value) {
+        timing = value;
+    }
+
+    public boolean getTiming() {
+        return timing;
+    }
+
     private boolean initModules() {
         boolean result = true;
         for (PluginInfo<? extends Module> info : getPlugins(Module.class)) {
             try {
+                long start = System.nanoTime();
                 final Module module = info.newInstance();
                 try {
-                    LogUtils.logMessageLine("  Loading module: " + module.getDescription());
                     module.init();
+                    String msg = "  Loading module: " + module.getDescription();
+                    if (timing) {
+                        msg += " (" + (System.nanoTime() - start) / 1000000 + " ms)";
+                    }
+                    LogUtils.logMessageLine(msg);
                 } catch (Throwable th) {
                     LogUtils.logWarningLine("Failed to initialise module '" + module.toString() + "'.");
                     result = false;
@@ -178,7 +214,7 @@ public class PluginManager implements PluginProvider {
     private void processLegacyPlugin(Class<?> cls, LegacyPluginInfo info) throws PluginInstantiationException {
         for (String interfaceName : info.getInterfaces()) {
             try {
-                plugins.put(Class.forName(interfaceName), new PluginInstanceHolder<Object>(info));
+                plugins.put(Class.forName(interfaceName), new PluginInstanceHolder<Object>(info, info.getClassName()));
             } catch (ClassNotFoundException e) {
                 LogUtils.logWarningLine("Class '" + info.getClassName() + "' implements unknown interface '"
                         + interfaceName + "', skipping interface.");
@@ -188,19 +224,32 @@ public class PluginManager implements PluginProvider {
 
     public void reconfigureManifest(boolean save) throws PluginInstantiationException {
         LogUtils.logMessageLine("Reconfiguring plugins...");
+        long start = System.nanoTime();
         plugins.clear();
 
         String[] classPathLocations = System.getProperty("java.class.path").split(System.getProperty("path.separator"));
 
-        List<Class<?>> classes = new ArrayList<>();
+        // Class path entries may overlap, e.g. a directory of classes and a directory of resources that
+        // holds the index of the same classes, so every plugin class is only registered once.
+        LinkedHashSet<Class<?>> classes = new LinkedHashSet<>();
         ArrayList<LegacyPluginInfo> pluginInfos = new ArrayList<>();
 
         for (String s: classPathLocations) {
-            LogUtils.logMessageLine("  Processing class path entry: " + s);
-            classes.addAll(PluginFinder.search(new File(s)));
+            File file = new File(s);
+            List<Class<?>> indexedClasses = PluginFinder.searchIndex(file);
+            if (indexedClasses != null) {
+                LogUtils.logMessageLine("  Reading plugin index of class path entry: " + s);
+                classes.addAll(indexedClasses);
+            } else {
+                LogUtils.logMessageLine("  Processing class path entry: " + s);
+                classes.addAll(PluginFinder.search(file));
+            }
         }
 
         LogUtils.logMessageLine("" + classes.size() + " plugin(s) found.");
+        if (timing) {
+            LogUtils.logMessageLine("  Searching for plugins (" + (System.nanoTime() - start) / 1000000 + " ms)");
+        }
 
         for (Class<?> cls : classes) {
             final LegacyPluginInfo info = new LegacyPluginInfo(cls);
@@ -224,7 +273,7 @@ public class PluginManager implements PluginProvider {
     }
 
     public <T> void registerClass(Class<T> interf, final Class<? extends T> cls) {
-        registerClass(interf, new Initialiser<T>() {
+        registerClass(interf, cls.getName(), new Initialiser<T>() {
             @Override
             public T create() {
                 try {
@@ -245,7 +294,7 @@ public class PluginManager implements PluginProvider {
     }
 
     public <T> void registerClass(Class<T> interf, final Class<? extends T> cls, final Object ... constructorArgs) {
-        registerClass(interf, new Initialiser<T>() {
+        registerClass(interf, cls.getName(), new Initialiser<T>() {
             @Override
             public T create() {
                 try {
@@ -263,10 +312,14 @@ public class PluginManager implements PluginProvider {
     }
 
     public <T> void registerClass(Class<T> interf, Initialiser<? extends T> initialiser) {
+        registerClass(interf, null, initialiser);
+    }
+
+    private <T> void registerClass(Class<T> interf, String className, Initialiser<? extends T> initialiser) {
         if (!interf.isInterface()) {
             throw new RuntimeException("'interf' argument must be an interface");
         }
-        final PluginInfo<T> pluginInfo = new PluginInstanceHolder<>(initialiser);
+        final PluginInfo<T> pluginInfo = new PluginInstanceHolder<>(initialiser, className);
         plugins.put(interf, pluginInfo);
     }
 
@@ -25,6 +25,8 @@ public abstract class AbstractModel implements Model {
     private ReferenceManager mgr;
     private String title = "";
     private final NodeContextTracker nodeContextTracker = new NodeContextTracker();
+    // Only weakly referenced by its root, so the model keeps the index alive.
+    private final NodeTypeIndex nodeTypeIndex = new NodeTypeIndex();
 
     public AbstractModel(Container root) {
         this(root, null);
@@ -42,6 +44,7 @@ public abstract class AbstractModel implements Model {
             }
         }
         this.nodeContextTracker.attach(root);
+        this.nodeTypeIndex.attach(root);
         this.mgr.attach(root);
     }
 
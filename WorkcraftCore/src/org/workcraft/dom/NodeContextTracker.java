@@ -1,10 +1,11 @@
 package org.workcraft.dom;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.workcraft.observation.HierarchyEvent;
@@ -13,47 +14,252 @@ import org.workcraft.observation.NodesAddedEvent;
 import org.workcraft.observation.NodesDeletedEvent;
 import org.workcraft.observation.NodesReparentingEvent;
 
+/**
+ * Presets, postsets and connections of the nodes of a hierarchy. Every tracked node gets a dense integer id
+ * (ids of removed nodes are reused) and its adjacency is kept as arrays of ids, where the first element of
+ * an array is the number of used elements. The arrays are created only for nodes that have neighbours, and
+ * the returned sets are read-only views over them, so nothing is allocated per node beyond its id.
+ */
 public class NodeContextTracker extends HierarchySupervisor implements NodeContext {
-    private final HashMap<Node, LinkedHashSet<Node>> presets = new HashMap<>();
-    private final HashMap<Node, LinkedHashSet<Node>> postsets = new HashMap<>();
-    private final HashMap<Node, LinkedHashSet<Connection>> connections = new HashMap<>();
 
-    private void initHashes(Node n) {
-        LinkedHashSet<Node> set = presets.get(n);
-        if (set == null) {
-            presets.put(n, new LinkedHashSet<Node>());
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int PRESETS = 0;
+    private static final int POSTSETS = 1;
+    private static final int CONNECTIONS = 2;
+
+    // Node ids in an open addressing table with linear probing, compared by identity.
+    private Node[] keys = new Node[2 * INITIAL_CAPACITY];
+    private int[] keyIds = new int[2 * INITIAL_CAPACITY];
+    private int keyCount = 0;
+
+    private Node[] nodes = new Node[INITIAL_CAPACITY];
+    private int[][] presets = new int[INITIAL_CAPACITY][];
+    private int[][] postsets = new int[INITIAL_CAPACITY][];
+    private int[][] connections = new int[INITIAL_CAPACITY][];
+    private int idCount = 0;
+    private int[] freeIds = null;
+
+    /**
+     * Live read-only view of an adjacency list. A view of a removed node stays empty even if its id is
+     * reused by another node.
+     */
+    private final class NodeSetView<T extends Node> extends AbstractSet<T> {
+        private final int kind;
+        private final int id;
+        private final Node node;
+
+        NodeSetView(int kind, int id) {
+            this.kind = kind;
+            this.id = id;
+            this.node = nodes[id];
+        }
+
+        private int[] getList() {
+            if (nodes[id] != node) {
+                return null;
+            }
+            // The arrays of lists are reallocated as the hierarchy grows, so they are not kept in the view.
+            switch (kind) {
+            case PRESETS:
+                return presets[id];
+            case POSTSETS:
+                return postsets[id];
+            default:
+                return connections[id];
+            }
+        }
+
+        @Override
+        public int size() {
+            int[] list = getList();
+            return (list == null) ? 0 : list[0];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int otherId = (o instanceof Node) ? getId((Node) o) : -1;
+            return (otherId >= 0) && (indexOf(getList(), otherId) > 0);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int index = 1;
+
+                @Override
+                public boolean hasNext() {
+                    int[] list = getList();
+                    return (list != null) && (index <= list[0]);
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (T) nodes[getList()[index++]];
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    private static int hash(Node node, int mask) {
+        int h = System.identityHashCode(node);
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int getId(Node node) {
+        int mask = keys.length - 1;
+        for (int i = hash(node, mask); keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == node) {
+                return keyIds[i];
+            }
+        }
+        return -1;
+    }
+
+    private int addId(Node node) {
+        int id = getId(node);
+        if (id >= 0) {
+            return id;
+        }
+        if (2 * (keyCount + 1) > keys.length) {
+            rehash(2 * keys.length);
+        }
+        if ((freeIds != null) && (freeIds[0] > 0)) {
+            id = freeIds[freeIds[0]--];
+        } else {
+            id = idCount++;
+            if (id == nodes.length) {
+                int capacity = 2 * id;
+                nodes = Arrays.copyOf(nodes, capacity);
+                presets = Arrays.copyOf(presets, capacity);
+                postsets = Arrays.copyOf(postsets, capacity);
+                connections = Arrays.copyOf(connections, capacity);
+            }
+        }
+        nodes[id] = node;
+        int mask = keys.length - 1;
+        int i = hash(node, mask);
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
         }
-        set = postsets.get(n);
-        if (set == null) {
-            postsets.put(n, new LinkedHashSet<Node>());
+        keys[i] = node;
+        keyIds[i] = id;
+        keyCount++;
+        return id;
+    }
+
+    private void removeId(Node node) {
+        int mask = keys.length - 1;
+        int i = hash(node, mask);
+        while ((keys[i] != null) && (keys[i] != node)) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == null) {
+            return;
+        }
+        int id = keyIds[i];
+        nodes[id] = null;
+        presets[id] = null;
+        postsets[id] = null;
+        connections[id] = null;
+        freeIds = append(freeIds, id);
+        keys[i] = null;
+        keyCount--;
+        // Shift back the following entries of the probe sequence that can no longer be reached.
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j], mask);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                keyIds[i] = keyIds[j];
+                keys[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        Node[] oldKeys = keys;
+        int[] oldIds = keyIds;
+        keys = new Node[capacity];
+        keyIds = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Node node = oldKeys[j];
+            if (node != null) {
+                int i = hash(node, mask);
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = node;
+                keyIds[i] = oldIds[j];
+            }
+        }
+    }
+
+    // Returns the position of the value in the list (counting from 1), or 0 if not found.
+    private static int indexOf(int[] list, int value) {
+        if (list != null) {
+            for (int i = 1; i <= list[0]; i++) {
+                if (list[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int[] append(int[] list, int value) {
+        if (list == null) {
+            list = new int[4];
+        } else if (list[0] + 1 == list.length) {
+            list = Arrays.copyOf(list, 2 * list.length);
         }
-        LinkedHashSet<Connection> conSet = connections.get(n);
-        if (conSet == null) {
-            connections.put(n, new LinkedHashSet<Connection>());
+        list[++list[0]] = value;
+        return list;
+    }
+
+    private static void addToSet(int[][] lists, int id, int value) {
+        if (indexOf(lists[id], value) == 0) {
+            lists[id] = append(lists[id], value);
         }
     }
 
-    private void removeHashes(Node n) {
-        presets.remove(n);
-        postsets.remove(n);
-        connections.remove(n);
+    // Removes the value keeping the order of the remaining elements.
+    private static void remove(int[][] lists, int id, int value) {
+        int[] list = lists[id];
+        int index = indexOf(list, value);
+        if (index > 0) {
+            System.arraycopy(list, index + 1, list, index, list[0] - index);
+            list[0]--;
+            if (list[0] == 0) {
+                lists[id] = null;
+            }
+        }
     }
 
     private void nodeAdded(Node n) {
-        initHashes(n);
+        addId(n);
 
         if (n instanceof Connection) {
             Connection con = (Connection) n;
-            Node c1 = con.getFirst();
-            Node c2 = con.getSecond();
+            // Ids are taken after growing the arrays, as they may be reallocated.
+            int c1 = addId(con.getFirst());
+            int c2 = addId(con.getSecond());
+            int id = getId(con);
 
-            initHashes(c1);
-            initHashes(c2);
-
-            postsets.get(c1).add(c2);
-            presets.get(c2).add(c1);
-            connections.get(c1).add(con);
-            connections.get(c2).add(con);
+            addToSet(postsets, c1, c2);
+            addToSet(presets, c2, c1);
+            addToSet(connections, c1, id);
+            addToSet(connections, c2, id);
         }
 
         for (Node nn : n.getChildren()) {
@@ -62,48 +268,39 @@ public class NodeContextTracker extends HierarchySupervisor implements NodeConte
     }
 
     private void nodeRemoved(Node node) {
-        LinkedHashSet<Node> nodePostset = postsets.get(node);
-        if (nodePostset != null) {
-            for (Node succNode: nodePostset) {
-                LinkedHashSet<Node> succNodePreset = presets.get(succNode);
-                if (succNodePreset != null) {
-                    succNodePreset.remove(node);
+        int id = getId(node);
+        if (id >= 0) {
+            int[] nodePostset = postsets[id];
+            if (nodePostset != null) {
+                for (int i = nodePostset[0]; i > 0; i--) {
+                    remove(presets, nodePostset[i], id);
                 }
             }
-        }
-        LinkedHashSet<Node> nodePreset = presets.get(node);
-        if (nodePreset != null) {
-            for (Node predNode: nodePreset) {
-                LinkedHashSet<Node> predNodePostset = postsets.get(predNode);
-                if (predNodePostset != null) {
-                    predNodePostset.remove(node);
+            int[] nodePreset = presets[id];
+            if (nodePreset != null) {
+                for (int i = nodePreset[0]; i > 0; i--) {
+                    remove(postsets, nodePreset[i], id);
                 }
             }
         }
-        removeHashes(node);
 
         if (node instanceof Connection) {
             Connection connection = (Connection) node;
-            Node first = connection.getFirst();
-            Node second = connection.getSecond();
-
-            LinkedHashSet<Node> firstPostset = postsets.get(first);
-            if (firstPostset != null) {
-                firstPostset.remove(second);
-            }
-            LinkedHashSet<Node> secondPreset = presets.get(second);
-            if (secondPreset != null) {
-                secondPreset.remove(first);
+            int first = getId(connection.getFirst());
+            int second = getId(connection.getSecond());
+            if (first >= 0) {
+                remove(connections, first, id);
             }
-            LinkedHashSet<Connection> firstConnections = connections.get(first);
-            if (firstConnections != null) {
-                firstConnections.remove(connection);
+            if (second >= 0) {
+                remove(connections, second, id);
             }
-            LinkedHashSet<Connection> secondConnections = connections.get(second);
-            if (secondConnections != null) {
-                secondConnections.remove(connection);
+            // Parallel connections keep the nodes adjacent.
+            if ((first >= 0) && (second >= 0) && (findConnection(first, second) == null)) {
+                remove(postsets, first, second);
+                remove(presets, second, first);
             }
         }
+        removeId(node);
 
         Collection<Node> children = node.getChildren();
         if (children != null) {
@@ -115,32 +312,63 @@ public class NodeContextTracker extends HierarchySupervisor implements NodeConte
 
     @Override
     public Set<Node> getPreset(Node node) {
-        return Collections.unmodifiableSet(presets.get(node));
+        int id = getId(node);
+        return (id < 0) ? Collections.<Node>emptySet() : new NodeSetView<Node>(PRESETS, id);
     }
 
     @Override
     public Set<Node> getPostset(Node node) {
-        return Collections.unmodifiableSet(postsets.get(node));
+        int id = getId(node);
+        return (id < 0) ? Collections.<Node>emptySet() : new NodeSetView<Node>(POSTSETS, id);
     }
 
     @Override
     public Set<Connection> getConnections(Node node) {
-        Set<Connection> ret = connections.get(node);
-        if (ret == null) {
-            ret = new HashSet<Connection>();
-        }
-        return Collections.unmodifiableSet(ret);
+        int id = getId(node);
+        return (id < 0) ? Collections.<Connection>emptySet() : new NodeSetView<Connection>(CONNECTIONS, id);
     }
 
     @Override
     public boolean hasConnection(Node first, Node second) {
-        LinkedHashSet<Node> firstPostset = postsets.get(first);
-        return (firstPostset != null) && (firstPostset.contains(second));
+        int firstId = getId(first);
+        int secondId = getId(second);
+        if ((firstId < 0) || (secondId < 0)) {
+            return false;
+        }
+        int[] firstPostset = postsets[firstId];
+        int[] secondPreset = presets[secondId];
+        if ((firstPostset == null) || (secondPreset == null)) {
+            return false;
+        }
+        // Look through the shorter list.
+        if (firstPostset[0] <= secondPreset[0]) {
+            return indexOf(firstPostset, secondId) > 0;
+        } else {
+            return indexOf(secondPreset, firstId) > 0;
+        }
     }
 
     @Override
     public Connection getConnection(Node first, Node second) {
-        for (Connection connection : getConnections(first)) {
+        int firstId = getId(first);
+        int secondId = getId(second);
+        if ((firstId < 0) || (secondId < 0)) {
+            return null;
+        }
+        return findConnection(firstId, secondId);
+    }
+
+    private Connection findConnection(int firstId, int secondId) {
+        int[] firstConnections = connections[firstId];
+        int[] secondConnections = connections[secondId];
+        if ((firstConnections == null) || (secondConnections == null)) {
+            return null;
+        }
+        Node first = nodes[firstId];
+        Node second = nodes[secondId];
+        int[] list = (firstConnections[0] <= secondConnections[0]) ? firstConnections : secondConnections;
+        for (int i = 1; i <= list[0]; i++) {
+            Connection connection = (Connection) nodes[list[i]];
             if ((connection.getFirst() == first) && (connection.getSecond() == second)) {
                 return connection;
             }
@@ -0,0 +1,204 @@
+package org.workcraft.dom;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.WeakHashMap;
+
+import org.workcraft.observation.HierarchyEvent;
+import org.workcraft.observation.HierarchySupervisor;
+import org.workcraft.observation.NodesAddedEvent;
+import org.workcraft.observation.NodesDeletedEvent;
+import org.workcraft.observation.NodesReparentedEvent;
+import org.workcraft.util.Hierarchy;
+
+/**
+ * Index of the nodes of a model by their class, kept up to date from the hierarchy events. All the descendants
+ * of a given type are found in time proportional to their number, and are reported in the order they were
+ * added to the model. The root itself is not indexed.
+ */
+public class NodeTypeIndex extends HierarchySupervisor {
+    private static final Map<Node, WeakReference<NodeTypeIndex>> indices =
+            Collections.synchronizedMap(new WeakHashMap<Node, WeakReference<NodeTypeIndex>>());
+
+    private final HashMap<Class<?>, LinkedHashSet<Node>> classNodes = new HashMap<>();
+    private final HashMap<Class<?>, List<LinkedHashSet<Node>>> typeNodes = new HashMap<>();
+    private final HashMap<Node, Long> numbers = new HashMap<>();
+    private long nextNumber = 0;
+
+    /**
+     * Returns the index attached to the given root node, or null if the node is not an indexed root.
+     */
+    public static NodeTypeIndex getIndex(Node root) {
+        if ((root == null) || (root.getParent() != null)) {
+            return null;
+        }
+        WeakReference<NodeTypeIndex> reference = indices.get(root);
+        return (reference == null) ? null : reference.get();
+    }
+
+    @Override
+    public void attach(Node root, boolean sendRootAddedEvent) {
+        super.attach(root, sendRootAddedEvent);
+        indices.put(root, new WeakReference<>(this));
+    }
+
+    @Override
+    public void detach() {
+        indices.remove(getRoot());
+        super.detach();
+    }
+
+    @Override
+    public void handleEvent(HierarchyEvent e) {
+        if (e instanceof NodesAddedEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                nodeAdded(node);
+            }
+        } else if (e instanceof NodesDeletedEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                nodeRemoved(node);
+            }
+        } else if (e instanceof NodesReparentedEvent) {
+            // Nodes moved within the model are re-added by their new parent, the others have left the model.
+            for (Node node : e.getAffectedNodes()) {
+                if (Hierarchy.getTopParent(node) != getRoot()) {
+                    nodeRemoved(node);
+                }
+            }
+        }
+    }
+
+    private void nodeAdded(Node node) {
+        if ((node != getRoot()) && !numbers.containsKey(node)) {
+            numbers.put(node, nextNumber++);
+            LinkedHashSet<Node> nodes = classNodes.get(node.getClass());
+            if (nodes == null) {
+                nodes = new LinkedHashSet<>();
+                classNodes.put(node.getClass(), nodes);
+                typeNodes.clear();
+            }
+            nodes.add(node);
+        }
+        for (Node child : node.getChildren()) {
+            nodeAdded(child);
+        }
+    }
+
+    private void nodeRemoved(Node node) {
+        if (numbers.remove(node) != null) {
+            classNodes.get(node.getClass()).remove(node);
+        }
+        for (Node child : node.getChildren()) {
+            nodeRemoved(child);
+        }
+    }
+
+    private List<LinkedHashSet<Node>> getTypeNodes(Class<?> type) {
+        List<LinkedHashSet<Node>> result = typeNodes.get(type);
+        if (result == null) {
+            result = new ArrayList<>();
+            for (Map.Entry<Class<?>, LinkedHashSet<Node>> entry : classNodes.entrySet()) {
+                if (type.isAssignableFrom(entry.getKey())) {
+                    result.add(entry.getValue());
+                }
+            }
+            typeNodes.put(type, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a live view of all the indexed nodes of the given type. The view must not be iterated
+     * while the model is being modified.
+     */
+    public <T> Collection<T> getNodes(Class<T> type) {
+        return new TypeView<>(getTypeNodes(type));
+    }
+
+    private final class TypeView<T> extends AbstractCollection<T> {
+        private final List<LinkedHashSet<Node>> buckets;
+
+        TypeView(List<LinkedHashSet<Node>> buckets) {
+            this.buckets = buckets;
+        }
+
+        @Override
+        public int size() {
+            int result = 0;
+            for (LinkedHashSet<Node> bucket : buckets) {
+                result += bucket.size();
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new MergingIterator<>(buckets);
+        }
+    }
+
+    /**
+     * Merges the nodes of several classes in the order they were added to the model.
+     */
+    private final class MergingIterator<T> implements Iterator<T> {
+        private final List<Iterator<Node>> iterators = new ArrayList<>();
+        private final Node[] heads;
+
+        MergingIterator(List<LinkedHashSet<Node>> buckets) {
+            heads = new Node[buckets.size()];
+            for (int i = 0; i < heads.length; i++) {
+                Iterator<Node> iterator = buckets.get(i).iterator();
+                iterators.add(iterator);
+                heads[i] = iterator.hasNext() ? iterator.next() : null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (Node head : heads) {
+                if (head != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            int best = -1;
+            long bestNumber = Long.MAX_VALUE;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] != null) {
+                    long number = (heads.length == 1) ? 0 : numbers.get(heads[i]);
+                    if (number < bestNumber) {
+                        best = i;
+                        bestNumber = number;
+                    }
+                }
+            }
+            if (best < 0) {
+                throw new NoSuchElementException();
+            }
+            Node result = heads[best];
+            Iterator<Node> iterator = iterators.get(best);
+            heads[best] = iterator.hasNext() ? iterator.next() : null;
+            return (T) result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
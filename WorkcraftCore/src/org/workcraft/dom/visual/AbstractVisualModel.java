@@ -2,6 +2,7 @@ package org.workcraft.dom.visual;
 
 import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -72,6 +73,7 @@ public abstract class AbstractVisualModel extends AbstractModel implements Visua
         new DefaultHangingConnectionRemover(this).attach(getRoot());
         new DefaultMathNodeRemover().attach(getRoot());
         new DefaultReplicaRemover(this).attach(getRoot());
+        new SpatialIndexSupervisor(this).attach(getRoot());
 
         new StateSupervisor() {
             @Override
@@ -249,6 +251,11 @@ public abstract class AbstractVisualModel extends AbstractModel implements Visua
         DrawMan.draw(this, g, decorator, getRoot());
     }
 
+    @Override
+    public void draw(Graphics2D g, Decorator decorator, Rectangle2D region) {
+        DrawMan.draw(this, g, decorator, getRoot(), region);
+    }
+
     /**
      * Get the list of selected objects. Returned list is modifiable!
      * @return the selection.
@@ -2,31 +2,57 @@ package org.workcraft.dom.visual;
 
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 
 import org.workcraft.dom.Node;
 import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.gui.graph.tools.Decoration;
 import org.workcraft.gui.graph.tools.Decorator;
+import org.workcraft.util.Geometry;
 
 final class DrawMan {
+    private static final double CULLING_MARGIN = 1.0;
+
     private final Graphics2D graphics;
     private final Decorator decorator;
     private final VisualModel model;
+    // Region to draw in the local space of the current node, null if all nodes are drawn.
+    private Rectangle2D region;
 
-    private DrawMan(VisualModel model, Graphics2D graphics, Decorator decorator) {
+    private DrawMan(VisualModel model, Graphics2D graphics, Decorator decorator, Rectangle2D region) {
         this.model = model;
         this.graphics = graphics;
         this.decorator = decorator;
+        this.region = region;
     }
 
     private void transformAndDraw(Decoration decoration, Movable node) {
-        graphics.transform(node.getTransform());
+        AffineTransform transform = node.getTransform();
+        graphics.transform(transform);
+        Rectangle2D oldRegion = region;
+        if (region != null) {
+            AffineTransform toLocal = Geometry.optimisticInverse(transform);
+            region = toLocal.createTransformedShape(region).getBounds2D();
+        }
         simpleDraw(decoration, node);
+        region = oldRegion;
     }
 
     public static void draw(VisualModel model, Graphics2D graphics, Decorator decorator, Node node) {
-        new DrawMan(model, graphics, decorator).draw(Decoration.Empty.INSTANCE, node);
+        draw(model, graphics, decorator, node, null);
+    }
+
+    /**
+     * Draws the node and its descendants, skipping the nodes whose bounding boxes miss the given region.
+     * The region is in the parent space of the node; the margin around the region accounts for
+     * decorations and labels that stick out of the bounding boxes.
+     */
+    public static void draw(VisualModel model, Graphics2D graphics, Decorator decorator, Node node, Rectangle2D region) {
+        if (region != null) {
+            region = BoundingBoxHelper.expand(region, CULLING_MARGIN, CULLING_MARGIN, CULLING_MARGIN, CULLING_MARGIN);
+        }
+        new DrawMan(model, graphics, decorator, region).draw(Decoration.Empty.INSTANCE, node);
     }
 
     public void draw(Decoration currentDecoration, Node node) {
@@ -89,17 +115,25 @@ final class DrawMan {
             ArrayList<Node> children = new ArrayList<>(node.getChildren());
             // First draw nodes
             for (Node childNode : children) {
-                if (!(childNode instanceof VisualConnection)) {
+                if (!(childNode instanceof VisualConnection) && isVisible(childNode)) {
                     draw(decoration, childNode);
                 }
             }
             // Then draw connections
             for (Node childNode : children) {
-                if (childNode instanceof VisualConnection) {
+                if ((childNode instanceof VisualConnection) && isVisible(childNode)) {
                     draw(decoration, childNode);
                 }
             }
         }
     }
 
+    private boolean isVisible(Node node) {
+        if ((region == null) || !(node instanceof Touchable)) {
+            return true;
+        }
+        Rectangle2D boundingBox = ((Touchable) node).getBoundingBox();
+        return (boundingBox == null) || boundingBox.intersects(region);
+    }
+
 }
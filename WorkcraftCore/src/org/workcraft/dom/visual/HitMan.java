@@ -36,9 +36,23 @@ public class HitMan {
     }
 
     private static Iterable<Node> getFilteredChildren(Point2D point, Node node) {
+        SpatialIndex index = getSpatialIndex(node);
+        if (index != null) {
+            return filterByBB(index.getCandidates(point), point);
+        }
         return reverse(filterByBB(node.getChildren(), point));
     }
 
+    private static SpatialIndex getSpatialIndex(Node node) {
+        if (node instanceof SpatiallyIndexed) {
+            SpatialIndex index = ((SpatiallyIndexed) node).getSpatialIndex();
+            if (index.isTracked()) {
+                return index;
+            }
+        }
+        return null;
+    }
+
     private static <T> Iterable<T> reverse(Iterable<T> original) {
         final ArrayList<T> list = new ArrayList<>();
         for (T node : original) {
@@ -262,7 +276,16 @@ public class HitMan {
                 Math.abs(p1.getX() - p2.getX()),
                 Math.abs(p1.getY() - p2.getY()));
 
-        for (Touchable n : Hierarchy.getChildrenOfType(container, Touchable.class)) {
+        Collection<Node> candidates = container.getChildren();
+        SpatialIndex index = getSpatialIndex(container);
+        if (index != null) {
+            candidates = index.getCandidates(rect);
+        }
+        for (Node node : candidates) {
+            if (!(node instanceof Touchable)) {
+                continue;
+            }
+            Touchable n = (Touchable) node;
             if (n instanceof Hidable && ((Hidable) n).isHidden()) {
                 continue;
             }
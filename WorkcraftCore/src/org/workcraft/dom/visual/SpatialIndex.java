@@ -0,0 +1,242 @@
+package org.workcraft.dom.visual;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.workcraft.dom.Container;
+import org.workcraft.dom.Node;
+
+/**
+ * Uniform grid of the bounding boxes of the container children, in the local space of the container.
+ * The index is built lazily and is only used while it is tracked by a {@link SpatialIndexSupervisor},
+ * which reports the children with modified bounding boxes and invalidates the index on hierarchy changes.
+ * Queries return candidates in the order of children, so the callers still have to test the exact geometry.
+ */
+public class SpatialIndex {
+    private static final int MAX_CELLS_PER_NODE = 256;
+
+    private final Container container;
+    private boolean tracked = false;
+
+    private Node[] nodes = null;
+    private Map<Node, Integer> positions = null;
+    private Rectangle2D[] cellRanges = null;
+    private BitSet unbounded = null;
+    private BitSet large = null;
+    private final BitSet dirty = new BitSet();
+    private final Map<Long, List<Integer>> buckets = new HashMap<>();
+    private double cellSize = 1.0;
+
+    public SpatialIndex(Container container) {
+        this.container = container;
+    }
+
+    public boolean isTracked() {
+        return tracked;
+    }
+
+    public void setTracked(boolean value) {
+        tracked = value;
+        invalidate();
+    }
+
+    public void invalidate() {
+        nodes = null;
+        positions = null;
+        cellRanges = null;
+        unbounded = null;
+        large = null;
+        dirty.clear();
+        buckets.clear();
+    }
+
+    public void markDirty(Node node) {
+        if (positions != null) {
+            Integer position = positions.get(node);
+            if (position == null) {
+                invalidate();
+            } else {
+                dirty.set(position);
+            }
+        }
+    }
+
+    /**
+     * Returns the children whose bounding boxes may contain the point, the last child first.
+     */
+    public List<Node> getCandidates(Point2D point) {
+        update();
+        int[] result = new int[nodes.length];
+        int count = 0;
+        for (int i = unbounded.nextSetBit(0); i >= 0; i = unbounded.nextSetBit(i + 1)) {
+            result[count++] = i;
+        }
+        for (int i = large.nextSetBit(0); i >= 0; i = large.nextSetBit(i + 1)) {
+            result[count++] = i;
+        }
+        List<Integer> bucket = buckets.get(getKey(getCell(point.getX()), getCell(point.getY())));
+        if (bucket != null) {
+            for (int i: bucket) {
+                result[count++] = i;
+            }
+        }
+        Arrays.sort(result, 0, count);
+        List<Node> candidates = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            candidates.add(nodes[result[i]]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the children whose bounding boxes may intersect the rectangle, in the order of children.
+     */
+    public List<Node> getCandidates(Rectangle2D rect) {
+        update();
+        BitSet result = new BitSet(nodes.length);
+        result.or(unbounded);
+        result.or(large);
+        int x0 = getCell(rect.getMinX());
+        int y0 = getCell(rect.getMinY());
+        int x1 = getCell(rect.getMaxX());
+        int y1 = getCell(rect.getMaxY());
+        if ((double) (x1 - x0 + 1) * (y1 - y0 + 1) > buckets.size()) {
+            for (Map.Entry<Long, List<Integer>> entry: buckets.entrySet()) {
+                long key = entry.getKey();
+                int x = (int) (key >> 32);
+                int y = (int) key;
+                if ((x >= x0) && (x <= x1) && (y >= y0) && (y <= y1)) {
+                    addAll(result, entry.getValue());
+                }
+            }
+        } else {
+            for (int x = x0; x <= x1; x++) {
+                for (int y = y0; y <= y1; y++) {
+                    List<Integer> bucket = buckets.get(getKey(x, y));
+                    if (bucket != null) {
+                        addAll(result, bucket);
+                    }
+                }
+            }
+        }
+        List<Node> candidates = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            candidates.add(nodes[i]);
+        }
+        return candidates;
+    }
+
+    private static void addAll(BitSet bits, List<Integer> bucket) {
+        for (int i: bucket) {
+            bits.set(i);
+        }
+    }
+
+    private void update() {
+        if (nodes == null) {
+            build();
+        } else {
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                remove(i);
+                insert(i);
+            }
+        }
+        dirty.clear();
+    }
+
+    private void build() {
+        nodes = container.getChildren().toArray(new Node[0]);
+        positions = new HashMap<>(2 * nodes.length);
+        cellRanges = new Rectangle2D[nodes.length];
+        unbounded = new BitSet(nodes.length);
+        large = new BitSet(nodes.length);
+        buckets.clear();
+        // Choose the cell size close to the average node size.
+        double sizeSum = 0.0;
+        int sizeCount = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            positions.put(nodes[i], i);
+            Rectangle2D box = getBoundingBox(nodes[i]);
+            if (box != null) {
+                sizeSum += Math.max(box.getWidth(), box.getHeight());
+                sizeCount++;
+            }
+        }
+        cellSize = (sizeCount > 0) ? Math.max(sizeSum / sizeCount, 0.01) : 1.0;
+        for (int i = 0; i < nodes.length; i++) {
+            insert(i);
+        }
+    }
+
+    private void insert(int position) {
+        Node node = nodes[position];
+        if (!(node instanceof Touchable)) {
+            unbounded.set(position);
+            return;
+        }
+        Rectangle2D box = getBoundingBox(node);
+        if (box == null) {
+            return;
+        }
+        int x0 = getCell(box.getMinX());
+        int y0 = getCell(box.getMinY());
+        int x1 = getCell(box.getMaxX());
+        int y1 = getCell(box.getMaxY());
+        if ((double) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_CELLS_PER_NODE) {
+            large.set(position);
+            return;
+        }
+        cellRanges[position] = new Rectangle2D.Double(x0, y0, x1 - x0, y1 - y0);
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                long key = getKey(x, y);
+                List<Integer> bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new ArrayList<>(4);
+                    buckets.put(key, bucket);
+                }
+                bucket.add(position);
+            }
+        }
+    }
+
+    private void remove(int position) {
+        unbounded.clear(position);
+        large.clear(position);
+        Rectangle2D range = cellRanges[position];
+        if (range != null) {
+            cellRanges[position] = null;
+            for (int x = (int) range.getMinX(); x <= (int) range.getMaxX(); x++) {
+                for (int y = (int) range.getMinY(); y <= (int) range.getMaxY(); y++) {
+                    long key = getKey(x, y);
+                    List<Integer> bucket = buckets.get(key);
+                    if (bucket != null) {
+                        bucket.remove(Integer.valueOf(position));
+                        if (bucket.isEmpty()) {
+                            buckets.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Rectangle2D getBoundingBox(Node node) {
+        return (node instanceof Touchable) ? ((Touchable) node).getBoundingBox() : null;
+    }
+
+    private int getCell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long getKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+}
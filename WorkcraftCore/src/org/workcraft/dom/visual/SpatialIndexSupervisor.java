@@ -0,0 +1,95 @@
+package org.workcraft.dom.visual;
+
+import org.workcraft.dom.Connection;
+import org.workcraft.dom.Node;
+import org.workcraft.observation.HierarchyEvent;
+import org.workcraft.observation.NodesAddedEvent;
+import org.workcraft.observation.NodesDeletedEvent;
+import org.workcraft.observation.NodesReparentedEvent;
+import org.workcraft.observation.StateEvent;
+import org.workcraft.observation.StateSupervisor;
+import org.workcraft.observation.TransformChangedEvent;
+
+/**
+ * Keeps the spatial indices of the model containers up to date. A state change of a node may alter
+ * the bounding boxes of all its ancestors, and moving a node also reshapes the connections attached
+ * to it or to any of its descendants.
+ */
+public class SpatialIndexSupervisor extends StateSupervisor {
+    private final VisualModel visualModel;
+
+    public SpatialIndexSupervisor(VisualModel visualModel) {
+        this.visualModel = visualModel;
+    }
+
+    @Override
+    public void handleHierarchyEvent(HierarchyEvent e) {
+        if ((e instanceof NodesAddedEvent) || (e instanceof NodesReparentedEvent)) {
+            for (Node node: e.getAffectedNodes()) {
+                setTracked(node, true);
+            }
+        } else if (e instanceof NodesDeletedEvent) {
+            for (Node node: e.getAffectedNodes()) {
+                setTracked(node, false);
+            }
+        }
+        if (e instanceof NodesReparentedEvent) {
+            invalidate(((NodesReparentedEvent) e).getOldParent());
+        }
+        if (e.getSender() instanceof Node) {
+            invalidate((Node) e.getSender());
+        }
+    }
+
+    @Override
+    public void handleEvent(StateEvent e) {
+        Object sender = e.getSender();
+        if (sender instanceof Node) {
+            Node node = (Node) sender;
+            markDirty(node);
+            if (e instanceof TransformChangedEvent) {
+                markConnectionsDirty(node);
+            }
+        }
+    }
+
+    private void setTracked(Node node, boolean value) {
+        if (node instanceof SpatiallyIndexed) {
+            ((SpatiallyIndexed) node).getSpatialIndex().setTracked(value);
+        }
+        for (Node child: node.getChildren()) {
+            setTracked(child, value);
+        }
+    }
+
+    private void invalidate(Node node) {
+        if (node instanceof SpatiallyIndexed) {
+            ((SpatiallyIndexed) node).getSpatialIndex().invalidate();
+        }
+        if (node != null) {
+            markDirty(node);
+        }
+    }
+
+    private void markDirty(Node node) {
+        Node child = node;
+        Node parent = node.getParent();
+        while (parent != null) {
+            if (parent instanceof SpatiallyIndexed) {
+                ((SpatiallyIndexed) parent).getSpatialIndex().markDirty(child);
+            }
+            child = parent;
+            parent = parent.getParent();
+        }
+    }
+
+    private void markConnectionsDirty(Node node) {
+        for (Connection connection: visualModel.getConnections(node)) {
+            markDirty(connection);
+        }
+        for (Node child: node.getChildren()) {
+            markConnectionsDirty(child);
+        }
+    }
+
+}
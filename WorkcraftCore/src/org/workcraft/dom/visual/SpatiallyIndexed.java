@@ -0,0 +1,5 @@
+package org.workcraft.dom.visual;
+
+public interface SpatiallyIndexed {
+    SpatialIndex getSpatialIndex();
+}
@@ -25,7 +25,7 @@ import org.workcraft.observation.TransformChangingEvent;
 import org.workcraft.plugins.shared.CommonVisualSettings;
 import org.workcraft.util.Hierarchy;
 
-public class VisualGroup extends VisualTransformableNode implements Drawable, Collapsible, Container, ObservableHierarchy {
+public class VisualGroup extends VisualTransformableNode implements Drawable, Collapsible, Container, ObservableHierarchy, SpatiallyIndexed {
     public static final String PROPERTY_IS_COLLAPSED = "Is collapsed";
 
     protected double size = CommonVisualSettings.getNodeSize();
@@ -35,6 +35,7 @@ public class VisualGroup extends VisualTransformableNode implements Drawable, Co
     private boolean isCollapsed = false;
     private boolean isExcited = false;
     DefaultGroupImpl groupImpl = new DefaultGroupImpl(this);
+    private final SpatialIndex spatialIndex = new SpatialIndex(this);
 
     public VisualGroup() {
         super();
@@ -191,6 +192,11 @@ public class VisualGroup extends VisualTransformableNode implements Drawable, Co
         return groupImpl.getChildren();
     }
 
+    @Override
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     @Override
     public Node getParent() {
         return groupImpl.getParent();
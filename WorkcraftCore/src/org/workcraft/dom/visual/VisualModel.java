@@ -2,6 +2,7 @@ package org.workcraft.dom.visual;
 
 import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.Collection;
 
 import org.workcraft.dom.Container;
@@ -20,6 +21,7 @@ import org.workcraft.observation.ObservableState;
 public interface VisualModel extends Model, ObservableState {
     void createDefaultFlatStructure() throws NodeCreationException;
     void draw(Graphics2D g, Decorator decorator);
+    void draw(Graphics2D g, Decorator decorator, Rectangle2D region);
 
     void setCurrentLevel(Container group);
     Container getCurrentLevel();
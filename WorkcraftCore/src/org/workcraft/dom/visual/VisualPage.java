@@ -21,7 +21,7 @@ import org.workcraft.observation.TransformChangedEvent;
 import org.workcraft.observation.TransformChangingEvent;
 import org.workcraft.util.Hierarchy;
 
-public class VisualPage extends VisualComponent implements Collapsible, Container, ObservableHierarchy {
+public class VisualPage extends VisualComponent implements Collapsible, Container, ObservableHierarchy, SpatiallyIndexed {
     public static final String PROPERTY_IS_COLLAPSED = "Is collapsed";
     public static final String PROPERTY_REFERENCED_MODEL = "Referenced model";
 
@@ -30,6 +30,7 @@ public class VisualPage extends VisualComponent implements Collapsible, Containe
     private boolean isExcited = false;
     private String referencedModel = "";
     private final DefaultGroupImpl groupImpl = new DefaultGroupImpl(this);
+    private final SpatialIndex spatialIndex = new SpatialIndex(this);
 
     public void setReferencedModel(String model) {
         sendNotification(new TransformChangingEvent(this));
@@ -134,6 +135,11 @@ public class VisualPage extends VisualComponent implements Collapsible, Containe
         return groupImpl.getChildren();
     }
 
+    @Override
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     @Override
     public Node getParent() {
         return groupImpl.getParent();
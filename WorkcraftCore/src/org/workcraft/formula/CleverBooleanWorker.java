@@ -1,14 +1,20 @@
 package org.workcraft.formula;
 
-import org.workcraft.formula.utils.FormulaToString;
-
+/**
+ * Boolean worker that simplifies the formulas built of constants, equal and complementary operands. The
+ * formulas are hash-consed by FormulaFactory, so equal operands are recognised by identity.
+ */
 public class CleverBooleanWorker implements BooleanWorker {
     private static final BooleanFormula ZERO = Zero.instance();
     private static final BooleanFormula ONE = One.instance();
 
+    private final FormulaFactory factory = FormulaFactory.getInstance();
+
     @Override
     public BooleanFormula and(BooleanFormula x, BooleanFormula y) {
-        if (FormulaToString.toString(x).equals(FormulaToString.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return x;
         }
         if (x == ZERO || y == ZERO) {
@@ -20,12 +26,14 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (y == ONE) {
             return x;
         }
-        return new And(x, y);
+        return factory.and(x, y);
     }
 
     @Override
     public BooleanFormula iff(BooleanFormula x, BooleanFormula y) {
-        if (FormulaToString.toString(x).equals(FormulaToString.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return ONE;
         }
         if (x == ONE) {
@@ -40,12 +48,14 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (y == ZERO) {
             return not(x);
         }
-        return new Iff(x, y);
+        return factory.iff(x, y);
     }
 
     @Override
     public BooleanFormula imply(BooleanFormula x, BooleanFormula y) {
-        if (FormulaToString.toString(x).equals(FormulaToString.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return ONE;
         }
         if (x == ZERO || y == ONE) {
@@ -57,7 +67,7 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (y == ZERO) {
             return not(x);
         }
-        return new Imply(x, y);
+        return factory.imply(x, y);
     }
 
     @Override
@@ -68,7 +78,7 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (x == ZERO) {
             return ONE;
         }
-        return new Not(x);
+        return factory.not(x);
     }
 
     @Override
@@ -78,13 +88,16 @@ public class CleverBooleanWorker implements BooleanWorker {
 
     @Override
     public BooleanFormula or(BooleanFormula x, BooleanFormula y) {
-        if (FormulaToString.toString(x).equals(FormulaToString.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return x;
         }
-        if (checkStrings(FormulaToString.toString(x), FormulaToString.toString(y), " + ")) {
+        int disjunct = findDisjunct(x, y);
+        if (disjunct > 0) {
             return x;
         }
-        if (checkStrings(FormulaToString.toString(x), invertString(FormulaToString.toString(y)), " + ")) {
+        if (disjunct < 0) {
             return ONE;
         }
         if (x == ONE || y == ONE) {
@@ -96,12 +109,14 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (y == ZERO) {
             return x;
         }
-        return new Or(x, y);
+        return factory.or(x, y);
     }
 
     @Override
     public BooleanFormula xor(BooleanFormula x, BooleanFormula y) {
-        if (FormulaToString.toString(x).equals(FormulaToString.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return ZERO;
         }
         if (x == ONE) {
@@ -116,7 +131,7 @@ public class CleverBooleanWorker implements BooleanWorker {
         if (y == ZERO) {
             return x;
         }
-        return new Xor(x, y);
+        return factory.xor(x, y);
     }
 
     @Override
@@ -124,51 +139,61 @@ public class CleverBooleanWorker implements BooleanWorker {
         return Zero.instance();
     }
 
-    public boolean checkStrings(String x, String y, String op) {
-
-        if (x.contains(y)) {
-            if (x.startsWith(y + op)) {
-                return true;
-            } else if (x.endsWith(op + y)) {
-                return true;
-            } else if (x.contains(op + y + op)) {
-                return true;
+    // Returns 1 if every disjunct of y is one of the disjuncts of x, -1 if the complement of a disjunct of y
+    // is, and 0 otherwise. Nested disjunctions of both x and y are walked in place rather than collected, so
+    // that adding a term to a long sum does not allocate.
+    private int findDisjunct(BooleanFormula x, BooleanFormula y) {
+        int result = 1;
+        BooleanFormula rest = y;
+        while (rest != null) {
+            BooleanFormula disjunct = rest;
+            rest = null;
+            if (disjunct instanceof Or) {
+                // Loop down the nested operand and look at the other one, so that chains do not recurse.
+                Or or = (Or) disjunct;
+                boolean nestedX = or.getX() instanceof Or;
+                rest = nestedX ? or.getX() : or.getY();
+                disjunct = nestedX ? or.getY() : or.getX();
+            }
+            int found = (disjunct instanceof Or) ? findDisjunct(x, disjunct) : probeDisjunct(x, disjunct);
+            if (found < 0) {
+                return -1;
+            }
+            if (found == 0) {
+                result = 0;
             }
         }
-        return false;
+        return result;
     }
 
-    public String invertString(String x) {
-        String result = "";
-
-        //find first operator
-        int op = x.indexOf("*");
-        if ((x.indexOf(" + ") < op) && (x.indexOf(" + ") > 0)) {
-            op = x.indexOf(" + ");
-            if (x.substring(0, op).contains("'")) {
-                result = x.substring(0, op).replace("'", "");
-            } else {
-                result = x.substring(0, op) + "'";
+    // Returns 1 if y is one of the disjuncts of x, -1 if its complement is, and 0 otherwise.
+    private int probeDisjunct(BooleanFormula x, BooleanFormula y) {
+        BooleanFormula rest = x;
+        while (rest != null) {
+            BooleanFormula disjunct = rest;
+            rest = null;
+            if (disjunct instanceof Or) {
+                Or or = (Or) disjunct;
+                boolean nestedX = or.getX() instanceof Or;
+                rest = nestedX ? or.getX() : or.getY();
+                disjunct = nestedX ? or.getY() : or.getX();
             }
-            result = result + x.substring(op, op + 2) + invertString(x.substring(op + 2));
-            return result;
-        }
-        if (op == -1) {
-            if (x.contains("'")) {
-                return x.replace("'", "");
-            } else {
-                return x + "'";
+            if (disjunct instanceof Or) {
+                int found = probeDisjunct(disjunct, y);
+                if (found != 0) {
+                    return found;
+                }
+            } else if (disjunct == y) {
+                return 1;
+            } else if (isComplement(disjunct, y)) {
+                return -1;
             }
         }
+        return 0;
+    }
 
-        if (x.substring(0, op).contains("'")) {
-            result = x.substring(0, op).replace("'", "");
-        } else {
-            result = x.substring(0, op) + "'";
-        }
-        result = result + x.charAt(op) + invertString(x.substring(op + 1));
-        return result;
-
+    private boolean isComplement(BooleanFormula x, BooleanFormula y) {
+        return ((x instanceof Not) && (((Not) x).getX() == y)) || ((y instanceof Not) && (((Not) y).getX() == x));
     }
 
 }
@@ -0,0 +1,318 @@
+package org.workcraft.formula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boolean formula flattened into an array of instructions over variable slots, so that it is evaluated
+ * without traversing the formula tree and without substituting the variables. Each instruction computes
+ * one register from the variable slots or from the registers before it, and shared subformulas are
+ * computed once. The registers are 64-bit words, so one evaluation processes 64 input vectors at once:
+ * bit k of every input word belongs to vector k.
+ *
+ * The registers are reused between evaluations, so an instance must not be evaluated concurrently.
+ */
+public class CompiledFormula {
+
+    private static final int LOAD = 0;
+    private static final int ZERO = 1;
+    private static final int ONE = 2;
+    private static final int NOT = 3;
+    private static final int AND = 4;
+    private static final int OR = 5;
+    private static final int XOR = 6;
+    private static final int IFF = 7;
+    private static final int IMPLY = 8;
+
+    // Input patterns of the first six variables enumerating all their combinations in one word.
+    private static final long[] PATTERNS = {
+        0xAAAAAAAAAAAAAAAAL,
+        0xCCCCCCCCCCCCCCCCL,
+        0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L,
+        0xFFFF0000FFFF0000L,
+        0xFFFFFFFF00000000L,
+    };
+
+    private final List<BooleanVariable> variables;
+    // Instruction i is (operations[i], xs[i], ys[i]) and its result is stored in register i.
+    private final int[] operations;
+    private final int[] xs;
+    private final int[] ys;
+    private final long[] registers;
+
+    private static class Compiler implements BooleanVisitor<Integer> {
+        private final Map<BooleanVariable, Integer> slots = new HashMap<>();
+        private final Map<BooleanFormula, Integer> compiled = new HashMap<>();
+        private final boolean collect;
+        private final List<BooleanVariable> collected;
+        private int count = 0;
+        private int[] operations = new int[16];
+        private int[] xs = new int[16];
+        private int[] ys = new int[16];
+
+        Compiler(List<? extends BooleanVariable> variables) {
+            collect = variables == null;
+            collected = new ArrayList<>();
+            if (variables != null) {
+                for (BooleanVariable variable: variables) {
+                    slots.put(variable, collected.size());
+                    collected.add(variable);
+                }
+            }
+        }
+
+        private int emit(BooleanFormula node, int operation, int x, int y) {
+            if (count == operations.length) {
+                operations = Arrays.copyOf(operations, 2 * count);
+                xs = Arrays.copyOf(xs, 2 * count);
+                ys = Arrays.copyOf(ys, 2 * count);
+            }
+            operations[count] = operation;
+            xs[count] = x;
+            ys[count] = y;
+            compiled.put(node, count);
+            return count++;
+        }
+
+        private int compile(BooleanFormula node) {
+            Integer result = compiled.get(node);
+            return (result != null) ? result : node.accept(this);
+        }
+
+        private int compileBinary(BinaryBooleanFormula node, int operation) {
+            int x = compile(node.getX());
+            int y = compile(node.getY());
+            return emit(node, operation, x, y);
+        }
+
+        @Override
+        public Integer visit(And node) {
+            return compileBinary(node, AND);
+        }
+
+        @Override
+        public Integer visit(Iff node) {
+            return compileBinary(node, IFF);
+        }
+
+        @Override
+        public Integer visit(Xor node) {
+            return compileBinary(node, XOR);
+        }
+
+        @Override
+        public Integer visit(Zero node) {
+            return emit(node, ZERO, 0, 0);
+        }
+
+        @Override
+        public Integer visit(One node) {
+            return emit(node, ONE, 0, 0);
+        }
+
+        @Override
+        public Integer visit(Not node) {
+            return emit(node, NOT, compile(node.getX()), 0);
+        }
+
+        @Override
+        public Integer visit(Imply node) {
+            return compileBinary(node, IMPLY);
+        }
+
+        @Override
+        public Integer visit(Or node) {
+            return compileBinary(node, OR);
+        }
+
+        @Override
+        public Integer visit(BooleanVariable variable) {
+            if (variable == Literal.ZERO.getVariable()) {
+                return emit(variable, ZERO, 0, 0);
+            }
+            if (variable == Literal.ONE.getVariable()) {
+                return emit(variable, ONE, 0, 0);
+            }
+            Integer slot = slots.get(variable);
+            if (slot == null) {
+                if (!collect) {
+                    throw new RuntimeException("Unable to compile a function containing an unknown variable: "
+                            + variable.getLabel());
+                }
+                slot = collected.size();
+                slots.put(variable, slot);
+                collected.add(variable);
+            }
+            return emit(variable, LOAD, slot, 0);
+        }
+    }
+
+    /**
+     * Compiles a formula over its variables, which are given slots in the order of their first occurrence.
+     */
+    public CompiledFormula(BooleanFormula formula) {
+        this(formula, null);
+    }
+
+    /**
+     * Compiles a formula over the given variables, which are given slots in the order of the list.
+     */
+    public CompiledFormula(BooleanFormula formula, List<? extends BooleanVariable> variables) {
+        Compiler compiler = new Compiler(variables);
+        compiler.compile(formula);
+        this.variables = Collections.unmodifiableList(compiler.collected);
+        int count = compiler.count;
+        operations = Arrays.copyOf(compiler.operations, count);
+        xs = Arrays.copyOf(compiler.xs, count);
+        ys = Arrays.copyOf(compiler.ys, count);
+        registers = new long[count];
+    }
+
+    public List<BooleanVariable> getVariables() {
+        return variables;
+    }
+
+    public int getInstructionCount() {
+        return operations.length;
+    }
+
+    /**
+     * Evaluates the formula on 64 input vectors at once: the word of each variable slot holds the values
+     * of that variable in all the vectors, and bit k of the result is the value of the formula on vector k.
+     */
+    public long evaluate(long[] inputs) {
+        long[] r = registers;
+        int count = operations.length;
+        for (int i = 0; i < count; i++) {
+            switch (operations[i]) {
+            case LOAD:
+                r[i] = inputs[xs[i]];
+                break;
+            case ZERO:
+                r[i] = 0L;
+                break;
+            case ONE:
+                r[i] = -1L;
+                break;
+            case NOT:
+                r[i] = ~r[xs[i]];
+                break;
+            case AND:
+                r[i] = r[xs[i]] & r[ys[i]];
+                break;
+            case OR:
+                r[i] = r[xs[i]] | r[ys[i]];
+                break;
+            case XOR:
+                r[i] = r[xs[i]] ^ r[ys[i]];
+                break;
+            case IFF:
+                r[i] = ~(r[xs[i]] ^ r[ys[i]]);
+                break;
+            default:
+                r[i] = ~r[xs[i]] | r[ys[i]];
+                break;
+            }
+        }
+        return r[count - 1];
+    }
+
+    /**
+     * Evaluates the formula on a single vector of variable values given in the slot order.
+     */
+    public boolean evaluate(boolean... values) {
+        long[] inputs = new long[variables.size()];
+        for (int slot = 0; slot < inputs.length; slot++) {
+            inputs[slot] = values[slot] ? -1L : 0L;
+        }
+        return (evaluate(inputs) & 1L) != 0;
+    }
+
+    public boolean isTautology() {
+        return isTautology(Collections.<BooleanVariable, Boolean>emptyMap());
+    }
+
+    public boolean isSatisfiable() {
+        return isSatisfiable(Collections.<BooleanVariable, Boolean>emptyMap());
+    }
+
+    /**
+     * Returns true if the formula holds for all values of the variables that are not in the assignment.
+     * The unassigned variables are enumerated exhaustively, 64 combinations per evaluation.
+     */
+    public boolean isTautology(Map<? extends BooleanVariable, Boolean> assignment) {
+        return !find(assignment, false);
+    }
+
+    /**
+     * Returns true if the formula holds for some values of the variables that are not in the assignment.
+     */
+    public boolean isSatisfiable(Map<? extends BooleanVariable, Boolean> assignment) {
+        return find(assignment, true);
+    }
+
+    /**
+     * Returns the truth table of the formula: bit (v mod 64) of word (v / 64) is the value of the formula on
+     * the vector whose variable in slot j has value of bit j of v.
+     */
+    public long[] getTruthTable() {
+        int count = variables.size();
+        if (count > 30) {
+            throw new RuntimeException("Unable to build a truth table of " + count + " variables.");
+        }
+        long[] inputs = new long[count];
+        for (int slot = 0; (slot < count) && (slot < PATTERNS.length); slot++) {
+            inputs[slot] = PATTERNS[slot];
+        }
+        int blockCount = (count > PATTERNS.length) ? 1 << (count - PATTERNS.length) : 1;
+        long[] result = new long[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            for (int slot = PATTERNS.length; slot < count; slot++) {
+                inputs[slot] = ((block >> (slot - PATTERNS.length)) & 1) != 0 ? -1L : 0L;
+            }
+            result[block] = evaluate(inputs);
+        }
+        if (count < PATTERNS.length) {
+            result[0] &= (1L << (1 << count)) - 1;
+        }
+        return result;
+    }
+
+    private boolean find(Map<? extends BooleanVariable, Boolean> assignment, boolean value) {
+        long[] inputs = new long[variables.size()];
+        int[] freeSlots = new int[inputs.length];
+        int freeCount = 0;
+        for (int slot = 0; slot < inputs.length; slot++) {
+            Boolean assigned = assignment.get(variables.get(slot));
+            if (assigned != null) {
+                inputs[slot] = assigned ? -1L : 0L;
+            } else if (freeCount < PATTERNS.length) {
+                // With fewer than six free variables the patterns repeat their combinations within the word.
+                inputs[slot] = PATTERNS[freeCount];
+                freeSlots[freeCount++] = slot;
+            } else {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+        if (freeCount - PATTERNS.length >= 63) {
+            throw new RuntimeException("Unable to enumerate " + freeCount + " free variables.");
+        }
+        long blockCount = (freeCount > PATTERNS.length) ? 1L << (freeCount - PATTERNS.length) : 1L;
+        for (long block = 0; block < blockCount; block++) {
+            for (int i = PATTERNS.length; i < freeCount; i++) {
+                inputs[freeSlots[i]] = ((block >> (i - PATTERNS.length)) & 1) != 0 ? -1L : 0L;
+            }
+            long result = evaluate(inputs);
+            if (value ? (result != 0L) : (result != -1L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,267 @@
+package org.workcraft.formula;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.WeakHashMap;
+
+/**
+ * Hash-consing factory of Boolean formulas. Every operator node created by the factory is unique: there is
+ * at most one node for each operator and pair of operands, so structurally equal formulas built by the
+ * factory are the same object and can be compared with ==. Constants and variables are compared by
+ * identity. Formulas built elsewhere are interned on demand, reusing their nodes where possible. Both the
+ * table of unique nodes and the map of interned formulas hold their nodes weakly, so formulas that are no
+ * longer used are collected as usual.
+ */
+public final class FormulaFactory {
+
+    private static final FormulaFactory INSTANCE = new FormulaFactory();
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int NOT = 1;
+    private static final int AND = 2;
+    private static final int OR = 3;
+    private static final int IFF = 4;
+    private static final int IMPLY = 5;
+    private static final int XOR = 6;
+
+    private static final class Entry extends WeakReference<BooleanFormula> {
+        final int operation;
+        final BooleanFormula x;
+        final BooleanFormula y;
+        final int hash;
+        Entry next;
+
+        Entry(BooleanFormula node, int operation, BooleanFormula x, BooleanFormula y, int hash,
+                ReferenceQueue<BooleanFormula> queue) {
+            super(node, queue);
+            this.operation = operation;
+            this.x = x;
+            this.y = y;
+            this.hash = hash;
+        }
+    }
+
+    private final ReferenceQueue<BooleanFormula> queue = new ReferenceQueue<>();
+    private final WeakHashMap<BooleanFormula, BooleanFormula> interned = new WeakHashMap<>();
+    private Entry[] table = new Entry[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public static FormulaFactory getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized BooleanFormula not(BooleanFormula x) {
+        return get(NOT, intern(x), null);
+    }
+
+    public synchronized BooleanFormula and(BooleanFormula x, BooleanFormula y) {
+        return get(AND, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula or(BooleanFormula x, BooleanFormula y) {
+        return get(OR, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula iff(BooleanFormula x, BooleanFormula y) {
+        return get(IFF, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula imply(BooleanFormula x, BooleanFormula y) {
+        return get(IMPLY, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula xor(BooleanFormula x, BooleanFormula y) {
+        return get(XOR, intern(x), intern(y));
+    }
+
+    /**
+     * Returns the unique formula structurally equal to the given one.
+     */
+    public synchronized BooleanFormula intern(BooleanFormula formula) {
+        BooleanFormula result = findInterned(formula);
+        if (result != null) {
+            return result;
+        }
+        // Operands are interned before their operators, with an explicit stack as formulas may be deep.
+        ArrayDeque<BooleanFormula> stack = new ArrayDeque<>();
+        stack.push(formula);
+        while (!stack.isEmpty()) {
+            BooleanFormula f = stack.peek();
+            BooleanFormula x = getX(f);
+            BooleanFormula y = getY(f);
+            BooleanFormula ix = findInterned(x);
+            if (ix == null) {
+                stack.push(x);
+                continue;
+            }
+            BooleanFormula iy = (y == null) ? null : findInterned(y);
+            if ((y != null) && (iy == null)) {
+                stack.push(y);
+                continue;
+            }
+            stack.pop();
+            int operation = getOperation(f);
+            BooleanFormula node = find(operation, ix, iy);
+            if (node == null) {
+                node = ((ix == x) && (iy == y)) ? f : create(operation, ix, iy);
+                put(node, operation, ix, iy);
+            }
+            if (node != f) {
+                interned.put(f, node);
+            }
+            result = node;
+        }
+        return result;
+    }
+
+    // Returns the unique formula equal to the given one if it is known, or null otherwise.
+    private BooleanFormula findInterned(BooleanFormula formula) {
+        int operation = getOperation(formula);
+        if (operation == 0) {
+            return formula;
+        }
+        // A node found by its own operands is either the formula itself or equal to it.
+        BooleanFormula result = find(operation, getX(formula), getY(formula));
+        return (result != null) ? result : interned.get(formula);
+    }
+
+    /**
+     * Returns the unique negation of the formula if it was already created, without creating it.
+     */
+    public synchronized BooleanFormula findNot(BooleanFormula x) {
+        return find(NOT, intern(x), null);
+    }
+
+    public synchronized int size() {
+        expunge();
+        return size;
+    }
+
+    private static int getOperation(BooleanFormula formula) {
+        if (formula instanceof Not) {
+            return NOT;
+        } else if (formula instanceof And) {
+            return AND;
+        } else if (formula instanceof Or) {
+            return OR;
+        } else if (formula instanceof Iff) {
+            return IFF;
+        } else if (formula instanceof Imply) {
+            return IMPLY;
+        } else if (formula instanceof Xor) {
+            return XOR;
+        }
+        return 0;
+    }
+
+    private static BooleanFormula getX(BooleanFormula formula) {
+        if (formula instanceof Not) {
+            return ((Not) formula).getX();
+        }
+        return ((BinaryBooleanFormula) formula).getX();
+    }
+
+    private static BooleanFormula getY(BooleanFormula formula) {
+        if (formula instanceof Not) {
+            return null;
+        }
+        return ((BinaryBooleanFormula) formula).getY();
+    }
+
+    private static BooleanFormula create(int operation, BooleanFormula x, BooleanFormula y) {
+        switch (operation) {
+        case NOT:
+            return new Not(x);
+        case AND:
+            return new And(x, y);
+        case OR:
+            return new Or(x, y);
+        case IFF:
+            return new Iff(x, y);
+        case IMPLY:
+            return new Imply(x, y);
+        default:
+            return new Xor(x, y);
+        }
+    }
+
+    private static int hash(int operation, BooleanFormula x, BooleanFormula y) {
+        int h = 31 * (31 * operation + System.identityHashCode(x)) + System.identityHashCode(y);
+        return h ^ (h >>> 16);
+    }
+
+    private BooleanFormula get(int operation, BooleanFormula x, BooleanFormula y) {
+        BooleanFormula result = find(operation, x, y);
+        if (result == null) {
+            result = create(operation, x, y);
+            put(result, operation, x, y);
+        }
+        return result;
+    }
+
+    private BooleanFormula find(int operation, BooleanFormula x, BooleanFormula y) {
+        int hash = hash(operation, x, y);
+        for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+            if ((e.hash == hash) && (e.operation == operation) && (e.x == x) && (e.y == y)) {
+                BooleanFormula result = e.get();
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void put(BooleanFormula node, int operation, BooleanFormula x, BooleanFormula y) {
+        expunge();
+        if (size >= table.length) {
+            resize(2 * table.length);
+        }
+        int hash = hash(operation, x, y);
+        int index = hash & (table.length - 1);
+        Entry e = new Entry(node, operation, x, y, hash, queue);
+        e.next = table[index];
+        table[index] = e;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        Entry[] newTable = new Entry[capacity];
+        for (Entry head: table) {
+            Entry e = head;
+            while (e != null) {
+                Entry next = e.next;
+                int index = e.hash & (capacity - 1);
+                e.next = newTable[index];
+                newTable[index] = e;
+                e = next;
+            }
+        }
+        table = newTable;
+    }
+
+    // Removes the entries of collected nodes, which also releases their operands.
+    private void expunge() {
+        Object ref;
+        while ((ref = queue.poll()) != null) {
+            Entry entry = (Entry) ref;
+            int index = entry.hash & (table.length - 1);
+            Entry prev = null;
+            for (Entry e = table[index]; e != null; e = e.next) {
+                if (e == entry) {
+                    if (prev == null) {
+                        table[index] = e.next;
+                    } else {
+                        prev.next = e.next;
+                    }
+                    size--;
+                    break;
+                }
+                prev = e;
+            }
+        }
+    }
+
+}
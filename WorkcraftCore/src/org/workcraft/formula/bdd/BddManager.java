@@ -0,0 +1,814 @@
+package org.workcraft.formula.bdd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.workcraft.formula.And;
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.BooleanVisitor;
+import org.workcraft.formula.FormulaFactory;
+import org.workcraft.formula.Iff;
+import org.workcraft.formula.Imply;
+import org.workcraft.formula.Not;
+import org.workcraft.formula.One;
+import org.workcraft.formula.Or;
+import org.workcraft.formula.Xor;
+import org.workcraft.formula.Zero;
+
+/**
+ * Reduced ordered binary decision diagrams. A BDD is referred to by the int handle of its root node; the
+ * handles of equal functions are equal, so equivalence, satisfiability and tautology checks are constant
+ * time once the diagrams are built. Nodes are kept in parallel arrays and made unique by a hash table per
+ * variable; results of the operations are memoised in a direct-mapped cache.
+ *
+ * <p>Unused nodes are reclaimed by a mark and sweep collection that may run at the start of any operation,
+ * keeping only the nodes reachable from the handles protected by {@link #ref(int)} and from the operands of
+ * that operation. Handles that are kept across operations must therefore be referenced. When automatic
+ * reordering is enabled, the variables are also reordered by sifting as the diagrams grow. Reordering
+ * preserves all the referenced handles.
+ *
+ * <p>A manager is not thread-safe.
+ */
+public class BddManager {
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TERMINAL = -1;
+    private static final int FREE = -2;
+
+    private static final int AND = 1;
+    private static final int OR = 2;
+    private static final int XOR = 3;
+    private static final int RESTRICT = 4;
+
+    private static final int MIN_CAPACITY = 64;
+    private static final int MIN_GC_THRESHOLD = 4096;
+    private static final int MIN_REORDER_THRESHOLD = 4096;
+    // Sifting of a variable in one direction stops when the diagrams grow by this factor.
+    private static final double MAX_GROWTH = 1.2;
+
+    // Nodes; the chains of the unique tables and the list of free nodes are linked by next.
+    private int[] vars;
+    private int[] lows;
+    private int[] highs;
+    private int[] nexts;
+    private int[] refs;
+    private int freeList = 0;
+    private int nodeCount = 0;
+
+    // Variables, their levels in the order and the unique table of every variable.
+    private final List<BooleanVariable> variables = new ArrayList<>();
+    private final Map<BooleanVariable, Integer> variableIndices = new HashMap<>();
+    private int[] levels = new int[8];
+    private int[] levelVars = new int[8];
+    private int[][] tables = new int[8][];
+    private int[] tableCounts = new int[8];
+
+    // Operation cache: operation, operands and result in four consecutive elements per entry.
+    private int[] cache;
+
+    // Reference counts including the references from parent nodes, only maintained while reordering.
+    private int[] counts = null;
+
+    private int gcThreshold = MIN_GC_THRESHOLD;
+    private int reorderThreshold = MIN_REORDER_THRESHOLD;
+    private boolean autoReorder = false;
+
+    public BddManager() {
+        this(MIN_CAPACITY);
+    }
+
+    public BddManager(int capacity) {
+        capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+        vars = new int[capacity];
+        lows = new int[capacity];
+        highs = new int[capacity];
+        nexts = new int[capacity];
+        refs = new int[capacity];
+        vars[ZERO] = TERMINAL;
+        vars[ONE] = TERMINAL;
+        addFree(2, capacity);
+        cache = new int[4 * capacity];
+    }
+
+    public int zero() {
+        return ZERO;
+    }
+
+    public int one() {
+        return ONE;
+    }
+
+    /**
+     * Returns the BDD of the variable. Variables are added at the bottom of the order when first used.
+     */
+    public int variable(BooleanVariable variable) {
+        return mk(getVariableIndex(variable), ZERO, ONE);
+    }
+
+    public int not(int f) {
+        prepare(f, f);
+        return apply(XOR, f, ONE);
+    }
+
+    public int and(int f, int g) {
+        prepare(f, g);
+        return apply(AND, f, g);
+    }
+
+    public int or(int f, int g) {
+        prepare(f, g);
+        return apply(OR, f, g);
+    }
+
+    public int xor(int f, int g) {
+        prepare(f, g);
+        return apply(XOR, f, g);
+    }
+
+    public int iff(int f, int g) {
+        prepare(f, g);
+        return apply(XOR, apply(XOR, f, g), ONE);
+    }
+
+    public int imply(int f, int g) {
+        prepare(f, g);
+        return apply(OR, apply(XOR, f, ONE), g);
+    }
+
+    /**
+     * Returns the cofactor of f with the variable set to the given value.
+     */
+    public int restrict(int f, BooleanVariable variable, boolean value) {
+        Integer index = variableIndices.get(variable);
+        if (index == null) {
+            return f;
+        }
+        prepare(f, f);
+        return restrict(f, index, value ? ONE : ZERO);
+    }
+
+    /**
+     * Protects the BDD from garbage collection until it is dereferenced, and returns it.
+     */
+    public int ref(int f) {
+        refs[f]++;
+        return f;
+    }
+
+    public void deref(int f) {
+        if (refs[f] <= 0) {
+            throw new IllegalStateException("BDD node " + f + " is not referenced.");
+        }
+        refs[f]--;
+    }
+
+    public boolean isZero(int f) {
+        return f == ZERO;
+    }
+
+    public boolean isOne(int f) {
+        return f == ONE;
+    }
+
+    public void setAutoReorder(boolean value) {
+        autoReorder = value;
+    }
+
+    public boolean getAutoReorder() {
+        return autoReorder;
+    }
+
+    /**
+     * Returns the number of nodes in the unique tables, which may include nodes not yet collected.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of non-terminal nodes of the BDD.
+     */
+    public int getNodeCount(int f) {
+        boolean[] visited = new boolean[vars.length];
+        int[] stack = new int[vars.length];
+        int top = 0;
+        int result = 0;
+        stack[top++] = f;
+        visited[f] = true;
+        while (top > 0) {
+            int n = stack[--top];
+            if (vars[n] != TERMINAL) {
+                result++;
+                if (!visited[lows[n]]) {
+                    visited[lows[n]] = true;
+                    stack[top++] = lows[n];
+                }
+                if (!visited[highs[n]]) {
+                    visited[highs[n]] = true;
+                    stack[top++] = highs[n];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the variables from the top of the order to the bottom.
+     */
+    public List<BooleanVariable> getVariableOrder() {
+        List<BooleanVariable> result = new ArrayList<>(variables.size());
+        for (int level = 0; level < variables.size(); level++) {
+            result.add(variables.get(levelVars[level]));
+        }
+        return result;
+    }
+
+    /**
+     * Builds the BDD of the formula. Variables not used before are added in the order of their appearance.
+     */
+    public int build(BooleanFormula formula) {
+        return formula.accept(new BooleanVisitor<Integer>() {
+            @Override
+            public Integer visit(And node) {
+                return binary(AND, node.getX(), node.getY());
+            }
+
+            @Override
+            public Integer visit(Or node) {
+                return binary(OR, node.getX(), node.getY());
+            }
+
+            @Override
+            public Integer visit(Xor node) {
+                return binary(XOR, node.getX(), node.getY());
+            }
+
+            @Override
+            public Integer visit(Iff node) {
+                int x = ref(node.getX().accept(this));
+                int y = ref(node.getY().accept(this));
+                int result = iff(x, y);
+                deref(x);
+                deref(y);
+                return result;
+            }
+
+            @Override
+            public Integer visit(Imply node) {
+                int x = ref(node.getX().accept(this));
+                int y = ref(node.getY().accept(this));
+                int result = imply(x, y);
+                deref(x);
+                deref(y);
+                return result;
+            }
+
+            @Override
+            public Integer visit(Not node) {
+                return not(node.getX().accept(this));
+            }
+
+            @Override
+            public Integer visit(Zero node) {
+                return ZERO;
+            }
+
+            @Override
+            public Integer visit(One node) {
+                return ONE;
+            }
+
+            @Override
+            public Integer visit(BooleanVariable node) {
+                return variable(node);
+            }
+
+            private int binary(int operation, BooleanFormula formulaX, BooleanFormula formulaY) {
+                // The first operand must survive a collection during the construction of the second.
+                int x = ref(formulaX.accept(this));
+                int y = formulaY.accept(this);
+                prepare(x, y);
+                int result = apply(operation, x, y);
+                deref(x);
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Returns a formula of the BDD as nested if-then-else expressions, sharing the subformulas of shared
+     * nodes. The formulas are built by {@link FormulaFactory}.
+     */
+    public BooleanFormula toFormula(int f) {
+        return toFormula(f, new HashMap<Integer, BooleanFormula>(), FormulaFactory.getInstance());
+    }
+
+    private BooleanFormula toFormula(int f, Map<Integer, BooleanFormula> formulas, FormulaFactory factory) {
+        if (f == ZERO) {
+            return Zero.instance();
+        }
+        if (f == ONE) {
+            return One.instance();
+        }
+        BooleanFormula result = formulas.get(f);
+        if (result == null) {
+            BooleanVariable x = variables.get(vars[f]);
+            int low = lows[f];
+            int high = highs[f];
+            if ((low == ZERO) && (high == ONE)) {
+                result = x;
+            } else if ((low == ONE) && (high == ZERO)) {
+                result = factory.not(x);
+            } else if (low == ZERO) {
+                result = factory.and(x, toFormula(high, formulas, factory));
+            } else if (high == ZERO) {
+                result = factory.and(factory.not(x), toFormula(low, formulas, factory));
+            } else if (low == ONE) {
+                result = factory.or(factory.not(x), toFormula(high, formulas, factory));
+            } else if (high == ONE) {
+                result = factory.or(x, toFormula(low, formulas, factory));
+            } else {
+                result = factory.or(factory.and(x, toFormula(high, formulas, factory)),
+                        factory.and(factory.not(x), toFormula(low, formulas, factory)));
+            }
+            formulas.put(f, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values of the variables on a path to the terminal one, or null if the BDD is zero.
+     * The variables not in the returned map can take any value.
+     */
+    public Map<BooleanVariable, Boolean> getSatisfyingAssignment(int f) {
+        if (f == ZERO) {
+            return null;
+        }
+        Map<BooleanVariable, Boolean> result = new LinkedHashMap<>();
+        while (f != ONE) {
+            BooleanVariable variable = variables.get(vars[f]);
+            if (lows[f] != ZERO) {
+                result.put(variable, false);
+                f = lows[f];
+            } else {
+                result.put(variable, true);
+                f = highs[f];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reclaims the nodes not reachable from the referenced BDDs.
+     */
+    public void gc() {
+        gc(ZERO, ZERO);
+    }
+
+    /**
+     * Reorders the variables by sifting to reduce the number of nodes of the referenced BDDs.
+     */
+    public void reorder() {
+        reorder(ZERO, ZERO);
+    }
+
+    private int getVariableIndex(BooleanVariable variable) {
+        Integer index = variableIndices.get(variable);
+        if (index == null) {
+            index = variables.size();
+            variables.add(variable);
+            variableIndices.put(variable, index);
+            if (index == levels.length) {
+                int capacity = 2 * index;
+                levels = Arrays.copyOf(levels, capacity);
+                levelVars = Arrays.copyOf(levelVars, capacity);
+                tables = Arrays.copyOf(tables, capacity);
+                tableCounts = Arrays.copyOf(tableCounts, capacity);
+            }
+            levels[index] = index;
+            levelVars[index] = index;
+            tables[index] = new int[16];
+        }
+        return index;
+    }
+
+    private int getLevel(int f) {
+        int var = vars[f];
+        return (var == TERMINAL) ? Integer.MAX_VALUE : levels[var];
+    }
+
+    // Collects the garbage and reorders the variables if the diagrams have grown enough since the last time.
+    private void prepare(int f, int g) {
+        if (autoReorder && (nodeCount >= reorderThreshold)) {
+            reorder(f, g);
+            reorderThreshold = Math.max(MIN_REORDER_THRESHOLD, 2 * nodeCount);
+            gcThreshold = Math.max(MIN_GC_THRESHOLD, 2 * nodeCount);
+        } else if (nodeCount >= gcThreshold) {
+            gc(f, g);
+            gcThreshold = Math.max(MIN_GC_THRESHOLD, 2 * nodeCount);
+        }
+    }
+
+    private int apply(int operation, int f, int g) {
+        switch (operation) {
+        case AND:
+            if ((f == ZERO) || (g == ZERO)) {
+                return ZERO;
+            }
+            if ((f == ONE) || (f == g)) {
+                return g;
+            }
+            if (g == ONE) {
+                return f;
+            }
+            break;
+        case OR:
+            if ((f == ONE) || (g == ONE)) {
+                return ONE;
+            }
+            if ((f == ZERO) || (f == g)) {
+                return g;
+            }
+            if (g == ZERO) {
+                return f;
+            }
+            break;
+        default:
+            if (f == g) {
+                return ZERO;
+            }
+            if (f == ZERO) {
+                return g;
+            }
+            if (g == ZERO) {
+                return f;
+            }
+            break;
+        }
+        // All the operations are commutative.
+        if (f > g) {
+            int t = f;
+            f = g;
+            g = t;
+        }
+        int entry = getCacheEntry(operation, f, g);
+        if ((cache[entry] == operation) && (cache[entry + 1] == f) && (cache[entry + 2] == g)) {
+            return cache[entry + 3];
+        }
+        int levelF = getLevel(f);
+        int levelG = getLevel(g);
+        int level = Math.min(levelF, levelG);
+        int low = apply(operation, (levelF == level) ? lows[f] : f, (levelG == level) ? lows[g] : g);
+        int high = apply(operation, (levelF == level) ? highs[f] : f, (levelG == level) ? highs[g] : g);
+        int result = mk(levelVars[level], low, high);
+        putCacheEntry(operation, f, g, result);
+        return result;
+    }
+
+    private int restrict(int f, int var, int value) {
+        int level = getLevel(f);
+        if (level > levels[var]) {
+            return f;
+        }
+        if (vars[f] == var) {
+            return (value == ONE) ? highs[f] : lows[f];
+        }
+        int key = 2 * var + value;
+        int entry = getCacheEntry(RESTRICT, f, key);
+        if ((cache[entry] == RESTRICT) && (cache[entry + 1] == f) && (cache[entry + 2] == key)) {
+            return cache[entry + 3];
+        }
+        int low = restrict(lows[f], var, value);
+        int high = restrict(highs[f], var, value);
+        int result = mk(vars[f], low, high);
+        putCacheEntry(RESTRICT, f, key, result);
+        return result;
+    }
+
+    private int getCacheEntry(int operation, int f, int g) {
+        int h = (f * 0x9E3779B1 + g) * 0x85EBCA6B + operation;
+        h ^= h >>> 15;
+        return (h & (cache.length / 4 - 1)) << 2;
+    }
+
+    private void putCacheEntry(int operation, int f, int g, int result) {
+        // The cache may have been reallocated by the recursive calls.
+        int entry = getCacheEntry(operation, f, g);
+        cache[entry] = operation;
+        cache[entry + 1] = f;
+        cache[entry + 2] = g;
+        cache[entry + 3] = result;
+    }
+
+    private static int hash(int low, int high) {
+        int h = low * 0x9E3779B1 + high;
+        return h ^ (h >>> 16);
+    }
+
+    // Returns the unique node, creating it if needed.
+    private int mk(int var, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int[] table = tables[var];
+        for (int n = table[hash(low, high) & (table.length - 1)]; n != 0; n = nexts[n]) {
+            if ((lows[n] == low) && (highs[n] == high)) {
+                return n;
+            }
+        }
+        int n = allocate();
+        vars[n] = var;
+        lows[n] = low;
+        highs[n] = high;
+        refs[n] = 0;
+        insert(var, n);
+        if (counts != null) {
+            counts[n] = 0;
+            counts[low]++;
+            counts[high]++;
+        }
+        return n;
+    }
+
+    private void insert(int var, int n) {
+        int[] table = tables[var];
+        if (tableCounts[var] >= table.length) {
+            table = resizeTable(var, 2 * table.length);
+        }
+        int index = hash(lows[n], highs[n]) & (table.length - 1);
+        nexts[n] = table[index];
+        table[index] = n;
+        tableCounts[var]++;
+    }
+
+    private int[] resizeTable(int var, int capacity) {
+        int[] table = new int[capacity];
+        for (int head: tables[var]) {
+            int n = head;
+            while (n != 0) {
+                int next = nexts[n];
+                int index = hash(lows[n], highs[n]) & (capacity - 1);
+                nexts[n] = table[index];
+                table[index] = n;
+                n = next;
+            }
+        }
+        tables[var] = table;
+        return table;
+    }
+
+    private void remove(int n) {
+        int var = vars[n];
+        int[] table = tables[var];
+        int index = hash(lows[n], highs[n]) & (table.length - 1);
+        if (table[index] == n) {
+            table[index] = nexts[n];
+        } else {
+            int prev = table[index];
+            while (nexts[prev] != n) {
+                prev = nexts[prev];
+            }
+            nexts[prev] = nexts[n];
+        }
+        tableCounts[var]--;
+    }
+
+    private int allocate() {
+        if (freeList == 0) {
+            grow(2 * vars.length);
+        }
+        int n = freeList;
+        freeList = nexts[n];
+        nodeCount++;
+        return n;
+    }
+
+    private void free(int n) {
+        vars[n] = FREE;
+        nexts[n] = freeList;
+        freeList = n;
+        nodeCount--;
+    }
+
+    private void addFree(int from, int to) {
+        for (int n = to - 1; n >= from; n--) {
+            vars[n] = FREE;
+            nexts[n] = freeList;
+            freeList = n;
+        }
+    }
+
+    private void grow(int capacity) {
+        int oldCapacity = vars.length;
+        vars = Arrays.copyOf(vars, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        nexts = Arrays.copyOf(nexts, capacity);
+        refs = Arrays.copyOf(refs, capacity);
+        if (counts != null) {
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        addFree(oldCapacity, capacity);
+        // The cache is sized by the number of nodes and starts over empty.
+        cache = new int[4 * capacity];
+    }
+
+    // Frees all the nodes not reachable from the referenced nodes and the given roots.
+    private void gc(int f, int g) {
+        boolean[] marks = new boolean[vars.length];
+        int[] stack = new int[vars.length];
+        int top = 0;
+        marks[ZERO] = true;
+        marks[ONE] = true;
+        for (int n = 0; n < vars.length; n++) {
+            if (((refs[n] > 0) || (n == f) || (n == g)) && !marks[n]) {
+                marks[n] = true;
+                stack[top++] = n;
+            }
+            while (top > 0) {
+                int m = stack[--top];
+                if (!marks[lows[m]]) {
+                    marks[lows[m]] = true;
+                    stack[top++] = lows[m];
+                }
+                if (!marks[highs[m]]) {
+                    marks[highs[m]] = true;
+                    stack[top++] = highs[m];
+                }
+            }
+        }
+        for (int var = 0; var < variables.size(); var++) {
+            int[] table = tables[var];
+            for (int i = 0; i < table.length; i++) {
+                int prev = 0;
+                int n = table[i];
+                while (n != 0) {
+                    int next = nexts[n];
+                    if (marks[n]) {
+                        prev = n;
+                    } else {
+                        if (prev == 0) {
+                            table[i] = next;
+                        } else {
+                            nexts[prev] = next;
+                        }
+                        tableCounts[var]--;
+                        free(n);
+                    }
+                    n = next;
+                }
+            }
+        }
+        Arrays.fill(cache, 0);
+        // Keep a quarter of the nodes free to avoid collecting too often.
+        if (4 * nodeCount > 3 * vars.length) {
+            grow(2 * vars.length);
+        }
+    }
+
+    private void reorder(int f, int g) {
+        gc(f, g);
+        int varCount = variables.size();
+        if (varCount < 2) {
+            return;
+        }
+        counts = new int[vars.length];
+        for (int n = 0; n < vars.length; n++) {
+            if (vars[n] >= 0) {
+                counts[n] += refs[n];
+                counts[lows[n]]++;
+                counts[highs[n]]++;
+            }
+        }
+        counts[f]++;
+        counts[g]++;
+        // Sift the variables with more nodes first.
+        Integer[] order = new Integer[varCount];
+        for (int var = 0; var < varCount; var++) {
+            order[var] = var;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer var1, Integer var2) {
+                return Integer.compare(tableCounts[var2], tableCounts[var1]);
+            }
+        });
+        for (int var: order) {
+            sift(var);
+        }
+        counts = null;
+        Arrays.fill(cache, 0);
+    }
+
+    // Moves the variable through all the levels and leaves it at the level with the fewest nodes.
+    private void sift(int var) {
+        int varCount = variables.size();
+        int level = levels[var];
+        int bestLevel = level;
+        int bestCount = nodeCount;
+        // Go to the nearer end of the order first.
+        boolean down = level >= varCount / 2;
+        for (int pass = 0; pass < 2; pass++) {
+            if (down) {
+                while ((level < varCount - 1) && (nodeCount <= MAX_GROWTH * bestCount)) {
+                    swap(level++);
+                    if (nodeCount < bestCount) {
+                        bestCount = nodeCount;
+                        bestLevel = level;
+                    }
+                }
+            } else {
+                while ((level > 0) && (nodeCount <= MAX_GROWTH * bestCount)) {
+                    swap(--level);
+                    if (nodeCount < bestCount) {
+                        bestCount = nodeCount;
+                        bestLevel = level;
+                    }
+                }
+            }
+            down = !down;
+        }
+        while (level < bestLevel) {
+            swap(level++);
+        }
+        while (level > bestLevel) {
+            swap(--level);
+        }
+    }
+
+    // Swaps the variables at the given level and the level below it, keeping the functions of all the nodes.
+    private void swap(int level) {
+        int x = levelVars[level];
+        int y = levelVars[level + 1];
+        int[] table = tables[x];
+        int list = 0;
+        for (int i = 0; i < table.length; i++) {
+            int n = table[i];
+            while (n != 0) {
+                int next = nexts[n];
+                nexts[n] = list;
+                list = n;
+                n = next;
+            }
+            table[i] = 0;
+        }
+        tableCounts[x] = 0;
+        levels[x] = level + 1;
+        levels[y] = level;
+        levelVars[level] = y;
+        levelVars[level + 1] = x;
+        // The nodes not depending on y go back first, so that the new x nodes do not duplicate them.
+        int dependent = 0;
+        int n = list;
+        while (n != 0) {
+            int next = nexts[n];
+            if ((vars[lows[n]] == y) || (vars[highs[n]] == y)) {
+                nexts[n] = dependent;
+                dependent = n;
+            } else {
+                insert(x, n);
+            }
+            n = next;
+        }
+        n = dependent;
+        while (n != 0) {
+            int next = nexts[n];
+            int f0 = lows[n];
+            int f1 = highs[n];
+            boolean y0 = vars[f0] == y;
+            boolean y1 = vars[f1] == y;
+            int low = mk(x, y0 ? lows[f0] : f0, y1 ? lows[f1] : f1);
+            counts[low]++;
+            int high = mk(x, y0 ? highs[f0] : f0, y1 ? highs[f1] : f1);
+            counts[high]++;
+            vars[n] = y;
+            lows[n] = low;
+            highs[n] = high;
+            insert(y, n);
+            release(f0);
+            release(f1);
+            n = next;
+        }
+    }
+
+    // Drops a reference from a parent node while reordering, freeing the nodes that are no longer used.
+    private void release(int f) {
+        counts[f]--;
+        if ((counts[f] == 0) && (vars[f] >= 0)) {
+            remove(f);
+            int low = lows[f];
+            int high = highs[f];
+            free(f);
+            release(low);
+            release(high);
+        }
+    }
+
+}
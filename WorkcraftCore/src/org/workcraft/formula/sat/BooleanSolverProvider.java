@@ -0,0 +1,19 @@
+package org.workcraft.formula.sat;
+
+import org.workcraft.formula.BooleanSolver;
+import org.workcraft.plugins.shared.CommonSatSettings;
+import org.workcraft.plugins.shared.CommonSatSettings.SatSolver;
+
+public class BooleanSolverProvider {
+
+    /**
+     * Returns the solver of CNF tasks chosen in the SAT solver settings.
+     */
+    public static BooleanSolver<CnfTask> getSolver() {
+        if (CommonSatSettings.getSatSolver() == SatSolver.BUILTIN) {
+            return new EmbeddedBooleanSolver();
+        }
+        return new ConsoleBooleanSolver();
+    }
+
+}
@@ -0,0 +1,647 @@
+package org.workcraft.formula.sat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * In-process CDCL SAT solver. Variables are numbered from 1 and literals are given as in DIMACS, i.e. a
+ * negative number is the negation of its variable. The solver is incremental: clauses can be added between
+ * calls of {@link #solve(int...)}, and the clauses learnt by one call are kept for the following ones, so a
+ * sequence of related problems (e.g. tightening a bound) is solved without starting over. A call may take
+ * assumptions, which hold for that call only.
+ *
+ * <p>The search uses two watched literals with blockers, first UIP conflict analysis with clause
+ * minimisation, VSIDS variable activities, phase saving, Luby restarts and periodic removal of the learnt
+ * clauses with high literal block distance.
+ */
+public class CdclSolver {
+
+    private static final byte UNDEF = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private static final int NO_REASON = -1;
+    private static final int RESTART_UNIT = 100;
+    private static final double VAR_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    private int varCount = 0;
+    private boolean ok = true;
+
+    // Clauses; the literals at positions 0 and 1 are watched. Deleted clauses are null.
+    private int[][] clauses = new int[64][];
+    private boolean[] learnt = new boolean[64];
+    private int[] lbds = new int[64];
+    private double[] clauseActivities = new double[64];
+    private int clauseCount = 0;
+    private int learntCount = 0;
+    private int[] freeClauses = new int[16];
+    private int freeClauseCount = 0;
+    private double clauseIncrement = 1.0;
+    private int maxLearnts = 0;
+
+    // Watch lists of every literal as pairs of clause and blocker literal.
+    private int[][] watches = new int[2][];
+    private int[] watchSizes = new int[2];
+
+    // Assignment, indexed by literal (2 * var + sign) for values and by var for the rest.
+    private byte[] values = new byte[2];
+    private int[] levels = new int[1];
+    private int[] reasons = new int[1];
+    private boolean[] phases = new boolean[1];
+    private boolean[] seen = new boolean[1];
+    private int[] trail = new int[1];
+    private int trailSize = 0;
+    private int[] trailLimits = new int[1];
+    private int[] levelStamps = new int[1];
+    private int stamp = 0;
+    private int decisionLevel = 0;
+    private int propagated = 0;
+
+    // Heap of the unassigned variables ordered by activity.
+    private double[] activities = new double[1];
+    private double activityIncrement = 1.0;
+    private int[] heap = new int[1];
+    private int[] heapIndices = new int[1];
+    private int heapSize = 0;
+
+    private boolean[] model = null;
+    private long conflicts = 0;
+
+    /**
+     * Adds a new variable and returns its number.
+     */
+    public int newVariable() {
+        ensureVariables(varCount + 1);
+        return varCount;
+    }
+
+    public int getVariableCount() {
+        return varCount;
+    }
+
+    public long getConflictCount() {
+        return conflicts;
+    }
+
+    /**
+     * Makes sure variables up to the given number exist.
+     */
+    public void ensureVariables(int count) {
+        if (count <= varCount) {
+            return;
+        }
+        if (count >= levels.length) {
+            int capacity = Math.max(2 * levels.length, count + 1);
+            values = Arrays.copyOf(values, 2 * capacity);
+            watches = Arrays.copyOf(watches, 2 * capacity);
+            watchSizes = Arrays.copyOf(watchSizes, 2 * capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            trailLimits = Arrays.copyOf(trailLimits, capacity);
+            levelStamps = Arrays.copyOf(levelStamps, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndices = Arrays.copyOf(heapIndices, capacity);
+        }
+        for (int v = varCount + 1; v <= count; v++) {
+            reasons[v] = NO_REASON;
+            heapIndices[v] = -1;
+            heapInsert(v);
+        }
+        varCount = count;
+    }
+
+    /**
+     * Adds a clause given by DIMACS literals. Returns false if the clauses are found unsatisfiable.
+     */
+    public boolean addClause(int... literals) {
+        if (!ok) {
+            return false;
+        }
+        cancelUntil(0);
+        int[] lits = new int[literals.length];
+        int size = 0;
+        for (int literal: literals) {
+            if (literal == 0) {
+                throw new IllegalArgumentException("Zero is not a literal.");
+            }
+            ensureVariables(Math.abs(literal));
+            int lit = toLit(literal);
+            byte value = values[lit];
+            if (value == TRUE) {
+                return true;
+            }
+            if (value == FALSE) {
+                continue;
+            }
+            boolean duplicate = false;
+            for (int i = 0; i < size; i++) {
+                if (lits[i] == lit) {
+                    duplicate = true;
+                    break;
+                }
+                if (lits[i] == (lit ^ 1)) {
+                    return true;
+                }
+            }
+            if (!duplicate) {
+                lits[size++] = lit;
+            }
+        }
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            assign(lits[0], NO_REASON);
+            ok = propagate() == NO_REASON;
+        } else {
+            attach(Arrays.copyOf(lits, size), false, 0);
+        }
+        return ok;
+    }
+
+    /**
+     * Solves the clauses under the given assumptions. Returns false if they are unsatisfiable, in which
+     * case the clauses alone may still be satisfiable with other assumptions.
+     */
+    public boolean solve(int... assumptions) {
+        model = null;
+        if (!ok) {
+            return false;
+        }
+        int[] assumptionLits = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            ensureVariables(Math.abs(assumptions[i]));
+            assumptionLits[i] = toLit(assumptions[i]);
+        }
+        maxLearnts = Math.max(maxLearnts, (clauseCount - learntCount) / 3 + 1000);
+        boolean result;
+        for (int restart = 0;; restart++) {
+            byte status = search(RESTART_UNIT * luby(restart), assumptionLits);
+            if (status != UNDEF) {
+                result = status == TRUE;
+                break;
+            }
+        }
+        if (result) {
+            model = new boolean[varCount + 1];
+            for (int v = 1; v <= varCount; v++) {
+                model[v] = values[2 * v] == TRUE;
+            }
+        }
+        cancelUntil(0);
+        return result;
+    }
+
+    /**
+     * Returns the value of the variable in the model found by the last successful call of solve.
+     */
+    public boolean getValue(int variable) {
+        if (model == null) {
+            throw new IllegalStateException("No model is available.");
+        }
+        return (variable < model.length) && model[variable];
+    }
+
+    private static int toLit(int literal) {
+        return (literal > 0) ? 2 * literal : -2 * literal + 1;
+    }
+
+    private static int luby(int i) {
+        // Finds the finite subsequence that contains index i, and the index within it.
+        int size = 1;
+        int seq = 0;
+        while (size < i + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            seq--;
+            i = i % size;
+        }
+        return 1 << seq;
+    }
+
+    // Returns TRUE or FALSE when solved, or UNDEF when the conflict budget of the restart is used up.
+    private byte search(int conflictBudget, int[] assumptions) {
+        int conflictCount = 0;
+        int[] learntLits = new int[varCount + 1];
+        while (true) {
+            int conflict = propagate();
+            if (conflict != NO_REASON) {
+                conflicts++;
+                conflictCount++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return FALSE;
+                }
+                int size = analyze(conflict, learntLits);
+                int backtrackLevel = (size == 1) ? 0 : levels[learntLits[1] >> 1];
+                cancelUntil(backtrackLevel);
+                if (size == 1) {
+                    assign(learntLits[0], NO_REASON);
+                } else {
+                    int c = attach(Arrays.copyOf(learntLits, size), true, computeLbd(learntLits, size));
+                    bumpClause(c);
+                    assign(learntLits[0], c);
+                }
+                activityIncrement /= VAR_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+            } else {
+                if (conflictCount >= conflictBudget) {
+                    cancelUntil(0);
+                    return UNDEF;
+                }
+                if (learntCount - trailSize >= maxLearnts) {
+                    reduceLearnts();
+                }
+                int next = 0;
+                while (decisionLevel < assumptions.length) {
+                    int lit = assumptions[decisionLevel];
+                    if (values[lit] == TRUE) {
+                        newDecisionLevel();
+                    } else if (values[lit] == FALSE) {
+                        return FALSE;
+                    } else {
+                        next = lit;
+                        break;
+                    }
+                }
+                if (next == 0) {
+                    int v = pickBranchVariable();
+                    if (v == 0) {
+                        return TRUE;
+                    }
+                    next = phases[v] ? 2 * v : 2 * v + 1;
+                }
+                newDecisionLevel();
+                assign(next, NO_REASON);
+            }
+        }
+    }
+
+    private void newDecisionLevel() {
+        trailLimits[decisionLevel++] = trailSize;
+    }
+
+    private void assign(int lit, int reason) {
+        int v = lit >> 1;
+        values[lit] = TRUE;
+        values[lit ^ 1] = FALSE;
+        levels[v] = decisionLevel;
+        reasons[v] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    private void cancelUntil(int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+            int lit = trail[i];
+            int v = lit >> 1;
+            values[lit] = UNDEF;
+            values[lit ^ 1] = UNDEF;
+            reasons[v] = NO_REASON;
+            phases[v] = (lit & 1) == 0;
+            if (heapIndices[v] < 0) {
+                heapInsert(v);
+            }
+        }
+        trailSize = trailLimits[level];
+        propagated = trailSize;
+        decisionLevel = level;
+    }
+
+    // Returns the conflicting clause, or NO_REASON if all the assignments are propagated without conflict.
+    private int propagate() {
+        while (propagated < trailSize) {
+            int falseLit = trail[propagated++] ^ 1;
+            int[] list = watches[falseLit];
+            int size = watchSizes[falseLit];
+            int i = 0;
+            int j = 0;
+            while (i < size) {
+                int c = list[i];
+                int blocker = list[i + 1];
+                i += 2;
+                if (values[blocker] == TRUE) {
+                    list[j++] = c;
+                    list[j++] = blocker;
+                    continue;
+                }
+                int[] lits = clauses[c];
+                if (lits[0] == falseLit) {
+                    lits[0] = lits[1];
+                    lits[1] = falseLit;
+                }
+                int first = lits[0];
+                if ((first != blocker) && (values[first] == TRUE)) {
+                    list[j++] = c;
+                    list[j++] = first;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < lits.length; k++) {
+                    if (values[lits[k]] != FALSE) {
+                        lits[1] = lits[k];
+                        lits[k] = falseLit;
+                        addWatch(lits[1], c, first);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                list[j++] = c;
+                list[j++] = first;
+                if (values[first] == FALSE) {
+                    while (i < size) {
+                        list[j++] = list[i++];
+                    }
+                    watchSizes[falseLit] = j;
+                    propagated = trailSize;
+                    return c;
+                }
+                assign(first, c);
+            }
+            watchSizes[falseLit] = j;
+        }
+        return NO_REASON;
+    }
+
+    // Derives the first UIP clause of the conflict into learntLits, with the asserting literal first and a
+    // literal of the backtrack level second. Returns the size of the clause.
+    private int analyze(int conflict, int[] learntLits) {
+        int size = 1;
+        int pathCount = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        int c = conflict;
+        do {
+            if (learnt[c]) {
+                bumpClause(c);
+            }
+            int[] lits = clauses[c];
+            for (int k = (lit == -1) ? 0 : 1; k < lits.length; k++) {
+                int q = lits[k];
+                int v = q >> 1;
+                if (!seen[v] && (levels[v] > 0)) {
+                    bumpVariable(v);
+                    seen[v] = true;
+                    if (levels[v] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        learntLits[size++] = q;
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            lit = trail[index--];
+            c = reasons[lit >> 1];
+            seen[lit >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learntLits[0] = lit ^ 1;
+
+        // Drop the literals implied by the other literals of the clause through their reasons. The kept
+        // literals are swapped to the front, so all of them remain for clearing the flags afterwards.
+        int kept = 1;
+        for (int k = 1; k < size; k++) {
+            int v = learntLits[k] >> 1;
+            if ((reasons[v] == NO_REASON) || !isImplied(reasons[v])) {
+                int t = learntLits[kept];
+                learntLits[kept++] = learntLits[k];
+                learntLits[k] = t;
+            }
+        }
+        for (int k = 1; k < size; k++) {
+            seen[learntLits[k] >> 1] = false;
+        }
+        size = kept;
+
+        // Put a literal of the highest level among the rest second, to be watched.
+        int max = 1;
+        for (int k = 2; k < size; k++) {
+            if (levels[learntLits[k] >> 1] > levels[learntLits[max] >> 1]) {
+                max = k;
+            }
+        }
+        if (size > 1) {
+            int t = learntLits[1];
+            learntLits[1] = learntLits[max];
+            learntLits[max] = t;
+        }
+        return size;
+    }
+
+    private boolean isImplied(int reason) {
+        int[] lits = clauses[reason];
+        for (int k = 1; k < lits.length; k++) {
+            int v = lits[k] >> 1;
+            if (!seen[v] && (levels[v] > 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int computeLbd(int[] lits, int size) {
+        stamp++;
+        int result = 0;
+        for (int k = 0; k < size; k++) {
+            int level = levels[lits[k] >> 1];
+            if (levelStamps[level] != stamp) {
+                levelStamps[level] = stamp;
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private int attach(int[] lits, boolean isLearnt, int lbd) {
+        int c;
+        if (freeClauseCount > 0) {
+            c = freeClauses[--freeClauseCount];
+        } else {
+            c = clauseCount;
+            if (c == clauses.length) {
+                int capacity = 2 * c;
+                clauses = Arrays.copyOf(clauses, capacity);
+                learnt = Arrays.copyOf(learnt, capacity);
+                lbds = Arrays.copyOf(lbds, capacity);
+                clauseActivities = Arrays.copyOf(clauseActivities, capacity);
+            }
+        }
+        clauseCount++;
+        clauses[c] = lits;
+        learnt[c] = isLearnt;
+        lbds[c] = lbd;
+        clauseActivities[c] = 0.0;
+        if (isLearnt) {
+            learntCount++;
+        }
+        addWatch(lits[0], c, lits[1]);
+        addWatch(lits[1], c, lits[0]);
+        return c;
+    }
+
+    private void addWatch(int lit, int c, int blocker) {
+        int[] list = watches[lit];
+        int size = watchSizes[lit];
+        if (list == null) {
+            list = new int[8];
+            watches[lit] = list;
+        } else if (size + 2 > list.length) {
+            list = Arrays.copyOf(list, 2 * list.length);
+            watches[lit] = list;
+        }
+        list[size] = c;
+        list[size + 1] = blocker;
+        watchSizes[lit] = size + 2;
+    }
+
+    // Removes half of the learnt clauses, preferring those with high block distance and low activity.
+    private void reduceLearnts() {
+        int count = 0;
+        Integer[] candidates = new Integer[learntCount];
+        for (int c = 0; c < clauses.length; c++) {
+            if ((clauses[c] != null) && learnt[c] && (lbds[c] > 2) && !isLocked(c)) {
+                candidates[count++] = c;
+            }
+        }
+        Arrays.sort(candidates, 0, count, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer c1, Integer c2) {
+                if (lbds[c1] != lbds[c2]) {
+                    return Integer.compare(lbds[c2], lbds[c1]);
+                }
+                return Double.compare(clauseActivities[c1], clauseActivities[c2]);
+            }
+        });
+        for (int i = 0; i < count / 2; i++) {
+            int c = candidates[i];
+            clauses[c] = null;
+            learntCount--;
+            clauseCount--;
+            if (freeClauseCount == freeClauses.length) {
+                freeClauses = Arrays.copyOf(freeClauses, 2 * freeClauseCount);
+            }
+            freeClauses[freeClauseCount++] = c;
+        }
+        // Drop the watches of the removed clauses.
+        for (int lit = 2; lit < 2 * varCount + 2; lit++) {
+            int[] list = watches[lit];
+            int size = watchSizes[lit];
+            int j = 0;
+            for (int i = 0; i < size; i += 2) {
+                if (clauses[list[i]] != null) {
+                    list[j++] = list[i];
+                    list[j++] = list[i + 1];
+                }
+            }
+            watchSizes[lit] = j;
+        }
+        maxLearnts += maxLearnts / 10;
+    }
+
+    private boolean isLocked(int c) {
+        int lit = clauses[c][0];
+        return (values[lit] == TRUE) && (reasons[lit >> 1] == c);
+    }
+
+    private void bumpClause(int c) {
+        clauseActivities[c] += clauseIncrement;
+        if (clauseActivities[c] > 1e20) {
+            for (int i = 0; i < clauses.length; i++) {
+                clauseActivities[i] *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    private void bumpVariable(int v) {
+        activities[v] += activityIncrement;
+        if (activities[v] > 1e100) {
+            for (int i = 1; i <= varCount; i++) {
+                activities[i] *= 1e-100;
+            }
+            activityIncrement *= 1e-100;
+        }
+        if (heapIndices[v] >= 0) {
+            heapUp(heapIndices[v]);
+        }
+    }
+
+    private int pickBranchVariable() {
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (values[2 * v] == UNDEF) {
+                return v;
+            }
+        }
+        return 0;
+    }
+
+    private void heapInsert(int v) {
+        heapIndices[v] = heapSize;
+        heap[heapSize++] = v;
+        heapUp(heapSize - 1);
+    }
+
+    private int heapRemoveMax() {
+        int v = heap[0];
+        heapIndices[v] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndices[heap[0]] = 0;
+            heapDown(0);
+        }
+        return v;
+    }
+
+    private void heapUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activities[heap[parent]] >= activities[v]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIndices[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndices[v] = i;
+    }
+
+    private void heapDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if ((child + 1 < heapSize) && (activities[heap[child + 1]] > activities[heap[child]])) {
+                child++;
+            }
+            if (activities[heap[child]] <= activities[v]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndices[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndices[v] = i;
+    }
+
+}
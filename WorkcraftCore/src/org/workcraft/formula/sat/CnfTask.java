@@ -1,22 +1,141 @@
 package org.workcraft.formula.sat;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.Literal;
+import org.workcraft.formula.cnf.Cnf;
+import org.workcraft.formula.cnf.CnfClause;
 
+/**
+ * CNF of a SAT problem, either as the DIMACS text for an external solver or as int arrays of literals for
+ * the built-in one. A task made from a {@link Cnf} numbers its variables once and prints the text only
+ * when it is requested.
+ */
 public class CnfTask {
-    private final String body;
+    private String body;
     private final Map<String, BooleanVariable> vars;
+    private final Cnf cnf;
+    private int[][] clauses = null;
+    private BooleanVariable[] variables = null;
 
     public CnfTask(String body, Map<String, BooleanVariable> vars) {
         this.body = body;
         this.vars = vars;
+        this.cnf = null;
+    }
+
+    public CnfTask(Cnf cnf, Map<String, BooleanVariable> vars) {
+        this.body = null;
+        this.vars = vars;
+        this.cnf = cnf;
     }
 
     public String getBody() {
+        if (body == null) {
+            body = cnf.toString(new MiniSatCnfPrinter());
+        }
         return body;
     }
+
     public Map<String, BooleanVariable> getVars() {
         return vars;
     }
+
+    /**
+     * Returns the clauses as DIMACS literals: variables are numbered from 1 and negative numbers stand
+     * for negated variables.
+     */
+    public int[][] getClauses() {
+        if (clauses == null) {
+            if (cnf != null) {
+                numberClauses();
+            } else {
+                parseBody();
+            }
+        }
+        return clauses;
+    }
+
+    public int getVariableCount() {
+        getClauses();
+        return variables.length - 1;
+    }
+
+    /**
+     * Returns the variable of the given number, or null if it is not known by its label.
+     */
+    public BooleanVariable getVariable(int number) {
+        getClauses();
+        return variables[number];
+    }
+
+    private void numberClauses() {
+        Map<BooleanVariable, Integer> numbers = new HashMap<>();
+        List<BooleanVariable> numbered = new ArrayList<>();
+        numbered.add(null);
+        List<CnfClause> cnfClauses = cnf.getClauses();
+        clauses = new int[cnfClauses.size()][];
+        for (int i = 0; i < clauses.length; i++) {
+            List<Literal> literals = cnfClauses.get(i).getLiterals();
+            int[] clause = new int[literals.size()];
+            for (int j = 0; j < clause.length; j++) {
+                Literal literal = literals.get(j);
+                BooleanVariable variable = literal.getVariable();
+                Integer number = numbers.get(variable);
+                if (number == null) {
+                    number = numbered.size();
+                    numbers.put(variable, number);
+                    numbered.add(variable);
+                }
+                clause[j] = literal.getNegation() ? -number : number;
+            }
+            clauses[i] = clause;
+        }
+        variables = numbered.toArray(new BooleanVariable[numbered.size()]);
+    }
+
+    private void parseBody() {
+        Map<Integer, BooleanVariable> labelled = new HashMap<>();
+        List<int[]> parsed = new ArrayList<>();
+        int varCount = 0;
+        BufferedReader reader = new BufferedReader(new StringReader(body));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] split = line.trim().split("\\s+");
+                if (split[0].isEmpty() || split[0].equals("p")) {
+                    continue;
+                }
+                if (split[0].equals("c")) {
+                    if (split.length > 2) {
+                        labelled.put(Integer.parseInt(split[1]), vars.get(split[2]));
+                    }
+                    continue;
+                }
+                int[] clause = new int[split.length - 1];
+                for (int i = 0; i < clause.length; i++) {
+                    clause[i] = Integer.parseInt(split[i]);
+                    varCount = Math.max(varCount, Math.abs(clause[i]));
+                }
+                parsed.add(clause);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        clauses = parsed.toArray(new int[parsed.size()][]);
+        variables = new BooleanVariable[varCount + 1];
+        for (Map.Entry<Integer, BooleanVariable> entry: labelled.entrySet()) {
+            if (entry.getKey() <= varCount) {
+                variables[entry.getKey()] = entry.getValue();
+            }
+        }
+    }
+
 }
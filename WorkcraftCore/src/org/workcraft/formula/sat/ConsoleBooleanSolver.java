@@ -1,10 +1,12 @@
 package org.workcraft.formula.sat;
 
 import org.workcraft.formula.BooleanSolution;
+import org.workcraft.formula.BooleanSolver;
 import org.workcraft.plugins.shared.CommonSatSettings;
 
-public class ConsoleBooleanSolver {
+public class ConsoleBooleanSolver implements BooleanSolver<CnfTask> {
 
+    @Override
     public BooleanSolution solve(CnfTask task) {
         String cnf = task.getBody();
         String solution = solve(cnf);
@@ -22,7 +22,7 @@ public class DefaultSolver<T> {
     public Encoding solve(String[] scenarios, BooleanVariable[] variables, int derivedVars) {
         OptimisationTask<? extends T> task = problemGenerator.getFormula(scenarios, variables, derivedVars);
 
-        BooleanSolution solution = new ConsoleBooleanSolver().solve(cnfConverter.getCnf(task.getTask()));
+        BooleanSolution solution = BooleanSolverProvider.getSolver().solve(cnfConverter.getCnf(task.getTask()));
         return SolutionPrettifier.prettifySolution(task, solution);
     }
 }
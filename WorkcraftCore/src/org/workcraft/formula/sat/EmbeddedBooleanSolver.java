@@ -0,0 +1,41 @@
+package org.workcraft.formula.sat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.workcraft.formula.BooleanSolution;
+import org.workcraft.formula.BooleanSolver;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.Literal;
+
+/**
+ * Solves CNF tasks in-process by {@link CdclSolver}, taking the clauses as int arrays.
+ */
+public class EmbeddedBooleanSolver implements BooleanSolver<CnfTask> {
+
+    @Override
+    public BooleanSolution solve(CnfTask task) {
+        CdclSolver solver = new CdclSolver();
+        solver.ensureVariables(task.getVariableCount());
+        for (int[] clause: task.getClauses()) {
+            if (!solver.addClause(clause)) {
+                return null;
+            }
+        }
+        if (!solver.solve()) {
+            return null;
+        }
+        Map<String, BooleanVariable> vars = task.getVars();
+        Map<BooleanVariable, Boolean> results = new HashMap<>();
+        for (int number = 1; number <= task.getVariableCount(); number++) {
+            BooleanVariable variable = task.getVariable(number);
+            // Auxiliary variables have empty labels, and the constants are not in the solution.
+            if ((variable != null) && (variable != Literal.ZERO.getVariable())
+                    && (variable != Literal.ONE.getVariable()) && (vars.get(variable.getLabel()) == variable)) {
+                results.put(variable, solver.getValue(number));
+            }
+        }
+        return new SolutionReader.BooleanSolutionImplementation(results);
+    }
+
+}
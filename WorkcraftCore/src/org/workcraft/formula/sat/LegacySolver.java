@@ -28,7 +28,7 @@ public class LegacySolver<T> {
 
         OptimisationTask<? extends T> task = problemGenerator.getFormula(scenarios, vars, derivedVars);
 
-        BooleanSolution solution = new ConsoleBooleanSolver().solve(cnfConverter.getCnf(task.getTask()));
+        BooleanSolution solution = BooleanSolverProvider.getSolver().solve(cnfConverter.getCnf(task.getTask()));
         return SolutionPrettifier.prettifySolution(task, solution);
     }
 }
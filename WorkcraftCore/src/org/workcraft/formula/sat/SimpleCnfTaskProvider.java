@@ -30,6 +30,6 @@ public class SimpleCnfTaskProvider implements RawCnfGenerator<Cnf> {
         cnf.getClauses().add(or(not(Literal.ZERO)));
         cnf.getClauses().add(or(Literal.ONE));
 
-        return new CnfTask(cnf.toString(new MiniSatCnfPrinter()), vars);
+        return new CnfTask(cnf, vars);
     }
 }
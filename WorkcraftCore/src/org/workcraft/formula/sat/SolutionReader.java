@@ -37,10 +37,10 @@ public class SolutionReader {
         return map;
     }
 
-    private static final class BooleanSolutionImplementation implements BooleanSolution {
+    static final class BooleanSolutionImplementation implements BooleanSolution {
         private final Map<BooleanVariable, Boolean> results;
 
-        private BooleanSolutionImplementation(Map<BooleanVariable, Boolean> results) {
+        BooleanSolutionImplementation(Map<BooleanVariable, Boolean> results) {
             this.results = results;
         }
 
@@ -11,6 +11,7 @@ import org.workcraft.formula.CleverBooleanWorker;
 import org.workcraft.formula.DumbBooleanWorker;
 import org.workcraft.formula.MemoryConservingBooleanWorker;
 import org.workcraft.formula.PrettifyBooleanWorker;
+import org.workcraft.formula.bdd.BddManager;
 
 public class BooleanUtils {
 
@@ -80,4 +81,35 @@ public class BooleanUtils {
         return result;
     }
 
+    /**
+     * Checks if two formulas are equivalent by comparing their BDDs.
+     */
+    public static boolean isEquivalent(BooleanFormula x, BooleanFormula y) {
+        if (x == y) {
+            return true;
+        }
+        if ((x == null) || (y == null)) {
+            return false;
+        }
+        BddManager bdd = new BddManager();
+        int bddX = bdd.ref(bdd.build(x));
+        return bddX == bdd.build(y);
+    }
+
+    public static boolean isTautology(BooleanFormula formula) {
+        if (formula == null) {
+            return false;
+        }
+        BddManager bdd = new BddManager();
+        return bdd.isOne(bdd.build(formula));
+    }
+
+    public static boolean isSatisfiable(BooleanFormula formula) {
+        if (formula == null) {
+            return false;
+        }
+        BddManager bdd = new BddManager();
+        return !bdd.isZero(bdd.build(formula));
+    }
+
 }
@@ -7,6 +7,7 @@ import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.Point;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -126,6 +127,7 @@ public class GraphEditorPanel extends JPanel implements StateObserver, GraphEdit
     private boolean firstPaint = true;
     private boolean updateEditorPanelRequested = true;
     private boolean updatePropertyViewRequested = true;
+    private boolean fullRedrawRequested = false;
 
     public GraphEditorPanel(WorkspaceEntry workspaceEntry) {
         super(new BorderLayout());
@@ -293,7 +295,14 @@ public class GraphEditorPanel extends JPanel implements StateObserver, GraphEdit
 //        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
         g2d.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
 
-        getModel().draw(g2d, toolboxPanel.getSelectedTool().getDecorator(this));
+        // Only the nodes in the repainted area are drawn, unless the whole model redraw is forced
+        Shape clip = g2d.getClip();
+        Rectangle2D region = null;
+        if ((clip != null) && !fullRedrawRequested) {
+            region = clip.getBounds2D();
+        }
+        fullRedrawRequested = false;
+        getModel().draw(g2d, toolboxPanel.getSelectedTool().getDecorator(this), region);
 
         if (hasFocus()) {
             toolboxPanel.getSelectedTool().drawInUserSpace(this, g2d);
@@ -323,6 +332,7 @@ public class GraphEditorPanel extends JPanel implements StateObserver, GraphEdit
      * bounding boxes of their parents.
      */
     public void forceRedraw() {
+        fullRedrawRequested = true;
         super.paintImmediately(0, 0, 1, 1);
         repaint();
     }
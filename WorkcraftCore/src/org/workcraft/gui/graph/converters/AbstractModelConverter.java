@@ -1,6 +1,8 @@
 package org.workcraft.gui.graph.converters;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import org.workcraft.annotations.VisualClass;
 import org.workcraft.dom.Container;
@@ -103,7 +105,10 @@ public abstract class AbstractModelConverter<TSrcModel extends VisualModel, TDst
     }
 
     private void convertGroups() {
-        for (VisualGroup srcGroup: Hierarchy.getDescendantsOfType(getSrcModel().getRoot(), VisualGroup.class)) {
+        // Inner groups are converted first, so that outer groups can pick them up.
+        List<VisualGroup> srcGroups = new ArrayList<>(Hierarchy.getDescendantsOfType(getSrcModel().getRoot(), VisualGroup.class));
+        Hierarchy.sortBottomUp(srcGroups);
+        for (VisualGroup srcGroup: srcGroups) {
             VisualGroup dstGroup = convertGroup(srcGroup);
             putSrcToDstNode(srcGroup, dstGroup);
         }
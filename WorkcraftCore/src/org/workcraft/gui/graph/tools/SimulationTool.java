@@ -21,6 +21,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -316,26 +317,11 @@ public abstract class SimulationTool extends AbstractGraphEditorTool implements
                 int row = traceTable.getSelectedRow();
                 if (column == 0) {
                     if (row < mainTrace.size()) {
-                        boolean work = true;
-                        while (work && (branchTrace.getPosition() > 0)) {
-                            work = quietStepBack();
-                        }
-                        while (work && (mainTrace.getPosition() > row)) {
-                            work = quietStepBack();
-                        }
-                        while (work && (mainTrace.getPosition() < row)) {
-                            work = quietStep();
-                        }
+                        quietSeekMainTrace(row);
                     }
                 } else {
                     if ((row >= mainTrace.getPosition()) && (row < mainTrace.getPosition() + branchTrace.size())) {
-                        boolean work = true;
-                        while (work && (mainTrace.getPosition() + branchTrace.getPosition() > row)) {
-                            work = quietStepBack();
-                        }
-                        while (work && (mainTrace.getPosition() + branchTrace.getPosition() < row)) {
-                            work = quietStep();
-                        }
+                        quietSeekBranchTrace(row);
                     }
                 }
                 updateState(editor);
@@ -447,30 +433,44 @@ public abstract class SimulationTool extends AbstractGraphEditorTool implements
     }
 
     private boolean quietStepBack() {
-        excitedContainers.clear();
+        return quietStepsBack(1) == 1;
+    }
 
-        boolean result = false;
-        String ref = null;
-        int mainDec = 0;
-        int branchDec = 0;
-        if (branchTrace.getPosition() > 0) {
-            ref = branchTrace.get(branchTrace.getPosition() - 1);
-            branchDec = 1;
-        } else if (mainTrace.getPosition() > 0) {
-            ref = mainTrace.get(mainTrace.getPosition() - 1);
-            mainDec = 1;
-        }
-        if (unfire(ref)) {
-            mainTrace.decPosition(mainDec);
-            branchTrace.decPosition(branchDec);
-            if ((branchTrace.getPosition() == 0) && !mainTrace.isEmpty()) {
-                branchTrace.clear();
-            }
-            result = true;
+    /**
+     * Undoes up to the given number of steps, first along the branch and then along the main trace.
+     * Returns the number of steps undone.
+     */
+    private int quietStepsBack(int count) {
+        excitedContainers.clear();
+        int result = 0;
+        int branchCount = Math.min(count, branchTrace.getPosition());
+        if (branchCount > 0) {
+            int position = branchTrace.getPosition();
+            int done = unfire(getReversedTrace(branchTrace, position - branchCount, position));
+            branchTrace.decPosition(done);
+            result += done;
+        }
+        if (result == branchCount) {
+            int mainCount = Math.min(count - result, mainTrace.getPosition());
+            if (mainCount > 0) {
+                int position = mainTrace.getPosition();
+                int done = unfire(getReversedTrace(mainTrace, position - mainCount, position));
+                mainTrace.decPosition(done);
+                result += done;
+            }
+        }
+        if ((result > 0) && (branchTrace.getPosition() == 0) && !mainTrace.isEmpty()) {
+            branchTrace.clear();
         }
         return result;
     }
 
+    private static List<String> getReversedTrace(Trace trace, int fromIndex, int toIndex) {
+        List<String> result = new ArrayList<>(trace.subList(fromIndex, toIndex));
+        Collections.reverse(result);
+        return result;
+    }
+
     private boolean stepBack(final GraphEditor editor) {
         boolean ret = quietStepBack();
         updateState(editor);
@@ -478,23 +478,76 @@ public abstract class SimulationTool extends AbstractGraphEditorTool implements
     }
 
     private boolean quietStep() {
+        return quietSteps(1) == 1;
+    }
+
+    /**
+     * Makes up to the given number of steps, first along the branch and then along the main trace.
+     * Returns the number of steps made.
+     */
+    private int quietSteps(int count) {
         excitedContainers.clear();
+        int result = 0;
+        int branchCount = branchTrace.isEmpty() ? 0 : Math.min(count, branchTrace.size() - branchTrace.getPosition());
+        if (branchCount > 0) {
+            int position = branchTrace.getPosition();
+            int done = fire(branchTrace.subList(position, position + branchCount));
+            branchTrace.incPosition(done);
+            result += done;
+        }
+        if (result == branchCount) {
+            int mainCount = Math.min(count - result, mainTrace.size() - mainTrace.getPosition());
+            if (mainCount > 0) {
+                int position = mainTrace.getPosition();
+                int done = fire(mainTrace.subList(position, position + mainCount));
+                mainTrace.incPosition(done);
+                result += done;
+            }
+        }
+        return result;
+    }
 
-        boolean result = false;
-        String ref = null;
-        int mainInc = 0;
-        int branchInc = 0;
-        if (branchTrace.canProgress()) {
-            ref = branchTrace.getCurrent();
-            branchInc = 1;
-        } else if (mainTrace.canProgress()) {
-            ref = mainTrace.getCurrent();
-            mainInc = 1;
+    /**
+     * Moves to the given position of the main trace, discarding the branch. All the steps are made before
+     * the interface is updated, so the model is repainted and the trace table is refreshed only once.
+     */
+    public void seekMainTrace(final GraphEditor editor, int position) {
+        quietSeekMainTrace(position);
+        updateState(editor);
+    }
+
+    /**
+     * Moves to the given position of the branch, counted from the beginning of the main trace.
+     */
+    public void seekBranchTrace(final GraphEditor editor, int position) {
+        quietSeekBranchTrace(position);
+        updateState(editor);
+    }
+
+    private boolean quietSeekMainTrace(int position) {
+        int branchPosition = branchTrace.getPosition();
+        boolean result = quietStepsBack(branchPosition) == branchPosition;
+        if (result && (mainTrace.getPosition() > position)) {
+            int count = mainTrace.getPosition() - position;
+            result = quietStepsBack(count) == count;
         }
-        if (fire(ref)) {
-            mainTrace.incPosition(mainInc);
-            branchTrace.incPosition(branchInc);
-            result = true;
+        if (result && (mainTrace.getPosition() < position)) {
+            int count = position - mainTrace.getPosition();
+            result = quietSteps(count) == count;
+        }
+        return result;
+    }
+
+    private boolean quietSeekBranchTrace(int position) {
+        boolean result = true;
+        int currentPosition = mainTrace.getPosition() + branchTrace.getPosition();
+        if (currentPosition > position) {
+            int count = currentPosition - position;
+            result = quietStepsBack(count) == count;
+        }
+        if (currentPosition < position) {
+            int count = position - currentPosition;
+            result = quietSteps(count) == count;
         }
         return result;
     }
@@ -571,18 +624,12 @@ public abstract class SimulationTool extends AbstractGraphEditorTool implements
                 mainTrace.fromString(s);
                 int mainTracePosition = mainTrace.getPosition();
                 mainTrace.setPosition(0);
-                boolean work = true;
-                while (work && (mainTrace.getPosition() < mainTracePosition)) {
-                    work = quietStep();
-                }
+                quietSteps(mainTracePosition);
             } else {
                 branchTrace.fromString(s);
                 int branchTracePosition = branchTrace.getPosition();
                 branchTrace.setPosition(0);
-                boolean work = true;
-                while (work && (branchTrace.getPosition() < branchTracePosition)) {
-                    work = quietStep();
-                }
+                quietSteps(branchTracePosition);
                 break;
             }
             first = false;
@@ -924,4 +971,35 @@ public abstract class SimulationTool extends AbstractGraphEditorTool implements
 
     public abstract boolean unfire(String ref);
 
+    /**
+     * Fires the nodes in the given order, stopping at the first one that cannot be fired, and returns
+     * the number of fired nodes. Tools with a compiled model can override this to replay long traces
+     * without resolving the references and updating the model at every step.
+     */
+    public int fire(List<String> refs) {
+        int result = 0;
+        for (String ref: refs) {
+            if (!fire(ref)) {
+                break;
+            }
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Unfires the nodes in the given order, stopping at the first one that cannot be unfired, and returns
+     * the number of unfired nodes.
+     */
+    public int unfire(List<String> refs) {
+        int result = 0;
+        for (String ref: refs) {
+            if (!unfire(ref)) {
+                break;
+            }
+            result++;
+        }
+        return result;
+    }
+
 }
@@ -6,16 +6,20 @@ import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.lang.reflect.InvocationTargetException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.Scrollable;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.Border;
 
 import org.workcraft.Framework;
@@ -25,6 +29,7 @@ import org.workcraft.tasks.ProgressMonitor;
 import org.workcraft.tasks.Result;
 import org.workcraft.tasks.Result.Outcome;
 import org.workcraft.tasks.Task;
+import org.workcraft.tasks.TaskManager;
 import org.workcraft.tasks.TaskMonitor;
 
 @SuppressWarnings("serial")
@@ -119,9 +124,13 @@ public class TaskManagerWindow extends JPanel implements TaskMonitor {
 
     }
 
+    private static final int STATISTICS_UPDATE_INTERVAL = 1000;
+
     private int counter = 0;
 
     private final JPanel content;
+    private final JLabel statisticsLabel = new JLabel();
+    private final Timer statisticsTimer;
 
     public TaskManagerWindow() {
 
@@ -136,6 +145,9 @@ public class TaskManagerWindow extends JPanel implements TaskMonitor {
         scroll.setViewportView(content);
         scroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
 
+        statisticsLabel.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+        add(statisticsLabel, BorderLayout.SOUTH);
+
         Border outsideBorder = BorderFactory.createLineBorder(Color.LIGHT_GRAY);
         Border insideBorder = BorderFactory.createEmptyBorder(2, 2, 2, 2);
         Border lineBorder = BorderFactory.createCompoundBorder(outsideBorder, insideBorder);
@@ -144,6 +156,29 @@ public class TaskManagerWindow extends JPanel implements TaskMonitor {
         final Framework framework = Framework.getInstance();
         framework.getTaskManager().addObserver(this);
 
+        updateStatistics();
+        statisticsTimer = new Timer(STATISTICS_UPDATE_INTERVAL, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateStatistics();
+            }
+        });
+        // The statistics are only refreshed while the window is showing, so that a hidden or removed
+        // window is not kept alive by the running timer.
+        addHierarchyListener(new HierarchyListener() {
+            @Override
+            public void hierarchyChanged(HierarchyEvent e) {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                    if (isShowing()) {
+                        updateStatistics();
+                        statisticsTimer.start();
+                    } else {
+                        statisticsTimer.stop();
+                    }
+                }
+            }
+        });
+
         // Do we really need this "Queue test task" button? Probably not.
         // addQueueTestTasksButton(framework);
 
@@ -192,6 +227,15 @@ public class TaskManagerWindow extends JPanel implements TaskMonitor {
         content.add(testTaskButton);
     }
 
+    private void updateStatistics() {
+        final Framework framework = Framework.getInstance();
+        TaskManager taskManager = framework.getTaskManager();
+        double averageWaitTime = taskManager.getAverageWaitTime() / 1000.0;
+        statisticsLabel.setText("Running: " + taskManager.getRunningTaskCount()
+                + "   Queued: " + taskManager.getQueuedTaskCount()
+                + "   Average wait: " + String.format("%.1f", averageWaitTime) + "s");
+    }
+
     public void removeTaskControl(TaskControl taskControl) {
         content.remove(taskControl);
         content.revalidate();
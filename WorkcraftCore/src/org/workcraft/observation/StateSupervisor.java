@@ -40,6 +40,15 @@ public abstract class StateSupervisor extends HierarchySupervisor implements Sta
 
     }
 
+    @Override
+    public void detach() {
+        Node root = getRoot();
+        if (root != null) {
+            nodeRemoved(root);
+            super.detach();
+        }
+    }
+
     @Override
     public final void notify(StateEvent e) {
         handleEvent(e);
@@ -7,6 +7,10 @@ import org.workcraft.gui.graph.commands.Command;
 import org.workcraft.gui.propertyeditor.Settings;
 import org.workcraft.plugins.layout.DotLayoutCommand;
 import org.workcraft.plugins.layout.DotLayoutSettings;
+import org.workcraft.plugins.layout.ForceLayoutCommand;
+import org.workcraft.plugins.layout.ForceLayoutSettings;
+import org.workcraft.plugins.layout.LayeredLayoutCommand;
+import org.workcraft.plugins.layout.LayeredLayoutSettings;
 import org.workcraft.plugins.layout.NullLayoutCommand;
 import org.workcraft.plugins.layout.RandomLayoutCommand;
 import org.workcraft.plugins.layout.RandomLayoutSettings;
@@ -17,6 +21,7 @@ import org.workcraft.plugins.shared.CommonLogSettings;
 import org.workcraft.plugins.shared.CommonSatSettings;
 import org.workcraft.plugins.shared.CommonSignalSettings;
 import org.workcraft.plugins.shared.CommonSimulationSettings;
+import org.workcraft.plugins.shared.CommonTaskSettings;
 import org.workcraft.plugins.shared.CommonVisualSettings;
 import org.workcraft.plugins.transform.CopyLabelTransformationCommand;
 import org.workcraft.plugins.transform.StraightenConnectionTransformationCommand;
@@ -35,13 +40,18 @@ public class BuiltinTools implements Module {
         pm.registerClass(Settings.class, CommonLogSettings.class);
         pm.registerClass(Settings.class, CommonSignalSettings.class);
         pm.registerClass(Settings.class, CommonSatSettings.class);
+        pm.registerClass(Settings.class, CommonTaskSettings.class);
 
         pm.registerClass(Settings.class, DotLayoutSettings.class);
         pm.registerClass(Settings.class, RandomLayoutSettings.class);
+        pm.registerClass(Settings.class, LayeredLayoutSettings.class);
+        pm.registerClass(Settings.class, ForceLayoutSettings.class);
 
         pm.registerClass(Command.class, DotLayoutCommand.class);
         pm.registerClass(Command.class, NullLayoutCommand.class);
         pm.registerClass(Command.class, RandomLayoutCommand.class);
+        pm.registerClass(Command.class, LayeredLayoutCommand.class);
+        pm.registerClass(Command.class, ForceLayoutCommand.class);
 
         pm.registerClass(Command.class, CopyLabelTransformationCommand.class);
         pm.registerClass(Command.class, StraightenConnectionTransformationCommand.class);
@@ -3,4 +3,6 @@ package org.workcraft.plugins;
 public interface PluginInfo<T> {
     T newInstance();
     T getSingleton();
+    // Name of the implementing class if it is known without creating an instance, otherwise null.
+    String getClassName();
 }
@@ -0,0 +1,290 @@
+package org.workcraft.plugins.layout;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.gui.graph.commands.AbstractLayoutCommand;
+
+/**
+ * Force-directed (Fruchterman-Reingold) layout, computed in-process. The repulsion between all pairs of
+ * nodes is approximated with a Barnes-Hut quadtree and evaluated in parallel, the connections act as
+ * springs. In the incremental mode the layout starts from the current positions with a low temperature
+ * and every node is also tied to its initial position by a spring, so the existing arrangement is refined
+ * rather than rebuilt.
+ */
+public class ForceLayoutCommand extends AbstractLayoutCommand {
+
+    private static final double THETA = 0.8;
+    private static final int MAX_DEPTH = 32;
+    private static final int CHUNK_SIZE = 256;
+
+    private static final class Cell {
+        final double x;
+        final double y;
+        final double size;
+        double mass = 0.0;
+        double massX = 0.0;
+        double massY = 0.0;
+        int body = -1;
+        Cell[] children = null;
+
+        Cell(double x, double y, double size) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Force-directed";
+    }
+
+    @Override
+    public void layout(VisualModel model) {
+        LayoutGraph graph = new LayoutGraph(model);
+        if (graph.size == 0) {
+            return;
+        }
+        boolean incremental = ForceLayoutSettings.getIncremental();
+        double k = ForceLayoutSettings.getSpringLength();
+        int n = graph.size;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Random random = new Random(n);
+        double width = Math.sqrt(n) * k;
+        double centerX = 0.0;
+        double centerY = 0.0;
+        if (incremental) {
+            // Nodes sharing a position (e.g. just created) are spread around it.
+            HashSet<Point2D> positions = new HashSet<>();
+            for (int v = 0; v < n; v++) {
+                Point2D pos = graph.getPosition(v);
+                xs[v] = pos.getX();
+                ys[v] = pos.getY();
+                if (!positions.add(pos)) {
+                    xs[v] += (random.nextDouble() - 0.5) * k;
+                    ys[v] += (random.nextDouble() - 0.5) * k;
+                }
+                centerX += pos.getX() / n;
+                centerY += pos.getY() / n;
+            }
+        } else {
+            for (int v = 0; v < n; v++) {
+                xs[v] = (random.nextDouble() - 0.5) * width;
+                ys[v] = (random.nextDouble() - 0.5) * width;
+            }
+        }
+        double[] anchors = null;
+        if (incremental) {
+            anchors = new double[2 * n];
+            for (int v = 0; v < n; v++) {
+                anchors[2 * v] = xs[v];
+                anchors[2 * v + 1] = ys[v];
+            }
+        }
+        double temperature = incremental ? k / 2.0 : Math.max(k, width / 10.0);
+        if (!run(graph, xs, ys, anchors, k, temperature, ForceLayoutSettings.getIterationCount())) {
+            // A cancelled layout leaves the model unchanged.
+            return;
+        }
+
+        double meanX = 0.0;
+        double meanY = 0.0;
+        for (int v = 0; v < n; v++) {
+            meanX += xs[v] / n;
+            meanY += ys[v] / n;
+        }
+        for (int v = 0; v < n; v++) {
+            graph.setPosition(v, xs[v] - meanX + centerX, ys[v] - meanY + centerY);
+        }
+        graph.setConnections(null);
+    }
+
+    /**
+     * Runs the iterations on the positions in place. Returns false if the thread is interrupted, in which
+     * case the positions are only partially computed and the interrupt flag is restored.
+     */
+    private boolean run(final LayoutGraph graph, final double[] xs, final double[] ys, double[] anchors,
+            final double k, double initialTemperature, int iterationCount) {
+
+        final int n = graph.size;
+        final double[] dxs = new double[n];
+        final double[] dys = new double[n];
+        int threadCount = Math.min(Runtime.getRuntime().availableProcessors(), (n + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        ExecutorService executor = (threadCount > 1) ? Executors.newFixedThreadPool(threadCount) : null;
+        try {
+            for (int iteration = 0; iteration < iterationCount; iteration++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                final Cell root = buildTree(xs, ys);
+                // Repulsion between all the nodes.
+                List<Callable<Void>> chunks = new ArrayList<>();
+                for (int start = 0; start < n; start += CHUNK_SIZE) {
+                    final int from = start;
+                    final int to = Math.min(n, start + CHUNK_SIZE);
+                    chunks.add(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            for (int v = from; v < to; v++) {
+                                dxs[v] = 0.0;
+                                dys[v] = 0.0;
+                                repulse(root, v, xs, ys, dxs, dys, k * k);
+                            }
+                            return null;
+                        }
+                    });
+                }
+                if (executor == null) {
+                    for (Callable<Void> chunk: chunks) {
+                        chunk.call();
+                    }
+                } else {
+                    for (Future<Void> future: executor.invokeAll(chunks)) {
+                        future.get();
+                    }
+                }
+                // Attraction along the connections.
+                for (int v = 0; v < n; v++) {
+                    for (int w: graph.successors[v]) {
+                        double dx = xs[v] - xs[w];
+                        double dy = ys[v] - ys[w];
+                        double d = Math.sqrt(dx * dx + dy * dy);
+                        if (d > 0.0) {
+                            double f = d / k;
+                            dxs[v] -= dx * f;
+                            dys[v] -= dy * f;
+                            dxs[w] += dx * f;
+                            dys[w] += dy * f;
+                        }
+                    }
+                }
+                if (anchors != null) {
+                    for (int v = 0; v < n; v++) {
+                        double dx = xs[v] - anchors[2 * v];
+                        double dy = ys[v] - anchors[2 * v + 1];
+                        double f = Math.sqrt(dx * dx + dy * dy) / k;
+                        dxs[v] -= dx * f;
+                        dys[v] -= dy * f;
+                    }
+                }
+                // Displacement limited by the temperature, which decreases linearly.
+                double temperature = initialTemperature * (1.0 - (double) iteration / iterationCount);
+                for (int v = 0; v < n; v++) {
+                    double d = Math.sqrt(dxs[v] * dxs[v] + dys[v] * dys[v]);
+                    if (d > 0.0) {
+                        double step = Math.min(d, temperature) / d;
+                        xs[v] += dxs[v] * step;
+                        ys[v] += dys[v] * step;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        return true;
+    }
+
+    private Cell buildTree(double[] xs, double[] ys) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int v = 0; v < xs.length; v++) {
+            minX = Math.min(minX, xs[v]);
+            minY = Math.min(minY, ys[v]);
+            maxX = Math.max(maxX, xs[v]);
+            maxY = Math.max(maxY, ys[v]);
+        }
+        double size = Math.max(Math.max(maxX - minX, maxY - minY), 1.0e-6);
+        Cell root = new Cell(minX, minY, size);
+        for (int v = 0; v < xs.length; v++) {
+            insert(root, v, xs, ys, 0);
+        }
+        return root;
+    }
+
+    private void insert(Cell cell, int v, double[] xs, double[] ys, int depth) {
+        if ((cell.children == null) && (cell.mass > 0.0) && (depth < MAX_DEPTH)) {
+            // Split the leaf and push its body down.
+            int body = cell.body;
+            cell.body = -1;
+            cell.children = new Cell[4];
+            double half = cell.size / 2.0;
+            cell.children[0] = new Cell(cell.x, cell.y, half);
+            cell.children[1] = new Cell(cell.x + half, cell.y, half);
+            cell.children[2] = new Cell(cell.x, cell.y + half, half);
+            cell.children[3] = new Cell(cell.x + half, cell.y + half, half);
+            if (body >= 0) {
+                insert(getChild(cell, xs[body], ys[body]), body, xs, ys, depth + 1);
+            }
+        }
+        cell.massX = (cell.massX * cell.mass + xs[v]) / (cell.mass + 1.0);
+        cell.massY = (cell.massY * cell.mass + ys[v]) / (cell.mass + 1.0);
+        cell.mass += 1.0;
+        if (cell.children != null) {
+            insert(getChild(cell, xs[v], ys[v]), v, xs, ys, depth + 1);
+        } else {
+            // Leaves at the maximal depth may hold several nodes, they are not attributed to any of them.
+            cell.body = (cell.mass == 1.0) ? v : -1;
+        }
+    }
+
+    private Cell getChild(Cell cell, double x, double y) {
+        double half = cell.size / 2.0;
+        int index = ((x < cell.x + half) ? 0 : 1) + ((y < cell.y + half) ? 0 : 2);
+        return cell.children[index];
+    }
+
+    private boolean contains(Cell cell, double x, double y) {
+        return (x >= cell.x) && (x <= cell.x + cell.size) && (y >= cell.y) && (y <= cell.y + cell.size);
+    }
+
+    private void repulse(Cell cell, int v, double[] xs, double[] ys, double[] dxs, double[] dys, double k2) {
+        if ((cell.mass == 0.0) || (cell.body == v)) {
+            return;
+        }
+        double dx = xs[v] - cell.massX;
+        double dy = ys[v] - cell.massY;
+        double d2 = dx * dx + dy * dy;
+        if ((cell.children == null) || (cell.size * cell.size < THETA * THETA * d2)) {
+            double mass = cell.mass;
+            if ((cell.children == null) && (cell.body < 0) && contains(cell, xs[v], ys[v])) {
+                mass -= 1.0;
+            }
+            if (d2 < 1.0e-12) {
+                // Coincident nodes are pushed apart in a direction that depends on the node.
+                dx = Math.cos(v);
+                dy = Math.sin(v);
+                d2 = 1.0e-6;
+            }
+            double f = mass * k2 / d2;
+            dxs[v] += dx * f;
+            dys[v] += dy * f;
+        } else {
+            for (Cell child: cell.children) {
+                repulse(child, v, xs, ys, dxs, dys, k2);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.workcraft.plugins.layout;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.workcraft.Config;
+import org.workcraft.gui.propertyeditor.PropertyDeclaration;
+import org.workcraft.gui.propertyeditor.PropertyDescriptor;
+import org.workcraft.gui.propertyeditor.Settings;
+
+public class ForceLayoutSettings implements Settings {
+    private static final LinkedList<PropertyDescriptor> properties = new LinkedList<>();
+    private static final String prefix = "ForceLayout";
+
+    private static final String keySpringLength = prefix + ".springLength";
+    private static final String keyIterationCount = prefix + ".iterationCount";
+    private static final String keyIncremental = prefix + ".incremental";
+
+    private static final double defaultSpringLength = 2.0;
+    private static final int defaultIterationCount = 300;
+    private static final boolean defaultIncremental = false;
+
+    private static double springLength = defaultSpringLength;
+    private static int iterationCount = defaultIterationCount;
+    private static boolean incremental = defaultIncremental;
+
+    public ForceLayoutSettings() {
+        properties.add(new PropertyDeclaration<ForceLayoutSettings, Double>(
+                this, "Ideal connection length", Double.class, true, false, false) {
+            protected void setter(ForceLayoutSettings object, Double value) {
+                setSpringLength(value);
+            }
+            protected Double getter(ForceLayoutSettings object) {
+                return getSpringLength();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<ForceLayoutSettings, Integer>(
+                this, "Number of iterations", Integer.class, true, false, false) {
+            protected void setter(ForceLayoutSettings object, Integer value) {
+                setIterationCount(value);
+            }
+            protected Integer getter(ForceLayoutSettings object) {
+                return getIterationCount();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<ForceLayoutSettings, Boolean>(
+                this, "Refine existing positions (incremental layout)", Boolean.class, true, false, false) {
+            protected void setter(ForceLayoutSettings object, Boolean value) {
+                setIncremental(value);
+            }
+            protected Boolean getter(ForceLayoutSettings object) {
+                return getIncremental();
+            }
+        });
+    }
+
+    @Override
+    public List<PropertyDescriptor> getDescriptors() {
+        return properties;
+    }
+
+    @Override
+    public void load(Config config) {
+        setSpringLength(config.getDouble(keySpringLength, defaultSpringLength));
+        setIterationCount(config.getInt(keyIterationCount, defaultIterationCount));
+        setIncremental(config.getBoolean(keyIncremental, defaultIncremental));
+    }
+
+    @Override
+    public void save(Config config) {
+        config.setDouble(keySpringLength, getSpringLength());
+        config.setInt(keyIterationCount, getIterationCount());
+        config.setBoolean(keyIncremental, getIncremental());
+    }
+
+    @Override
+    public String getSection() {
+        return "Layout";
+    }
+
+    @Override
+    public String getName() {
+        return "Force-directed";
+    }
+
+    public static double getSpringLength() {
+        return springLength;
+    }
+
+    public static void setSpringLength(double value) {
+        if (value < 0.1) {
+            value = 0.1;
+        }
+        springLength = value;
+    }
+
+    public static int getIterationCount() {
+        return iterationCount;
+    }
+
+    public static void setIterationCount(int value) {
+        if (value < 0) {
+            value = 0;
+        }
+        iterationCount = value;
+    }
+
+    public static boolean getIncremental() {
+        return incremental;
+    }
+
+    public static void setIncremental(boolean value) {
+        incremental = value;
+    }
+
+}
@@ -0,0 +1,440 @@
+package org.workcraft.plugins.layout;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.gui.graph.commands.AbstractLayoutCommand;
+
+/**
+ * Sugiyama-style layered layout, computed in-process. The graph is made acyclic by reversing the DFS back
+ * arcs, the nodes are assigned to layers by the longest path, long arcs are split by dummy nodes, the
+ * crossings are reduced by barycenter sweeps, and the nodes are finally aligned with their neighbours.
+ * Arcs spanning several layers are routed through the positions of their dummy nodes.
+ */
+public class LayeredLayoutCommand extends AbstractLayoutCommand {
+
+    private static final int ALIGNMENT_PASSES = 8;
+
+    @Override
+    public String getDisplayName() {
+        return "Layered";
+    }
+
+    @Override
+    public void layout(VisualModel model) {
+        LayoutGraph graph = new LayoutGraph(model);
+        if (graph.size == 0) {
+            return;
+        }
+        boolean[][] reversed = getReversedArcs(graph);
+        int[] nodeLayers = getLayers(graph, reversed);
+        ProperGraph proper = new ProperGraph();
+        HashMap<Long, int[]> chains = proper.build(graph, reversed, nodeLayers);
+        proper.orderLayers(LayeredLayoutSettings.getSweepCount());
+        double[] xs = proper.getCoordinates(LayeredLayoutSettings.getNodeSeparation());
+        double[] ys = proper.getLayerCoordinates(graph, LayeredLayoutSettings.getLayerSeparation());
+
+        for (int v = 0; v < graph.size; v++) {
+            graph.setPosition(v, xs[v], ys[proper.layerOf[v]]);
+        }
+        HashMap<Long, List<Point2D>> bends = new HashMap<>();
+        for (Long key: chains.keySet()) {
+            List<Point2D> points = new ArrayList<>();
+            for (int d: chains.get(key)) {
+                points.add(new Point2D.Double(xs[d], ys[proper.layerOf[d]]));
+            }
+            bends.put(key, points);
+        }
+        graph.setConnections(bends);
+    }
+
+    private boolean[][] getReversedArcs(LayoutGraph graph) {
+        boolean[][] result = new boolean[graph.size][];
+        for (int v = 0; v < graph.size; v++) {
+            result[v] = new boolean[graph.successors[v].length];
+        }
+        // Iterative DFS; arcs to the nodes on the stack close cycles and are reversed.
+        int[] state = new int[graph.size];
+        int[] stack = new int[graph.size];
+        int[] next = new int[graph.size];
+        for (int root = 0; root < graph.size; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top] = root;
+            state[root] = 1;
+            while (top >= 0) {
+                int v = stack[top];
+                if (next[v] < graph.successors[v].length) {
+                    int i = next[v]++;
+                    int w = graph.successors[v][i];
+                    if (state[w] == 1) {
+                        result[v][i] = true;
+                    } else if (state[w] == 0) {
+                        state[w] = 1;
+                        stack[++top] = w;
+                    }
+                } else {
+                    state[v] = 2;
+                    top--;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int[] getLayers(LayoutGraph graph, boolean[][] reversed) {
+        int n = graph.size;
+        List<List<Integer>> succs = new ArrayList<>();
+        List<List<Integer>> preds = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            succs.add(new ArrayList<Integer>());
+            preds.add(new ArrayList<Integer>());
+        }
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < graph.successors[v].length; i++) {
+                int w = graph.successors[v][i];
+                int from = reversed[v][i] ? w : v;
+                int to = reversed[v][i] ? v : w;
+                succs.get(from).add(to);
+                preds.get(to).add(from);
+            }
+        }
+        // Longest path from the sources in topological order.
+        int[] result = new int[n];
+        int[] inDegree = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = preds.get(v).size();
+            if (inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int v = queue[head++];
+            for (int w: succs.get(v)) {
+                result[w] = Math.max(result[w], result[v] + 1);
+                if (--inDegree[w] == 0) {
+                    queue[tail++] = w;
+                }
+            }
+        }
+        // Pull the sources down next to their successors to shorten the arcs.
+        for (int v = 0; v < n; v++) {
+            if (preds.get(v).isEmpty() && !succs.get(v).isEmpty()) {
+                int layer = Integer.MAX_VALUE;
+                for (int w: succs.get(v)) {
+                    layer = Math.min(layer, result[w] - 1);
+                }
+                result[v] = layer;
+            }
+        }
+        // Remove the layers left empty.
+        int layerCount = 0;
+        for (int v = 0; v < n; v++) {
+            layerCount = Math.max(layerCount, result[v] + 1);
+        }
+        boolean[] used = new boolean[layerCount];
+        for (int v = 0; v < n; v++) {
+            used[result[v]] = true;
+        }
+        int[] index = new int[layerCount];
+        int count = 0;
+        for (int l = 0; l < layerCount; l++) {
+            index[l] = count;
+            if (used[l]) {
+                count++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            result[v] = index[result[v]];
+        }
+        return result;
+    }
+
+    /**
+     * Proper layered graph of a single run, where the model nodes are followed by the dummy nodes of the
+     * long arcs. It keeps the layering, the order within the layers and the coordinates of the run, so that
+     * the command itself holds no state between runs.
+     */
+    private static final class ProperGraph {
+        int vertexCount;
+        int[] layerOf;
+        double[] widths;
+        List<List<Integer>> uppers;
+        List<List<Integer>> lowers;
+        int[][] layers;
+        int[] positions;
+        double[] barycenters;
+
+        HashMap<Long, int[]> build(LayoutGraph graph, boolean[][] reversed, int[] nodeLayers) {
+            HashMap<Long, int[]> chains = new HashMap<>();
+            List<Integer> vertexLayers = new ArrayList<>();
+            List<Double> vertexWidths = new ArrayList<>();
+            uppers = new ArrayList<>();
+            lowers = new ArrayList<>();
+            for (int v = 0; v < graph.size; v++) {
+                vertexLayers.add(nodeLayers[v]);
+                vertexWidths.add(graph.widths[v]);
+                uppers.add(new ArrayList<Integer>());
+                lowers.add(new ArrayList<Integer>());
+            }
+            for (int v = 0; v < graph.size; v++) {
+                for (int i = 0; i < graph.successors[v].length; i++) {
+                    int w = graph.successors[v][i];
+                    int from = reversed[v][i] ? w : v;
+                    int to = reversed[v][i] ? v : w;
+                    int span = nodeLayers[to] - nodeLayers[from];
+                    int[] chain = new int[Math.max(0, span - 1)];
+                    int prev = from;
+                    for (int j = 0; j < chain.length; j++) {
+                        int d = vertexLayers.size();
+                        vertexLayers.add(nodeLayers[from] + j + 1);
+                        vertexWidths.add(0.0);
+                        uppers.add(new ArrayList<Integer>());
+                        lowers.add(new ArrayList<Integer>());
+                        lowers.get(prev).add(d);
+                        uppers.get(d).add(prev);
+                        chain[j] = d;
+                        prev = d;
+                    }
+                    lowers.get(prev).add(to);
+                    uppers.get(to).add(prev);
+                    if (chain.length > 0) {
+                        // Bend points are listed in the direction of the model arc.
+                        if (reversed[v][i]) {
+                            for (int j = 0; j < chain.length / 2; j++) {
+                                int tmp = chain[j];
+                                chain[j] = chain[chain.length - 1 - j];
+                                chain[chain.length - 1 - j] = tmp;
+                            }
+                        }
+                        chains.put(LayoutGraph.getEdgeKey(v, w), chain);
+                    }
+                }
+            }
+            vertexCount = vertexLayers.size();
+            layerOf = new int[vertexCount];
+            widths = new double[vertexCount];
+            int layerCount = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                layerOf[v] = vertexLayers.get(v);
+                widths[v] = vertexWidths.get(v);
+                layerCount = Math.max(layerCount, layerOf[v] + 1);
+            }
+            int[] layerSizes = new int[layerCount];
+            for (int v = 0; v < vertexCount; v++) {
+                layerSizes[layerOf[v]]++;
+            }
+            layers = new int[layerCount][];
+            for (int l = 0; l < layerCount; l++) {
+                layers[l] = new int[layerSizes[l]];
+                layerSizes[l] = 0;
+            }
+            positions = new int[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                int l = layerOf[v];
+                positions[v] = layerSizes[l]++;
+                layers[l][positions[v]] = v;
+            }
+            return chains;
+        }
+
+        void orderLayers(int sweepCount) {
+            barycenters = new double[vertexCount];
+            int[][] bestLayers = copyLayers();
+            long bestCrossings = countCrossings();
+            for (int sweep = 0; (sweep < sweepCount) && (bestCrossings > 0); sweep++) {
+                if (sweep % 2 == 0) {
+                    for (int l = 1; l < layers.length; l++) {
+                        sortByBarycenter(layers[l], uppers);
+                    }
+                } else {
+                    for (int l = layers.length - 2; l >= 0; l--) {
+                        sortByBarycenter(layers[l], lowers);
+                    }
+                }
+                long crossings = countCrossings();
+                if (crossings < bestCrossings) {
+                    bestCrossings = crossings;
+                    bestLayers = copyLayers();
+                }
+            }
+            layers = bestLayers;
+            for (int[] layer: layers) {
+                for (int i = 0; i < layer.length; i++) {
+                    positions[layer[i]] = i;
+                }
+            }
+        }
+
+        private void sortByBarycenter(int[] layer, List<List<Integer>> neighbours) {
+            Integer[] order = new Integer[layer.length];
+            for (int i = 0; i < layer.length; i++) {
+                int v = layer[i];
+                order[i] = v;
+                List<Integer> vertexNeighbours = neighbours.get(v);
+                if (vertexNeighbours.isEmpty()) {
+                    barycenters[v] = i;
+                } else {
+                    double sum = 0.0;
+                    for (int w: vertexNeighbours) {
+                        sum += positions[w];
+                    }
+                    barycenters[v] = sum / vertexNeighbours.size();
+                }
+            }
+            // The sort is stable, so the ties keep their current order.
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer v1, Integer v2) {
+                    return Double.compare(barycenters[v1], barycenters[v2]);
+                }
+            });
+            for (int i = 0; i < layer.length; i++) {
+                layer[i] = order[i];
+                positions[layer[i]] = i;
+            }
+        }
+
+        private int[][] copyLayers() {
+            int[][] result = new int[layers.length][];
+            for (int l = 0; l < layers.length; l++) {
+                result[l] = layers[l].clone();
+            }
+            return result;
+        }
+
+        private long countCrossings() {
+            long result = 0;
+            for (int l = 0; l + 1 < layers.length; l++) {
+                // Arcs sorted by the upper then the lower position; crossings are the inversions
+                // of the lower positions.
+                List<long[]> arcs = new ArrayList<>();
+                for (int v: layers[l]) {
+                    for (int w: lowers.get(v)) {
+                        arcs.add(new long[] {positions[v], positions[w]});
+                    }
+                }
+                Collections.sort(arcs, new Comparator<long[]>() {
+                    @Override
+                    public int compare(long[] a1, long[] a2) {
+                        int cmp = Long.compare(a1[0], a2[0]);
+                        return (cmp != 0) ? cmp : Long.compare(a1[1], a2[1]);
+                    }
+                });
+                int size = layers[l + 1].length;
+                int[] tree = new int[size + 1];
+                int count = 0;
+                for (long[] arc: arcs) {
+                    int lower = (int) arc[1] + 1;
+                    int notGreater = 0;
+                    for (int i = lower; i > 0; i -= i & -i) {
+                        notGreater += tree[i];
+                    }
+                    result += count - notGreater;
+                    for (int i = lower; i <= size; i += i & -i) {
+                        tree[i]++;
+                    }
+                    count++;
+                }
+            }
+            return result;
+        }
+
+        double[] getCoordinates(double nodeSeparation) {
+            double[] xs = new double[vertexCount];
+            for (int[] layer: layers) {
+                double x = 0.0;
+                for (int i = 0; i < layer.length; i++) {
+                    if (i > 0) {
+                        x += getSeparation(layer[i - 1], layer[i], nodeSeparation);
+                    }
+                    xs[layer[i]] = x;
+                }
+                double shift = x / 2.0;
+                for (int v: layer) {
+                    xs[v] -= shift;
+                }
+            }
+            for (int pass = 0; pass < ALIGNMENT_PASSES; pass++) {
+                if (pass % 2 == 0) {
+                    for (int l = 1; l < layers.length; l++) {
+                        alignLayer(layers[l], xs, uppers, nodeSeparation);
+                    }
+                } else {
+                    for (int l = layers.length - 2; l >= 0; l--) {
+                        alignLayer(layers[l], xs, lowers, nodeSeparation);
+                    }
+                }
+            }
+            return xs;
+        }
+
+        private double getSeparation(int v, int w, double nodeSeparation) {
+            return (widths[v] + widths[w]) / 2.0 + nodeSeparation;
+        }
+
+        /**
+         * Moves the nodes of a layer towards the mean position of their neighbours. The left-most and the
+         * right-most placements that keep the separation are averaged, so the result keeps it too.
+         */
+        private void alignLayer(int[] layer, double[] xs, List<List<Integer>> neighbours, double nodeSeparation) {
+            int size = layer.length;
+            double[] desired = new double[size];
+            for (int i = 0; i < size; i++) {
+                int v = layer[i];
+                List<Integer> vertexNeighbours = neighbours.get(v);
+                if (vertexNeighbours.isEmpty()) {
+                    desired[i] = xs[v];
+                } else {
+                    double sum = 0.0;
+                    for (int w: vertexNeighbours) {
+                        sum += xs[w];
+                    }
+                    desired[i] = sum / vertexNeighbours.size();
+                }
+            }
+            double[] left = new double[size];
+            double[] right = new double[size];
+            for (int i = 0; i < size; i++) {
+                left[i] = desired[i];
+                if ((i > 0) && (left[i] < left[i - 1] + getSeparation(layer[i - 1], layer[i], nodeSeparation))) {
+                    left[i] = left[i - 1] + getSeparation(layer[i - 1], layer[i], nodeSeparation);
+                }
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                right[i] = desired[i];
+                if ((i < size - 1)
+                        && (right[i] > right[i + 1] - getSeparation(layer[i], layer[i + 1], nodeSeparation))) {
+                    right[i] = right[i + 1] - getSeparation(layer[i], layer[i + 1], nodeSeparation);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                xs[layer[i]] = (left[i] + right[i]) / 2.0;
+            }
+        }
+
+        double[] getLayerCoordinates(LayoutGraph graph, double layerSeparation) {
+            double[] heights = new double[layers.length];
+            for (int v = 0; v < graph.size; v++) {
+                heights[layerOf[v]] = Math.max(heights[layerOf[v]], graph.heights[v]);
+            }
+            double[] result = new double[layers.length];
+            for (int l = 1; l < layers.length; l++) {
+                result[l] = result[l - 1] + (heights[l - 1] + heights[l]) / 2.0 + layerSeparation;
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.workcraft.plugins.layout;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.workcraft.Config;
+import org.workcraft.gui.propertyeditor.PropertyDeclaration;
+import org.workcraft.gui.propertyeditor.PropertyDescriptor;
+import org.workcraft.gui.propertyeditor.Settings;
+
+public class LayeredLayoutSettings implements Settings {
+    private static final LinkedList<PropertyDescriptor> properties = new LinkedList<>();
+    private static final String prefix = "LayeredLayout";
+
+    private static final String keyLayerSeparation = prefix + ".layerSeparation";
+    private static final String keyNodeSeparation = prefix + ".nodeSeparation";
+    private static final String keySweepCount = prefix + ".sweepCount";
+
+    private static final double defaultLayerSeparation = 2.0;
+    private static final double defaultNodeSeparation = 0.5;
+    private static final int defaultSweepCount = 24;
+
+    private static double layerSeparation = defaultLayerSeparation;
+    private static double nodeSeparation = defaultNodeSeparation;
+    private static int sweepCount = defaultSweepCount;
+
+    public LayeredLayoutSettings() {
+        properties.add(new PropertyDeclaration<LayeredLayoutSettings, Double>(
+                this, "Separation between layers", Double.class, true, false, false) {
+            protected void setter(LayeredLayoutSettings object, Double value) {
+                setLayerSeparation(value);
+            }
+            protected Double getter(LayeredLayoutSettings object) {
+                return getLayerSeparation();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<LayeredLayoutSettings, Double>(
+                this, "Separation between nodes in a layer", Double.class, true, false, false) {
+            protected void setter(LayeredLayoutSettings object, Double value) {
+                setNodeSeparation(value);
+            }
+            protected Double getter(LayeredLayoutSettings object) {
+                return getNodeSeparation();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<LayeredLayoutSettings, Integer>(
+                this, "Number of crossing reduction sweeps", Integer.class, true, false, false) {
+            protected void setter(LayeredLayoutSettings object, Integer value) {
+                setSweepCount(value);
+            }
+            protected Integer getter(LayeredLayoutSettings object) {
+                return getSweepCount();
+            }
+        });
+    }
+
+    @Override
+    public List<PropertyDescriptor> getDescriptors() {
+        return properties;
+    }
+
+    @Override
+    public void load(Config config) {
+        setLayerSeparation(config.getDouble(keyLayerSeparation, defaultLayerSeparation));
+        setNodeSeparation(config.getDouble(keyNodeSeparation, defaultNodeSeparation));
+        setSweepCount(config.getInt(keySweepCount, defaultSweepCount));
+    }
+
+    @Override
+    public void save(Config config) {
+        config.setDouble(keyLayerSeparation, getLayerSeparation());
+        config.setDouble(keyNodeSeparation, getNodeSeparation());
+        config.setInt(keySweepCount, getSweepCount());
+    }
+
+    @Override
+    public String getSection() {
+        return "Layout";
+    }
+
+    @Override
+    public String getName() {
+        return "Layered";
+    }
+
+    public static double getLayerSeparation() {
+        return layerSeparation;
+    }
+
+    public static void setLayerSeparation(double value) {
+        if (value < 0.0) {
+            value = 0.0;
+        }
+        layerSeparation = value;
+    }
+
+    public static double getNodeSeparation() {
+        return nodeSeparation;
+    }
+
+    public static void setNodeSeparation(double value) {
+        if (value < 0.0) {
+            value = 0.0;
+        }
+        nodeSeparation = value;
+    }
+
+    public static int getSweepCount() {
+        return sweepCount;
+    }
+
+    public static void setSweepCount(int value) {
+        if (value < 0) {
+            value = 0;
+        }
+        sweepCount = value;
+    }
+
+}
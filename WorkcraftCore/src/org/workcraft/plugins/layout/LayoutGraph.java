@@ -0,0 +1,120 @@
+package org.workcraft.plugins.layout;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.workcraft.dom.Container;
+import org.workcraft.dom.visual.VisualComponent;
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.dom.visual.connections.Polyline;
+import org.workcraft.dom.visual.connections.VisualConnection;
+import org.workcraft.dom.visual.connections.VisualConnection.ConnectionType;
+import org.workcraft.util.Hierarchy;
+
+/**
+ * Components and connections of a visual model as a directed graph over integer ids, the same graph that
+ * is exported for the external dot layout. Containers are not laid out, their children are.
+ */
+class LayoutGraph {
+
+    private final VisualModel model;
+    private final List<VisualComponent> components = new ArrayList<>();
+    private final List<VisualConnection> connections = new ArrayList<>();
+    private final HashMap<VisualComponent, Integer> ids = new HashMap<>();
+
+    final int size;
+    final double[] widths;
+    final double[] heights;
+    final int[][] successors;
+    final int[][] predecessors;
+
+    LayoutGraph(VisualModel model) {
+        this.model = model;
+        for (VisualComponent component: Hierarchy.getDescendantsOfType(model.getRoot(), VisualComponent.class)) {
+            Rectangle2D bb = component.getBoundingBoxInLocalSpace();
+            if (!(component instanceof Container) && (bb != null)) {
+                ids.put(component, components.size());
+                components.add(component);
+            }
+        }
+        size = components.size();
+        widths = new double[size];
+        heights = new double[size];
+        List<LinkedHashSet<Integer>> succs = new ArrayList<>();
+        List<LinkedHashSet<Integer>> preds = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Rectangle2D bb = components.get(i).getBoundingBoxInLocalSpace();
+            widths[i] = bb.getWidth();
+            heights[i] = bb.getHeight();
+            succs.add(new LinkedHashSet<Integer>());
+            preds.add(new LinkedHashSet<Integer>());
+        }
+        for (VisualConnection connection: Hierarchy.getDescendantsOfType(model.getRoot(), VisualConnection.class)) {
+            Integer first = ids.get(connection.getFirst());
+            Integer second = ids.get(connection.getSecond());
+            if ((first != null) && (second != null)) {
+                connections.add(connection);
+                if (first.intValue() != second.intValue()) {
+                    succs.get(first).add(second);
+                    preds.get(second).add(first);
+                }
+            }
+        }
+        successors = toArrays(succs);
+        predecessors = toArrays(preds);
+    }
+
+    private static int[][] toArrays(List<LinkedHashSet<Integer>> sets) {
+        int[][] result = new int[sets.size()][];
+        for (int i = 0; i < result.length; i++) {
+            Collection<Integer> set = sets.get(i);
+            result[i] = new int[set.size()];
+            int j = 0;
+            for (Integer value: set) {
+                result[i][j++] = value;
+            }
+        }
+        return result;
+    }
+
+    Point2D getPosition(int id) {
+        return components.get(id).getRootSpacePosition();
+    }
+
+    void setPosition(int id, double x, double y) {
+        components.get(id).setRootSpacePosition(new Point2D.Double(x, y));
+    }
+
+    /**
+     * Makes all connections polylines; the connections between the given pairs of nodes are routed
+     * through the bend points (in root space), the others are straight.
+     */
+    void setConnections(HashMap<Long, List<Point2D>> bends) {
+        for (VisualConnection connection: connections) {
+            connection.setConnectionType(ConnectionType.POLYLINE);
+            connection.getGraphic().setDefaultControlPoints();
+            List<Point2D> points = null;
+            if ((bends != null) && (connection.getParent() == model.getRoot())) {
+                int first = ids.get(connection.getFirst());
+                int second = ids.get(connection.getSecond());
+                points = bends.get(getEdgeKey(first, second));
+            }
+            if ((points != null) && (connection.getGraphic() instanceof Polyline)) {
+                Polyline polyline = (Polyline) connection.getGraphic();
+                for (Point2D point: points) {
+                    polyline.addControlPoint(point);
+                }
+            }
+        }
+    }
+
+    static long getEdgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+}
@@ -1,10 +1,12 @@
 package org.workcraft.plugins.serialisation;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -19,7 +21,6 @@ import org.workcraft.serialisation.ReferenceResolver;
 import org.workcraft.serialisation.References;
 import org.workcraft.serialisation.xml.XMLDeserialisationManager;
 import org.workcraft.util.XmlUtil;
-import org.xml.sax.SAXException;
 
 public class XMLModelDeserialiser implements ModelDeserialiser {
 
@@ -34,22 +35,35 @@ public class XMLModelDeserialiser implements ModelDeserialiser {
             XMLDeserialisationManager deserialisation = new XMLDeserialisationManager();
             deserialisation.processPlugins(plugins);
 
-            Document doc = XmlUtil.loadDocument(is);
-            Element modelElement = doc.getDocumentElement();
+            Document doc = XmlUtil.createDocument();
+            XMLStreamReader reader = XmlUtil.createReader(is);
+            reader.nextTag();
+            Element modelElement = XmlUtil.createElement(reader, doc);
 
             deserialisation.begin(extRef);
 
-            // 1st pass -- init instances
-            Element rootElement = XmlUtil.getChildElement("root", modelElement);
-            Node root = (Node) deserialisation.initInstance(rootElement);
+            // 1st pass -- init instances while streaming the root, keep the rest of the model element
+            Node root = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ((root == null) && "root".equals(reader.getLocalName())) {
+                    root = (Node) deserialisation.initInstance(reader, doc);
+                } else {
+                    modelElement.appendChild(XmlUtil.readElement(reader, doc));
+                }
+            }
+            reader.close();
+            if (root == null) {
+                throw new DeserialisationException("Model element has no root element.");
+            }
 
             // 2nd pass -- finalise instances
             deserialisation.finaliseInstances();
+            deserialisation.releaseInstanceElements();
 
             // create model
             String modelClassName = modelElement.getAttribute("class");
             if (modelClassName == null || modelClassName.isEmpty()) {
-                throw new DeserialisationException("Class name attribute is not set\n" + modelElement.toString());
+                throw new DeserialisationException("Model element has no class attribute.");
             }
             Class<?> cls = Class.forName(modelClassName);
 
@@ -58,7 +72,7 @@ public class XMLModelDeserialiser implements ModelDeserialiser {
             deserialisation.deserialiseModelProperties(modelElement, model);
 
             return new DeserialisationResult(model, intRef);
-        } catch (ParserConfigurationException | SAXException | IOException |
+        } catch (ParserConfigurationException | XMLStreamException |
                 SecurityException | IllegalArgumentException | ClassNotFoundException e) {
             throw new DeserialisationException(e);
         }
@@ -2,12 +2,12 @@ package org.workcraft.plugins.serialisation;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.UUID;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.workcraft.PluginProvider;
 import org.workcraft.dom.Model;
 import org.workcraft.dom.Node;
@@ -60,22 +60,15 @@ public class XMLModelSerialiser implements ModelSerialiser {
                 }
             };
 
+            // The document only serves as a factory of the per-node elements, which are written out
+            // as soon as they are built.
             Document doc = XmlUtil.createDocument();
-
-            Element modelElement = doc.createElement("model");
-            Element rootElement = doc.createElement("root");
+            Writer writer = XmlUtil.createWriter(out);
 
             serialisation.begin(internalRefs, refs);
-
-            serialisation.serialise(modelElement, model);
-            serialisation.serialise(rootElement, model.getRoot());
-
+            serialisation.serialise(writer, doc, model);
             serialisation.end();
 
-            doc.appendChild(modelElement);
-            modelElement.appendChild(rootElement);
-            XmlUtil.writeDocument(doc, out);
-
             return internalRefs;
         } catch (ParserConfigurationException e) {
             throw new SerialisationException(e);
@@ -44,6 +44,8 @@ public class CommonEditorSettings implements Settings {
     private static final String keyShowAbsolutePaths = prefix + ".showAbsolutePaths";
     private static final String keyOpenNonvisual = prefix + ".openNonvisual";
     private static final String keyRedrawInterval = prefix + ".redrawInterval";
+    private static final String keyHistoryMemoryLimit = prefix + ".historyMemoryLimit";
+    private static final String keyHistoryCheckpointInterval = prefix + ".historyCheckpointInterval";
 
     private static final Color defaultBackgroundColor = Color.WHITE;
     private static final boolean defaultGridVisibility = true;
@@ -59,6 +61,8 @@ public class CommonEditorSettings implements Settings {
     private static final boolean defaultShowAbsolutePaths = false;
     private static final boolean defaultOpenNonvisual = true;
     private static final Integer defaultRedrawInterval = 20;
+    private static final Integer defaultHistoryMemoryLimit = 128;
+    private static final Integer defaultHistoryCheckpointInterval = 20;
 
     private static Color backgroundColor = defaultBackgroundColor;
     private static boolean gridVisibility = defaultGridVisibility;
@@ -74,6 +78,8 @@ public class CommonEditorSettings implements Settings {
     private static boolean showAbsolutePaths = defaultShowAbsolutePaths;
     private static boolean openNonvisual = defaultOpenNonvisual;
     private static Integer redrawInterval = defaultRedrawInterval;
+    private static Integer historyMemoryLimit = defaultHistoryMemoryLimit;
+    private static Integer historyCheckpointInterval = defaultHistoryCheckpointInterval;
 
     public CommonEditorSettings() {
         properties.add(new PropertyDeclaration<CommonEditorSettings, Color>(
@@ -215,6 +221,26 @@ public class CommonEditorSettings implements Settings {
                 return getRedrawInterval();
             }
         });
+
+        properties.add(new PropertyDeclaration<CommonEditorSettings, Integer>(
+                this, "Undo history memory limit (MB)", Integer.class, true, false, false) {
+            protected void setter(CommonEditorSettings object, Integer value) {
+                setHistoryMemoryLimit(value);
+            }
+            protected Integer getter(CommonEditorSettings object) {
+                return getHistoryMemoryLimit();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<CommonEditorSettings, Integer>(
+                this, "Undo history checkpoint interval (steps)", Integer.class, true, false, false) {
+            protected void setter(CommonEditorSettings object, Integer value) {
+                setHistoryCheckpointInterval(value);
+            }
+            protected Integer getter(CommonEditorSettings object) {
+                return getHistoryCheckpointInterval();
+            }
+        });
     }
 
     @Override
@@ -238,6 +264,8 @@ public class CommonEditorSettings implements Settings {
         setShowAbsolutePaths(config.getBoolean(keyShowAbsolutePaths, defaultShowAbsolutePaths));
         setOpenNonvisual(config.getBoolean(keyOpenNonvisual, defaultOpenNonvisual));
         setRedrawInterval(config.getInt(keyRedrawInterval, defaultRedrawInterval));
+        setHistoryMemoryLimit(config.getInt(keyHistoryMemoryLimit, defaultHistoryMemoryLimit));
+        setHistoryCheckpointInterval(config.getInt(keyHistoryCheckpointInterval, defaultHistoryCheckpointInterval));
     }
 
     @Override
@@ -256,6 +284,8 @@ public class CommonEditorSettings implements Settings {
         config.setBoolean(keyShowAbsolutePaths, getShowAbsolutePaths());
         config.setBoolean(keyOpenNonvisual, getOpenNonvisual());
         config.setInt(keyRedrawInterval, getRedrawInterval());
+        config.setInt(keyHistoryMemoryLimit, getHistoryMemoryLimit());
+        config.setInt(keyHistoryCheckpointInterval, getHistoryCheckpointInterval());
     }
 
     @Override
@@ -386,4 +416,26 @@ public class CommonEditorSettings implements Settings {
         return redrawInterval;
     }
 
+    public static void setHistoryMemoryLimit(Integer value) {
+        if (value < 1) {
+            value = 1;
+        }
+        historyMemoryLimit = value;
+    }
+
+    public static Integer getHistoryMemoryLimit() {
+        return historyMemoryLimit;
+    }
+
+    public static void setHistoryCheckpointInterval(Integer value) {
+        if (value < 1) {
+            value = 1;
+        }
+        historyCheckpointInterval = value;
+    }
+
+    public static Integer getHistoryCheckpointInterval() {
+        return historyCheckpointInterval;
+    }
+
 }
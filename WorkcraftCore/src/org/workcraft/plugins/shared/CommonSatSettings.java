@@ -12,7 +12,8 @@ public class CommonSatSettings implements Settings {
 
     public enum SatSolver {
         MINISAT("MiniSat"),
-        CLASP("Clasp");
+        CLASP("Clasp"),
+        BUILTIN("Built-in");
 
         public final String name;
 
@@ -0,0 +1,95 @@
+package org.workcraft.plugins.shared;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.workcraft.Config;
+import org.workcraft.gui.propertyeditor.PropertyDeclaration;
+import org.workcraft.gui.propertyeditor.PropertyDescriptor;
+import org.workcraft.gui.propertyeditor.Settings;
+
+public class CommonTaskSettings implements Settings {
+    private static final LinkedList<PropertyDescriptor> properties = new LinkedList<>();
+    private static final String prefix = "CommonTaskSettings";
+
+    private static final String keyWorkerCount = prefix + ".workerCount";
+    private static final String keyProcessLimit = prefix + ".processLimit";
+
+    private static final int defaultWorkerCount = Runtime.getRuntime().availableProcessors();
+    private static final int defaultProcessLimit = Runtime.getRuntime().availableProcessors();
+
+    private static int workerCount = defaultWorkerCount;
+    private static int processLimit = defaultProcessLimit;
+
+    public CommonTaskSettings() {
+        properties.add(new PropertyDeclaration<CommonTaskSettings, Integer>(
+                this, "Number of concurrently running tasks", Integer.class, true, false, false) {
+            protected void setter(CommonTaskSettings object, Integer value) {
+                setWorkerCount(value);
+            }
+            protected Integer getter(CommonTaskSettings object) {
+                return getWorkerCount();
+            }
+        });
+
+        properties.add(new PropertyDeclaration<CommonTaskSettings, Integer>(
+                this, "Number of concurrently running external tools", Integer.class, true, false, false) {
+            protected void setter(CommonTaskSettings object, Integer value) {
+                setProcessLimit(value);
+            }
+            protected Integer getter(CommonTaskSettings object) {
+                return getProcessLimit();
+            }
+        });
+    }
+
+    @Override
+    public List<PropertyDescriptor> getDescriptors() {
+        return properties;
+    }
+
+    @Override
+    public void load(Config config) {
+        setWorkerCount(config.getInt(keyWorkerCount, defaultWorkerCount));
+        setProcessLimit(config.getInt(keyProcessLimit, defaultProcessLimit));
+    }
+
+    @Override
+    public void save(Config config) {
+        config.setInt(keyWorkerCount, getWorkerCount());
+        config.setInt(keyProcessLimit, getProcessLimit());
+    }
+
+    @Override
+    public String getSection() {
+        return "Common";
+    }
+
+    @Override
+    public String getName() {
+        return "Tasks";
+    }
+
+    public static int getWorkerCount() {
+        return workerCount;
+    }
+
+    public static void setWorkerCount(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        workerCount = value;
+    }
+
+    public static int getProcessLimit() {
+        return processLimit;
+    }
+
+    public static void setProcessLimit(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        processLimit = value;
+    }
+
+}
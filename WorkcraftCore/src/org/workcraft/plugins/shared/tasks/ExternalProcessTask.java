@@ -7,6 +7,7 @@ import java.util.List;
 
 import org.workcraft.interop.ExternalProcess;
 import org.workcraft.interop.ExternalProcessListener;
+import org.workcraft.plugins.shared.CommonTaskSettings;
 import org.workcraft.tasks.ProgressMonitor;
 import org.workcraft.tasks.Result;
 import org.workcraft.tasks.Task;
@@ -14,6 +15,10 @@ import org.workcraft.util.DataAccumulator;
 import org.workcraft.util.LogUtils;
 
 public class ExternalProcessTask implements Task<ExternalProcessResult>, ExternalProcessListener {
+    private static final int PROCESS_POLL_INTERVAL = 20;
+    private static final Object processLock = new Object();
+    private static int runningProcessCount = 0;
+
     private List<String> args;
     private final File workingDir;
     private boolean printStdout;
@@ -46,14 +51,62 @@ public class ExternalProcessTask implements Task<ExternalProcessResult>, Externa
 
         process.addListener(this);
 
+        if (!acquireProcessSlot(monitor)) {
+            return Result.cancelled();
+        }
         try {
-            printCommandLine(this.args);
-            process.start();
-        } catch (IOException e) {
-            LogUtils.logErrorLine(e.getMessage());
-            return Result.exception(e);
+            try {
+                printCommandLine(this.args);
+                process.start();
+            } catch (IOException e) {
+                LogUtils.logErrorLine(e.getMessage());
+                return Result.exception(e);
+            }
+            waitForProcess(process, monitor);
+        } finally {
+            releaseProcessSlot();
+        }
+
+        if (userCancelled) {
+            return Result.cancelled();
+        }
+
+        ExternalProcessResult result = new ExternalProcessResult(
+                returnCode, stdoutAccum.getData(), stderrAccum.getData(),
+                Collections.<String, byte[]>emptyMap());
+
+        return Result.finished(result);
+    }
+
+    /**
+     * Waits until fewer external processes than the configured limit are running, so that batches of
+     * tasks do not start more tool instances than there are cores. Returns false if cancelled while waiting.
+     */
+    private static boolean acquireProcessSlot(ProgressMonitor<?> monitor) {
+        synchronized (processLock) {
+            while (runningProcessCount >= CommonTaskSettings.getProcessLimit()) {
+                if (monitor.isCancelRequested()) {
+                    return false;
+                }
+                try {
+                    processLock.wait(PROCESS_POLL_INTERVAL);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            runningProcessCount++;
+            return true;
         }
+    }
 
+    private static void releaseProcessSlot() {
+        synchronized (processLock) {
+            runningProcessCount--;
+            processLock.notifyAll();
+        }
+    }
+
+    private void waitForProcess(ExternalProcess process, ProgressMonitor<? super ExternalProcessResult> monitor) {
         while (true) {
             if (monitor.isCancelRequested() && process.isRunning()) {
                 process.cancel();
@@ -63,23 +116,13 @@ public class ExternalProcessTask implements Task<ExternalProcessResult>, Externa
                 break;
             }
             try {
-                Thread.sleep(20);
+                Thread.sleep(PROCESS_POLL_INTERVAL);
             } catch (InterruptedException e) {
                 process.cancel();
                 userCancelled = true;
                 break;
             }
         }
-
-        if (userCancelled) {
-            return Result.cancelled();
-        }
-
-        ExternalProcessResult result = new ExternalProcessResult(
-                returnCode, stdoutAccum.getData(), stderrAccum.getData(),
-                Collections.<String, byte[]>emptyMap());
-
-        return Result.finished(result);
     }
 
     public static String getCommandLine(List<String> args) {
@@ -1,10 +1,5 @@
 package org.workcraft.serialisation.xml;
 
-import static org.workcraft.serialisation.xml.BeanInfoCache.getBeanInfo;
-
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
@@ -28,70 +23,35 @@ class DefaultNodeDeserialiser {
         this.finaliser = finaliser;
     }
 
-    private void autoDeserialiseProperties(Element currentLevelElement,
-            Object instance, Class<?> currentLevel,
-            ReferenceResolver externalReferenceResolver)
-            throws DeserialisationException {
-        if (currentLevel.getAnnotation(NoAutoSerialisation.class) != null) {
+    private void autoDeserialiseProperties(Element currentLevelElement, Object instance,
+            PropertyPlan<BasicXMLDeserialiser> plan) throws DeserialisationException {
+        if (plan.size() == 0) {
             return;
         }
 
-        try {
-            List<Element> propertyElements = XmlUtil.getChildElements("property", currentLevelElement);
-            HashMap<String, Element> nameMap = new HashMap<>();
-
-            for (Element e : propertyElements) {
-                nameMap.put(e.getAttribute("name"), e);
-            }
-
-            BeanInfo info = getBeanInfo(currentLevel);
-
-            for (PropertyDescriptor desc : info.getPropertyDescriptors()) {
-                if (!nameMap.containsKey(desc.getName())) {
-                    continue;
-                }
-
-                if (desc.getPropertyType() == null) {
-                    continue;
-                }
-
-                if (desc.getWriteMethod() == null || desc.getReadMethod() == null) {
-                    continue;
-                }
-
-                // property explicitly requested to be excluded from auto serialisation
-                if (
-                        desc.getReadMethod().getAnnotation(NoAutoSerialisation.class) != null ||
-                        desc.getWriteMethod().getAnnotation(NoAutoSerialisation.class) != null
-                ) {
-                    continue;
-                }
-
-                // the property is writable and is not of array type, try to get a deserialiser
-                XMLDeserialiser deserialiser = fac.getDeserialiserFor(desc.getPropertyType().getName());
+        List<Element> propertyElements = XmlUtil.getChildElements("property", currentLevelElement);
+        HashMap<String, Element> nameMap = new HashMap<>();
 
-                if (!(deserialiser instanceof BasicXMLDeserialiser)) {
-                    // no deserialiser, try to use the special case enum deserialiser
-                    if (desc.getPropertyType().isEnum()) {
-                        deserialiser = fac.getDeserialiserFor(Enum.class.getName());
-                        if (deserialiser == null) {
-                            continue;
-                        }
-                    } else {
-                        continue;
-                    }
-                }
+        for (Element e : propertyElements) {
+            nameMap.put(e.getAttribute("name"), e);
+        }
 
-                Element element = nameMap.get(desc.getName());
-                Object value = ((BasicXMLDeserialiser) deserialiser).deserialise(element);
+        for (int i = 0; i < plan.size(); i++) {
+            PropertyAccessor accessor = plan.getAccessor(i);
+            Element element = nameMap.get(accessor.getName());
+            if (element == null) {
+                continue;
+            }
 
-                desc.getWriteMethod().invoke(instance, value);
+            Object value = plan.getHandler(i).deserialise(element);
+            try {
+                accessor.set(instance, value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new DeserialisationException(instance.getClass().getName() + " "
+                        + plan.getElementName() + " " + e.getMessage(), e);
             }
-        } catch (IllegalArgumentException | IllegalAccessException | InstantiationException |
-                IntrospectionException e) {
-            throw new DeserialisationException(e);
-        } catch (InvocationTargetException e) {
-            throw new DeserialisationException(instance.getClass().getName() + " " + currentLevel.getName() + " " + e.getMessage(), e);
         }
     }
 
@@ -171,9 +131,10 @@ class DefaultNodeDeserialiser {
     }
 
     void doInitialisation(Element element, Object instance, Class<?> currentLevel, ReferenceResolver externalReferenceResolver) throws DeserialisationException {
-        Element currentLevelElement = XmlUtil.getChildElement(currentLevel.getSimpleName(), element);
+        PropertyPlan<BasicXMLDeserialiser> plan = fac.getPropertyPlan(currentLevel);
+        Element currentLevelElement = XmlUtil.getChildElement(plan.getElementName(), element);
         if (currentLevelElement != null) {
-            autoDeserialiseProperties(currentLevelElement, instance, currentLevel, externalReferenceResolver);
+            autoDeserialiseProperties(currentLevelElement, instance, plan);
         }
 
         try {
@@ -1,11 +1,5 @@
 package org.workcraft.serialisation.xml;
 
-import static org.workcraft.serialisation.xml.BeanInfoCache.getBeanInfo;
-
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 
 import org.w3c.dom.Element;
@@ -23,64 +17,36 @@ public class DefaultNodeSerialiser {
         this.serialiser = serialiser;
     }
 
-    private void autoSerialiseProperties(Element element, Object object, Class<?> currentLevel) throws IntrospectionException, InstantiationException, IllegalAccessException, IllegalArgumentException, SerialisationException, InvocationTargetException {
-        // type explicitly requested to be excluded from auto serialisation
-        if (currentLevel.getAnnotation(NoAutoSerialisation.class) != null) {
-            return;
-        }
-
-        BeanInfo info = getBeanInfo(currentLevel);
-
-        for (PropertyDescriptor desc : info.getPropertyDescriptors()) {
-            if (desc.getPropertyType() == null) {
-                continue;
-            }
-
-            if (desc.getWriteMethod() == null || desc.getReadMethod() == null) {
-                continue;
-            }
-
-            // property explicitly requested to be excluded from auto serialisation
-            if (
-                    desc.getReadMethod().getAnnotation(NoAutoSerialisation.class) != null ||
-                    desc.getWriteMethod().getAnnotation(NoAutoSerialisation.class) != null) {
-                continue;
-            }
-
-            // the property is writable and is not of array type, try to get a serialiser
-            XMLSerialiser serialiser = fac.getSerialiserFor(desc.getPropertyType());
-
-            if (!(serialiser instanceof BasicXMLSerialiser)) {
-                // no serialiser, try to use the special case enum serialiser
-                if (desc.getPropertyType().isEnum()) {
-                    serialiser = fac.getSerialiserFor(Enum.class);
-                    if (serialiser == null) {
-                        continue;
-                    }
-                } else {
-                    continue;
-                }
-            }
-
+    private void autoSerialiseProperties(Element element, Object object, PropertyPlan<BasicXMLSerialiser> plan)
+            throws SerialisationException {
+        for (int i = 0; i < plan.size(); i++) {
+            PropertyAccessor accessor = plan.getAccessor(i);
             Element propertyElement = element.getOwnerDocument().createElement("property");
             element.appendChild(propertyElement);
-            propertyElement.setAttribute("class", desc.getPropertyType().getName());
-            propertyElement.setAttribute("name", desc.getName());
-
-            ((BasicXMLSerialiser) serialiser).serialise(propertyElement, desc.getReadMethod().invoke(object));
+            propertyElement.setAttribute("class", accessor.getType().getName());
+            propertyElement.setAttribute("name", accessor.getName());
+
+            Object value;
+            try {
+                value = accessor.get(object);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SerialisationException(e);
+            }
+            plan.getHandler(i).serialise(propertyElement, value);
         }
     }
 
     private void doSerialisation(Element parentElement, Object object,
             ReferenceProducer internalReferences,
             ReferenceProducer externalReferences, Class<?> currentLevel)
-            throws InstantiationException, IllegalAccessException,
-            IllegalArgumentException, IntrospectionException,
-            SerialisationException, InvocationTargetException {
+            throws InstantiationException, IllegalAccessException, SerialisationException {
 
-        Element curLevelElement = parentElement.getOwnerDocument().createElement(currentLevel.getSimpleName());
+        PropertyPlan<BasicXMLSerialiser> plan = fac.getPropertyPlan(currentLevel);
+        Element curLevelElement = parentElement.getOwnerDocument().createElement(plan.getElementName());
 
-        autoSerialiseProperties(curLevelElement, object, currentLevel);
+        autoSerialiseProperties(curLevelElement, object, plan);
 
         XMLSerialiser serialiser = fac.getSerialiserFor(currentLevel);
 
@@ -115,8 +81,7 @@ public class DefaultNodeSerialiser {
             doSerialisation(parentElement, object, internalReferences, externalReferences, object.getClass());
 
             parentElement.setAttribute("ref", internalReferences.getReference(object));
-        } catch (IllegalArgumentException | InstantiationException | IllegalAccessException |
-                IntrospectionException | SerialisationException | InvocationTargetException e) {
+        } catch (InstantiationException | IllegalAccessException e) {
             throw new SerialisationException(e);
         }
     }
@@ -1,5 +1,8 @@
 package org.workcraft.serialisation.xml;
 
+import org.workcraft.exceptions.DeserialisationException;
+
 interface DeserialiserFactory {
     XMLDeserialiser getDeserialiserFor(String className) throws InstantiationException, IllegalAccessException;
+    PropertyPlan<BasicXMLDeserialiser> getPropertyPlan(Class<?> currentLevel) throws DeserialisationException;
 }
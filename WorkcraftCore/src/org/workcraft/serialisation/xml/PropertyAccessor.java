@@ -0,0 +1,111 @@
+package org.workcraft.serialisation.xml;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Getter and setter of an auto-serialised bean property, bound once as method handles.
+ * The accessors of each class level are introspected on first use and cached for the lifetime of the class.
+ */
+public class PropertyAccessor {
+
+    private static final HashMap<Class<?>, List<PropertyAccessor>> accessors = new HashMap<>();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final Class<?> type;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private PropertyAccessor(String name, Class<?> type, MethodHandle getter, MethodHandle setter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Object get(Object instance) throws Throwable {
+        return (Object) getter.invokeExact(instance);
+    }
+
+    public void set(Object instance, Object value) throws Throwable {
+        setter.invokeExact(instance, value);
+    }
+
+    /**
+     * Returns the read-write properties declared at the given class level (not including its superclasses)
+     * that are not excluded from auto serialisation.
+     */
+    public static synchronized List<PropertyAccessor> getAccessors(Class<?> currentLevel)
+            throws IntrospectionException, IllegalAccessException {
+        List<PropertyAccessor> result = accessors.get(currentLevel);
+        if (result == null) {
+            result = createAccessors(currentLevel);
+            accessors.put(currentLevel, result);
+        }
+        return result;
+    }
+
+    private static List<PropertyAccessor> createAccessors(Class<?> currentLevel)
+            throws IntrospectionException, IllegalAccessException {
+        // type explicitly requested to be excluded from auto serialisation
+        if (currentLevel.getAnnotation(NoAutoSerialisation.class) != null) {
+            return Collections.emptyList();
+        }
+        List<PropertyAccessor> result = new ArrayList<>();
+        PropertyDescriptor[] descs = Introspector.getBeanInfo(currentLevel, currentLevel.getSuperclass())
+                .getPropertyDescriptors();
+
+        for (PropertyDescriptor desc : descs) {
+            if (desc.getPropertyType() == null) {
+                continue;
+            }
+
+            Method readMethod = desc.getReadMethod();
+            Method writeMethod = desc.getWriteMethod();
+            if (writeMethod == null || readMethod == null) {
+                continue;
+            }
+
+            // property explicitly requested to be excluded from auto serialisation
+            if (readMethod.getAnnotation(NoAutoSerialisation.class) != null
+                    || writeMethod.getAnnotation(NoAutoSerialisation.class) != null) {
+                continue;
+            }
+
+            MethodHandle getter = unreflect(readMethod).asType(GETTER_TYPE);
+            MethodHandle setter = unreflect(writeMethod).asType(SETTER_TYPE);
+            result.add(new PropertyAccessor(desc.getName(), desc.getPropertyType(), getter, setter));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public accessor of a non-public class
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+
+}
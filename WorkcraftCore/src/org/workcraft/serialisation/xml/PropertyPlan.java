@@ -0,0 +1,45 @@
+package org.workcraft.serialisation.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Auto-serialised properties of a class level paired with their basic (de)serialisers. Plans are built once per
+ * class by the {@link SerialiserFactory} or {@link DeserialiserFactory}, so that serialising a node does
+ * no introspection and no serialiser lookup.
+ */
+public class PropertyPlan<T> {
+
+    private final String elementName;
+    private final List<PropertyAccessor> accessors = new ArrayList<>();
+    private final List<T> handlers = new ArrayList<>();
+
+    public PropertyPlan(Class<?> currentLevel) {
+        elementName = currentLevel.getSimpleName();
+    }
+
+    public void add(PropertyAccessor accessor, T handler) {
+        accessors.add(accessor);
+        handlers.add(handler);
+    }
+
+    /**
+     * Name of the element that holds the properties of the class level.
+     */
+    public String getElementName() {
+        return elementName;
+    }
+
+    public int size() {
+        return accessors.size();
+    }
+
+    public PropertyAccessor getAccessor(int index) {
+        return accessors.get(index);
+    }
+
+    public T getHandler(int index) {
+        return handlers.get(index);
+    }
+
+}
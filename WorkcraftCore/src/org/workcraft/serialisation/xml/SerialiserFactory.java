@@ -1,5 +1,8 @@
 package org.workcraft.serialisation.xml;
 
+import org.workcraft.exceptions.SerialisationException;
+
 public interface SerialiserFactory {
     XMLSerialiser getSerialiserFor(Class<?> cls) throws InstantiationException, IllegalAccessException;
+    PropertyPlan<BasicXMLSerialiser> getPropertyPlan(Class<?> currentLevel) throws SerialisationException;
 }
@@ -1,9 +1,15 @@
 package org.workcraft.serialisation.xml;
 
+import java.beans.IntrospectionException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.workcraft.PluginProvider;
 import org.workcraft.dom.Container;
@@ -19,6 +25,7 @@ import org.workcraft.util.XmlUtil;
 public class XMLDeserialisationManager implements DeserialiserFactory, NodeInitialiser, NodeFinaliser {
 
     private final HashMap<String, XMLDeserialiser> deserialisers = new HashMap<>();
+    private final HashMap<Class<?>, PropertyPlan<BasicXMLDeserialiser>> plans = new HashMap<>();
     private final DefaultNodeDeserialiser nodeDeserialiser = new DefaultNodeDeserialiser(this, this, this);
     private XMLDeserialiserState state = null;
 
@@ -31,6 +38,30 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
         return deserialisers.get(className);
     }
 
+    @Override
+    public PropertyPlan<BasicXMLDeserialiser> getPropertyPlan(Class<?> currentLevel) throws DeserialisationException {
+        PropertyPlan<BasicXMLDeserialiser> plan = plans.get(currentLevel);
+        if (plan == null) {
+            plan = new PropertyPlan<>(currentLevel);
+            try {
+                for (PropertyAccessor accessor : PropertyAccessor.getAccessors(currentLevel)) {
+                    XMLDeserialiser deserialiser = getDeserialiserFor(accessor.getType().getName());
+                    if (!(deserialiser instanceof BasicXMLDeserialiser) && accessor.getType().isEnum()) {
+                        // no deserialiser, try to use the special case enum deserialiser
+                        deserialiser = getDeserialiserFor(Enum.class.getName());
+                    }
+                    if (deserialiser instanceof BasicXMLDeserialiser) {
+                        plan.add(accessor, (BasicXMLDeserialiser) deserialiser);
+                    }
+                }
+            } catch (IntrospectionException | InstantiationException | IllegalAccessException e) {
+                throw new DeserialisationException(e);
+            }
+            plans.put(currentLevel, plan);
+        }
+        return plan;
+    }
+
     public void begin(ReferenceResolver externalReferenceResolver) {
         state = new XMLDeserialiserState(externalReferenceResolver);
     }
@@ -47,12 +78,7 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
 
     @Override
     public Object initInstance(Element element, Object ... constructorParameters) throws DeserialisationException {
-        Object instance = nodeDeserialiser.initInstance(element, state.getExternalReferences(), constructorParameters);
-
-        state.setInstanceElement(instance, element);
-        String ref = element.getAttribute("ref");
-        state.setObject(ref, instance);
-
+        Object instance = createInstance(element, constructorParameters);
         if (instance instanceof Container) {
             for (Element subNodeElement : XmlUtil.getChildElements("node", element)) {
                 Object subNode = initInstance(subNodeElement);
@@ -65,6 +91,56 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
         return instance;
     }
 
+    private Object createInstance(Element element, Object ... constructorParameters) throws DeserialisationException {
+        Object instance = nodeDeserialiser.initInstance(element, state.getExternalReferences(), constructorParameters);
+
+        state.setInstanceElement(instance, element);
+        String ref = element.getAttribute("ref");
+        state.setObject(ref, instance);
+        return instance;
+    }
+
+    /**
+     * Streaming counterpart of {@link #initInstance(Element, Object...)} for a reader positioned at the start
+     * tag of a node, which is left at its end tag. The nested node elements are instantiated as they are read
+     * and only the own content of each node is kept as an element. These elements stay in memory until all
+     * the instances are finalised, because finalisers may reach the elements of other instances (e.g. a
+     * connection finalises its graphic), so the memory use on loading still grows with the model size.
+     */
+    public Object initInstance(XMLStreamReader reader, Document document) throws DeserialisationException, XMLStreamException {
+        Element element = XmlUtil.createElement(reader, document);
+        Object instance = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (!"node".equals(reader.getLocalName())) {
+                    element.appendChild(XmlUtil.readElement(reader, document));
+                    continue;
+                }
+                // Node content always precedes the child nodes.
+                if (instance == null) {
+                    instance = createInstance(element);
+                }
+                if (instance instanceof Container) {
+                    Object subNode = initInstance(reader, document);
+                    if (subNode instanceof Node) {
+                        state.addChildNode((Container) instance, (Node) subNode);
+                    }
+                } else {
+                    XmlUtil.readElement(reader, document);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else {
+                XmlUtil.appendText(reader, element);
+            }
+        }
+        if (instance == null) {
+            instance = createInstance(element);
+        }
+        return instance;
+    }
+
     public static Model createModel(Class<?> cls, Node root, Object underlyingModel, References rr) throws DeserialisationException {
         Model result;
         try {
@@ -115,6 +191,13 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
         }
     }
 
+    /**
+     * Releases the elements of the instances once they are finalised.
+     */
+    public void releaseInstanceElements() {
+        state.instanceElements.clear();
+    }
+
     @Override
     public void finaliseInstance(Object instance) throws DeserialisationException {
         nodeDeserialiser.finaliseInstance(state.getInstanceElement(instance), instance,
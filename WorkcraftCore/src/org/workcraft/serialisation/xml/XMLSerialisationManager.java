@@ -1,11 +1,16 @@
 package org.workcraft.serialisation.xml;
 
+import java.beans.IntrospectionException;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.workcraft.PluginProvider;
 import org.workcraft.dom.Container;
+import org.workcraft.dom.Model;
 import org.workcraft.dom.Node;
 import org.workcraft.exceptions.SerialisationException;
 import org.workcraft.plugins.PluginInfo;
@@ -14,6 +19,7 @@ import org.workcraft.util.XmlUtil;
 
 public class XMLSerialisationManager implements SerialiserFactory, NodeSerialiser {
     private final HashMap<String, XMLSerialiser> serialisers = new HashMap<>();
+    private final HashMap<Class<?>, PropertyPlan<BasicXMLSerialiser>> plans = new HashMap<>();
     private final DefaultNodeSerialiser nodeSerialiser = new DefaultNodeSerialiser(this, this);
     private XMLSerialiserState state = null;
 
@@ -25,6 +31,30 @@ public class XMLSerialisationManager implements SerialiserFactory, NodeSerialise
         return serialisers.get(cls.getName());
     }
 
+    @Override
+    public PropertyPlan<BasicXMLSerialiser> getPropertyPlan(Class<?> currentLevel) throws SerialisationException {
+        PropertyPlan<BasicXMLSerialiser> plan = plans.get(currentLevel);
+        if (plan == null) {
+            plan = new PropertyPlan<>(currentLevel);
+            try {
+                for (PropertyAccessor accessor : PropertyAccessor.getAccessors(currentLevel)) {
+                    XMLSerialiser serialiser = getSerialiserFor(accessor.getType());
+                    if (!(serialiser instanceof BasicXMLSerialiser) && accessor.getType().isEnum()) {
+                        // no serialiser, try to use the special case enum serialiser
+                        serialiser = getSerialiserFor(Enum.class);
+                    }
+                    if (serialiser instanceof BasicXMLSerialiser) {
+                        plan.add(accessor, (BasicXMLSerialiser) serialiser);
+                    }
+                }
+            } catch (IntrospectionException | InstantiationException | IllegalAccessException e) {
+                throw new SerialisationException(e);
+            }
+            plans.put(currentLevel, plan);
+        }
+        return plan;
+    }
+
     public void begin(ReferenceProducer internalReferenceResolver, ReferenceProducer externalReferenceResolver) {
         state = new XMLSerialiserState(internalReferenceResolver, externalReferenceResolver);
     }
@@ -41,9 +71,7 @@ public class XMLSerialisationManager implements SerialiserFactory, NodeSerialise
     }
 
     public void serialise(Element element, Object object) throws SerialisationException {
-        element.setAttribute("class", object.getClass().getName());
-
-        nodeSerialiser.serialise(element, object, state.internalReferences, state.externalReferences);
+        serialiseContent(element, object);
 
         if (object instanceof Container) {
             Container container = (Container) object;
@@ -54,4 +82,48 @@ public class XMLSerialisationManager implements SerialiserFactory, NodeSerialise
             }
         }
     }
+
+    private void serialiseContent(Element element, Object object) throws SerialisationException {
+        element.setAttribute("class", object.getClass().getName());
+
+        nodeSerialiser.serialise(element, object, state.internalReferences, state.externalReferences);
+    }
+
+    /**
+     * Streams the object as an element with the given tag name. Only the own content of the object is built
+     * as a detached element, the children of a container are streamed one by one as nested node elements,
+     * so that the memory use does not grow with the size of the model.
+     */
+    public void serialise(Writer writer, Document document, String tagName, Object object, int depth)
+            throws SerialisationException, IOException {
+        Element element = document.createElement(tagName);
+        serialiseContent(element, object);
+        ArrayList<Node> children = new ArrayList<>();
+        if (object instanceof Container) {
+            children.addAll(((Container) object).getChildren());
+        }
+        if (children.isEmpty()) {
+            XmlUtil.writeElement(writer, element, depth);
+        } else {
+            XmlUtil.writeStartElement(writer, element, depth);
+            for (Node child : children) {
+                serialise(writer, document, "node", child, depth + 1);
+            }
+            XmlUtil.writeEndElement(writer, element, depth, true);
+        }
+    }
+
+    /**
+     * Streams the whole document of the model, with the model properties followed by its root node.
+     */
+    public void serialise(Writer writer, Document document, Model model) throws SerialisationException, IOException {
+        XmlUtil.writeDeclaration(writer);
+        Element modelElement = document.createElement("model");
+        serialiseContent(modelElement, model);
+        XmlUtil.writeStartElement(writer, modelElement, 0);
+        serialise(writer, document, "root", model.getRoot(), 1);
+        XmlUtil.writeEndElement(writer, modelElement, 0, true);
+        XmlUtil.writeEndDocument(writer);
+    }
+
 }
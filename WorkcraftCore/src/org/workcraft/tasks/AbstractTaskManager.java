@@ -1,11 +1,84 @@
 package org.workcraft.tasks;
 
 import java.util.ArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import org.workcraft.plugins.shared.CommonTaskSettings;
 
 public abstract class AbstractTaskManager implements TaskManager {
 
     TaskObserverList taskObserverList = new TaskObserverList();
 
+    private static final long WORKER_KEEP_ALIVE = 60;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger runningCount = new AtomicInteger();
+    // Total wait time in milliseconds and the number of started tasks.
+    private final long[] waitStatistics = new long[2];
+
+    /**
+     * Queued task ordered by priority first and by the time of queueing second.
+     */
+    private abstract class QueuedTask implements Runnable, Comparable<QueuedTask> {
+        private final Priority priority;
+        private final long number;
+        private final long queueTime = System.currentTimeMillis();
+
+        QueuedTask(Priority priority, long number) {
+            this.priority = priority;
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(QueuedTask other) {
+            int result = priority.compareTo(other.priority);
+            if (result == 0) {
+                result = Long.compare(number, other.number);
+            }
+            return result;
+        }
+
+        @Override
+        public void run() {
+            synchronized (waitStatistics) {
+                waitStatistics[0] += System.currentTimeMillis() - queueTime;
+                waitStatistics[1]++;
+            }
+            runningCount.incrementAndGet();
+            try {
+                execute();
+            } finally {
+                runningCount.decrementAndGet();
+            }
+        }
+
+        public abstract void execute();
+    }
+
+    public AbstractTaskManager() {
+        int workerCount = CommonTaskSettings.getWorkerCount();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "Task worker " + threadCount.incrementAndGet());
+            }
+        };
+        executor = new ThreadPoolExecutor(workerCount, workerCount, WORKER_KEEP_ALIVE, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), threadFactory);
+        // Do not keep idle workers around.
+        executor.allowCoreThreadTimeOut(true);
+    }
+
     static class TaskObserverList extends ArrayList<TaskMonitor> implements TaskMonitor {
         private static final long serialVersionUID = 1L;
 
@@ -42,24 +115,57 @@ public abstract class AbstractTaskManager implements TaskManager {
 
     @Override
     public final <T> void queue(final Task<T> task, final String description) {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                rawExecute(task, description, null);
-            }
-        }
-        ).start();
+        queue(task, description, null);
     }
 
+    /**
+     * Tasks queued from the event dispatch thread are requested by the user and are treated as interactive,
+     * while the tasks queued from scripts and other tasks are treated as batch.
+     */
     @Override
     public final <T> void queue(final Task<T> task, final String description, final ProgressMonitor<? super T> observer) {
-        new Thread(new Runnable() {
+        Priority priority = SwingUtilities.isEventDispatchThread() ? Priority.INTERACTIVE : Priority.BATCH;
+        queue(task, description, observer, priority);
+    }
+
+    @Override
+    public final <T> void queue(final Task<T> task, final String description,
+            final ProgressMonitor<? super T> observer, Priority priority) {
+        updatePoolSize();
+        executor.execute(new QueuedTask(priority, sequence.getAndIncrement()) {
             @Override
-            public void run() {
+            public void execute() {
                 rawExecute(task, description, observer);
             }
+        });
+    }
+
+    private void updatePoolSize() {
+        int workerCount = CommonTaskSettings.getWorkerCount();
+        if (workerCount > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(workerCount);
+            executor.setCorePoolSize(workerCount);
+        } else if (workerCount < executor.getMaximumPoolSize()) {
+            executor.setCorePoolSize(workerCount);
+            executor.setMaximumPoolSize(workerCount);
+        }
+    }
+
+    @Override
+    public int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getRunningTaskCount() {
+        return runningCount.get();
+    }
+
+    @Override
+    public long getAverageWaitTime() {
+        synchronized (waitStatistics) {
+            return (waitStatistics[1] == 0) ? 0 : waitStatistics[0] / waitStatistics[1];
         }
-        ).start();
     }
 
     public abstract <T> Result<? extends T> rawExecute(Task<T> task, String description, ProgressMonitor<? super T> observer);
@@ -1,10 +1,23 @@
 package org.workcraft.tasks;
 
 public interface TaskManager {
+
+    /**
+     * Queued tasks wait for a free worker; interactive tasks are started before any waiting batch task.
+     */
+    enum Priority {
+        INTERACTIVE,
+        BATCH
+    }
+
     void addObserver(TaskMonitor observer);
     void removeObserver(TaskMonitor observer);
     <T> Result<? extends T> execute(Task<T> task, String description);
     <T> Result<? extends T> execute(Task<T> task, String description, ProgressMonitor<? super T> monitor);
     <T> void queue(Task<T> task, String description);
     <T> void queue(Task<T> task, String description, ProgressMonitor<? super T> monitor);
+    <T> void queue(Task<T> task, String description, ProgressMonitor<? super T> monitor, Priority priority);
+    int getQueuedTaskCount();
+    int getRunningTaskCount();
+    long getAverageWaitTime();
 }
@@ -39,6 +39,29 @@ public class Commands {
         return commands;
     }
 
+    // Commands whose class has the given simple name; the other commands are not instantiated
+    // as long as their class names are known from the registration.
+    public static List<Command> getCommands(String simpleClassName) {
+        ArrayList<Command> commands = new ArrayList<>();
+        final Framework framework = Framework.getInstance();
+        final PluginManager pm = framework.getPluginManager();
+        for (PluginInfo<? extends Command> info : pm.getPlugins(Command.class)) {
+            String className = info.getClassName();
+            if ((className == null) || simpleClassName.equals(getSimpleName(className))) {
+                Command command = info.getSingleton();
+                if (simpleClassName.equals(command.getClass().getSimpleName())) {
+                    commands.add(command);
+                }
+            }
+        }
+        return commands;
+    }
+
+    private static String getSimpleName(String className) {
+        int index = Math.max(className.lastIndexOf('.'), className.lastIndexOf('$'));
+        return className.substring(index + 1);
+    }
+
     public static List<Command> getApplicableCommands(WorkspaceEntry we) {
         return getApplicableCommands(we, Command.class);
     }
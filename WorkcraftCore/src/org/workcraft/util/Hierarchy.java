@@ -2,10 +2,15 @@ package org.workcraft.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.workcraft.dom.Container;
 import org.workcraft.dom.Node;
+import org.workcraft.dom.NodeTypeIndex;
 import org.workcraft.dom.math.MathModel;
 import org.workcraft.dom.math.PageNode;
 import org.workcraft.dom.visual.NodeHelper;
@@ -164,24 +169,75 @@ public class Hierarchy {
         return NodeHelper.filterByType(node.getChildren(), type, filter);
     }
 
+    /**
+     * Returns the descendants of the given type. For the root of a model the nodes are taken from its node
+     * type index in the order they were added to the model. Otherwise the subtree is scanned and the descendants
+     * of each child precede the children themselves. Callers that rely on nested nodes coming before their
+     * ancestors should use {@link #sortBottomUp(List)}.
+     */
     public static <T> Collection<T> getDescendantsOfType(Node node, Class<T> type) {
-        ArrayList<T> result = new ArrayList<>();
-        for (Node n : node.getChildren()) {
-            result.addAll(getDescendantsOfType(n, type));
-        }
-        result.addAll(getChildrenOfType(node, type));
-        return result;
+        return getDescendantsOfType(node, type, null);
     }
 
     public static <T> Collection<T> getDescendantsOfType(Node node, Class<T> type, Func<T, Boolean> filter) {
-        ArrayList<T> result = new ArrayList<>();
-        for (Node n : node.getChildren()) {
-            result.addAll(getDescendantsOfType(n, type, filter));
+        ArrayList<T> result;
+        NodeTypeIndex index = NodeTypeIndex.getIndex(node);
+        if (index != null) {
+            Collection<T> nodes = index.getNodes(type);
+            if (filter == null) {
+                result = new ArrayList<>(nodes);
+            } else {
+                result = new ArrayList<>();
+                for (T n : nodes) {
+                    if (filter.eval(n)) {
+                        result.add(n);
+                    }
+                }
+            }
+        } else {
+            result = new ArrayList<>();
+            collectDescendantsOfType(node, type, filter, result);
         }
-        result.addAll(getChildrenOfType(node, type, filter));
         return result;
     }
 
+    /**
+     * Sorts the nodes by decreasing depth, so that every node precedes its ancestors, e.g. to convert nested
+     * groups from the innermost one. Nodes at the same depth keep their order.
+     */
+    public static <T extends Node> void sortBottomUp(List<T> nodes) {
+        final HashMap<Node, Integer> depths = new HashMap<>();
+        for (T node : nodes) {
+            int depth = 0;
+            for (Node parent = node.getParent(); parent != null; parent = parent.getParent()) {
+                depth++;
+            }
+            depths.put(node, depth);
+        }
+        Collections.sort(nodes, new Comparator<T>() {
+            @Override
+            public int compare(T a, T b) {
+                return Integer.compare(depths.get(b), depths.get(a));
+            }
+        });
+    }
+
+    private static <T> void collectDescendantsOfType(Node node, Class<T> type, Func<T, Boolean> filter,
+            Collection<T> result) {
+        Collection<Node> children = node.getChildren();
+        for (Node n : children) {
+            collectDescendantsOfType(n, type, filter, result);
+        }
+        for (Node n : children) {
+            if (type.isInstance(n)) {
+                T typedNode = type.cast(n);
+                if ((filter == null) || filter.eval(typedNode)) {
+                    result.add(typedNode);
+                }
+            }
+        }
+    }
+
     public static Collection<Node> getDescendants(Node node) {
         ArrayList<Node> result = new ArrayList<>();
         for (Node n : node.getChildren()) {
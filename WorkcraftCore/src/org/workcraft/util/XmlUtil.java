@@ -1,12 +1,14 @@
 package org.workcraft.util;
 
 import java.awt.Color;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
@@ -17,6 +19,10 @@ import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -27,6 +33,7 @@ import javax.xml.transform.stream.StreamSource;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
@@ -221,4 +228,166 @@ public class XmlUtil {
         return doc;
     }
 
+    /*
+     * Streaming counterparts of writeDocument and loadDocument. The output reproduces the indentation,
+     * attribute order and escaping of the transformer, so that streamed and DOM-written files are identical.
+     */
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String INDENT = "  ";
+
+    public static Writer createWriter(OutputStream os) {
+        CharsetEncoder utf8Encoder = Charset.forName("UTF-8").newEncoder();
+        return new BufferedWriter(new OutputStreamWriter(os, utf8Encoder));
+    }
+
+    public static void writeDeclaration(Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+    }
+
+    public static void writeEndDocument(Writer writer) throws IOException {
+        writer.write(LINE_SEPARATOR);
+        writer.flush();
+    }
+
+    /**
+     * Writes the start tag of the element followed by all its child nodes, leaving the element open
+     * for more children to be streamed by the caller.
+     */
+    public static void writeStartElement(Writer writer, Element element, int depth) throws IOException {
+        writeIndent(writer, depth);
+        writeTag(writer, element);
+        writer.write('>');
+        writeChildNodes(writer, element, depth);
+    }
+
+    public static void writeEndElement(Writer writer, Element element, int depth, boolean indent) throws IOException {
+        if (indent) {
+            writeIndent(writer, depth);
+        }
+        writer.write("</");
+        writer.write(element.getTagName());
+        writer.write('>');
+    }
+
+    public static void writeElement(Writer writer, Element element, int depth) throws IOException {
+        if (element.hasChildNodes()) {
+            writeStartElement(writer, element, depth);
+            writeEndElement(writer, element, depth, element.getLastChild().getNodeType() == Node.ELEMENT_NODE);
+        } else {
+            writeIndent(writer, depth);
+            writeTag(writer, element);
+            writer.write("/>");
+        }
+    }
+
+    private static void writeChildNodes(Writer writer, Element element, int depth) throws IOException {
+        NodeList nl = element.getChildNodes();
+        for (int i = 0; i < nl.getLength(); i++) {
+            Node n = nl.item(i);
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                writeElement(writer, (Element) n, depth + 1);
+            } else if ((n.getNodeType() == Node.TEXT_NODE) || (n.getNodeType() == Node.CDATA_SECTION_NODE)) {
+                writeEscaped(writer, n.getNodeValue(), false);
+            }
+        }
+    }
+
+    private static void writeTag(Writer writer, Element element) throws IOException {
+        writer.write('<');
+        writer.write(element.getTagName());
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Node attribute = attributes.item(i);
+            writer.write(' ');
+            writer.write(attribute.getNodeName());
+            writer.write("=\"");
+            writeEscaped(writer, attribute.getNodeValue(), true);
+            writer.write('"');
+        }
+    }
+
+    private static void writeIndent(Writer writer, int depth) throws IOException {
+        writer.write(LINE_SEPARATOR);
+        for (int i = 0; i < depth; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private static void writeEscaped(Writer writer, String text, boolean isAttribute) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '&':
+                writer.write("&amp;");
+                break;
+            case '<':
+                writer.write("&lt;");
+                break;
+            case '>':
+                writer.write("&gt;");
+                break;
+            case '\r':
+                writer.write("&#13;");
+                break;
+            case '"':
+            case '\n':
+            case '\t':
+                if (isAttribute) {
+                    writer.write(c == '"' ? "&quot;" : "&#" + (int) c + ";");
+                } else {
+                    writer.write(c);
+                }
+                break;
+            default:
+                writer.write(c);
+            }
+        }
+    }
+
+    public static XMLStreamReader createReader(InputStream is) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory.createXMLStreamReader(is);
+    }
+
+    /**
+     * Creates a detached element with the name and attributes of the start tag the reader is at.
+     */
+    public static Element createElement(XMLStreamReader reader, Document document) {
+        Element result = document.createElement(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            result.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the whole element the reader is at into a detached element, leaving the reader at its end tag.
+     * Whitespace between child elements is dropped.
+     */
+    public static Element readElement(XMLStreamReader reader, Document document) throws XMLStreamException {
+        Element result = createElement(reader, document);
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                result.appendChild(readElement(reader, document));
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else {
+                appendText(reader, result);
+            }
+        }
+        return result;
+    }
+
+    public static void appendText(XMLStreamReader reader, Element element) {
+        if (reader.isCharacters() && !reader.isWhiteSpace()) {
+            element.appendChild(element.getOwnerDocument().createTextNode(reader.getText()));
+        } else if (reader.getEventType() == XMLStreamConstants.CDATA) {
+            element.appendChild(element.getOwnerDocument().createCDATASection(reader.getText()));
+        }
+    }
+
 }
@@ -0,0 +1,200 @@
+package org.workcraft.util.graph;
+
+import java.util.Arrays;
+
+/**
+ * Directed graph over the nodes 0..n-1 stored as an adjacency matrix whose rows are packed into 64-bit
+ * words, so that a whole row is merged into another by a few word operations. The transitive closure is
+ * computed by Warshall's algorithm in O(n^3/64). The transitive arcs are found on the graph condensed by
+ * its strongly connected components, which also makes the reduction well defined for cyclic graphs.
+ */
+public class BitsetGraph {
+
+    private final int size;
+    private final int words;
+    // Row i occupies words [i * words, (i + 1) * words).
+    private final long[] matrix;
+
+    public BitsetGraph(int size) {
+        this.size = size;
+        this.words = (size + 63) >>> 6;
+        this.matrix = new long[size * words];
+    }
+
+    private BitsetGraph(BitsetGraph other) {
+        this.size = other.size;
+        this.words = other.words;
+        this.matrix = other.matrix.clone();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public BitsetGraph copy() {
+        return new BitsetGraph(this);
+    }
+
+    public void addArc(int from, int to) {
+        matrix[from * words + (to >>> 6)] |= 1L << to;
+    }
+
+    public void removeArc(int from, int to) {
+        matrix[from * words + (to >>> 6)] &= ~(1L << to);
+    }
+
+    public boolean hasArc(int from, int to) {
+        return (matrix[from * words + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    public int getArcCount() {
+        int result = 0;
+        for (long word: matrix) {
+            result += Long.bitCount(word);
+        }
+        return result;
+    }
+
+    public boolean hasSelfLoops() {
+        for (int i = 0; i < size; i++) {
+            if (hasArc(i, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an arc from every node to each node reachable from it, i.e. turns the graph into its
+     * transitive closure. A node gets a self-loop if and only if it lies on a cycle.
+     */
+    public void closeTransitively() {
+        for (int k = 0; k < size; k++) {
+            int kWord = k >>> 6;
+            long kBit = 1L << k;
+            int kRow = k * words;
+            for (int i = 0; i < size; i++) {
+                int iRow = i * words;
+                if ((matrix[iRow + kWord] & kBit) != 0) {
+                    for (int w = 0; w < words; w++) {
+                        matrix[iRow + w] |= matrix[kRow + w];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the strongly connected component of each node. The components of two nodes
+     * are the same if and only if the nodes are mutually reachable.
+     */
+    public int[] getComponents() {
+        BitsetGraph closure = copy();
+        closure.closeTransitively();
+        return closure.getComponentsOfClosure();
+    }
+
+    private int[] getComponentsOfClosure() {
+        int[] result = new int[size];
+        Arrays.fill(result, -1);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (result[i] >= 0) {
+                continue;
+            }
+            result[i] = count;
+            int iRow = i * words;
+            for (int w = i >>> 6; w < words; w++) {
+                long word = matrix[iRow + w];
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if ((j > i) && hasArc(j, i)) {
+                        result[j] = count;
+                    }
+                }
+            }
+            count++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the arcs of this graph that are implied by other paths, so that removing all of them keeps the
+     * reachability. An arc is transitive if it connects two different strongly connected components and
+     * there is a path between them through a third component. The arcs within a component are never
+     * transitive, hence for an acyclic graph the result is the set of arcs (i, k) with a path from i to k
+     * of length at least two.
+     */
+    public BitsetGraph getTransitiveArcs() {
+        BitsetGraph closure = copy();
+        closure.closeTransitively();
+        int[] components = closure.getComponentsOfClosure();
+        int componentCount = 0;
+        int[] representatives = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (components[i] == componentCount) {
+                representatives[componentCount++] = i;
+            }
+        }
+        // Reachability between different components, taken from the closure of their representatives.
+        BitsetGraph reach = new BitsetGraph(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            int row = representatives[c] * words;
+            for (int w = 0; w < words; w++) {
+                long word = closure.matrix[row + w];
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (components[j] != c) {
+                        reach.addArc(c, components[j]);
+                    }
+                }
+            }
+        }
+        // The condensation is acyclic, so a path of length two or more passes through a third component.
+        BitsetGraph indirect = new BitsetGraph(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            int row = c * reach.words;
+            for (int w = 0; w < reach.words; w++) {
+                long word = reach.matrix[row + w];
+                while (word != 0) {
+                    int d = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int dRow = d * reach.words;
+                    for (int v = 0; v < reach.words; v++) {
+                        indirect.matrix[row + v] |= reach.matrix[dRow + v];
+                    }
+                }
+            }
+        }
+        BitsetGraph result = new BitsetGraph(size);
+        for (int i = 0; i < size; i++) {
+            int row = i * words;
+            for (int w = 0; w < words; w++) {
+                long word = matrix[row + w];
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (indirect.hasArc(components[i], components[j])) {
+                        result.addArc(i, j);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the graph without its transitive arcs, see {@link #getTransitiveArcs()}.
+     */
+    public BitsetGraph getTransitiveReduction() {
+        BitsetGraph result = copy();
+        BitsetGraph transitives = getTransitiveArcs();
+        for (int i = 0; i < result.matrix.length; i++) {
+            result.matrix[i] &= ~transitives.matrix[i];
+        }
+        return result;
+    }
+
+}
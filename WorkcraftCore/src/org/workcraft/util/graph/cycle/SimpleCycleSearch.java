@@ -0,0 +1,323 @@
+package org.workcraft.util.graph.cycle;
+
+import java.util.Arrays;
+
+/**
+ * Search of the elementary cycles of a directed graph given by the successor lists of its nodes. The graph
+ * is first split into strongly connected components (Tarjan's algorithm) and the cycles are enumerated by
+ * Johnson's algorithm within each non-trivial component only, so the nodes that do not belong to any cycle
+ * cost nothing beyond the decomposition. Both searches use explicit stacks, therefore long cycles do not
+ * exhaust the call stack. The cycles are not collected but passed to a visitor as soon as they are found,
+ * and the visitor may stop the search at any moment.
+ */
+public class SimpleCycleSearch {
+
+    public interface Visitor {
+        /**
+         * Receives a cycle as the first length nodes of the array, starting from its smallest node. The
+         * array is reused by the search and must be copied to be kept. Returns false to stop the search.
+         */
+        boolean visit(int[] cycle, int length);
+
+        /**
+         * Called as the search advances, where count is the number of nodes all the cycles through which
+         * are already reported. Returns false to stop the search.
+         */
+        boolean progress(int count);
+    }
+
+    // Working arrays of Tarjan's algorithm, allocated once for repeated decompositions.
+    private static final class Tarjan {
+        final int[][] successors;
+        final int[] index;
+        final int[] lowLink;
+        final int[] next;
+        final int[] callStack;
+        final int[] nodeStack;
+        final boolean[] onStack;
+
+        Tarjan(int[][] successors) {
+            int size = successors.length;
+            this.successors = successors;
+            index = new int[size];
+            lowLink = new int[size];
+            next = new int[size];
+            callStack = new int[size];
+            nodeStack = new int[size];
+            onStack = new boolean[size];
+        }
+
+        /**
+         * Numbers the components of the subgraph induced by the given nodes with id not less than minNode
+         * and (if filter is not null) with the filter value equal to filterValue. The numbers start from
+         * firstNumber in the reverse topological order; the next free number is returned.
+         */
+        int decompose(int[] nodes, int from, int to, int minNode, int[] filter, int filterValue,
+                int[] result, int firstNumber) {
+
+            for (int i = from; i < to; i++) {
+                int v = nodes[i];
+                index[v] = -1;
+                next[v] = 0;
+            }
+            int count = 0;
+            int number = firstNumber;
+            int nodeTop = 0;
+            for (int i = from; i < to; i++) {
+                int root = nodes[i];
+                if ((root < minNode) || (index[root] >= 0)) {
+                    continue;
+                }
+                int callTop = 0;
+                callStack[callTop++] = root;
+                index[root] = lowLink[root] = count++;
+                nodeStack[nodeTop++] = root;
+                onStack[root] = true;
+                while (callTop > 0) {
+                    int v = callStack[callTop - 1];
+                    int[] vSuccessors = successors[v];
+                    if (next[v] < vSuccessors.length) {
+                        int w = vSuccessors[next[v]++];
+                        if ((w < minNode) || ((filter != null) && (filter[w] != filterValue))) {
+                            continue;
+                        }
+                        if (index[w] < 0) {
+                            index[w] = lowLink[w] = count++;
+                            nodeStack[nodeTop++] = w;
+                            onStack[w] = true;
+                            callStack[callTop++] = w;
+                        } else if (onStack[w]) {
+                            lowLink[v] = Math.min(lowLink[v], index[w]);
+                        }
+                        continue;
+                    }
+                    callTop--;
+                    if (callTop > 0) {
+                        int u = callStack[callTop - 1];
+                        lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                    }
+                    if (lowLink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = nodeStack[--nodeTop];
+                            onStack[w] = false;
+                            result[w] = number;
+                        } while (w != v);
+                        number++;
+                    }
+                }
+            }
+            return number;
+        }
+    }
+
+    private final int[][] successors;
+    private final int size;
+    private final int[] components;
+
+    public SimpleCycleSearch(int[][] successors) {
+        this.successors = successors;
+        this.size = successors.length;
+        this.components = getComponents(successors);
+    }
+
+    /**
+     * Returns the strongly connected component of every node. Components are numbered in the reverse
+     * topological order, i.e. every arc leads to a component with the same or a smaller number.
+     */
+    public static int[] getComponents(int[][] successors) {
+        int size = successors.length;
+        int[] nodes = new int[size];
+        for (int v = 0; v < size; v++) {
+            nodes[v] = v;
+        }
+        int[] result = new int[size];
+        new Tarjan(successors).decompose(nodes, 0, size, 0, null, 0, result, 0);
+        return result;
+    }
+
+    public int getComponent(int node) {
+        return components[node];
+    }
+
+    /**
+     * Reports all the elementary cycles to the visitor. Returns false if the search was stopped by the
+     * visitor before completion.
+     */
+    public boolean search(Visitor visitor) {
+        // Nodes of each component, in ascending order.
+        int componentCount = 0;
+        for (int c: components) {
+            componentCount = Math.max(componentCount, c + 1);
+        }
+        int[] componentStart = new int[componentCount + 1];
+        for (int c: components) {
+            componentStart[c + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            componentStart[c + 1] += componentStart[c];
+        }
+        int[] componentNodes = new int[size];
+        int[] fill = Arrays.copyOf(componentStart, componentCount);
+        for (int v = 0; v < size; v++) {
+            componentNodes[fill[components[v]]++] = v;
+        }
+
+        Tarjan tarjan = new Tarjan(successors);
+        int[] subcomponents = new int[size];
+        int subcomponentNumber = 0;
+        boolean[] blocked = new boolean[size];
+        boolean[] closed = new boolean[size];
+        int[][] blockers = new int[size][];
+        int[] blockerCounts = new int[size];
+        int[] path = new int[size];
+        int[] next = new int[size];
+        int[] unblockStack = new int[size];
+        int processed = 0;
+        for (int c = 0; c < componentCount; c++) {
+            int from = componentStart[c];
+            int to = componentStart[c + 1];
+            int i = from;
+            if ((to - from == 1) && !hasSuccessor(componentNodes[from], componentNodes[from])) {
+                i = to;
+            }
+            while (i < to) {
+                // As in Johnson's algorithm, the start node is the least node in a non-trivial component of
+                // the subgraph induced by the remaining nodes; the nodes skipped over lie on no more cycles.
+                int first = subcomponentNumber;
+                subcomponentNumber = tarjan.decompose(componentNodes, i, to, componentNodes[i], components, c,
+                        subcomponents, subcomponentNumber);
+                int[] sizes = new int[subcomponentNumber - first];
+                for (int j = i; j < to; j++) {
+                    sizes[subcomponents[componentNodes[j]] - first]++;
+                }
+                while ((i < to) && (sizes[subcomponents[componentNodes[i]] - first] == 1)
+                        && !hasSuccessor(componentNodes[i], componentNodes[i])) {
+                    i++;
+                }
+                if (i == to) {
+                    break;
+                }
+                int s = componentNodes[i];
+                for (int j = i; j < to; j++) {
+                    int v = componentNodes[j];
+                    blocked[v] = false;
+                    closed[v] = false;
+                    blockerCounts[v] = 0;
+                }
+                if (!search(s, visitor, subcomponents, blocked, closed, blockers, blockerCounts, path, next, unblockStack)) {
+                    return false;
+                }
+                i++;
+                if (!visitor.progress(processed + i - from)) {
+                    return false;
+                }
+            }
+            processed += to - from;
+            if (!visitor.progress(processed)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Johnson's search of the cycles through s within the subcomponent of s.
+    private boolean search(int s, Visitor visitor, int[] subcomponents, boolean[] blocked, boolean[] closed,
+            int[][] blockers, int[] blockerCounts, int[] path, int[] next, int[] unblockStack) {
+
+        int subcomponent = subcomponents[s];
+        int length = 0;
+        path[length++] = s;
+        next[s] = 0;
+        blocked[s] = true;
+        while (length > 0) {
+            int v = path[length - 1];
+            int[] vSuccessors = successors[v];
+            if (next[v] < vSuccessors.length) {
+                int w = vSuccessors[next[v]++];
+                if (w == s) {
+                    if (!visitor.visit(path, length)) {
+                        return false;
+                    }
+                    // All the nodes on the path lead to a cycle and have to be unblocked when left.
+                    for (int i = 0; i < length; i++) {
+                        closed[path[i]] = true;
+                    }
+                } else if (isInSubcomponent(w, s, subcomponent, subcomponents) && !blocked[w]) {
+                    path[length++] = w;
+                    next[w] = 0;
+                    closed[w] = false;
+                    blocked[w] = true;
+                }
+                continue;
+            }
+            if (closed[v]) {
+                unblock(v, blocked, blockers, blockerCounts, unblockStack);
+            } else {
+                for (int w: vSuccessors) {
+                    if (isInSubcomponent(w, s, subcomponent, subcomponents)) {
+                        addBlocker(w, v, blockers, blockerCounts);
+                    }
+                }
+            }
+            length--;
+        }
+        return true;
+    }
+
+    private boolean isInSubcomponent(int node, int s, int subcomponent, int[] subcomponents) {
+        // Subcomponent numbers of the nodes preceding s and of the other components are stale.
+        return (node > s) && (components[node] == components[s]) && (subcomponents[node] == subcomponent);
+    }
+
+    private void unblock(int node, boolean[] blocked, int[][] blockers, int[] blockerCounts, int[] stack) {
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0) {
+            int v = stack[--top];
+            if (blocked[v]) {
+                blocked[v] = false;
+                for (int i = 0; i < blockerCounts[v]; i++) {
+                    int w = blockers[v][i];
+                    if (blocked[w]) {
+                        stack[top++] = w;
+                        // A node may be pushed once per blocker list it is in, but is unblocked only once.
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, 2 * top);
+                        }
+                    }
+                }
+                blockerCounts[v] = 0;
+            }
+        }
+    }
+
+    private void addBlocker(int node, int blocker, int[][] blockers, int[] blockerCounts) {
+        int count = blockerCounts[node];
+        int[] list = blockers[node];
+        for (int i = 0; i < count; i++) {
+            if (list[i] == blocker) {
+                return;
+            }
+        }
+        if (list == null) {
+            list = new int[2];
+            blockers[node] = list;
+        } else if (count == list.length) {
+            list = Arrays.copyOf(list, 2 * count);
+            blockers[node] = list;
+        }
+        list[count] = blocker;
+        blockerCounts[node] = count + 1;
+    }
+
+    private boolean hasSuccessor(int node, int successor) {
+        for (int w: successors[node]) {
+            if (w == successor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
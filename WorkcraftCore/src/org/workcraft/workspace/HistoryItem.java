@@ -0,0 +1,39 @@
+package org.workcraft.workspace;
+
+/**
+ * A state of the model in the undo/redo history. The state is kept as a memento
+ * (full checkpoint), or as a delta relative to its neighbour in the history, or both.
+ */
+public class HistoryItem {
+    private final Memento memento;
+    private final ModelDelta delta;
+
+    public HistoryItem(Memento memento, ModelDelta delta) {
+        this.memento = memento;
+        this.delta = delta;
+    }
+
+    public Memento getMemento() {
+        return memento;
+    }
+
+    public ModelDelta getDelta() {
+        return delta;
+    }
+
+    public boolean isCheckpoint() {
+        return memento != null;
+    }
+
+    public long getSize() {
+        long result = 0;
+        if (memento != null) {
+            result += memento.getSize();
+        }
+        if (delta != null) {
+            result += delta.getSize();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.workcraft.workspace;
+
+import java.awt.geom.AffineTransform;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.workcraft.dom.Container;
+import org.workcraft.dom.visual.Movable;
+import org.workcraft.dom.visual.VisualTransformableNode;
+import org.workcraft.observation.HierarchyEvent;
+import org.workcraft.observation.StateEvent;
+import org.workcraft.observation.StateSupervisor;
+import org.workcraft.observation.TransformChangedEvent;
+import org.workcraft.observation.TransformChangingEvent;
+
+/**
+ * Records the modifications of a visual model since the last history step.
+ * Changes of node transforms are kept as a reversible {@link ModelDelta}; any other
+ * modification makes the step irreversible, so it has to be restored from a memento.
+ */
+public class HistoryRecorder extends StateSupervisor {
+    private ModelDelta seedDelta = null;
+    private Memento snapshot = null;
+    private final Map<VisualTransformableNode, AffineTransform> beforeTransforms = new LinkedHashMap<>();
+    private final Map<Movable, AffineTransform> changingTransforms = new HashMap<>();
+    private boolean reversible = false;
+    private boolean suspended = false;
+    private int eventCount = 0;
+    private int modelModifiedCount = 0;
+
+    public void reset(ModelDelta delta, Memento memento) {
+        seedDelta = delta;
+        snapshot = memento;
+        beforeTransforms.clear();
+        changingTransforms.clear();
+        reversible = delta != null;
+        eventCount = 0;
+        modelModifiedCount = 0;
+    }
+
+    public void setSuspended(boolean value) {
+        suspended = value;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    public boolean isModified() {
+        return (eventCount > 0) || (modelModifiedCount > 0);
+    }
+
+    public boolean isReversible() {
+        // Model-level changes (e.g. title) are not observable on nodes and cannot be reverted.
+        return reversible && (modelModifiedCount <= eventCount);
+    }
+
+    /**
+     * Returns the delta from the previous history step to the current state of the model,
+     * or null if the modifications are irreversible.
+     */
+    public ModelDelta getDelta() {
+        if (!isReversible()) {
+            return null;
+        }
+        ModelDelta result = new ModelDelta(seedDelta);
+        if (!beforeTransforms.isEmpty()) {
+            result.addTransforms(getRoot(), beforeTransforms);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the memento of the current state of the model if it is still valid.
+     */
+    public Memento getSnapshot() {
+        return isModified() ? null : snapshot;
+    }
+
+    public void setSnapshot(Memento memento) {
+        if (!isModified()) {
+            snapshot = memento;
+        }
+    }
+
+    public void modelModified() {
+        if (!suspended) {
+            modelModifiedCount++;
+        }
+    }
+
+    @Override
+    public void handleHierarchyEvent(HierarchyEvent e) {
+        if (!suspended) {
+            eventCount++;
+            reversible = false;
+        }
+    }
+
+    @Override
+    public void handleEvent(StateEvent e) {
+        if (suspended) {
+            return;
+        }
+        eventCount++;
+        if (!reversible) {
+            return;
+        }
+        if (e instanceof TransformChangingEvent) {
+            Movable sender = ((TransformChangingEvent) e).getSender();
+            if (sender instanceof VisualTransformableNode) {
+                AffineTransform transform = new AffineTransform(sender.getTransform());
+                changingTransforms.put(sender, transform);
+                VisualTransformableNode node = (VisualTransformableNode) sender;
+                if (!beforeTransforms.containsKey(node)) {
+                    beforeTransforms.put(node, transform);
+                }
+            } else {
+                reversible = false;
+            }
+        } else if (e instanceof TransformChangedEvent) {
+            Movable sender = ((TransformChangedEvent) e).getSender();
+            AffineTransform transform = changingTransforms.remove(sender);
+            // Groups and pages also use transform events for changing collapsed state and current level.
+            if ((transform == null) || ((sender instanceof Container) && transform.equals(sender.getTransform()))) {
+                reversible = false;
+            }
+        } else {
+            reversible = false;
+        }
+    }
+
+}
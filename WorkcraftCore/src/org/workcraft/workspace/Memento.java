@@ -13,4 +13,8 @@ public class Memento {
     public InputStream getStream() {
         return new ByteArrayInputStream(data);
     }
+
+    public int getSize() {
+        return data.length;
+    }
 }
@@ -1,55 +1,113 @@
 package org.workcraft.workspace;
 
-import java.util.Stack;
+import java.util.Iterator;
+import java.util.LinkedList;
 
 public class MementoManager {
-    private final Stack<Memento> undoStack = new Stack<>();
-    private final Stack<Memento> redoStack = new Stack<>();
+    // The top of the stacks is at the head of the lists.
+    private final LinkedList<HistoryItem> undoStack = new LinkedList<>();
+    private final LinkedList<HistoryItem> redoStack = new LinkedList<>();
 
-    public void pushUndo(Memento memento) {
-        this.undoStack.push(memento);
+    public void pushUndo(HistoryItem item) {
+        undoStack.push(item);
     }
 
-    public Memento pullUndo() {
+    public HistoryItem pullUndo() {
         return undoStack.pop();
     }
 
     public boolean canUndo() {
-        return !undoStack.empty();
+        return !undoStack.isEmpty();
     }
 
-    public void pushRedo(Memento memento) {
-        this.redoStack.push(memento);
+    public void pushRedo(HistoryItem item) {
+        redoStack.push(item);
     }
 
-    public Memento pullRedo() {
+    public HistoryItem pullRedo() {
         return redoStack.pop();
     }
 
     public boolean canRedo() {
-        return !redoStack.empty();
+        return !redoStack.isEmpty();
     }
 
-    public Memento undo(Memento memento) {
-        Memento result = null;
-        if (canUndo()) {
-            result = pullUndo();
-            pushRedo(memento);
+    public void clearRedo() {
+        redoStack.clear();
+    }
+
+    /**
+     * Checks if the next history item should be a full checkpoint, i.e. there is no item to build a delta upon,
+     * or the number of deltas since the last checkpoint reached the given interval.
+     */
+    public boolean needsCheckpoint(int checkpointInterval) {
+        int count = 0;
+        for (HistoryItem item: undoStack) {
+            if (item.isCheckpoint()) {
+                return false;
+            }
+            if (++count >= checkpointInterval) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the items required to restore the given item, starting from the nearest checkpoint.
+     * The item is either on top of the undo stack or was captured on top of it.
+     */
+    public LinkedList<HistoryItem> getRestoreChain(HistoryItem item) {
+        LinkedList<HistoryItem> result = new LinkedList<>();
+        result.push(item);
+        if (!item.isCheckpoint()) {
+            Iterator<HistoryItem> iterator = undoStack.iterator();
+            if (iterator.hasNext() && (iterator.next() != item)) {
+                iterator = undoStack.iterator();
+            }
+            while (iterator.hasNext() && !result.peek().isCheckpoint()) {
+                result.push(iterator.next());
+            }
         }
         return result;
     }
 
-    public Memento redo(Memento memento) {
-        Memento result = null;
-        if (canRedo()) {
-            result = pullRedo();
-            pushUndo(memento);
+    public long getSize() {
+        long result = 0;
+        for (HistoryItem item: undoStack) {
+            result += item.getSize();
+        }
+        for (HistoryItem item: redoStack) {
+            result += item.getSize();
         }
         return result;
     }
 
-    public void clearRedo() {
-        redoStack.clear();
+    /**
+     * Drops the oldest history items until the history fits into the memory limit. Undo items are removed
+     * together with their dependent deltas, so the bottom of the undo stack always remains a checkpoint.
+     * The most recent checkpoint and the deltas on top of it are never dropped; the redo items go next.
+     */
+    public void trim(long memoryLimit) {
+        long size = getSize();
+        while ((size > memoryLimit) && (countCheckpoints() > 1)) {
+            do {
+                size -= undoStack.removeLast().getSize();
+            } while (!undoStack.getLast().isCheckpoint());
+        }
+        while ((size > memoryLimit) && !redoStack.isEmpty()) {
+            size -= redoStack.removeLast().getSize();
+        }
+    }
+
+    private int countCheckpoints() {
+        int result = 0;
+        for (HistoryItem item: undoStack) {
+            if (item.isCheckpoint()) {
+                result++;
+            }
+        }
+        return result;
     }
 
 }
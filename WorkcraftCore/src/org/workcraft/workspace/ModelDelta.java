@@ -0,0 +1,171 @@
+package org.workcraft.workspace;
+
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.workcraft.dom.Node;
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.dom.visual.VisualTransformableNode;
+
+/**
+ * Invertible sequence of node transform changes. Nodes are identified by the
+ * path of child indices from the model root, so a delta recorded on one instance
+ * of a model can be replayed on its deserialised copy.
+ */
+public class ModelDelta {
+    private static final int OPERATION_SIZE = 160;
+
+    private final List<TransformOperation> operations = new ArrayList<>();
+
+    private static final class TransformOperation {
+        public final int[] path;
+        public final Class<?> type;
+        public final AffineTransform before;
+        public final AffineTransform after;
+
+        TransformOperation(int[] path, Class<?> type, AffineTransform before, AffineTransform after) {
+            this.path = path;
+            this.type = type;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    public ModelDelta() {
+    }
+
+    public ModelDelta(ModelDelta delta) {
+        append(delta);
+    }
+
+    public void append(ModelDelta delta) {
+        if (delta != null) {
+            operations.addAll(delta.operations);
+        }
+    }
+
+    public void addTransforms(Node root, Map<VisualTransformableNode, AffineTransform> beforeTransforms) {
+        PathBuilder builder = new PathBuilder(root);
+        for (Map.Entry<VisualTransformableNode, AffineTransform> entry: beforeTransforms.entrySet()) {
+            VisualTransformableNode node = entry.getKey();
+            AffineTransform before = entry.getValue();
+            AffineTransform after = node.getTransform();
+            if (!before.equals(after)) {
+                int[] path = builder.build(node);
+                if (path != null) {
+                    operations.add(new TransformOperation(path, node.getClass(),
+                            new AffineTransform(before), new AffineTransform(after)));
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    public long getSize() {
+        return (long) operations.size() * OPERATION_SIZE;
+    }
+
+    public void undo(VisualModel model) {
+        NodeResolver resolver = new NodeResolver(model.getRoot());
+        Map<VisualTransformableNode, AffineTransform> targets = new LinkedHashMap<>();
+        for (int i = operations.size() - 1; i >= 0; i--) {
+            TransformOperation operation = operations.get(i);
+            targets.put(resolver.resolve(operation), operation.before);
+        }
+        applyTransforms(targets);
+    }
+
+    public void redo(VisualModel model) {
+        NodeResolver resolver = new NodeResolver(model.getRoot());
+        Map<VisualTransformableNode, AffineTransform> targets = new LinkedHashMap<>();
+        for (TransformOperation operation: operations) {
+            targets.put(resolver.resolve(operation), operation.after);
+        }
+        applyTransforms(targets);
+    }
+
+    private static void applyTransforms(Map<VisualTransformableNode, AffineTransform> targets) {
+        for (Map.Entry<VisualTransformableNode, AffineTransform> entry: targets.entrySet()) {
+            entry.getKey().setTransform(entry.getValue());
+        }
+        // Moving a component may drag its connection control points along, so restore those that have been shifted.
+        for (Map.Entry<VisualTransformableNode, AffineTransform> entry: targets.entrySet()) {
+            VisualTransformableNode node = entry.getKey();
+            if (!node.getTransform().equals(entry.getValue())) {
+                node.setTransform(entry.getValue());
+            }
+        }
+    }
+
+    private static final class PathBuilder {
+        private final Node root;
+        private final Map<Node, Map<Node, Integer>> indexCache = new HashMap<>();
+
+        PathBuilder(Node root) {
+            this.root = root;
+        }
+
+        public int[] build(Node node) {
+            ArrayList<Integer> indices = new ArrayList<>();
+            while (node != root) {
+                Node parent = node.getParent();
+                if (parent == null) {
+                    return null;
+                }
+                Map<Node, Integer> childToIndex = indexCache.get(parent);
+                if (childToIndex == null) {
+                    childToIndex = new HashMap<>();
+                    int index = 0;
+                    for (Node child: parent.getChildren()) {
+                        childToIndex.put(child, index++);
+                    }
+                    indexCache.put(parent, childToIndex);
+                }
+                indices.add(childToIndex.get(node));
+                node = parent;
+            }
+            int[] result = new int[indices.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = indices.get(result.length - 1 - i);
+            }
+            return result;
+        }
+    }
+
+    private static final class NodeResolver {
+        private final Node root;
+        private final Map<Node, List<Node>> childrenCache = new HashMap<>();
+
+        NodeResolver(Node root) {
+            this.root = root;
+        }
+
+        public VisualTransformableNode resolve(TransformOperation operation) {
+            Node node = root;
+            for (int index: operation.path) {
+                List<Node> children = childrenCache.get(node);
+                if (children == null) {
+                    children = new ArrayList<>(node.getChildren());
+                    childrenCache.put(node, children);
+                }
+                if (index >= children.size()) {
+                    throw new RuntimeException("Cannot resolve node of class '" + operation.type.getName() + "' in the model history.");
+                }
+                node = children.get(index);
+            }
+            if (node.getClass() != operation.type) {
+                throw new RuntimeException("Node of class '" + operation.type.getName()
+                        + "' is expected in the model history, but '" + node.getClass().getName() + "' is found.");
+            }
+            return (VisualTransformableNode) node;
+        }
+    }
+
+}
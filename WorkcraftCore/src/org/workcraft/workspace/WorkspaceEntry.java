@@ -11,6 +11,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -32,18 +33,21 @@ import org.workcraft.observation.ObservableStateImpl;
 import org.workcraft.observation.StateEvent;
 import org.workcraft.observation.StateObserver;
 import org.workcraft.plugins.shared.CommonDebugSettings;
+import org.workcraft.plugins.shared.CommonEditorSettings;
 import org.workcraft.util.Hierarchy;
+import org.workcraft.util.LogUtils;
 
 public class WorkspaceEntry implements ObservableState {
     private ModelEntry modelEntry = null;
     private boolean changed = true;
     private final Workspace workspace;
     private final MementoManager history = new MementoManager();
+    private final HistoryRecorder recorder = new HistoryRecorder();
     private boolean canSelect = true;
     private boolean canModify = true;
     private boolean canCopy = true;
-    private Memento capturedMemento = null;
-    private Memento savedMemento = null;
+    private HistoryItem capturedItem = null;
+    private HistoryItem savedItem = null;
 
     public WorkspaceEntry(Workspace workspace) {
         this.workspace = workspace;
@@ -53,7 +57,7 @@ public class WorkspaceEntry implements ObservableState {
         if (this.changed != changed) {
             this.changed = changed;
             if (changed == false) {
-                savedMemento = null;
+                savedItem = null;
             }
             if (workspace != null) {
                 workspace.fireEntryChanged(this);
@@ -78,6 +82,7 @@ public class WorkspaceEntry implements ObservableState {
         @Override
         public void notify(StateEvent e) {
             if (e instanceof ModelModifiedEvent) {
+                recorder.modelModified();
                 setChanged(true);
             }
             observableState.sendNotification(e);
@@ -90,6 +95,7 @@ public class WorkspaceEntry implements ObservableState {
                 this.modelEntry.getVisualModel().removeObserver(modelObserver);
             }
         }
+        recorder.detach();
         this.modelEntry = modelEntry;
 
         observableState.sendNotification(new StateEvent() {
@@ -101,7 +107,10 @@ public class WorkspaceEntry implements ObservableState {
 
         if (this.modelEntry.isVisual()) {
             this.modelEntry.getVisualModel().addObserver(modelObserver);
+            recorder.attach(this.modelEntry.getVisualModel().getRoot());
         }
+        // Relation of the new model to the history is unknown, unless restored from the history.
+        recorder.reset(null, null);
     }
 
     public boolean isWork() {
@@ -195,77 +204,168 @@ public class WorkspaceEntry implements ObservableState {
     }
 
     public void captureMemento() {
-        final Framework framework = Framework.getInstance();
-        capturedMemento = framework.saveModel(modelEntry);
+        HistoryItem item = createHistoryItem(history.needsCheckpoint(CommonEditorSettings.getHistoryCheckpointInterval()));
+        if (capturedItem != null) {
+            // Repeated capture - the new item follows the previously captured one rather than the top of the history.
+            item = mergeHistoryItems(capturedItem, item);
+        }
+        capturedItem = item;
         if (changed == false) {
-            savedMemento = capturedMemento;
+            savedItem = capturedItem;
         }
+        recorder.reset(new ModelDelta(), capturedItem.getMemento());
 
         if (CommonDebugSettings.getCopyModelOnChange()) {
+            Memento memento = capturedItem.getMemento();
+            if (memento == null) {
+                final Framework framework = Framework.getInstance();
+                memento = framework.saveModel(modelEntry);
+            }
             Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-            String str = unzipInputStream(new ZipInputStream(capturedMemento.getStream()));
+            String str = unzipInputStream(new ZipInputStream(memento.getStream()));
             clipboard.setContents(new StringSelection(str), null);
         }
     }
 
     public void cancelMemento() {
-        final Framework framework = Framework.getInstance();
-        if (capturedMemento != null) {
-            setModelEntry(framework.loadModel(capturedMemento));
-            setChanged(savedMemento != capturedMemento);
+        if (capturedItem != null) {
+            restoreHistoryItem(capturedItem, recorder.getDelta());
+            recorder.reset(capturedItem.getDelta(), capturedItem.getMemento());
+            setChanged(savedItem != capturedItem);
         }
-        capturedMemento = null;
+        capturedItem = null;
     }
 
     public void saveMemento() {
-        Memento currentMemento = capturedMemento;
-        capturedMemento = null;
-        if (currentMemento == null) {
-            final Framework framework = Framework.getInstance();
-            currentMemento = framework.saveModel(modelEntry);
+        HistoryItem item = capturedItem;
+        capturedItem = null;
+        if (item == null) {
+            item = createHistoryItem(history.needsCheckpoint(CommonEditorSettings.getHistoryCheckpointInterval()));
+            recorder.reset(new ModelDelta(), item.getMemento());
         }
         if (changed == false) {
-            savedMemento = currentMemento;
+            savedItem = item;
         }
-        history.pushUndo(currentMemento);
+        history.pushUndo(item);
         history.clearRedo();
+        trimHistory();
         updateActionState();
     }
 
     public void undo() {
         if (history.canUndo()) {
-            Memento undoMemento = history.pullUndo();
-            if (undoMemento != null) {
-                final Framework framework = Framework.getInstance();
-                Memento currentMemento = framework.saveModel(modelEntry);
-                if (changed == false) {
-                    savedMemento = currentMemento;
-                }
-                history.pushRedo(currentMemento);
-                setModelEntry(framework.loadModel(undoMemento));
-                setChanged(undoMemento != savedMemento);
+            HistoryItem undoItem = history.pullUndo();
+            HistoryItem redoItem = createHistoryItem(false);
+            if (changed == false) {
+                savedItem = redoItem;
             }
+            history.pushRedo(redoItem);
+            restoreHistoryItem(undoItem, redoItem.getDelta());
+            recorder.reset(undoItem.getDelta(), undoItem.getMemento());
+            setChanged(undoItem != savedItem);
+            trimHistory();
         }
         updateActionState();
     }
 
     public void redo() {
         if (history.canRedo()) {
-            Memento redoMemento = history.pullRedo();
-            if (redoMemento != null) {
+            HistoryItem redoItem = history.pullRedo();
+            HistoryItem undoItem = createHistoryItem(history.needsCheckpoint(CommonEditorSettings.getHistoryCheckpointInterval()));
+            if (changed == false) {
+                savedItem = undoItem;
+            }
+            history.pushUndo(undoItem);
+            ModelDelta redoDelta = redoItem.getDelta();
+            if (redoDelta != null) {
+                applyDelta(redoDelta, false);
+            } else {
                 final Framework framework = Framework.getInstance();
-                Memento currentMemento = framework.saveModel(modelEntry);
-                if (changed == false) {
-                    savedMemento = currentMemento;
-                }
-                history.pushUndo(currentMemento);
-                setModelEntry(framework.loadModel(redoMemento));
-                setChanged(redoMemento != savedMemento);
+                setModelEntry(framework.loadModel(redoItem.getMemento()));
             }
+            recorder.reset(redoDelta, redoItem.getMemento());
+            setChanged(redoItem != savedItem);
+            trimHistory();
         }
         updateActionState();
     }
 
+    /**
+     * Creates a history item for the current state of the model relative to the last history step.
+     * The model is only serialised if its modifications are irreversible or a checkpoint is due.
+     */
+    private HistoryItem createHistoryItem(boolean forceCheckpoint) {
+        ModelDelta delta = recorder.getDelta();
+        Memento memento = recorder.getSnapshot();
+        if ((memento == null) && ((delta == null) || forceCheckpoint)) {
+            final Framework framework = Framework.getInstance();
+            memento = framework.saveModel(modelEntry);
+            recorder.setSnapshot(memento);
+        }
+        return new HistoryItem(memento, delta);
+    }
+
+    private HistoryItem mergeHistoryItems(HistoryItem first, HistoryItem second) {
+        ModelDelta delta = null;
+        if ((first.getDelta() != null) && (second.getDelta() != null)) {
+            delta = new ModelDelta(first.getDelta());
+            delta.append(second.getDelta());
+        }
+        Memento memento = second.getMemento();
+        if ((memento == null) && (delta == null)) {
+            final Framework framework = Framework.getInstance();
+            memento = framework.saveModel(modelEntry);
+        }
+        return new HistoryItem(memento, delta);
+    }
+
+    /**
+     * Brings the model back to the state of the given history item, either by reverting
+     * the delta of the current modifications or by loading the nearest checkpoint.
+     */
+    private void restoreHistoryItem(HistoryItem item, ModelDelta currentDelta) {
+        if (currentDelta != null) {
+            applyDelta(currentDelta, true);
+        } else {
+            setModelEntry(loadHistoryItem(item));
+        }
+    }
+
+    private ModelEntry loadHistoryItem(HistoryItem item) {
+        final Framework framework = Framework.getInstance();
+        LinkedList<HistoryItem> chain = history.getRestoreChain(item);
+        HistoryItem checkpoint = chain.removeFirst();
+        if (!checkpoint.isCheckpoint()) {
+            throw new RuntimeException("Model history has no checkpoint to restore from.");
+        }
+        ModelEntry result = framework.loadModel(checkpoint.getMemento());
+        try {
+            for (HistoryItem chainItem: chain) {
+                chainItem.getDelta().redo(result.getVisualModel());
+            }
+        } catch (RuntimeException e) {
+            LogUtils.logErrorLine("Model history cannot be fully restored: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void applyDelta(ModelDelta delta, boolean isUndo) {
+        recorder.setSuspended(true);
+        try {
+            if (isUndo) {
+                delta.undo(modelEntry.getVisualModel());
+            } else {
+                delta.redo(modelEntry.getVisualModel());
+            }
+        } finally {
+            recorder.setSuspended(false);
+        }
+    }
+
+    private void trimHistory() {
+        history.trim(CommonEditorSettings.getHistoryMemoryLimit() * 1024L * 1024L);
+    }
+
     public void insert(ModelEntry me) {
         final Framework framework = Framework.getInstance();
         try {
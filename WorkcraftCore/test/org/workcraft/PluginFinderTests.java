@@ -0,0 +1,56 @@
+package org.workcraft;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.exceptions.PluginInstantiationException;
+import org.workcraft.plugins.BuiltinTools;
+import org.workcraft.util.FileUtils;
+
+public class PluginFinderTests {
+
+    @Test
+    public void testSearchIndex() throws IOException, PluginInstantiationException {
+        File dir = FileUtils.createTempDirectory("workcraft-index");
+        try {
+            Assert.assertNull(PluginFinder.searchIndex(dir));
+
+            File indexFile = new File(dir, PluginFinder.INDEX_PATH);
+            indexFile.getParentFile().mkdirs();
+            FileUtils.writeAllText(indexFile, "# Modules\n"
+                    + BuiltinTools.class.getName() + "\n"
+                    + "\n"
+                    + String.class.getName() + " # not a plugin\n"
+                    + "org.workcraft.plugins.MissingModule\n");
+
+            List<Class<?>> classes = PluginFinder.searchIndex(dir);
+            Assert.assertEquals(1, classes.size());
+            Assert.assertEquals(BuiltinTools.class, classes.get(0));
+        } finally {
+            FileUtils.deleteOnExitRecursively(dir);
+        }
+    }
+
+    @Test
+    public void testLazyInstance() {
+        final int[] count = {0};
+        PluginManager.PluginInstanceHolder<Object> holder = new PluginManager.PluginInstanceHolder<>(
+                new Initialiser<Object>() {
+                    @Override
+                    public Object create() {
+                        count[0]++;
+                        return new Object();
+                    }
+                }, Object.class.getName());
+
+        Assert.assertEquals(Object.class.getName(), holder.getClassName());
+        Assert.assertEquals(0, count[0]);
+        Object instance = holder.getSingleton();
+        Assert.assertSame(instance, holder.getSingleton());
+        Assert.assertEquals(1, count[0]);
+    }
+
+}
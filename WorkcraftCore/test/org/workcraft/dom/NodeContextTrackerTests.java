@@ -1,8 +1,13 @@
 package org.workcraft.dom;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Set;
 
 import org.junit.Test;
@@ -185,4 +190,74 @@ public class NodeContextTrackerTests {
         assertTrue(nct.getPostset(n3).isEmpty());
     }
 
+    @Test
+    public void testParallelConnections() {
+        MathGroup group = new MathGroup();
+
+        NodeContextTracker nct = new NodeContextTracker();
+        nct.attach(group);
+
+        MockNode n1 = new MockNode();
+        MockNode n2 = new MockNode();
+        group.add(n1);
+        group.add(n2);
+
+        MathConnection con1 = new MathConnection(n1, n2);
+        MathConnection con2 = new MathConnection(n1, n2);
+        group.add(con1);
+        group.add(con2);
+
+        assertEquals(nct.getPostset(n1).size(), 1);
+        assertEquals(nct.getConnections(n1).size(), 2);
+        assertSame(nct.getConnection(n1, n2), con1);
+        assertNull(nct.getConnection(n2, n1));
+
+        group.remove(con1);
+        assertTrue(nct.hasConnection(n1, n2));
+        assertSame(nct.getConnection(n1, n2), con2);
+
+        group.remove(con2);
+        assertFalse(nct.hasConnection(n1, n2));
+        assertTrue(nct.getConnections(n2).isEmpty());
+    }
+
+    @Test
+    public void testManyNodes() {
+        MathGroup group = new MathGroup();
+
+        NodeContextTracker nct = new NodeContextTracker();
+        nct.attach(group);
+
+        ArrayList<MockNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            MockNode node = new MockNode();
+            group.add(node);
+            nodes.add(node);
+        }
+        Set<Node> preset = nct.getPreset(nodes.get(1));
+        for (int i = 1; i < nodes.size(); i++) {
+            group.add(new MathConnection(nodes.get(i - 1), nodes.get(i)));
+        }
+        // Views are live and stay valid as the tracker grows.
+        assertEquals(Arrays.asList(nodes.get(0)), new ArrayList<>(preset));
+
+        // Removing every other node leaves the remaining ones reachable.
+        for (int i = 0; i < nodes.size(); i += 2) {
+            group.remove(nodes.get(i));
+        }
+        for (int i = 1; i < nodes.size(); i += 2) {
+            MockNode node = nodes.get(i);
+            assertTrue(nct.getPreset(node).isEmpty());
+            assertTrue(nct.getPostset(node).isEmpty());
+            assertEquals(nct.getConnections(node).size(), (i + 1 < nodes.size()) ? 2 : 1);
+        }
+        assertTrue(preset.isEmpty());
+        // Ids of the removed nodes are reused.
+        MockNode n1 = new MockNode();
+        group.add(n1);
+        group.add(new MathConnection(nodes.get(1), n1));
+        assertEquals(Arrays.asList(n1), new ArrayList<>(nct.getPostset(nodes.get(1))));
+        assertTrue(nct.getPreset(nodes.get(0)).isEmpty());
+    }
+
 }
@@ -0,0 +1,120 @@
+package org.workcraft.dom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.workcraft.dom.math.MathGroup;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.util.Hierarchy;
+
+public class NodeTypeIndexTests {
+
+    class MockNode extends MathNode {
+
+    }
+
+    class OtherMockNode extends MockNode {
+
+    }
+
+    @Test
+    public void testIndex() {
+        MathGroup root = new MathGroup();
+        MockNode n1 = new MockNode();
+        OtherMockNode n2 = new OtherMockNode();
+        root.add(n1);
+
+        NodeTypeIndex index = new NodeTypeIndex();
+        index.attach(root);
+        assertSame(index, NodeTypeIndex.getIndex(root));
+
+        MathGroup group = new MathGroup();
+        MockNode n3 = new MockNode();
+        group.add(n3);
+        root.add(n2);
+        root.add(group);
+
+        assertEquals(Arrays.asList(n1, n2, n3), new ArrayList<>(index.getNodes(MockNode.class)));
+        assertEquals(Arrays.asList(n2), new ArrayList<>(index.getNodes(OtherMockNode.class)));
+        assertEquals(Arrays.asList(n1, n2, group, n3), new ArrayList<>(Hierarchy.getDescendantsOfType(root, Node.class)));
+
+        // Subtrees are still scanned
+        assertEquals(Arrays.asList(n3), new ArrayList<>(Hierarchy.getDescendantsOfType(group, MockNode.class)));
+
+        root.remove(group);
+        assertEquals(Arrays.asList(n1, n2), new ArrayList<>(index.getNodes(MockNode.class)));
+        assertTrue(index.getNodes(MathGroup.class).isEmpty());
+
+        root.reparent(Arrays.<Node>asList(n2), group);
+        assertEquals(Arrays.asList(n1), new ArrayList<>(index.getNodes(MockNode.class)));
+    }
+
+    @Test
+    public void testNestedGroupOrder() {
+        MathGroup indexedRoot = createNestedGroups(true);
+        MathGroup plainRoot = createNestedGroups(false);
+        assertNull(NodeTypeIndex.getIndex(plainRoot));
+        // The index keeps the insertion order, the scan puts children after their own descendants
+        assertEquals(Arrays.asList("outer", "other", "middle", "inner"),
+                getNames(Hierarchy.getDescendantsOfType(indexedRoot, MathGroup.class)));
+        assertEquals(Arrays.asList("inner", "middle", "outer", "other"),
+                getNames(Hierarchy.getDescendantsOfType(plainRoot, MathGroup.class)));
+        // Either way inner groups precede outer ones once sorted bottom-up, e.g. for converting groups
+        ArrayList<MathGroup> groups = new ArrayList<>(Hierarchy.getDescendantsOfType(indexedRoot, MathGroup.class));
+        Hierarchy.sortBottomUp(groups);
+        assertEquals(Arrays.asList("inner", "middle", "outer", "other"), getNames(groups));
+    }
+
+    class NamedGroup extends MathGroup {
+        final String name;
+
+        NamedGroup(String name) {
+            this.name = name;
+        }
+    }
+
+    class NamedNode extends MockNode {
+        final String name;
+
+        NamedNode(String name) {
+            this.name = name;
+        }
+    }
+
+    private MathGroup createNestedGroups(boolean indexed) {
+        // Groups are filled after being added, so the insertion order differs from the scan order
+        MathGroup root = new MathGroup();
+        if (indexed) {
+            new NodeTypeIndex().attach(root);
+        }
+        NamedGroup outer = new NamedGroup("outer");
+        NamedGroup other = new NamedGroup("other");
+        NamedGroup middle = new NamedGroup("middle");
+        NamedGroup inner = new NamedGroup("inner");
+        root.add(new NamedNode("a"));
+        root.add(outer);
+        root.add(other);
+        outer.add(new NamedNode("b"));
+        outer.add(middle);
+        middle.add(inner);
+        inner.add(new NamedNode("c"));
+        other.add(new NamedNode("d"));
+        root.add(new NamedNode("e"));
+        return root;
+    }
+
+    private static ArrayList<String> getNames(Iterable<? extends Node> nodes) {
+        ArrayList<String> result = new ArrayList<>();
+        for (Node node : nodes) {
+            result.add((node instanceof NamedGroup) ? ((NamedGroup) node).name : ((NamedNode) node).name);
+        }
+        return result;
+    }
+
+}
@@ -566,6 +566,35 @@ public class VisualModelTests {
         Assert.assertEquals(0, boxHitTest(model, new Rectangle2D.Double(-0.01, 4.99, 1.02, 1.02)).size());
     }
 
+    @Test
+    public void testHitAfterModification() {
+        VisualModel model = createModel();
+
+        VisualGroup root = (VisualGroup) model.getRoot();
+        SquareNode sq1 = new SquareNode(root, new Rectangle2D.Double(-0.5, -0.5, 1, 1));
+        root.add(sq1);
+        SquareNode sq2 = new SquareNode(root, new Rectangle2D.Double(-0.5, -0.5, 1, 1));
+        root.add(sq2);
+        sq2.setX(10);
+
+        Assert.assertEquals(sq1, HitMan.hitTestCurrentLevelFirst(new Point2D.Double(0.0, 0.0), model));
+        Assert.assertEquals(sq2, HitMan.hitTestCurrentLevelFirst(new Point2D.Double(10.0, 0.0), model));
+        Assert.assertNull(HitMan.hitTestCurrentLevelFirst(new Point2D.Double(20.0, 0.0), model));
+
+        sq2.setX(20);
+        Assert.assertNull(HitMan.hitTestCurrentLevelFirst(new Point2D.Double(10.0, 0.0), model));
+        Assert.assertEquals(sq2, HitMan.hitTestCurrentLevelFirst(new Point2D.Double(20.0, 0.0), model));
+        Assert.assertEquals(1, boxHitTest(model, new Rectangle2D.Double(19.0, -1.0, 2.0, 2.0)).size());
+
+        // The topmost node is hit when nodes overlap.
+        sq1.setX(20);
+        Assert.assertEquals(sq2, HitMan.hitTestCurrentLevelFirst(new Point2D.Double(20.0, 0.0), model));
+        Assert.assertEquals(2, boxHitTest(model, new Rectangle2D.Double(19.0, -1.0, 2.0, 2.0)).size());
+
+        root.remove(sq2);
+        Assert.assertEquals(sq1, HitMan.hitTestCurrentLevelFirst(new Point2D.Double(20.0, 0.0), model));
+    }
+
     private Collection<Node> boxHitTest(VisualModel model, Rectangle2D.Double rect) {
         Point2D.Double p1 = new Point2D.Double(rect.getMinX(), rect.getMinY());
         Point2D.Double p2 = new Point2D.Double(rect.getMaxX(), rect.getMaxY());
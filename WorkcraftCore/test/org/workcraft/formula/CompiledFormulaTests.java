@@ -0,0 +1,111 @@
+package org.workcraft.formula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.formula.utils.BooleanUtils;
+
+public class CompiledFormulaTests {
+
+    private final BooleanVariable a = new FreeVariable("a");
+    private final BooleanVariable b = new FreeVariable("b");
+    private final BooleanVariable c = new FreeVariable("c");
+
+    @Test
+    public void testEvaluation() {
+        BooleanFormula f = BooleanOperations.or(BooleanOperations.and(a, b), BooleanOperations.not(c));
+        CompiledFormula compiled = new CompiledFormula(f, Arrays.asList(a, b, c));
+        Assert.assertTrue(compiled.evaluate(true, true, true));
+        Assert.assertFalse(compiled.evaluate(true, false, true));
+        Assert.assertTrue(compiled.evaluate(false, false, false));
+        // Vectors 0 and 1 set all the inputs to 1 and 0 respectively, and vector 2 sets only a.
+        long result = compiled.evaluate(new long[] {0x5L, 0x1L, 0x1L});
+        Assert.assertEquals(0x7L, result & 0x7L);
+        Assert.assertEquals(0x8FL, compiled.getTruthTable()[0]);
+
+        CompiledFormula constant = new CompiledFormula(BooleanOperations.and(Literal.ONE, a));
+        Assert.assertEquals(Arrays.asList(a), constant.getVariables());
+        Assert.assertEquals(0x2L, constant.getTruthTable()[0]);
+    }
+
+    @Test
+    public void testSharing() {
+        BooleanFormula shared = new Xor(a, b);
+        BooleanFormula f = new And(shared, new Or(shared, c));
+        // Loads of a, b and c, the shared xor, the or and the and.
+        Assert.assertEquals(6, new CompiledFormula(f).getInstructionCount());
+    }
+
+    @Test
+    public void testAssignment() {
+        BooleanFormula f = BooleanOperations.or(a, BooleanOperations.and(b, c));
+        CompiledFormula compiled = new CompiledFormula(f);
+        Assert.assertFalse(compiled.isTautology());
+        Assert.assertTrue(compiled.isSatisfiable());
+        Map<BooleanVariable, Boolean> assignment = new HashMap<>();
+        assignment.put(a, true);
+        Assert.assertTrue(compiled.isTautology(assignment));
+        assignment.put(a, false);
+        assignment.put(b, false);
+        Assert.assertFalse(compiled.isSatisfiable(assignment));
+        Assert.assertFalse(new CompiledFormula(BooleanOperations.and(a, BooleanOperations.not(a))).isSatisfiable());
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        Random random = new Random(0);
+        for (int count = 1; count <= 9; count++) {
+            List<BooleanVariable> variables = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                variables.add(new FreeVariable("x" + i));
+            }
+            for (int i = 0; i < 30; i++) {
+                BooleanFormula formula = createFormula(random, variables, 3 * count);
+                CompiledFormula compiled = new CompiledFormula(formula, variables);
+                long[] table = compiled.getTruthTable();
+                for (int values = 0; values < (1 << count); values++) {
+                    List<BooleanFormula> constants = new ArrayList<>();
+                    boolean[] inputs = new boolean[count];
+                    for (int j = 0; j < count; j++) {
+                        inputs[j] = ((values >> j) & 1) != 0;
+                        constants.add(inputs[j] ? One.instance() : Zero.instance());
+                    }
+                    boolean expected = BooleanUtils.cleverReplace(formula, variables, constants) == One.instance();
+                    Assert.assertEquals(expected, compiled.evaluate(inputs));
+                    Assert.assertEquals(expected, ((table[values >> 6] >> (values & 63)) & 1) != 0);
+                }
+                Assert.assertEquals(BooleanUtils.isTautology(formula), compiled.isTautology());
+                Assert.assertEquals(BooleanUtils.isSatisfiable(formula), compiled.isSatisfiable());
+            }
+        }
+    }
+
+    private static BooleanFormula createFormula(Random random, List<BooleanVariable> variables, int size) {
+        if (size <= 1) {
+            BooleanFormula variable = variables.get(random.nextInt(variables.size()));
+            return random.nextBoolean() ? variable : BooleanOperations.not(variable);
+        }
+        int left = 1 + random.nextInt(size - 1);
+        BooleanFormula x = createFormula(random, variables, left);
+        BooleanFormula y = createFormula(random, variables, size - left);
+        switch (random.nextInt(5)) {
+        case 0:
+            return BooleanOperations.and(x, y);
+        case 1:
+            return BooleanOperations.or(x, y);
+        case 2:
+            return BooleanOperations.xor(x, y);
+        case 3:
+            return BooleanOperations.iff(x, y);
+        default:
+            return BooleanOperations.imply(x, y);
+        }
+    }
+
+}
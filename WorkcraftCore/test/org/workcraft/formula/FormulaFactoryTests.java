@@ -0,0 +1,62 @@
+package org.workcraft.formula;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.formula.utils.BooleanUtils;
+import org.workcraft.formula.utils.FormulaToString;
+
+public class FormulaFactoryTests {
+
+    private final BooleanVariable a = new FreeVariable("a");
+    private final BooleanVariable b = new FreeVariable("b");
+    private final BooleanVariable c = new FreeVariable("c");
+
+    @Test
+    public void testUniqueNodes() {
+        FormulaFactory factory = FormulaFactory.getInstance();
+        BooleanFormula f1 = factory.and(a, factory.not(b));
+        BooleanFormula f2 = factory.and(a, factory.not(b));
+        Assert.assertSame(f1, f2);
+        Assert.assertNotSame(f1, factory.and(factory.not(b), a));
+        Assert.assertNotSame(f1, factory.or(a, factory.not(b)));
+
+        // Formulas built elsewhere are interned by their structure.
+        BooleanFormula g = new And(a, new Not(b));
+        Assert.assertSame(f1, factory.intern(g));
+        Assert.assertSame(f1, factory.intern(g));
+        BooleanFormula h = new Or(c, new Not(c));
+        Assert.assertSame(h, factory.intern(h));
+        Assert.assertSame(h, factory.or(c, factory.not(c)));
+        Assert.assertSame(factory.findNot(c), ((Or) h).getY());
+    }
+
+    @Test
+    public void testCleverWorker() {
+        CleverBooleanWorker worker = new CleverBooleanWorker();
+        BooleanFormula ab = new And(a, b);
+        Assert.assertSame(worker.and(ab, new And(a, b)), worker.and(ab, ab));
+        Assert.assertSame(One.instance(), worker.iff(new Or(a, c), new Or(a, c)));
+        Assert.assertSame(Zero.instance(), worker.xor(ab, new And(a, b)));
+
+        BooleanFormula sum = worker.or(worker.or(a, ab), c);
+        Assert.assertSame(sum, worker.or(sum, new And(a, b)));
+        Assert.assertSame(One.instance(), worker.or(sum, worker.not(c)));
+        // Complements are found among the nested disjuncts of both operands.
+        Assert.assertSame(One.instance(), worker.or(a, worker.or(b, worker.not(a))));
+        Assert.assertSame(One.instance(), worker.or(worker.or(b, worker.not(a)), worker.or(c, a)));
+        Assert.assertSame(sum, worker.or(sum, worker.or(c, a)));
+        // Negated literals are not mistaken for the complement of a product.
+        BooleanFormula products = worker.or(new And(new Not(a), new Not(b)), ab);
+        Assert.assertEquals("a' * b' + a * b", FormulaToString.toString(products));
+    }
+
+    @Test
+    public void testCleverReplace() {
+        BooleanFormula formula = new Or(new And(a, b), new And(a, c));
+        BooleanFormula result = BooleanUtils.cleverReplace(formula, Arrays.asList(c), Arrays.asList(b));
+        Assert.assertEquals("a * b", FormulaToString.toString(result));
+    }
+
+}
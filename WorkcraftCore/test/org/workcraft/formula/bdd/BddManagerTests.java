@@ -0,0 +1,168 @@
+package org.workcraft.formula.bdd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.BooleanOperations;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.FreeVariable;
+import org.workcraft.formula.One;
+import org.workcraft.formula.Zero;
+import org.workcraft.formula.utils.BooleanUtils;
+
+public class BddManagerTests {
+
+    private final BooleanVariable a = new FreeVariable("a");
+    private final BooleanVariable b = new FreeVariable("b");
+    private final BooleanVariable c = new FreeVariable("c");
+
+    @Test
+    public void testCanonicity() {
+        BddManager bdd = new BddManager();
+        BooleanFormula f = BooleanOperations.not(BooleanOperations.and(a, BooleanOperations.or(b, c)));
+        BooleanFormula g = BooleanOperations.or(BooleanOperations.not(a),
+                BooleanOperations.and(BooleanOperations.not(b), BooleanOperations.not(c)));
+        Assert.assertEquals(bdd.build(f), bdd.build(g));
+        Assert.assertTrue(bdd.isOne(bdd.build(BooleanOperations.imply(BooleanOperations.and(a, b), a))));
+        Assert.assertTrue(bdd.isZero(bdd.build(BooleanOperations.and(BooleanOperations.xor(a, b),
+                BooleanOperations.iff(a, b)))));
+
+        Assert.assertTrue(BooleanUtils.isEquivalent(f, g));
+        Assert.assertFalse(BooleanUtils.isEquivalent(f, BooleanOperations.not(g)));
+        Assert.assertTrue(BooleanUtils.isTautology(BooleanOperations.or(f, BooleanOperations.not(g))));
+        Assert.assertFalse(BooleanUtils.isSatisfiable(BooleanOperations.and(a, BooleanOperations.not(a))));
+    }
+
+    @Test
+    public void testConversion() {
+        BddManager bdd = new BddManager();
+        BooleanFormula f = BooleanOperations.or(BooleanOperations.and(a, b), BooleanOperations.xor(b, c));
+        int node = bdd.build(f);
+        BooleanFormula formula = bdd.toFormula(node);
+        Assert.assertEquals(node, bdd.build(formula));
+        Assert.assertSame(Zero.instance(), bdd.toFormula(bdd.zero()));
+        Assert.assertSame(One.instance(), bdd.toFormula(bdd.one()));
+        Assert.assertSame(a, bdd.toFormula(bdd.variable(a)));
+
+        Map<BooleanVariable, Boolean> assignment = bdd.getSatisfyingAssignment(node);
+        Assert.assertTrue(BooleanUtils.isTautology(evaluate(f, assignment)));
+        Assert.assertNull(bdd.getSatisfyingAssignment(bdd.zero()));
+    }
+
+    @Test
+    public void testGarbageCollection() {
+        BddManager bdd = new BddManager();
+        List<BooleanVariable> variables = createVariables(16);
+        int kept = bdd.ref(bdd.build(createFormula(new Random(1), variables, 40)));
+        int keptSize = bdd.getNodeCount(kept);
+        for (int i = 0; i < 20; i++) {
+            bdd.build(createFormula(new Random(i + 2), variables, 40));
+        }
+        bdd.gc();
+        Assert.assertEquals(keptSize, bdd.getNodeCount());
+        Assert.assertEquals(kept, bdd.build(createFormula(new Random(1), variables, 40)));
+        bdd.deref(kept);
+        bdd.gc();
+        Assert.assertEquals(0, bdd.getNodeCount());
+    }
+
+    @Test
+    public void testReordering() {
+        // The sum of products a_i * b_i is exponential in the order a_1, ..., a_n, b_1, ..., b_n.
+        int n = 8;
+        List<BooleanVariable> as = createVariables(n);
+        List<BooleanVariable> bs = createVariables(n);
+        BddManager bdd = new BddManager();
+        for (int i = 0; i < n; i++) {
+            bdd.variable(as.get(i));
+        }
+        for (int i = 0; i < n; i++) {
+            bdd.variable(bs.get(i));
+        }
+        BooleanFormula formula = Zero.instance();
+        for (int i = 0; i < n; i++) {
+            formula = BooleanOperations.or(formula, BooleanOperations.and(as.get(i), bs.get(i)));
+        }
+        int f = bdd.ref(bdd.build(formula));
+        Assert.assertEquals((2 << n) - 2, bdd.getNodeCount(f));
+        bdd.reorder();
+        // Sifting is not guaranteed to find the optimal order with 2n nodes, but gets close to it.
+        Assert.assertTrue(bdd.getNodeCount(f) < 3 * n);
+        Assert.assertEquals(f, bdd.build(formula));
+        Assert.assertEquals(2 * n, bdd.getVariableOrder().size());
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        List<BooleanVariable> variables = createVariables(6);
+        BddManager bdd = new BddManager();
+        Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            BooleanFormula formula = createFormula(random, variables, 12);
+            int f = bdd.ref(bdd.build(formula));
+            if (i % 10 == 0) {
+                bdd.reorder();
+            }
+            for (int values = 0; values < 64; values++) {
+                List<BooleanFormula> constants = new ArrayList<>();
+                int node = f;
+                for (int j = 0; j < variables.size(); j++) {
+                    boolean value = ((values >> j) & 1) != 0;
+                    constants.add(value ? One.instance() : Zero.instance());
+                    node = bdd.restrict(node, variables.get(j), value);
+                }
+                BooleanFormula expected = BooleanUtils.cleverReplace(formula, variables, constants);
+                Assert.assertEquals(expected == One.instance(), bdd.isOne(node));
+                Assert.assertEquals(expected == Zero.instance(), bdd.isZero(node));
+            }
+            Assert.assertEquals(f, bdd.build(formula));
+            bdd.deref(f);
+        }
+    }
+
+    private static List<BooleanVariable> createVariables(int count) {
+        List<BooleanVariable> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new FreeVariable("x" + i));
+        }
+        return result;
+    }
+
+    private static BooleanFormula createFormula(Random random, List<BooleanVariable> variables, int size) {
+        if (size <= 1) {
+            BooleanFormula variable = variables.get(random.nextInt(variables.size()));
+            return random.nextBoolean() ? variable : BooleanOperations.not(variable);
+        }
+        int left = 1 + random.nextInt(size - 1);
+        BooleanFormula x = createFormula(random, variables, left);
+        BooleanFormula y = createFormula(random, variables, size - left);
+        switch (random.nextInt(5)) {
+        case 0:
+            return BooleanOperations.and(x, y);
+        case 1:
+            return BooleanOperations.or(x, y);
+        case 2:
+            return BooleanOperations.xor(x, y);
+        case 3:
+            return BooleanOperations.iff(x, y);
+        default:
+            return BooleanOperations.imply(x, y);
+        }
+    }
+
+    private static BooleanFormula evaluate(BooleanFormula formula, Map<BooleanVariable, Boolean> assignment) {
+        List<BooleanVariable> variables = new ArrayList<>();
+        List<BooleanFormula> values = new ArrayList<>();
+        for (Map.Entry<BooleanVariable, Boolean> entry: assignment.entrySet()) {
+            variables.add(entry.getKey());
+            values.add(entry.getValue() ? One.instance() : Zero.instance());
+        }
+        return BooleanUtils.cleverReplace(formula, variables, values);
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.workcraft.formula.sat;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CdclSolverTests {
+
+    @Test
+    public void testIncremental() {
+        CdclSolver solver = new CdclSolver();
+        Assert.assertTrue(solver.addClause(1, 2));
+        Assert.assertTrue(solver.addClause(-1, 3));
+        Assert.assertTrue(solver.solve());
+        Assert.assertTrue(solver.getValue(2) || solver.getValue(3));
+
+        // Assumptions hold for one call only.
+        Assert.assertFalse(solver.solve(-2, -3));
+        Assert.assertTrue(solver.solve(-2));
+        Assert.assertTrue(solver.getValue(1));
+        Assert.assertTrue(solver.getValue(3));
+
+        Assert.assertTrue(solver.addClause(-3));
+        Assert.assertTrue(solver.solve());
+        Assert.assertFalse(solver.getValue(1));
+        Assert.assertTrue(solver.getValue(2));
+        Assert.assertFalse(solver.addClause(-2));
+        Assert.assertFalse(solver.solve());
+    }
+
+    @Test
+    public void testPigeonhole() {
+        // Seven pigeons do not fit into six holes, but six do.
+        Assert.assertFalse(createPigeonhole(7, 6).solve());
+        CdclSolver solver = createPigeonhole(6, 6);
+        Assert.assertTrue(solver.solve());
+        for (int hole = 0; hole < 6; hole++) {
+            int count = 0;
+            for (int pigeon = 0; pigeon < 6; pigeon++) {
+                if (solver.getValue(pigeon * 6 + hole + 1)) {
+                    count++;
+                }
+            }
+            Assert.assertTrue(count <= 1);
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(0);
+        int varCount = 12;
+        for (int instance = 0; instance < 200; instance++) {
+            int[][] clauses = new int[40 + random.nextInt(30)][];
+            CdclSolver solver = new CdclSolver();
+            for (int i = 0; i < clauses.length; i++) {
+                clauses[i] = new int[3];
+                for (int j = 0; j < 3; j++) {
+                    int v = 1 + random.nextInt(varCount);
+                    clauses[i][j] = random.nextBoolean() ? v : -v;
+                }
+                solver.addClause(clauses[i]);
+            }
+            boolean expected = false;
+            for (int values = 0; values < (1 << varCount); values++) {
+                if (isSatisfied(clauses, values)) {
+                    expected = true;
+                    break;
+                }
+            }
+            boolean result = solver.solve();
+            Assert.assertEquals(expected, result);
+            if (result) {
+                int values = 0;
+                for (int v = 1; v <= varCount; v++) {
+                    values |= solver.getValue(v) ? 1 << (v - 1) : 0;
+                }
+                Assert.assertTrue(isSatisfied(clauses, values));
+            }
+        }
+    }
+
+    private static CdclSolver createPigeonhole(int pigeons, int holes) {
+        CdclSolver solver = new CdclSolver();
+        for (int pigeon = 0; pigeon < pigeons; pigeon++) {
+            int[] clause = new int[holes];
+            for (int hole = 0; hole < holes; hole++) {
+                clause[hole] = pigeon * holes + hole + 1;
+            }
+            solver.addClause(clause);
+        }
+        for (int hole = 0; hole < holes; hole++) {
+            for (int p1 = 0; p1 < pigeons; p1++) {
+                for (int p2 = p1 + 1; p2 < pigeons; p2++) {
+                    solver.addClause(-(p1 * holes + hole + 1), -(p2 * holes + hole + 1));
+                }
+            }
+        }
+        return solver;
+    }
+
+    private static boolean isSatisfied(int[][] clauses, int values) {
+        for (int[] clause: clauses) {
+            boolean satisfied = false;
+            for (int literal: clause) {
+                boolean value = ((values >> (Math.abs(literal) - 1)) & 1) != 0;
+                if (value == (literal > 0)) {
+                    satisfied = true;
+                    break;
+                }
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.workcraft.formula.sat;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.encoding.onehot.OneHotIntBooleanFormula;
+import org.workcraft.formula.encoding.onehot.OneHotNumberProvider;
+import org.workcraft.plugins.shared.CommonSatSettings;
+import org.workcraft.plugins.shared.CommonSatSettings.SatSolver;
+
+public class EmbeddedSolverTests extends SolverTests {
+
+    private static SatSolver savedSatSolver;
+
+    @BeforeClass
+    public static void setSatSolver() {
+        savedSatSolver = CommonSatSettings.getSatSolver();
+        CommonSatSettings.setSatSolver(SatSolver.BUILTIN);
+    }
+
+    @AfterClass
+    public static void restoreSatSolver() {
+        CommonSatSettings.setSatSolver(savedSatSolver);
+    }
+
+    @Override
+    protected LegacySolver<BooleanFormula> createSolver() {
+        return new LegacySolver<BooleanFormula>(
+                new Optimiser<OneHotIntBooleanFormula>(new OneHotNumberProvider()),
+                new CleverCnfGenerator());
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.workcraft.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.workcraft.plugins.shared.CommonTaskSettings;
+import org.workcraft.tasks.TaskManager.Priority;
+
+public class TaskManagerTests {
+
+    private static class RecordingTask implements Task<Object> {
+        private final String name;
+        private final List<String> log;
+        private final CountDownLatch start;
+        private final CountDownLatch done;
+
+        RecordingTask(String name, List<String> log, CountDownLatch start, CountDownLatch done) {
+            this.name = name;
+            this.log = log;
+            this.start = start;
+            this.done = done;
+        }
+
+        @Override
+        public Result<? extends Object> run(ProgressMonitor<? super Object> monitor) {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return Result.cancelled();
+            }
+            log.add(name);
+            done.countDown();
+            return Result.finished(null);
+        }
+    }
+
+    @Test
+    public void testPriorityOrder() throws InterruptedException {
+        int workerCount = CommonTaskSettings.getWorkerCount();
+        CommonTaskSettings.setWorkerCount(1);
+        try {
+            TaskManager taskManager = new DefaultTaskManager();
+            List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch released = new CountDownLatch(0);
+            CountDownLatch done = new CountDownLatch(4);
+            taskManager.queue(new RecordingTask("first", log, blocker, done), "first", null, Priority.BATCH);
+            taskManager.queue(new RecordingTask("batch1", log, released, done), "batch1", null, Priority.BATCH);
+            taskManager.queue(new RecordingTask("batch2", log, released, done), "batch2", null, Priority.BATCH);
+            taskManager.queue(new RecordingTask("interactive", log, released, done), "interactive", null, Priority.INTERACTIVE);
+            // The first task occupies the only worker, so the others are waiting in the queue.
+            while (taskManager.getRunningTaskCount() == 0) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(3, taskManager.getQueuedTaskCount());
+            blocker.countDown();
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(Arrays.asList("first", "interactive", "batch1", "batch2"), log);
+        } finally {
+            CommonTaskSettings.setWorkerCount(workerCount);
+        }
+    }
+
+}
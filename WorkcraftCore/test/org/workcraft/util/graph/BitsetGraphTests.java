@@ -0,0 +1,102 @@
+package org.workcraft.util.graph;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitsetGraphTests {
+
+    @Test
+    public void testClosure() {
+        BitsetGraph graph = createChain(130);
+        Assert.assertEquals(129, graph.getArcCount());
+        BitsetGraph closure = graph.copy();
+        closure.closeTransitively();
+        Assert.assertEquals(130 * 129 / 2, closure.getArcCount());
+        Assert.assertTrue(closure.hasArc(0, 129));
+        Assert.assertFalse(closure.hasArc(129, 0));
+        Assert.assertFalse(closure.hasSelfLoops());
+        // The transitive arcs of the closed chain are all but the arcs of the chain itself.
+        Assert.assertEquals(closure.getArcCount() - 129, closure.getTransitiveArcs().getArcCount());
+        BitsetGraph reduction = closure.getTransitiveReduction();
+        for (int i = 0; i < 130; i++) {
+            for (int j = 0; j < 130; j++) {
+                Assert.assertEquals(graph.hasArc(i, j), reduction.hasArc(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testCyclic() {
+        // Cycle 0 -> 1 -> 2 -> 0 with a tail 2 -> 3 -> 4, and the arcs 0 -> 3 and 1 -> 4.
+        BitsetGraph graph = new BitsetGraph(5);
+        graph.addArc(0, 1);
+        graph.addArc(1, 2);
+        graph.addArc(2, 0);
+        graph.addArc(2, 3);
+        graph.addArc(3, 4);
+        graph.addArc(0, 3);
+        graph.addArc(1, 4);
+        int[] components = graph.getComponents();
+        Assert.assertEquals(components[0], components[1]);
+        Assert.assertEquals(components[0], components[2]);
+        Assert.assertNotEquals(components[0], components[3]);
+        Assert.assertNotEquals(components[3], components[4]);
+        BitsetGraph transitives = graph.getTransitiveArcs();
+        // Arc 0 -> 3 runs in parallel to 2 -> 3 between the same components and is kept.
+        Assert.assertEquals(1, transitives.getArcCount());
+        Assert.assertTrue(transitives.hasArc(1, 4));
+    }
+
+    @Test
+    public void testRandomAcyclic() {
+        Random random = new Random(0);
+        for (int n = 1; n < 80; n += 7) {
+            BitsetGraph graph = new BitsetGraph(n);
+            boolean[][] c = new boolean[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (random.nextInt(n) < 3) {
+                        graph.addArc(i, j);
+                        c[i][j] = true;
+                    }
+                }
+            }
+            // Reference closure and transitive pairs computed on a boolean matrix.
+            for (int j = 0; j < n; j++) {
+                for (int i = 0; i < n; i++) {
+                    for (int k = 0; k < n; k++) {
+                        c[i][k] |= c[i][j] && c[j][k];
+                    }
+                }
+            }
+            boolean[][] t = new boolean[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    for (int k = 0; k < n; k++) {
+                        t[i][k] |= c[i][j] && c[j][k];
+                    }
+                }
+            }
+            BitsetGraph closure = graph.copy();
+            closure.closeTransitively();
+            BitsetGraph transitives = graph.getTransitiveArcs();
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    Assert.assertEquals(c[i][j], closure.hasArc(i, j));
+                    Assert.assertEquals(graph.hasArc(i, j) && t[i][j], transitives.hasArc(i, j));
+                }
+            }
+        }
+    }
+
+    private static BitsetGraph createChain(int size) {
+        BitsetGraph result = new BitsetGraph(size);
+        for (int i = 0; i + 1 < size; i++) {
+            result.addArc(i, i + 1);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.workcraft.util.graph.cycle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimpleCycleSearchTests {
+
+    private static final class CycleCollector implements SimpleCycleSearch.Visitor {
+        private final HashSet<List<Integer>> cycles = new HashSet<>();
+        private final int limit;
+        private int count = 0;
+
+        CycleCollector(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean visit(int[] cycle, int length) {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                list.add(cycle[i]);
+            }
+            Assert.assertTrue(cycles.add(list));
+            count++;
+            return count < limit;
+        }
+
+        @Override
+        public boolean progress(int count) {
+            return true;
+        }
+    }
+
+    private static int[][] getSuccessors(boolean[][] matrix) {
+        int[][] result = new int[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            int count = 0;
+            int[] list = new int[matrix.length];
+            for (int j = 0; j < matrix.length; j++) {
+                if (matrix[i][j]) {
+                    list[count++] = j;
+                }
+            }
+            result[i] = Arrays.copyOf(list, count);
+        }
+        return result;
+    }
+
+    @Test
+    public void testCompleteGraph() {
+        int size = 5;
+        boolean[][] matrix = new boolean[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                matrix[i][j] = i != j;
+            }
+        }
+        CycleCollector collector = new CycleCollector(Integer.MAX_VALUE);
+        Assert.assertTrue(new SimpleCycleSearch(getSuccessors(matrix)).search(collector));
+        // Sum of C(5, k) * (k - 1)! for k from 2 to 5.
+        Assert.assertEquals(10 + 20 + 30 + 24, collector.count);
+    }
+
+    @Test
+    public void testComponents() {
+        // Two rings connected by a single arc, a self-loop and an isolated node.
+        int[][] successors = {{1}, {2}, {0, 3}, {4}, {3}, {5}, {}};
+        SimpleCycleSearch search = new SimpleCycleSearch(successors);
+        Assert.assertEquals(search.getComponent(0), search.getComponent(2));
+        Assert.assertEquals(search.getComponent(3), search.getComponent(4));
+        Assert.assertNotEquals(search.getComponent(0), search.getComponent(3));
+        // Arcs never lead to a component with a greater number.
+        Assert.assertTrue(search.getComponent(2) > search.getComponent(3));
+        CycleCollector collector = new CycleCollector(Integer.MAX_VALUE);
+        Assert.assertTrue(search.search(collector));
+        Assert.assertEquals(3, collector.count);
+        Assert.assertTrue(collector.cycles.contains(Arrays.asList(0, 1, 2)));
+        Assert.assertTrue(collector.cycles.contains(Arrays.asList(3, 4)));
+        Assert.assertTrue(collector.cycles.contains(Arrays.asList(5)));
+    }
+
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(1);
+        for (int n = 2; n < 12; n++) {
+            boolean[][] matrix = new boolean[n][n];
+            Integer[] nodes = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                nodes[i] = i;
+                for (int j = 0; j < n; j++) {
+                    matrix[i][j] = (i != j) && (random.nextInt(4) == 0);
+                }
+            }
+            List<?> expected = new ElementaryCyclesSearch(matrix, nodes).getElementaryCycles();
+            CycleCollector collector = new CycleCollector(Integer.MAX_VALUE);
+            Assert.assertTrue(new SimpleCycleSearch(getSuccessors(matrix)).search(collector));
+            Assert.assertEquals(expected.size(), collector.count);
+            for (Object cycle: expected) {
+                Assert.assertTrue(collector.cycles.contains(cycle));
+            }
+        }
+    }
+
+    @Test
+    public void testStop() {
+        int[][] successors = {{1, 2}, {0, 2}, {0, 1}};
+        CycleCollector collector = new CycleCollector(2);
+        Assert.assertFalse(new SimpleCycleSearch(successors).search(collector));
+        Assert.assertEquals(2, collector.count);
+    }
+
+}